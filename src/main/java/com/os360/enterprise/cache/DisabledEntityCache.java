@@ -0,0 +1,48 @@
+package com.os360.enterprise.cache;
+
+import com.os360.enterprise.dto.CacheStatsResponse;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * {@link EntityCache} that caches nothing: every call loads the value.
+ * Selected when the cache of an entity type is switched off.
+ *
+ * @param <V> the response type
+ */
+public class DisabledEntityCache<V> implements EntityCache<V> {
+
+    private final String name;
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param name cache name, reported in the statistics
+     */
+    public DisabledEntityCache(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public V get(UUID id, Function<UUID, V> loader) {
+        misses.increment();
+        return loader.apply(id);
+    }
+
+    @Override
+    public void invalidate(UUID id) {
+        // Nothing cached
+    }
+
+    @Override
+    public void invalidateAll() {
+        // Nothing cached
+    }
+
+    @Override
+    public CacheStatsResponse stats() {
+        return new CacheStatsResponse(name, false, 0, 0, 0, misses.sum(), 0, 0, 0);
+    }
+}
@@ -0,0 +1,47 @@
+package com.os360.enterprise.cache;
+
+import com.os360.enterprise.dto.CacheStatsResponse;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of get-by-id results of one entity type.
+ * <p>
+ * Implementations are selected per entity type in {@link EntityCacheConfig}, so a cache
+ * can be switched off without touching the services. Services call {@link #invalidate}
+ * from every write path; cached values are shared and must not be modified by callers.
+ *
+ * @param <V> the cached response type
+ */
+public interface EntityCache<V> {
+
+    /**
+     * Returns the value for the ID, from the cache if it is still current, otherwise from the loader.
+     *
+     * @param id     the entity ID
+     * @param loader loads the value; exceptions (e.g. not found) propagate and nothing is cached
+     * @return the value
+     */
+    V get(UUID id, Function<UUID, V> loader);
+
+    /**
+     * Evicts one entry, now and again when the current transaction completes.
+     *
+     * @param id the entity ID
+     */
+    void invalidate(UUID id);
+
+    /**
+     * Evicts all entries, now and again when the current transaction completes.
+     * Used by set-based writes whose affected IDs are not known.
+     */
+    void invalidateAll();
+
+    /**
+     * Returns the counters of this cache.
+     *
+     * @return the cache statistics
+     */
+    CacheStatsResponse stats();
+}
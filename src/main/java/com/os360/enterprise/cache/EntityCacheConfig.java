@@ -0,0 +1,58 @@
+package com.os360.enterprise.cache;
+
+import com.os360.enterprise.dto.CompanyResponse;
+import com.os360.enterprise.dto.PersonResponse;
+import com.os360.enterprise.dto.SiteResponse;
+import com.os360.enterprise.repository.CompanyRepository;
+import com.os360.enterprise.repository.PersonRepository;
+import com.os360.enterprise.repository.SiteRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Creates the get-by-id caches of companies, sites and persons.
+ * <p>
+ * Each cache is configured under {@code enterprise.cache.<name>}:
+ * - {@code enabled} (default true): false selects {@link DisabledEntityCache}.
+ * - {@code max-size} (default 10000): maximum number of entries.
+ * - {@code ttl} (default PT10M): maximum age of an entry.
+ * - {@code revalidate-after} (default PT5S): age after which a hit is confirmed against the stored version.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public EntityCache<CompanyResponse> companyCache(Environment environment, CompanyRepository companyRepository) {
+        return create("company", environment, companyRepository::findVersionById, CompanyResponse::getVersion);
+    }
+
+    @Bean
+    public EntityCache<SiteResponse> siteCache(Environment environment, SiteRepository siteRepository) {
+        return create("site", environment, siteRepository::findVersionById, SiteResponse::getVersion);
+    }
+
+    @Bean
+    public EntityCache<PersonResponse> personCache(Environment environment, PersonRepository personRepository) {
+        return create("person", environment, personRepository::findVersionById, PersonResponse::getVersion);
+    }
+
+    private <V> EntityCache<V> create(String name, Environment environment,
+                                      Function<UUID, Optional<Long>> versionLookup, ToLongFunction<V> versionOf) {
+        String prefix = "enterprise.cache." + name + ".";
+        if (!environment.getProperty(prefix + "enabled", Boolean.class, true)) {
+            return new DisabledEntityCache<>(name);
+        }
+        return new VersionedNearCache<>(name,
+                environment.getProperty(prefix + "max-size", Integer.class, 10_000),
+                environment.getProperty(prefix + "ttl", Duration.class, Duration.ofMinutes(10)),
+                environment.getProperty(prefix + "revalidate-after", Duration.class, Duration.ofSeconds(5)),
+                versionLookup, versionOf);
+    }
+}
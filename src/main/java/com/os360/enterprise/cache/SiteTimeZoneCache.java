@@ -0,0 +1,107 @@
+package com.os360.enterprise.cache;
+
+import com.os360.enterprise.repository.SiteRepository;
+import com.os360.enterprise.repository.projection.SiteTimeZone;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-resolved time zone rules of the sites.
+ * <p>
+ * Each distinct IANA zone ID is parsed once into its {@link ZoneRules}, shared by every
+ * site in that zone; site IDs map to these entries. A batch of sites costs at most one
+ * query for the sites not seen yet, and none once they are cached, so converting
+ * instants for thousands of sites is pure arithmetic on the cached rules.
+ * <p>
+ * A site's zone is fixed at creation; entries are dropped when sites are deleted.
+ */
+@Component
+public class SiteTimeZoneCache {
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    private final Map<String, SiteZone> zones = new ConcurrentHashMap<>();
+
+    private final Map<UUID, SiteZone> sites = new ConcurrentHashMap<>();
+
+    /** A time zone ID with its rules. */
+    public record SiteZone(String zoneId, ZoneRules rules) {
+    }
+
+    /**
+     * Returns the zones of the non-deleted sites among {@code siteIds}; missing and
+     * deleted sites are absent from the result.
+     *
+     * @param siteIds the site IDs
+     * @return the zone of each found site
+     */
+    public Map<UUID, SiteZone> resolve(Collection<UUID> siteIds) {
+        Map<UUID, SiteZone> resolved = new HashMap<>();
+        List<UUID> misses = siteIds.stream()
+                .filter(id -> {
+                    SiteZone zone = sites.get(id);
+                    if (zone != null) {
+                        resolved.put(id, zone);
+                    }
+                    return zone == null;
+                })
+                .distinct()
+                .toList();
+        if (!misses.isEmpty()) {
+            for (SiteTimeZone site : siteRepository.findTimeZones(misses)) {
+                SiteZone zone = zones.computeIfAbsent(site.timeZone(),
+                        id -> new SiteZone(id, ZoneId.of(id).getRules()));
+                sites.put(site.siteId(), zone);
+                resolved.put(site.siteId(), zone);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Drops the entries of changed or deleted sites, immediately and again when the
+     * writing transaction completes, as {@link VersionedNearCache} does.
+     *
+     * @param siteIds the changed site IDs
+     */
+    public void changed(Collection<UUID> siteIds) {
+        siteIds.forEach(sites::remove);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<UUID> ids = List.copyOf(siteIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(sites::remove);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops every site entry, e.g. after a set-based delete of many sites. The parsed
+     * zone rules are kept.
+     */
+    public void changedAll() {
+        sites.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    sites.clear();
+                }
+            });
+        }
+    }
+}
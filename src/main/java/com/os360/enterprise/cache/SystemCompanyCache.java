@@ -0,0 +1,121 @@
+package com.os360.enterprise.cache;
+
+import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.repository.CompanyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache of the system company singleton.
+ * <p>
+ * The system company is loaded once and served from memory until a write that
+ * touches it calls {@link #invalidate()}. The entry is evicted immediately, so the
+ * writing transaction reads its own change, and again when the transaction completes,
+ * so a concurrent reader cannot keep the pre-commit state. Until then the writing
+ * transaction bypasses the cache, keeping uncommitted state out of it.
+ * <p>
+ * Each application instance holds its own copy; entries also expire after
+ * {@value #TTL_MILLIS} ms so changes made by another instance are picked up.
+ */
+@Component
+public class SystemCompanyCache {
+
+    /** Maximum age of a cached value, bounding staleness across instances. */
+    public static final long TTL_MILLIS = 5 * 60 * 1000L;
+
+    /**
+     * Immutable view of the system company, safe to share between threads.
+     *
+     * @param id          company ID
+     * @param code        company code
+     * @param name        company name
+     * @param countryCode ISO 3166-1 alpha-2 country code
+     */
+    public record SystemCompany(UUID id, String code, String name, String countryCode) {
+    }
+
+    /** Cached lookup result; an empty Optional records that no system company exists. */
+    private record Entry(Optional<SystemCompany> value, long loadedAt) {
+    }
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    private volatile Entry entry;
+
+    /** Incremented by every invalidation; a load only caches its result if no invalidation happened meanwhile. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the system company, loading it on first use.
+     *
+     * @return the system company, or empty if none is defined
+     */
+    public Optional<SystemCompany> get() {
+        Entry current = entry;
+        if (current != null && System.currentTimeMillis() - current.loadedAt() < TTL_MILLIS) {
+            return current.value();
+        }
+
+        boolean cacheable = !TransactionSynchronizationManager.hasResource(this);
+        long loadGeneration = generation.get();
+        Company company = companyRepository.findSystemCompany();
+        Optional<SystemCompany> value = Optional.ofNullable(company)
+                .map(c -> new SystemCompany(c.getId(), c.getCode(), c.getName(), c.getCountryCode()));
+
+        synchronized (this) {
+            if (cacheable && generation.get() == loadGeneration) {
+                entry = new Entry(value, System.currentTimeMillis());
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the ID of the system company.
+     *
+     * @return the system company ID, or empty if none is defined
+     */
+    public Optional<UUID> getId() {
+        return get().map(SystemCompany::id);
+    }
+
+    /**
+     * Checks whether a system company exists other than the given company.
+     *
+     * @param companyId the company to exclude, or null
+     * @return true if another company is the system company
+     */
+    public boolean existsOtherThan(UUID companyId) {
+        return getId().filter(id -> !id.equals(companyId)).isPresent();
+    }
+
+    /**
+     * Evicts the cached value now and, inside a transaction, again once it completes.
+     */
+    public void invalidate() {
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SystemCompanyCache.this);
+                    evict();
+                }
+            });
+        }
+    }
+
+    private synchronized void evict() {
+        generation.incrementAndGet();
+        entry = null;
+    }
+}
@@ -0,0 +1,212 @@
+package com.os360.enterprise.cache;
+
+import com.os360.enterprise.dto.CacheStatsResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded in-process {@link EntityCache} validated against the entity's {@code version}.
+ * <p>
+ * Entries are kept in least-recently-used order up to {@code maxSize} and expire
+ * {@code ttl} after loading. A hit younger than {@code revalidateAfter} is served from
+ * memory; an older one is first confirmed with a version-only query (an index lookup
+ * instead of hydrating and mapping the entity). A changed version reloads the entry, so
+ * writes by other instances or set-based statements are seen within {@code revalidateAfter}.
+ * <p>
+ * Invalidation follows {@link SystemCompanyCache}: entries are evicted immediately, so
+ * the writing transaction reads its own change, and again when the transaction completes,
+ * so a concurrent reader cannot keep the pre-commit state. Until then the writing
+ * transaction bypasses the cache.
+ *
+ * @param <V> the cached response type
+ */
+public class VersionedNearCache<V> implements EntityCache<V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long revalidateAfterMillis;
+    private final Function<UUID, Optional<Long>> versionLookup;
+    private final ToLongFunction<V> versionOf;
+
+    private final Map<UUID, Entry<V>> entries;
+
+    /** Incremented by every invalidation; a load only caches its result if no invalidation happened meanwhile. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param name            cache name, reported in the statistics
+     * @param maxSize         maximum number of entries
+     * @param ttl             maximum age of an entry
+     * @param revalidateAfter age after which a hit is confirmed against the stored version
+     * @param versionLookup   returns the current version of an entity, or empty if it is gone
+     * @param versionOf       extracts the version from a cached value
+     */
+    public VersionedNearCache(String name, int maxSize, Duration ttl, Duration revalidateAfter,
+                              Function<UUID, Optional<Long>> versionLookup, ToLongFunction<V> versionOf) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.revalidateAfterMillis = revalidateAfter.toMillis();
+        this.versionLookup = versionLookup;
+        this.versionOf = versionOf;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry<V>> eldest) {
+                if (size() > VersionedNearCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public V get(UUID id, Function<UUID, V> loader) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry;
+        synchronized (this) {
+            entry = entries.get(id);
+        }
+
+        if (entry != null) {
+            if (now - entry.loadedAt >= ttlMillis) {
+                remove(id, entry);
+            } else if (now - entry.validatedAt < revalidateAfterMillis) {
+                hits.increment();
+                return entry.value;
+            } else if (versionLookup.apply(id).filter(version -> version == entry.version).isPresent()) {
+                entry.validatedAt = now;
+                revalidations.increment();
+                hits.increment();
+                return entry.value;
+            } else {
+                remove(id, entry);
+            }
+        }
+
+        misses.increment();
+        boolean cacheable = !TransactionSynchronizationManager.hasResource(this);
+        long loadGeneration = generation.get();
+        V value = loader.apply(id);
+        if (value != null) {
+            synchronized (this) {
+                if (cacheable && generation.get() == loadGeneration) {
+                    entries.put(id, new Entry<>(value, versionOf.applyAsLong(value), now));
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void invalidate(UUID id) {
+        evict(id);
+        PendingEvictions pending = pendingEvictions();
+        if (pending != null) {
+            pending.ids.add(id);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        evictAll();
+        PendingEvictions pending = pendingEvictions();
+        if (pending != null) {
+            pending.all = true;
+        }
+    }
+
+    @Override
+    public synchronized CacheStatsResponse stats() {
+        return new CacheStatsResponse(name, true, entries.size(), maxSize, hits.sum(), misses.sum(),
+                revalidations.sum(), evictions.sum(), invalidations.sum());
+    }
+
+    private synchronized void remove(UUID id, Entry<V> entry) {
+        if (entries.remove(id, entry)) {
+            evictions.increment();
+        }
+    }
+
+    private synchronized void evict(UUID id) {
+        generation.incrementAndGet();
+        if (entries.remove(id) != null) {
+            invalidations.increment();
+        }
+    }
+
+    private synchronized void evictAll() {
+        generation.incrementAndGet();
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    /**
+     * Returns the evictions to repeat when the current transaction completes, registering
+     * them on first use; null outside a transaction.
+     */
+    private PendingEvictions pendingEvictions() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingEvictions pending = (PendingEvictions) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            PendingEvictions created = new PendingEvictions();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(VersionedNearCache.this);
+                    if (created.all) {
+                        evictAll();
+                    } else {
+                        created.ids.forEach(VersionedNearCache.this::evict);
+                    }
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    /** A cached value with its version and load time. */
+    private static final class Entry<V> {
+        private final V value;
+        private final long version;
+        private final long loadedAt;
+        private volatile long validatedAt;
+
+        private Entry(V value, long version, long loadedAt) {
+            this.value = value;
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.validatedAt = loadedAt;
+        }
+    }
+
+    /** Entries invalidated by the current transaction. */
+    private static final class PendingEvictions {
+        private final Set<UUID> ids = new HashSet<>();
+        private boolean all;
+    }
+}
@@ -0,0 +1,62 @@
+package com.os360.enterprise.common;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Utility class for inspecting database constraint violations.
+ *
+ * <p>Lets services rely on unique constraints and foreign keys instead of
+ * pre-checking with extra queries, and still map a violation to the domain
+ * exception for the offending field.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     if (ConstraintViolationUtils.isViolationOf(ex, "company_code_key")) {
+ *         throw new EntityAlreadyExistsException(Company.class, code);
+ *     }
+ * </pre>
+ */
+public final class ConstraintViolationUtils {
+
+    private ConstraintViolationUtils() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Extracts the lower cased name of the violated constraint.
+     * <p>
+     * Depending on the database the name may be schema qualified or carry a
+     * generated suffix (H2 reports e.g. {@code PUBLIC.COMPANY_CODE_KEY_INDEX_3}).
+     * Violations raised through plain JDBC carry no parsed name; the driver
+     * message, which names the constraint, is returned instead.
+     *
+     * @param ex the exception raised by the flush or statement
+     * @return the constraint name (or driver message), or null if none is available
+     */
+    public static String constraintName(DataIntegrityViolationException ex) {
+        Throwable cause = ex;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return cve.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+            cause = cause.getCause();
+        }
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null ? message.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Checks whether the exception was raised by the given constraint.
+     *
+     * @param ex             the exception raised by the flush
+     * @param constraintName the constraint or unique index name as declared in the schema
+     * @return true if the violated constraint matches the given name
+     */
+    public static boolean isViolationOf(DataIntegrityViolationException ex, String constraintName) {
+        String name = constraintName(ex);
+        return name != null && name.contains(constraintName.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,89 @@
+package com.os360.enterprise.common;
+
+import com.os360.enterprise.exception.validation.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for parsing and formatting comma separated values.
+ *
+ * <p>Supports RFC 4180 quoting ({@code "a, b"} and doubled quotes {@code ""}
+ * inside quoted fields). Records are parsed one line at a time, so quoted
+ * fields must not contain line breaks.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     List&lt;String&gt; fields = CsvUtils.parseLine("OS360,\"Open Suite, Inc.\",US");
+ *     // ["OS360", "Open Suite, Inc.", "US"]
+ *     String field = CsvUtils.escape("Open Suite, Inc."); // "\"Open Suite, Inc.\""
+ * </pre>
+ */
+public final class CsvUtils {
+
+    private CsvUtils() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Splits a single CSV record into its fields.
+     * Empty fields are returned as empty strings.
+     *
+     * @param line the CSV record without its line terminator
+     * @return the fields of the record, in order
+     * @throws ValidationException if a quoted field is not terminated
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new ValidationException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Quotes a field if it contains a comma, a quote or a line break; quotes are doubled.
+     * A null value is written as an empty field.
+     *
+     * @param value the field value
+     * @return the field as it appears in a CSV record
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
@@ -0,0 +1,122 @@
+package com.os360.enterprise.common;
+
+import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.domain.EntityVersionConflictException;
+import com.os360.enterprise.exception.validation.ValidationException;
+
+import java.util.Optional;
+
+/**
+ * Utility class for entity tags derived from the optimistic lock {@code version} column.
+ *
+ * <p>The ETag of an entity is its version as a strong entity tag, e.g. {@code "3"}.
+ * Every committed change increments the version, so equal tags mean an unchanged
+ * representation.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     String etag = ETagUtils.toETag(3L);                     // "\"3\""
+ *     boolean unchanged = ETagUtils.matches("\"3\"", 3L);    // true
+ *     Long expected = ETagUtils.parseIfMatch("\"3\"");        // 3
+ * </pre>
+ */
+public final class ETagUtils {
+
+    private ETagUtils() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Builds the strong ETag of the given version.
+     *
+     * @param version the entity version
+     * @return the quoted entity tag
+     */
+    public static String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header against the current version.
+     * Uses weak comparison as required for {@code If-None-Match}, so {@code W/"3"}
+     * matches version 3; {@code *} matches any version.
+     *
+     * @param ifNoneMatch the header value, possibly a comma separated list
+     * @param version     the current entity version
+     * @return true if the client's copy is current
+     */
+    public static boolean matches(String ifNoneMatch, long version) {
+        if (CommonUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+        String current = toETag(version);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.strip();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an {@code If-Match} header into the expected version.
+     *
+     * @param ifMatch the header value
+     * @return the expected version, or null if the header is absent or {@code *}
+     * @throws ValidationException if the header is not a single strong ETag of this API
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (CommonUtils.isBlank(ifMatch) || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new ValidationException("Invalid If-Match header", "If-Match", ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new ValidationException("Invalid If-Match header", "If-Match", ifMatch);
+        }
+    }
+
+    /**
+     * Verifies that a loaded entity still has the version the client expected.
+     * <p>
+     * The subsequent versioned UPDATE ({@code WHERE version = ?}) then guarantees
+     * that no other write slips in between this check and the update.
+     *
+     * @param entityType      the class of the entity
+     * @param id              the identifier of the entity
+     * @param expectedVersion the version from {@code If-Match}, or null to skip the check
+     * @param currentVersion  the version of the loaded entity
+     * @throws EntityVersionConflictException if the versions differ
+     */
+    public static void requireVersion(Class<?> entityType, Object id, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new EntityVersionConflictException(entityType, id, expectedVersion,
+                    currentVersion != null ? currentVersion : 0L);
+        }
+    }
+
+    /**
+     * Explains why a versioned {@code UPDATE ... WHERE id = ? AND version = ?} matched no row.
+     *
+     * @param entityType      the entity class, for the error message
+     * @param id              the entity ID
+     * @param expectedVersion the version the update was conditional on
+     * @param currentVersion  the version read after the failed update, empty if the row is missing
+     * @return the exception to throw: not found (404) or version conflict (412)
+     */
+    public static RuntimeException updateMissed(Class<?> entityType, Object id, long expectedVersion,
+                                                Optional<Long> currentVersion) {
+        if (currentVersion.isEmpty()) {
+            return new EntityNotFoundException(entityType, id);
+        }
+        return new EntityVersionConflictException(entityType, id, expectedVersion, currentVersion.get());
+    }
+}
@@ -0,0 +1,68 @@
+package com.os360.enterprise.common;
+
+import com.os360.enterprise.exception.validation.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utility class for encoding and decoding opaque keyset pagination cursors.
+ *
+ * <p>A cursor carries the sort key values of the last row of a page
+ * (e.g. {@code name} and {@code id}). The values are joined with a unit
+ * separator and Base64URL encoded, so clients treat them as opaque tokens.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     String cursor = KeysetCursorUtils.encode("Open Suite 360", id);
+ *     String[] key = KeysetCursorUtils.decode(cursor, 2); // ["Open Suite 360", "d290f1ee-..."]
+ * </pre>
+ */
+public final class KeysetCursorUtils {
+
+    private static final String SEPARATOR = "\u001F";
+
+    private KeysetCursorUtils() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Encodes the given key values into an opaque cursor.
+     * Null values are encoded as empty strings.
+     *
+     * @param keyValues the sort key values of the last row of a page
+     * @return the opaque cursor
+     */
+    public static String encode(Object... keyValues) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keyValues.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(keyValues[i] == null ? "" : keyValues[i].toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes an opaque cursor into its key values.
+     *
+     * @param cursor        the cursor received from the client
+     * @param expectedParts number of key values the cursor must contain
+     * @return the key values in the order they were encoded
+     * @throws ValidationException if the cursor is malformed
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new ValidationException("Invalid cursor", "cursor", cursor);
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid cursor", "cursor", cursor);
+        }
+    }
+}
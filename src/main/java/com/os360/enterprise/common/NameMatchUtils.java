@@ -0,0 +1,145 @@
+package com.os360.enterprise.common;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for fuzzy matching of person names.
+ *
+ * <p>Names are first normalized (accents removed, lower case, letters only), so
+ * "José-María" and "jose maria" compare equal. On top of that it provides the
+ * American Soundex code, which maps names that sound alike to the same four
+ * character code, and the Jaro-Winkler similarity, which scores small spelling
+ * differences between 0 (nothing in common) and 1 (identical).</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     String key = NameMatchUtils.normalize("Lövelace");         // "lovelace"
+ *     String code = NameMatchUtils.soundex("Robert");            // "R163", as for "Rupert"
+ *     double similarity = NameMatchUtils.similarity("Jon", "John"); // ~0.93
+ * </pre>
+ */
+public final class NameMatchUtils {
+
+    private static final Pattern NON_LETTERS = Pattern.compile("[^a-z]");
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+
+    /**
+     * Soundex digit per letter a..z: '0' for vowels (they separate equal digits),
+     * '-' for h and w (they do not).
+     */
+    private static final String SOUNDEX_DIGITS = "0123012-02245501262301-202";
+
+    private NameMatchUtils() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Normalizes a name for comparison: accents are removed, letters are lower cased
+     * and everything but the letters a-z is dropped.
+     *
+     * @param name the name, may be null
+     * @return the normalized name; empty for null
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return NON_LETTERS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    /**
+     * Returns the American Soundex code of a name: its first letter followed by three
+     * digits encoding the following consonants.
+     *
+     * @param name the name, may be null
+     * @return the code, e.g. "L142" for "Lovelace"; empty if the name has no letters
+     */
+    public static String soundex(String name) {
+        String letters = normalize(name);
+        if (letters.isEmpty()) {
+            return "";
+        }
+        StringBuilder code = new StringBuilder(4).append(Character.toUpperCase(letters.charAt(0)));
+        char previous = SOUNDEX_DIGITS.charAt(letters.charAt(0) - 'a');
+        for (int i = 1; i < letters.length() && code.length() < 4; i++) {
+            char digit = SOUNDEX_DIGITS.charAt(letters.charAt(i) - 'a');
+            if (digit == '-') {
+                continue;
+            }
+            if (digit != '0' && digit != previous) {
+                code.append(digit);
+            }
+            previous = digit;
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    /**
+     * Returns the Jaro-Winkler similarity of two names after normalization.
+     *
+     * @param a first name to compare, may be null
+     * @param b second name to compare, may be null
+     * @return 1 for equal names, 0 if either is empty or nothing matches
+     */
+    public static double similarity(String a, String b) {
+        return jaroWinkler(normalize(a), normalize(b));
+    }
+
+    /**
+     * Jaro-Winkler similarity of two already normalized strings.
+     */
+    static double jaroWinkler(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        if (a.equals(b)) {
+            return 1;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int end = Math.min(i + window + 1, b.length());
+            for (int j = Math.max(0, i - window); j < end; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+}
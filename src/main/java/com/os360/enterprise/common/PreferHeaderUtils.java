@@ -0,0 +1,44 @@
+package com.os360.enterprise.common;
+
+/**
+ * Utility class for the HTTP {@code Prefer} request header (RFC 7240).
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     PreferHeaderUtils.returnRepresentation("return=representation"); // true
+ *     PreferHeaderUtils.returnRepresentation("return=minimal");        // false
+ * </pre>
+ */
+public final class PreferHeaderUtils {
+
+    /** The {@code Prefer} request header. */
+    public static final String PREFER = "Prefer";
+
+    /** The {@code Preference-Applied} response header. */
+    public static final String PREFERENCE_APPLIED = "Preference-Applied";
+
+    /** Preference asking for the updated resource in the response body. */
+    public static final String RETURN_REPRESENTATION = "return=representation";
+
+    private PreferHeaderUtils() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether the client asked for the resource representation in the response.
+     *
+     * @param prefer the {@code Prefer} header value, possibly null
+     * @return true if {@code return=representation} is among the preferences
+     */
+    public static boolean returnRepresentation(String prefer) {
+        if (CommonUtils.isBlank(prefer)) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (preference.strip().equalsIgnoreCase(RETURN_REPRESENTATION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
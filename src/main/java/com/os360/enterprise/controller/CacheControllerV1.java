@@ -0,0 +1,41 @@
+package com.os360.enterprise.controller;
+
+import com.os360.enterprise.cache.EntityCache;
+import com.os360.enterprise.dto.CacheStatsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller exposing the statistics of the get-by-id entity caches.
+ */
+@RestController
+@RequestMapping("/api/v1/caches")
+@Tag(name = "Cache", description = "Entity cache statistics, Version 1.0")
+public class CacheControllerV1 {
+
+    @Autowired
+    private List<EntityCache<?>> entityCaches;
+
+    /**
+     * Retrieve the hit, miss and eviction counters of every entity cache.
+     *
+     * @return one CacheStatsResponse per cache
+     */
+    @GetMapping
+    @Operation(summary = "Get cache statistics", description = "Returns size and hit/miss/eviction counters of the entity caches")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    })
+    public ResponseEntity<List<CacheStatsResponse>> getStats() {
+        return ResponseEntity.ok(entityCaches.stream().map(EntityCache::stats).toList());
+    }
+}
@@ -0,0 +1,48 @@
+package com.os360.enterprise.controller;
+
+import com.os360.enterprise.dto.ChangeFeedResponse;
+import com.os360.enterprise.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the incremental change feed.
+ * <p>
+ * Downstream systems poll this endpoint with the token of their previous response
+ * instead of re-downloading whole datasets.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1/changes")
+@Tag(name = "Change", description = "Incremental change feed of companies, sites and persons, Version 1.0")
+public class ChangeControllerV1 {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    /**
+     * Retrieve the companies, sites and persons created, updated or soft deleted since a token.
+     *
+     * @param since Token from the previous response; omit to start from the beginning.
+     * @param types Comma separated entity types (company, site, person); omit for all.
+     * @param limit Maximum number of changes (1..1000, defaults to 100).
+     * @return ChangeFeedResponse with the changes and the next token
+     */
+    @GetMapping
+    @Operation(summary = "Get changes", description = "Returns entities changed since the given token, in change order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid token, types or limit")
+    })
+    public ResponseEntity<ChangeFeedResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) String types,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, types, limit));
+    }
+}
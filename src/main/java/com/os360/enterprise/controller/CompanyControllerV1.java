@@ -1,24 +1,45 @@
 package com.os360.enterprise.controller;
 
+import com.os360.enterprise.common.ETagUtils;
+import com.os360.enterprise.common.PreferHeaderUtils;
 import com.os360.enterprise.dto.CompanyCreateRequest;
+import com.os360.enterprise.dto.CompanyDeleteResponse;
+import com.os360.enterprise.dto.CompanyHierarchyNodeResponse;
+import com.os360.enterprise.dto.CompanyImportResponse;
+import com.os360.enterprise.dto.CompanyImportRow;
 import com.os360.enterprise.dto.CompanyPatchRequest;
 import com.os360.enterprise.dto.CompanyResponse;
+import com.os360.enterprise.dto.CompanySearchResponse;
 import com.os360.enterprise.dto.CompanyUpdateRequest;
+import com.os360.enterprise.dto.KeysetPageResponse;
+import com.os360.enterprise.dto.SiteResponse;
 import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.enumurations.CompanyExpand;
+import com.os360.enterprise.enumurations.SiteType;
 import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.service.CompanyHierarchyService;
+import com.os360.enterprise.service.CompanyImportService;
 import com.os360.enterprise.service.CompanyService;
+import com.os360.enterprise.service.SiteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
 
 
@@ -42,41 +63,118 @@ import java.util.UUID;
 @Tag(name = "Company", description = "Operations related to companies, Version 1.0")
 public class CompanyControllerV1 {
 
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     @Autowired
     private CompanyService companyService;
 
-    private CompanyResponse companyResponse;
-    private List<CompanyResponse> companies;
+    @Autowired
+    private CompanyHierarchyService companyHierarchyService;
+
+    @Autowired
+    private CompanyImportService companyImportService;
+
+    @Autowired
+    private SiteService siteService;
 
     /**
-     * Retrieves a list of companies based on provided criteria.
+     * Lists companies using keyset (cursor) pagination ordered by name and ID.
+     * <p>
+     * Pass the {@code nextCursor} of a page as {@code cursor} to fetch the following page.
      *
-     * @param companyCreateRequest The request body containing filter/search criteria.
-     * @return List of {@link CompanyResponse} matching the criteria.
+     * @param countryCode Optional ISO 3166-1 alpha-2 country code filter.
+     * @param active      Optional active flag filter.
+     * @param deleted     Whether to list deleted companies (defaults to false).
+     * @param validOn     Optional date that must fall inside the company validity window.
+     * @param cursor      Opaque cursor from the previous page; omit for the first page.
+     * @param limit       Page size (1..200, defaults to 50).
+     * @param expand      Parts of each company to include: sites, timeZones, parent.
+     * @return A {@link KeysetPageResponse} of {@link CompanyResponse}.
      */
+    @Operation(summary = "List companies", description = "Returns a keyset paginated list of companies ordered by name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Companies retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or expand")
+    })
     @GetMapping
-    public ResponseEntity<List<CompanyResponse>> getCompanies(
-            @RequestBody CompanyCreateRequest companyCreateRequest) {
-        return ResponseEntity.status(HttpStatus.OK).body(companies);
+    public ResponseEntity<KeysetPageResponse<CompanyResponse>> getCompanies(
+            @RequestParam(required = false) String countryCode,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "false") boolean deleted,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate validOn,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<String> expand) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(companyService.list(countryCode, active, deleted, validOn, cursor, limit,
+                        CompanyExpand.parse(expand)));
+    }
+
+    /**
+     * Searches companies by name and code for typeahead pickers.
+     * <p>
+     * Matches prefixes, infixes and similar names, ranked exact, prefix, infix, then
+     * fuzzy matches. Queries shorter than three characters only match prefixes.
+     *
+     * @param q     The search text; must contain a letter or digit.
+     * @param limit Maximum number of hits (1..25, defaults to 10).
+     * @return Ranked list of {@link CompanySearchResponse}.
+     */
+    @Operation(summary = "Search companies", description = "Typeahead search on company name and code")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search hits returned"),
+            @ApiResponse(responseCode = "400", description = "Query without letters or digits, or invalid limit")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<CompanySearchResponse>> searchCompanies(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(companyService.search(q, limit));
     }
 
     /**
      * Retrieves a single company by its unique ID.
      *
+     * <p>
+     * The response carries the company version as ETag. If {@code If-None-Match}
+     * matches the current version, only the version is queried and 304 is returned.
+     * Expanded responses include other entities and carry no ETag.
+     *
      * @param id UUID of the company to retrieve.
+     * @param ifNoneMatch Optional ETag(s) of the client's cached copy.
+     * @param expand Parts of the company to include: sites, timeZones, parent.
      * @return Optional containing {@link CompanyResponse} if found.
      * @throws EntityNotFoundException if no company exists with the given ID.
      */
     @Operation(summary = "Get a company by ID", description = "Returns the company details by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found the company"),
+            @ApiResponse(responseCode = "304", description = "Company not modified"),
+            @ApiResponse(responseCode = "400", description = "Invalid expand"),
             @ApiResponse(responseCode = "404", description = "Company not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Optional<CompanyResponse>> getCompany(
-            @PathVariable UUID id) {
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) List<String> expand) {
+        Set<CompanyExpand> parts = CompanyExpand.parse(expand);
+        if (!parts.isEmpty()) {
+            // The version covers the company only, not its expanded parts: no ETag
+            return ResponseEntity.ok(companyService.get(id, parts));
+        }
 
-        return ResponseEntity.status(HttpStatus.OK).body(companyService.get(id));
+        if (ifNoneMatch != null) {
+            Optional<Long> version = companyService.getVersion(id);
+            if (version.isPresent() && ETagUtils.matches(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETagUtils.toETag(version.get())).build();
+            }
+        }
+
+        Optional<CompanyResponse> company = companyService.get(id);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(ETagUtils.toETag(company.orElseThrow().getVersion()))
+                .body(company);
     }
 
     /**
@@ -98,6 +196,34 @@ public class CompanyControllerV1 {
         return ResponseEntity.status(HttpStatus.CREATED).body(companyService.create(companyCreateRequest));
     }
 
+    /**
+     * Imports companies in bulk from a streamed NDJSON or CSV upload.
+     * <p>
+     * NDJSON uploads carry one {@link CompanyImportRow} JSON object per line; CSV uploads
+     * start with a header line naming the columns. Parents can be referenced by
+     * {@code parentCompanyCode}, including companies earlier in the same upload.
+     * Invalid rows are skipped and reported; they do not abort the load.
+     *
+     * @param contentType {@code application/x-ndjson} or {@code text/csv}.
+     * @param body        The streamed request body (UTF-8).
+     * @return A {@link CompanyImportResponse} with counts and per-row errors.
+     */
+    @Operation(summary = "Import companies", description = "Bulk imports companies from an NDJSON or CSV stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed, see the per-row errors"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid CSV header")
+    })
+    @PostMapping(value = "/import", consumes = {NDJSON_MEDIA_TYPE, "text/csv"})
+    public ResponseEntity<CompanyImportResponse> importCompanies(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+
+        CompanyImportService.Format format = contentType.isCompatibleWith(MediaType.valueOf(NDJSON_MEDIA_TYPE))
+                ? CompanyImportService.Format.NDJSON
+                : CompanyImportService.Format.CSV;
+        return ResponseEntity.ok(companyImportService.importCompanies(body, format));
+    }
+
     /**
      * Updates an existing company with full replacement of provided fields.
      * <p>
@@ -105,16 +231,29 @@ public class CompanyControllerV1 {
      *
      * @param id UUID of the company to update.
      * @param companyUpdateRequest Request body containing updated company details.
+     * @param ifMatch Optional ETag the company must still have; 412 otherwise.
+     * @param prefer Optional {@code return=representation} to receive the company after a conditional write.
      * @return Updated {@link CompanyResponse}.
      * @throws EntityNotFoundException if no company exists with the given ID.
      */
     @PutMapping("/{id}")
     public ResponseEntity<CompanyResponse> updateCompany(
             @PathVariable UUID id,
-            @RequestBody @Valid CompanyUpdateRequest companyUpdateRequest) {
-        Optional<CompanyResponse> updated = companyService.update(id, companyUpdateRequest);
+            @RequestBody @Valid CompanyUpdateRequest companyUpdateRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PreferHeaderUtils.PREFER, required = false) String prefer) {
+        Long expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            OptionalLong version = companyService.tryConditionalUpdate(id, companyUpdateRequest, expectedVersion);
+            if (version.isPresent()) {
+                return conditionalWriteResponse(id, version.getAsLong(), prefer);
+            }
+        }
+        CompanyResponse updated = companyService.update(id, companyUpdateRequest, expectedVersion)
+                .orElseThrow(() -> new EntityNotFoundException(Company.class, id));
         return ResponseEntity.status(HttpStatus.OK)
-                .body(updated.orElseThrow(() -> new EntityNotFoundException(Company.class, id)));
+                .eTag(ETagUtils.toETag(updated.getVersion()))
+                .body(updated);
     }
 
     /**
@@ -125,6 +264,8 @@ public class CompanyControllerV1 {
      *
      * @param id UUID of the company to patch.
      * @param companyPatchRequest Request body containing fields to update.
+     * @param ifMatch Optional ETag the company must still have; 412 otherwise.
+     * @param prefer Optional {@code return=representation} to receive the company after a conditional write.
      * @return Updated {@link CompanyResponse}.
      * @throws EntityNotFoundException if no company exists with the given ID.
      */
@@ -132,15 +273,122 @@ public class CompanyControllerV1 {
     @Operation(summary = "Patch company", description = "Updates partial fields of a company")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Company updated successfully"),
-            @ApiResponse(responseCode = "404", description = "Company not found")
+            @ApiResponse(responseCode = "204", description = "Company updated conditionally; new version in the ETag"),
+            @ApiResponse(responseCode = "404", description = "Company not found"),
+            @ApiResponse(responseCode = "412", description = "Company was modified since the If-Match version")
     })
     public ResponseEntity<CompanyResponse> patchCompany(
             @PathVariable UUID id,
-            @RequestBody CompanyPatchRequest companyPatchRequest) {
+            @RequestBody CompanyPatchRequest companyPatchRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PreferHeaderUtils.PREFER, required = false) String prefer) {
 
-        Optional<CompanyResponse> updated = companyService.patch(id, companyPatchRequest);
+        Long expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            OptionalLong version = companyService.tryConditionalPatch(id, companyPatchRequest, expectedVersion);
+            if (version.isPresent()) {
+                return conditionalWriteResponse(id, version.getAsLong(), prefer);
+            }
+        }
+        CompanyResponse updated = companyService.patch(id, companyPatchRequest, expectedVersion)
+                .orElseThrow(() -> new EntityNotFoundException(Company.class, id));
         return ResponseEntity.status(HttpStatus.OK)
-                .body(updated.orElseThrow(() -> new EntityNotFoundException(Company.class, id)));
+                .eTag(ETagUtils.toETag(updated.getVersion()))
+                .body(updated);
+    }
+
+    /**
+     * Retrieves all descendants (subsidiaries at any level) of a company.
+     *
+     * @param id             UUID of the company.
+     * @param maxDepth       Maximum number of levels to return (defaults to 32).
+     * @param includeDeleted Whether soft deleted companies are included.
+     * @return List of {@link CompanyHierarchyNodeResponse} ordered by depth and name.
+     * @throws EntityNotFoundException if no company exists with the given ID.
+     */
+    @Operation(summary = "Get company descendants", description = "Returns the subsidiaries of a company at any depth")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Descendants retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Company not found")
+    })
+    @GetMapping("/{id}/descendants")
+    public ResponseEntity<List<CompanyHierarchyNodeResponse>> getDescendants(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "32") int maxDepth,
+            @RequestParam(defaultValue = "false") boolean includeDeleted) {
+        return ResponseEntity.ok(companyHierarchyService.getDescendants(id, maxDepth, includeDeleted));
+    }
+
+    /**
+     * Retrieves the ancestor chain of a company, nearest parent first.
+     *
+     * @param id             UUID of the company.
+     * @param includeDeleted Whether soft deleted companies are included.
+     * @return List of {@link CompanyHierarchyNodeResponse} ordered by depth.
+     * @throws EntityNotFoundException if no company exists with the given ID.
+     */
+    @Operation(summary = "Get company ancestors", description = "Returns the parent chain of a company up to the root")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ancestors retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Company not found")
+    })
+    @GetMapping("/{id}/ancestors")
+    public ResponseEntity<List<CompanyHierarchyNodeResponse>> getAncestors(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "false") boolean includeDeleted) {
+        return ResponseEntity.ok(companyHierarchyService.getAncestors(id, includeDeleted));
+    }
+
+    /**
+     * Lists the sites of a company using keyset (cursor) pagination ordered by site code and ID.
+     *
+     * @param id       UUID of the company.
+     * @param siteType Optional site type filter.
+     * @param active   Optional active flag filter.
+     * @param deleted  Whether to list deleted sites (defaults to false).
+     * @param cursor   Opaque cursor from the previous page; omit for the first page.
+     * @param limit    Page size (1..200, defaults to 50).
+     * @return A {@link KeysetPageResponse} of {@link SiteResponse}.
+     * @throws EntityNotFoundException if the company does not exist or is deleted.
+     */
+    @Operation(summary = "List sites of a company", description = "Returns a keyset paginated list of the sites of a company ordered by code")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sites retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+            @ApiResponse(responseCode = "404", description = "Company not found")
+    })
+    @GetMapping("/{id}/sites")
+    public ResponseEntity<KeysetPageResponse<SiteResponse>> getCompanySites(
+            @PathVariable UUID id,
+            @RequestParam(required = false) SiteType siteType,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "false") boolean deleted,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(siteService.listByCompany(id, siteType, active, deleted, cursor, limit));
+    }
+
+    /**
+     * Retrieves the non-deleted site of a company by its code.
+     *
+     * @param id   UUID of the company.
+     * @param code Code of the site.
+     * @return Optional containing the {@link SiteResponse}.
+     * @throws EntityNotFoundException if the company has no site with that code.
+     */
+    @Operation(summary = "Get a site of a company by code", description = "Returns the site with the given code")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found the site"),
+            @ApiResponse(responseCode = "404", description = "Site not found")
+    })
+    @GetMapping("/{id}/sites/by-code/{code}")
+    public ResponseEntity<Optional<SiteResponse>> getCompanySiteByCode(
+            @PathVariable UUID id,
+            @PathVariable String code) {
+        Optional<SiteResponse> site = siteService.getByCode(id, code);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(ETagUtils.toETag(site.orElseThrow().getVersion()))
+                .body(site);
     }
 
     /**
@@ -158,5 +406,44 @@ public class CompanyControllerV1 {
         companyService.softDelete(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    /**
+     * Soft deletes a company together with all its sites and, optionally, its
+     * descendant companies and their sites, using set-based updates.
+     *
+     * @param id UUID of the company to delete.
+     * @param includeDescendants Whether descendant companies are deleted as well (defaults to false).
+     * @return {@link CompanyDeleteResponse} with the number of companies and sites deleted.
+     * @throws EntityNotFoundException if no company exists with the given ID.
+     */
+    @Operation(summary = "Cascading soft delete", description = "Soft deletes a company, its sites and optionally its descendants")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Company and sites deleted"),
+            @ApiResponse(responseCode = "404", description = "Company not found"),
+            @ApiResponse(responseCode = "410", description = "Company already deleted")
+    })
+    @DeleteMapping("/{id}/cascade")
+    public ResponseEntity<CompanyDeleteResponse> deleteCompanyCascade(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
+        return ResponseEntity.ok(companyService.softDeleteCascade(id, includeDescendants));
+    }
+
+    /**
+     * Builds the response of a read-free conditional write: 204 with the new ETag, or
+     * 200 with the re-read company if the client sent {@code Prefer: return=representation}.
+     */
+    private ResponseEntity<CompanyResponse> conditionalWriteResponse(UUID id, long version, String prefer) {
+        if (!PreferHeaderUtils.returnRepresentation(prefer)) {
+            return ResponseEntity.noContent()
+                    .eTag(ETagUtils.toETag(version))
+                    .build();
+        }
+        CompanyResponse company = companyService.get(id)
+                .orElseThrow(() -> new EntityNotFoundException(Company.class, id));
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.toETag(company.getVersion()))
+                .header(PreferHeaderUtils.PREFERENCE_APPLIED, PreferHeaderUtils.RETURN_REPRESENTATION)
+                .body(company);
+    }
+}
@@ -0,0 +1,128 @@
+package com.os360.enterprise.controller;
+
+import com.os360.enterprise.dto.KeysetPageResponse;
+import com.os360.enterprise.dto.PartyRoleCreateRequest;
+import com.os360.enterprise.dto.PartyRoleResponse;
+import com.os360.enterprise.enumurations.PartyRoleType;
+import com.os360.enterprise.service.PartyRoleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * REST controller for the roles parties hold at companies: employees, customers,
+ * suppliers and vendors.
+ */
+@RestController
+@RequestMapping("/api/v1/party-roles")
+@Tag(name = "Party Role", description = "Roles of parties at companies, Version 1.0")
+public class PartyRoleControllerV1 {
+
+    @Autowired
+    private PartyRoleService partyRoleService;
+
+    /**
+     * Lists the parties holding a role at a company, e.g. all suppliers of a company.
+     *
+     * @param companyId ID of the company.
+     * @param roleType  The role to list.
+     * @param cursor    Opaque cursor from the previous page; omit for the first page.
+     * @param limit     Page size (1..200, defaults to 50).
+     * @return A {@link KeysetPageResponse} of {@link PartyRoleResponse} ordered by party ID.
+     */
+    @GetMapping(params = "companyId")
+    @Operation(summary = "List parties with a role at a company", description = "Returns the parties holding a role at a company")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Roles retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid role, cursor or limit"),
+            @ApiResponse(responseCode = "404", description = "Company not found")
+    })
+    public ResponseEntity<KeysetPageResponse<PartyRoleResponse>> getCompanyRoles(
+            @RequestParam UUID companyId,
+            @RequestParam PartyRoleType roleType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(partyRoleService.listByCompany(companyId, roleType, cursor, limit));
+    }
+
+    /**
+     * Lists the roles of a party at all companies.
+     *
+     * @param partyId ID of the party.
+     * @param cursor  Opaque cursor from the previous page; omit for the first page.
+     * @param limit   Page size (1..200, defaults to 50).
+     * @return A {@link KeysetPageResponse} of {@link PartyRoleResponse} ordered by role and company ID.
+     */
+    @GetMapping(params = "partyId")
+    @Operation(summary = "List roles of a party", description = "Returns the roles a party holds at companies")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Roles retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+            @ApiResponse(responseCode = "404", description = "Party not found")
+    })
+    public ResponseEntity<KeysetPageResponse<PartyRoleResponse>> getPartyRoles(
+            @RequestParam UUID partyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(partyRoleService.listByParty(partyId, cursor, limit));
+    }
+
+    /**
+     * Retrieves a role by its ID.
+     *
+     * @param id ID of the role.
+     * @return Optional containing the {@link PartyRoleResponse}.
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get party role", description = "Returns a role by its ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Role retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Role not found")
+    })
+    public ResponseEntity<Optional<PartyRoleResponse>> getPartyRole(@PathVariable UUID id) {
+        return ResponseEntity.ok(partyRoleService.get(id));
+    }
+
+    /**
+     * Grants a party a role at a company.
+     *
+     * @param request Request body with the party, company and role.
+     * @return Optional containing the created {@link PartyRoleResponse}.
+     */
+    @PostMapping
+    @Operation(summary = "Create party role", description = "Grants a party a role at a company")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Role created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request, unknown party or company"),
+            @ApiResponse(responseCode = "409", description = "The party already holds the role at the company")
+    })
+    public ResponseEntity<Optional<PartyRoleResponse>> createPartyRole(
+            @Valid @RequestBody PartyRoleCreateRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(partyRoleService.create(request));
+    }
+
+    /**
+     * Revokes a role.
+     *
+     * @param id ID of the role.
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete party role", description = "Revokes a role")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Role deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "Role not found")
+    })
+    public ResponseEntity<Void> deletePartyRole(@PathVariable UUID id) {
+        partyRoleService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
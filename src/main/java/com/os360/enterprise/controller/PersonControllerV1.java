@@ -1,23 +1,40 @@
 package com.os360.enterprise.controller;
 
+import com.os360.enterprise.common.ETagUtils;
+import com.os360.enterprise.common.PreferHeaderUtils;
+import com.os360.enterprise.dto.KeysetPageResponse;
+import com.os360.enterprise.dto.PersonBirthdayResponse;
 import com.os360.enterprise.dto.PersonCreateRequest;
+import com.os360.enterprise.dto.PersonExportResponse;
 import com.os360.enterprise.dto.PersonPatchRequest;
 import com.os360.enterprise.dto.PersonResponse;
+import com.os360.enterprise.dto.PersonSiteAssignmentResponse;
 import com.os360.enterprise.dto.PersonUpdateRequest;
+import com.os360.enterprise.dto.PersonUpsertResponse;
+import com.os360.enterprise.dto.PersonUpsertRow;
 import com.os360.enterprise.entity.Person;
 import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.service.PersonBirthdayService;
+import com.os360.enterprise.service.PersonExportService;
 import com.os360.enterprise.service.PersonService;
+import com.os360.enterprise.service.PersonSiteAssignmentService;
+import com.os360.enterprise.service.PersonUpsertService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -41,25 +58,160 @@ import java.util.UUID;
 @Tag(name = "Person", description = "Operations related to people (Person entities), Version 1.0")
 public class PersonControllerV1 {
 
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     @Autowired
     private PersonService personService;
 
+    @Autowired
+    private PersonUpsertService personUpsertService;
+
+    @Autowired
+    private PersonExportService personExportService;
+
+    @Autowired
+    private PersonSiteAssignmentService personSiteAssignmentService;
+
+    @Autowired
+    private PersonBirthdayService personBirthdayService;
+
     /**
-     * Retrieves a list of people based on provided criteria (optional filtering/search).
+     * Lists people using keyset (cursor) pagination ordered by last name, first name and ID.
+     * <p>
+     * Pass the {@code nextCursor} of a page as {@code cursor} to fetch the following page.
      *
-     * @return List of {@link PersonResponse} representing available people.
+     * @param cursor Opaque cursor from the previous page; omit for the first page.
+     * @param limit  Page size (1..200, defaults to 50).
+     * @return A {@link KeysetPageResponse} of {@link PersonResponse}.
      */
     @GetMapping
-    @Operation(summary = "Get all persons", description = "Retrieves a list of all persons or filtered results")
-    public ResponseEntity<List<Optional<PersonResponse>>> getPersons() {
-        List<Optional<PersonResponse>> persons = personService.getAll();
-        return ResponseEntity.ok(persons);
+    @Operation(summary = "List persons", description = "Returns a keyset paginated list of persons ordered by name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Persons retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    public ResponseEntity<KeysetPageResponse<PersonResponse>> getPersons(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(personService.list(cursor, limit));
+    }
+
+    /**
+     * Lists upcoming birthdays, optionally of the persons at a site or company, in the
+     * order they come up. Windows wrapping into the next year are supported; persons
+     * born on 29 February are listed on 28 February in common years.
+     *
+     * @param from      First day of the window (ISO date); defaults to today.
+     * @param days      Length of the window in days (1..366, defaults to 14).
+     * @param siteId    Only persons assigned to this site.
+     * @param companyId Only persons assigned to a site of this company.
+     * @param cursor    Opaque cursor from the previous page; omit for the first page.
+     * @param limit     Page size (1..200, defaults to 50).
+     * @return A {@link KeysetPageResponse} of {@link PersonBirthdayResponse}.
+     */
+    @GetMapping("/birthdays")
+    @Operation(summary = "List upcoming birthdays", description = "Returns the persons with a birthday in the given window")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Birthdays retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid window, filter, cursor or limit"),
+            @ApiResponse(responseCode = "404", description = "Site or company not found")
+    })
+    public ResponseEntity<KeysetPageResponse<PersonBirthdayResponse>> getUpcomingBirthdays(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "14") int days,
+            @RequestParam(required = false) UUID siteId,
+            @RequestParam(required = false) UUID companyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(personBirthdayService.listUpcoming(from != null ? from : LocalDate.now(), days,
+                siteId, companyId, cursor, limit));
+    }
+
+    /**
+     * Streams all people as NDJSON, one JSON object per line, in the same order
+     * as the paginated listing. Selected with {@code Accept: application/x-ndjson}.
+     *
+     * @return Streaming body writing rows as they are read from the database.
+     */
+    @GetMapping(produces = NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Stream persons", description = "Streams all persons as newline delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamPersons() {
+        StreamingResponseBody body = personService::streamNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+
+    /**
+     * Downloads all people as a CSV or NDJSON extract, optionally gzip compressed, ordered by ID.
+     * <p>
+     * To resume an interrupted download, include the {@code id} column and pass the ID of the
+     * last complete row as {@code after}; the CSV header is then omitted.
+     *
+     * @param format  {@code csv} or {@code ndjson}.
+     * @param columns Comma separated columns to export; omit for all.
+     * @param after   ID of the last person already received; omit for a full extract.
+     * @param gzip    Whether to gzip compress the extract.
+     * @return Streaming body writing rows as they are read from the database.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export persons", description = "Streams a CSV or NDJSON extract of all persons")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Extract streamed"),
+            @ApiResponse(responseCode = "400", description = "Unknown format or column")
+    })
+    public ResponseEntity<StreamingResponseBody> exportPersons(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String columns,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        PersonExportService.ExportOptions options = personExportService.options(format, columns, gzip);
+        boolean csv = options.format() == PersonExportService.Format.CSV;
+        String fileName = "persons" + (csv ? ".csv" : ".ndjson") + (gzip ? ".gz" : "");
+        String contentType = gzip ? "application/gzip" : csv ? "text/csv" : NDJSON_MEDIA_TYPE;
+
+        StreamingResponseBody body = out -> personExportService.export(options, after, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    /**
+     * Writes all people to a file in the server's export directory, or resumes an
+     * interrupted export of that file from its last checkpoint.
+     *
+     * @param fileName Plain name of the export file.
+     * @param format   {@code csv} or {@code ndjson}.
+     * @param columns  Comma separated columns to export; omit for all.
+     * @param gzip     Whether to gzip compress the file.
+     * @param resume   Whether to continue from the file's checkpoint.
+     * @return A {@link PersonExportResponse} with the row count and final checkpoint.
+     */
+    @PostMapping("/exports")
+    @Operation(summary = "Export persons to a file", description = "Writes a CSV or NDJSON extract of all persons to the export directory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Extract written"),
+            @ApiResponse(responseCode = "400", description = "Invalid file name, format or column, or nothing to resume")
+    })
+    public ResponseEntity<PersonExportResponse> exportPersonsToFile(
+            @RequestParam String fileName,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String columns,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "false") boolean resume) {
+        PersonExportService.ExportOptions options = personExportService.options(format, columns, gzip);
+        return ResponseEntity.ok(personExportService.exportToFile(fileName, options, resume));
     }
 
     /**
      * Retrieves a single person by their unique ID.
      *
+     * Returns 304 with a version-only query if {@code If-None-Match} matches the person ETag.
+     *
      * @param id UUID of the person to retrieve.
+     * @param ifNoneMatch Optional ETag(s) of the client's cached copy.
      * @return Optional containing {@link PersonResponse} if found.
      * @throws EntityNotFoundException if no person exists with the given ID.
      */
@@ -67,17 +219,54 @@ public class PersonControllerV1 {
     @Operation(summary = "Get person by ID", description = "Returns the person details by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Person found"),
+            @ApiResponse(responseCode = "304", description = "Person not modified"),
             @ApiResponse(responseCode = "404", description = "Person not found")
     })
-    public ResponseEntity<Optional<PersonResponse>> getPerson(@PathVariable UUID id) {
-        return ResponseEntity.ok(personService.get(id));
+    public ResponseEntity<Optional<PersonResponse>> getPerson(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        if (ifNoneMatch != null) {
+            Optional<Long> version = personService.getVersion(id);
+            if (version.isPresent() && ETagUtils.matches(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETagUtils.toETag(version.get())).build();
+            }
+        }
+
+        Optional<PersonResponse> person = personService.get(id);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.toETag(person.orElseThrow().getVersion()))
+                .body(person);
     }
 
 
+    /**
+     * Lists the sites a person is assigned to, keyset paginated by site ID.
+     *
+     * @param id     UUID of the person.
+     * @param cursor Opaque cursor from the previous page; omit for the first page.
+     * @param limit  Page size (1..200, defaults to 50).
+     * @return A {@link KeysetPageResponse} of {@link PersonSiteAssignmentResponse}.
+     */
+    @GetMapping("/{id}/sites")
+    @Operation(summary = "List sites of a person", description = "Returns the sites a person is assigned to")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sites retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+            @ApiResponse(responseCode = "404", description = "Person not found")
+    })
+    public ResponseEntity<KeysetPageResponse<PersonSiteAssignmentResponse>> getPersonSites(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(personSiteAssignmentService.listSitesOfPerson(id, cursor, limit));
+    }
+
     /**
      * Creates a new person entity.
      *
      * @param createRequest Request body containing person details.
+     * @param checkDuplicates If true, fails with 409 listing the likely duplicates instead of creating the person.
      * @return Optional containing created {@link PersonResponse}.
      * @throws IllegalArgumentException if validation fails.
      */
@@ -85,11 +274,33 @@ public class PersonControllerV1 {
     @Operation(summary = "Create person", description = "Creates a new person entity")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Person created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid request data")
+            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "409", description = "Likely duplicate of existing persons (checkDuplicates only)")
     })
     public ResponseEntity<Optional<PersonResponse>> createPerson(
-            @Valid @RequestBody PersonCreateRequest createRequest) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(personService.create(createRequest));
+            @Valid @RequestBody PersonCreateRequest createRequest,
+            @RequestParam(defaultValue = "false") boolean checkDuplicates) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(personService.create(createRequest, checkDuplicates));
+    }
+
+    /**
+     * Creates or updates persons in bulk from a streamed NDJSON upload, keyed by
+     * {@code (externalSystem, externalId)}.
+     * <p>
+     * Each line carries one {@link PersonUpsertRow}. Unknown keys create persons, known
+     * keys are updated with the non-null fields of the row, and rows that would not
+     * change anything are skipped. Invalid rows are reported; they do not abort the load.
+     *
+     * @param body The streamed request body (UTF-8).
+     * @return A {@link PersonUpsertResponse} with per-outcome counts and per-row errors.
+     */
+    @PostMapping(value = "/upsert", consumes = NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Upsert persons", description = "Bulk creates or updates persons by external ID from an NDJSON stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upsert processed, see the per-row errors")
+    })
+    public ResponseEntity<PersonUpsertResponse> upsertPersons(InputStream body) {
+        return ResponseEntity.ok(personUpsertService.upsertPersons(body));
     }
 
     /**
@@ -97,18 +308,28 @@ public class PersonControllerV1 {
      *
      * @param id UUID of the person to update.
      * @param updateRequest Request body containing updated fields.
+     * @param ifMatch Optional ETag the person must still have; 412 otherwise.
+     * @param prefer Optional {@code return=representation} to receive the person after a conditional write.
      * @return Updated {@link PersonResponse}.
      */
     @PutMapping("/{id}")
     @Operation(summary = "Update person", description = "Replaces all fields of a person")
     public ResponseEntity<PersonResponse> updatePerson(
             @PathVariable UUID id,
-            @Valid @RequestBody PersonUpdateRequest updateRequest) {
+            @Valid @RequestBody PersonUpdateRequest updateRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PreferHeaderUtils.PREFER, required = false) String prefer) {
 
-        Optional<PersonResponse> updated = personService.update(id, updateRequest);
-        return ResponseEntity.ok(
-                updated.orElseThrow(() -> new EntityNotFoundException(Person.class, id))
-        );
+        Long expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            long version = personService.conditionalUpdate(id, updateRequest, expectedVersion);
+            return conditionalWriteResponse(id, version, prefer);
+        }
+        PersonResponse updated = personService.update(id, updateRequest, null)
+                .orElseThrow(() -> new EntityNotFoundException(Person.class, id));
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.toETag(updated.getVersion()))
+                .body(updated);
     }
 
     /**
@@ -116,18 +337,28 @@ public class PersonControllerV1 {
      *
      * @param id UUID of the person to patch.
      * @param patchRequest Request body with partial update fields.
+     * @param ifMatch Optional ETag the person must still have; 412 otherwise.
+     * @param prefer Optional {@code return=representation} to receive the person after a conditional write.
      * @return Updated {@link PersonResponse}.
      */
     @PatchMapping("/{id}")
     @Operation(summary = "Patch person", description = "Updates partial fields of a person")
     public ResponseEntity<PersonResponse> patchPerson(
             @PathVariable UUID id,
-            @RequestBody PersonPatchRequest patchRequest) {
+            @RequestBody PersonPatchRequest patchRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PreferHeaderUtils.PREFER, required = false) String prefer) {
 
-        Optional<PersonResponse> updated = personService.patch(id, patchRequest);
-        return ResponseEntity.ok(
-                updated.orElseThrow(() -> new EntityNotFoundException(Person.class, id))
-        );
+        Long expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            long version = personService.conditionalPatch(id, patchRequest, expectedVersion);
+            return conditionalWriteResponse(id, version, prefer);
+        }
+        PersonResponse updated = personService.patch(id, patchRequest, null)
+                .orElseThrow(() -> new EntityNotFoundException(Person.class, id));
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.toETag(updated.getVersion()))
+                .body(updated);
     }
 
     /**
@@ -142,4 +373,22 @@ public class PersonControllerV1 {
         personService.softDelete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Builds the response of a read-free conditional write: 204 with the new ETag, or
+     * 200 with the re-read person if the client sent {@code Prefer: return=representation}.
+     */
+    private ResponseEntity<PersonResponse> conditionalWriteResponse(UUID id, long version, String prefer) {
+        if (!PreferHeaderUtils.returnRepresentation(prefer)) {
+            return ResponseEntity.noContent()
+                    .eTag(ETagUtils.toETag(version))
+                    .build();
+        }
+        PersonResponse person = personService.get(id)
+                .orElseThrow(() -> new EntityNotFoundException(Person.class, id));
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.toETag(person.getVersion()))
+                .header(PreferHeaderUtils.PREFERENCE_APPLIED, PreferHeaderUtils.RETURN_REPRESENTATION)
+                .body(person);
+    }
 }
@@ -0,0 +1,89 @@
+package com.os360.enterprise.controller;
+
+import com.os360.enterprise.dto.PersonCreateRequest;
+import com.os360.enterprise.dto.PersonDuplicateCandidateResponse;
+import com.os360.enterprise.dto.PersonDuplicateIndexResponse;
+import com.os360.enterprise.dto.PersonDuplicateReportResponse;
+import com.os360.enterprise.service.PersonDuplicateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for duplicate person detection.
+ * <p>
+ * Offers a check of a single person before it is created, a scan of all persons
+ * reporting duplicate clusters, and a rebuild of the blocking key index.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1/persons/duplicates")
+@Tag(name = "Person Duplicates", description = "Duplicate person detection, Version 1.0")
+public class PersonDuplicateControllerV1 {
+
+    @Autowired
+    private PersonDuplicateService personDuplicateService;
+
+    /**
+     * Returns the existing persons that likely are the given person.
+     *
+     * @param request  Person details as they would be created.
+     * @param minScore Minimum match score (0..1, defaults to 0.9).
+     * @return Candidates by descending score; empty if none.
+     */
+    @PostMapping("/check")
+    @Operation(summary = "Check for duplicates", description = "Returns existing persons that likely are the given person")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Candidates retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or score")
+    })
+    public ResponseEntity<List<PersonDuplicateCandidateResponse>> checkDuplicates(
+            @Valid @RequestBody PersonCreateRequest request,
+            @RequestParam(defaultValue = "" + PersonDuplicateService.DEFAULT_MIN_SCORE) double minScore) {
+        return ResponseEntity.ok(personDuplicateService.findCandidates(request.getFirstName(), request.getLastName(),
+                request.getDateOfBirth(), request.getCountryCode(), null, minScore));
+    }
+
+    /**
+     * Scans all persons and reports the clusters of likely duplicates.
+     *
+     * @param minScore Minimum match score (0..1, defaults to 0.9).
+     * @return A {@link PersonDuplicateReportResponse} with scan statistics and clusters.
+     */
+    @GetMapping
+    @Operation(summary = "Find duplicate clusters", description = "Scans all persons in parallel and reports scored duplicate clusters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Scan completed"),
+            @ApiResponse(responseCode = "400", description = "Invalid score")
+    })
+    public ResponseEntity<PersonDuplicateReportResponse> findDuplicates(
+            @RequestParam(defaultValue = "" + PersonDuplicateService.DEFAULT_MIN_SCORE) double minScore) {
+        return ResponseEntity.ok(personDuplicateService.findClusters(minScore));
+    }
+
+    /**
+     * Rebuilds the blocking key index from all persons, e.g. after a data migration.
+     *
+     * @return The number of persons and keys indexed.
+     */
+    @PostMapping("/index")
+    @Operation(summary = "Rebuild duplicate index", description = "Recomputes the blocking keys of all persons")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Index rebuilt")
+    })
+    public ResponseEntity<PersonDuplicateIndexResponse> rebuildIndex() {
+        return ResponseEntity.ok(personDuplicateService.rebuildIndex());
+    }
+}
@@ -0,0 +1,49 @@
+package com.os360.enterprise.controller;
+
+import com.os360.enterprise.dto.PersonSiteAssignmentBulkRequest;
+import com.os360.enterprise.dto.PersonSiteAssignmentBulkResponse;
+import com.os360.enterprise.service.PersonSiteAssignmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for bulk changes of person to site assignments.
+ * <p>
+ * Listings live with their owners: {@code /api/v1/persons/{id}/sites} and
+ * {@code /api/v1/sites/{id}/persons}.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1/person-site-assignments")
+@Tag(name = "Person Site Assignment", description = "Assignment of persons to sites, Version 1.0")
+public class PersonSiteAssignmentControllerV1 {
+
+    @Autowired
+    private PersonSiteAssignmentService personSiteAssignmentService;
+
+    /**
+     * Assigns and unassigns persons to and from sites in one transaction.
+     *
+     * @param request Pairs to assign (optionally as default site) and to unassign, up to 10000 in total.
+     * @return A {@link PersonSiteAssignmentBulkResponse} with the number of changes made.
+     */
+    @PostMapping("/bulk")
+    @Operation(summary = "Bulk assign persons to sites", description = "Creates and removes person to site assignments in batches")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignments applied"),
+            @ApiResponse(responseCode = "400", description = "Invalid request, unknown person or site")
+    })
+    public ResponseEntity<PersonSiteAssignmentBulkResponse> bulkAssign(
+            @RequestBody @Valid PersonSiteAssignmentBulkRequest request) {
+        return ResponseEntity.ok(personSiteAssignmentService.bulkAssign(request));
+    }
+}
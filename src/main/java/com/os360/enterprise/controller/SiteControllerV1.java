@@ -1,11 +1,24 @@
 package com.os360.enterprise.controller;
 
+import com.os360.enterprise.common.ETagUtils;
+import com.os360.enterprise.common.PreferHeaderUtils;
+import com.os360.enterprise.dto.KeysetPageResponse;
+import com.os360.enterprise.dto.PersonSiteAssignmentResponse;
+import com.os360.enterprise.dto.SiteAddressRequest;
+import com.os360.enterprise.dto.SiteAddressResponse;
 import com.os360.enterprise.dto.SiteCreateRequest;
+import com.os360.enterprise.dto.SiteLocalTimeRequest;
+import com.os360.enterprise.dto.SiteLocalTimeResponse;
+import com.os360.enterprise.dto.SiteNearbyResponse;
 import com.os360.enterprise.dto.SitePatchRequest;
 import com.os360.enterprise.dto.SiteResponse;
 import com.os360.enterprise.dto.SiteUpdateRequest;
 import com.os360.enterprise.entity.Site;
+import com.os360.enterprise.enumurations.SiteType;
 import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.service.PersonSiteAssignmentService;
+import com.os360.enterprise.service.SiteAddressService;
+import com.os360.enterprise.service.SiteLocalTimeService;
 import com.os360.enterprise.service.SiteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,6 +26,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -44,6 +58,15 @@ public class SiteControllerV1 {
     @Autowired
     private SiteService siteService;
 
+    @Autowired
+    private PersonSiteAssignmentService personSiteAssignmentService;
+
+    @Autowired
+    private SiteAddressService siteAddressService;
+
+    @Autowired
+    private SiteLocalTimeService siteLocalTimeService;
+
     private SiteResponse siteResponse;
     private List<SiteResponse> sites;
 
@@ -59,22 +82,104 @@ public class SiteControllerV1 {
         return ResponseEntity.status(HttpStatus.OK).body(sites);
     }
 
+    /**
+     * Finds the active sites nearest to a point, e.g. the closest service centers or
+     * warehouses for a field technician. Answered from an in-memory spatial index.
+     *
+     * @param lat  Latitude of the point in degrees.
+     * @param lon  Longitude of the point in degrees.
+     * @param type Site types to consider; repeat for several, omit for all.
+     * @param k    Number of sites (1..100, defaults to 10).
+     * @return List of {@link SiteNearbyResponse}, nearest first.
+     */
+    @Operation(summary = "Find nearby sites", description = "Returns the k sites nearest to a point by great-circle distance")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sites retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates, type or k")
+    })
+    @GetMapping("/nearby")
+    public ResponseEntity<List<SiteNearbyResponse>> getNearbySites(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) List<SiteType> type,
+            @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(siteAddressService.findNearest(lat, lon, type, k));
+    }
+
+    /**
+     * Converts instants to the local date-times of many sites at once, or returns the
+     * current local time and UTC offset of each site if no instant is given.
+     *
+     * @param request Sites (up to 1000) and instants to convert.
+     * @return List of {@link SiteLocalTimeResponse}, per site in request order and, within a
+     *         site, per instant.
+     */
+    @Operation(summary = "Get local times of sites", description = "Converts instants to site-local date-times for a batch of sites")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Local times resolved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request or batch too large"),
+            @ApiResponse(responseCode = "404", description = "A site was not found or is deleted")
+    })
+    @PostMapping("/local-times")
+    public ResponseEntity<List<SiteLocalTimeResponse>> getSiteLocalTimes(
+            @RequestBody @Valid SiteLocalTimeRequest request) {
+        return ResponseEntity.ok(siteLocalTimeService.localTimes(request));
+    }
+
     /**
      * Retrieves a single site by its unique ID.
      *
+     * Returns 304 with a version-only query if {@code If-None-Match} matches the site ETag.
+     *
      * @param id UUID of the site to retrieve.
+     * @param ifNoneMatch Optional ETag(s) of the client's cached copy.
      * @return Optional containing {@link SiteResponse} if found.
      * @throws EntityNotFoundException if no site exists with the given ID.
      */
     @Operation(summary = "Get a site by ID", description = "Returns the site details by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found the site"),
+            @ApiResponse(responseCode = "304", description = "Site not modified"),
             @ApiResponse(responseCode = "404", description = "Site not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Optional<SiteResponse>> getSite(
-            @PathVariable UUID id) {
-        return ResponseEntity.status(HttpStatus.OK).body(siteService.get(id));
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        if (ifNoneMatch != null) {
+            Optional<Long> version = siteService.getVersion(id);
+            if (version.isPresent() && ETagUtils.matches(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETagUtils.toETag(version.get())).build();
+            }
+        }
+
+        Optional<SiteResponse> site = siteService.get(id);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(ETagUtils.toETag(site.orElseThrow().getVersion()))
+                .body(site);
+    }
+
+    /**
+     * Lists the persons assigned to a site, keyset paginated by person ID.
+     *
+     * @param id     UUID of the site.
+     * @param cursor Opaque cursor from the previous page; omit for the first page.
+     * @param limit  Page size (1..200, defaults to 50).
+     * @return A {@link KeysetPageResponse} of {@link PersonSiteAssignmentResponse}.
+     */
+    @GetMapping("/{id}/persons")
+    @Operation(summary = "List persons of a site", description = "Returns the persons assigned to a site")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Persons retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+            @ApiResponse(responseCode = "404", description = "Site not found")
+    })
+    public ResponseEntity<KeysetPageResponse<PersonSiteAssignmentResponse>> getSitePersons(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(personSiteAssignmentService.listPersonsOfSite(id, cursor, limit));
     }
 
     /**
@@ -99,16 +204,27 @@ public class SiteControllerV1 {
      *
      * @param id UUID of the site to update.
      * @param siteUpdateRequest Request body containing updated site details.
+     * @param ifMatch Optional ETag the site must still have; 412 otherwise.
+     * @param prefer Optional {@code return=representation} to receive the site after a conditional write.
      * @return Updated {@link SiteResponse}.
      * @throws EntityNotFoundException if no site exists with the given ID.
      */
     @PutMapping("/{id}")
     public ResponseEntity<SiteResponse> updateSite(
             @PathVariable UUID id,
-            @RequestBody @Valid SiteUpdateRequest siteUpdateRequest) {
-        Optional<SiteResponse> updated = siteService.update(id, siteUpdateRequest);
+            @RequestBody @Valid SiteUpdateRequest siteUpdateRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PreferHeaderUtils.PREFER, required = false) String prefer) {
+        Long expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            long version = siteService.conditionalUpdate(id, siteUpdateRequest, expectedVersion);
+            return conditionalWriteResponse(id, version, prefer);
+        }
+        SiteResponse updated = siteService.update(id, siteUpdateRequest, null)
+                .orElseThrow(() -> new EntityNotFoundException(Site.class, id));
         return ResponseEntity.status(HttpStatus.OK)
-                .body(updated.orElseThrow(() -> new EntityNotFoundException(Site.class, id)));
+                .eTag(ETagUtils.toETag(updated.getVersion()))
+                .body(updated);
     }
 
     /**
@@ -117,6 +233,8 @@ public class SiteControllerV1 {
      *
      * @param id UUID of the site to patch.
      * @param sitePatchRequest Request body containing fields to update.
+     * @param ifMatch Optional ETag the site must still have; 412 otherwise.
+     * @param prefer Optional {@code return=representation} to receive the site after a conditional write.
      * @return Updated {@link SiteResponse}.
      * @throws EntityNotFoundException if no site exists with the given ID.
      */
@@ -128,11 +246,84 @@ public class SiteControllerV1 {
     })
     public ResponseEntity<SiteResponse> patchSite(
             @PathVariable UUID id,
-            @RequestBody SitePatchRequest sitePatchRequest) {
+            @RequestBody SitePatchRequest sitePatchRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PreferHeaderUtils.PREFER, required = false) String prefer) {
 
-        Optional<SiteResponse> updated = siteService.patch(id, sitePatchRequest);
+        Long expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            long version = siteService.conditionalPatch(id, sitePatchRequest, expectedVersion);
+            return conditionalWriteResponse(id, version, prefer);
+        }
+        SiteResponse updated = siteService.patch(id, sitePatchRequest, null)
+                .orElseThrow(() -> new EntityNotFoundException(Site.class, id));
         return ResponseEntity.status(HttpStatus.OK)
-                .body(updated.orElseThrow(() -> new EntityNotFoundException(Site.class, id)));
+                .eTag(ETagUtils.toETag(updated.getVersion()))
+                .body(updated);
+    }
+
+    /**
+     * Retrieves the address of a site.
+     *
+     * @param id UUID of the site.
+     * @return Optional containing the {@link SiteAddressResponse}.
+     * @throws EntityNotFoundException if the site has no address.
+     */
+    @Operation(summary = "Get site address", description = "Returns the address and coordinates of a site")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Address retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Site has no address")
+    })
+    @GetMapping("/{id}/address")
+    public ResponseEntity<Optional<SiteAddressResponse>> getSiteAddress(
+            @PathVariable UUID id) {
+        return ResponseEntity.ok(siteAddressService.get(id));
+    }
+
+    /**
+     * Creates or replaces the address of a site. Coordinates make the site findable
+     * through {@code /api/v1/sites/nearby}.
+     *
+     * @param id      UUID of the site.
+     * @param request The new address.
+     * @return Optional containing the stored {@link SiteAddressResponse}.
+     * @throws EntityNotFoundException if the site does not exist or is deleted.
+     */
+    @Operation(summary = "Set site address", description = "Creates or replaces the address and coordinates of a site")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Address stored successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid address or coordinates"),
+            @ApiResponse(responseCode = "404", description = "Site not found")
+    })
+    @PutMapping("/{id}/address")
+    public ResponseEntity<Optional<SiteAddressResponse>> putSiteAddress(
+            @PathVariable UUID id,
+            @RequestBody @Valid SiteAddressRequest request) {
+        return ResponseEntity.ok(siteAddressService.put(id, request));
+    }
+
+    /**
+     * Makes a site the default site of its company. The previous default loses the flag
+     * in the same transaction.
+     *
+     * @param id UUID of the site to make the default.
+     * @return The updated {@link SiteResponse}.
+     * @throws EntityNotFoundException if no site exists with the given ID.
+     */
+    @Operation(summary = "Make a site the default", description = "Makes the site the default site of its company, clearing the previous default")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Site is now the default"),
+            @ApiResponse(responseCode = "404", description = "Site not found"),
+            @ApiResponse(responseCode = "409", description = "Another default was set concurrently; retry"),
+            @ApiResponse(responseCode = "410", description = "Site is deleted")
+    })
+    @PostMapping("/{id}/default")
+    public ResponseEntity<Optional<SiteResponse>> makeDefaultSite(
+            @PathVariable UUID id) {
+        Optional<SiteResponse> site = siteService.makeDefault(id);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(ETagUtils.toETag(site.orElseThrow().getVersion()))
+                .body(site);
     }
 
     /**
@@ -148,4 +339,22 @@ public class SiteControllerV1 {
         siteService.softDelete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Builds the response of a read-free conditional write: 204 with the new ETag, or
+     * 200 with the re-read site if the client sent {@code Prefer: return=representation}.
+     */
+    private ResponseEntity<SiteResponse> conditionalWriteResponse(UUID id, long version, String prefer) {
+        if (!PreferHeaderUtils.returnRepresentation(prefer)) {
+            return ResponseEntity.noContent()
+                    .eTag(ETagUtils.toETag(version))
+                    .build();
+        }
+        SiteResponse site = siteService.get(id)
+                .orElseThrow(() -> new EntityNotFoundException(Site.class, id));
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.toETag(site.getVersion()))
+                .header(PreferHeaderUtils.PREFERENCE_APPLIED, PreferHeaderUtils.RETURN_REPRESENTATION)
+                .body(site);
+    }
 }
@@ -0,0 +1,44 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO exposing the counters of an entity cache since application start.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+
+    @Schema(description = "Cache name (entity type)", example = "company")
+    private String name;
+
+    @Schema(description = "Whether values are cached; a disabled cache loads on every call", example = "true")
+    private boolean enabled;
+
+    @Schema(description = "Current number of entries", example = "1250")
+    private long size;
+
+    @Schema(description = "Maximum number of entries", example = "10000")
+    private long maxSize;
+
+    @Schema(description = "Calls served from the cache", example = "98000")
+    private long hits;
+
+    @Schema(description = "Calls that loaded the value", example = "1500")
+    private long misses;
+
+    @Schema(description = "Hits that first confirmed the cached version against the database", example = "4200")
+    private long revalidations;
+
+    @Schema(description = "Entries removed for size, age or a changed version", example = "300")
+    private long evictions;
+
+    @Schema(description = "Entries removed by writes", example = "75")
+    private long invalidations;
+}
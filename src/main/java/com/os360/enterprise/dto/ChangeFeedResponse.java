@@ -0,0 +1,32 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Response DTO for a page of the change feed.
+ * <p>
+ * Unlike {@link KeysetPageResponse}, the continuation token is returned even on the
+ * last page: clients store it and pass it as {@code since} on their next poll.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedResponse {
+
+    @Schema(description = "Changes in change order")
+    private List<ChangeResponse> changes;
+
+    @Schema(description = "Opaque token to pass as since on the next request; null only if nothing has changed yet")
+    private String nextToken;
+
+    @Schema(description = "Whether more changes are available right away")
+    private boolean hasMore;
+}
@@ -0,0 +1,41 @@
+package com.os360.enterprise.dto;
+
+import com.os360.enterprise.enumurations.ChangeEntityType;
+import com.os360.enterprise.enumurations.ChangeOperation;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for one entry of the change feed: an entity created, updated or soft deleted
+ * after the requested watermark, with its current state.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeResponse {
+
+    @Schema(description = "Type of the changed entity", example = "COMPANY")
+    private ChangeEntityType type;
+
+    @Schema(description = "ID of the changed entity", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")
+    private UUID id;
+
+    @Schema(description = "Latest operation on the entity", example = "UPDATED")
+    private ChangeOperation operation;
+
+    @Schema(description = "Version of the entity after the change", example = "3")
+    private long version;
+
+    @Schema(description = "Time of the change", example = "2025-01-01T10:15:30Z")
+    private OffsetDateTime changedAt;
+
+    @Schema(description = "Current state of the entity (CompanyResponse, SiteResponse or PersonResponse)")
+    private Object entity;
+}
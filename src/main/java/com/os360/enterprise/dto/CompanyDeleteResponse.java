@@ -0,0 +1,23 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO summarizing a cascading company soft delete.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyDeleteResponse {
+
+    @Schema(description = "Number of companies marked deleted, including the requested one", example = "3")
+    private int companiesDeleted;
+
+    @Schema(description = "Number of sites marked deleted", example = "2000")
+    private int sitesDeleted;
+}
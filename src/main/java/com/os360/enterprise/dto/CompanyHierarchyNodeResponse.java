@@ -0,0 +1,38 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * DTO representing a company within a hierarchy query (descendants or ancestors),
+ * together with its distance from the queried company.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyHierarchyNodeResponse {
+
+    @Schema(description = "Company ID", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")
+    private UUID id;
+
+    @Schema(description = "Company code", example = "OS360")
+    private String code;
+
+    @Schema(description = "Company name", example = "Open Suite 360")
+    private String name;
+
+    @Schema(description = "Parent company UUID", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")
+    private UUID parentCompanyId;
+
+    @Schema(description = "Number of levels between this company and the queried company", example = "1")
+    private int depth;
+
+    @Schema(description = "Whether the company is soft deleted", example = "false")
+    private boolean isDeleted;
+}
@@ -0,0 +1,26 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO describing why a single row of a bulk company import was rejected.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyImportError {
+
+    @Schema(description = "Line number of the row in the uploaded file (1-based)", example = "42")
+    private long line;
+
+    @Schema(description = "Company code of the row, if present", example = "OS360")
+    private String code;
+
+    @Schema(description = "Reason the row was rejected", example = "Company already exists: OS360")
+    private String message;
+}
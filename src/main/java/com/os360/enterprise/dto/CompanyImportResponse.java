@@ -0,0 +1,31 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO summarising the outcome of a bulk company import.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyImportResponse {
+
+    @Schema(description = "Number of data rows read from the upload", example = "1000")
+    private long received;
+
+    @Schema(description = "Number of companies created", example = "998")
+    private long imported;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private long failed;
+
+    @Schema(description = "Per-row errors of the rejected rows")
+    private List<CompanyImportError> errors;
+}
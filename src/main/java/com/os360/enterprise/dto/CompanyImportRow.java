@@ -0,0 +1,24 @@
+package com.os360.enterprise.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO representing one company of a bulk import (one NDJSON line or CSV record).
+ * <p>
+ * Carries the same fields as {@link CompanyCreateRequest}. The parent may be given
+ * either by ID ({@code parentCompany}) or by code ({@code parentCompanyCode}); a code
+ * can refer to a company imported earlier in the same load.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CompanyImportRow extends CompanyCreateRequest {
+
+    @Size(max = 100, message = "Parent company code cannot exceed 100 characters")
+    private String parentCompanyCode;
+}
@@ -1,6 +1,7 @@
 package com.os360.enterprise.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.os360.enterprise.entity.Company;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @Getter
@@ -16,6 +18,9 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 public class CompanyResponse {
+    @Schema(description = "Company ID", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")
+    private UUID id;
+
     @Schema(description = "Company code", example = "OS360")
     private String code;
 
@@ -47,4 +52,19 @@ public class CompanyResponse {
 
     @Schema(description = "Whether this is the system company", example = "true")
     private boolean isSystemCompany;
+
+    @Schema(description = "Optimistic lock version, also returned as the ETag", example = "3")
+    private Long version;
+
+    @Schema(description = "Parent company; only with expand=parent")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CompanyResponse parent;
+
+    @Schema(description = "Non-deleted sites ordered by code; only with expand=sites")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<SiteResponse> sites;
+
+    @Schema(description = "Time zones, the default first; only with expand=timeZones")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CompanyTimeZoneResponse> timeZones;
 }
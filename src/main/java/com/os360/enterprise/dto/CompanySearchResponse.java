@@ -0,0 +1,31 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * DTO representing a ranked company search hit, kept small for typeahead pickers.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanySearchResponse {
+
+    @Schema(description = "Company ID", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")
+    private UUID id;
+
+    @Schema(description = "Company code", example = "OS360")
+    private String code;
+
+    @Schema(description = "Company name", example = "Open Suite 360")
+    private String name;
+
+    @Schema(description = "Trigram similarity of the best matching field to the query (0..1)", example = "0.42")
+    private double score;
+}
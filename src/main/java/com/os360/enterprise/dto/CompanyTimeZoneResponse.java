@@ -0,0 +1,26 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO of a time zone of a company.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyTimeZoneResponse {
+
+    @Schema(description = "ID of the company time zone", example = "12")
+    private Long id;
+
+    @Schema(description = "IANA time zone ID", example = "Asia/Colombo")
+    private String timeZone;
+
+    @Schema(description = "Whether this is the default time zone of the company")
+    private boolean isDefault;
+}
@@ -0,0 +1,34 @@
+package com.os360.enterprise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Generic response DTO for keyset (cursor) paginated listings.
+ * <p>
+ * Pages are addressed by an opaque cursor instead of an offset, so fetching
+ * the next page is an index range scan that starts right after the last row
+ * of the previous page. No total count is returned.
+ * </p>
+ *
+ * @param <T> type of the items in the page
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageResponse<T> {
+
+    /** Items of the current page, in listing order. */
+    private List<T> items;
+
+    /** Opaque cursor to pass as {@code cursor} to fetch the next page; null on the last page. */
+    private String nextCursor;
+
+    /** Indicates whether more items exist after this page. */
+    private boolean hasMore;
+}
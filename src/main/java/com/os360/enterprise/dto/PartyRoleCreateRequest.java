@@ -0,0 +1,38 @@
+package com.os360.enterprise.dto;
+
+import com.os360.enterprise.enumurations.PartyRoleType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * DTO for granting a party a role at a company.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartyRoleCreateRequest {
+
+    @NotNull
+    @Schema(description = "ID of the party (person or company) taking the role")
+    private UUID partyId;
+
+    @NotNull
+    @Schema(description = "ID of the company the role is held at")
+    private UUID companyId;
+
+    @NotNull
+    @Schema(description = "Role of the party", example = "SUPPLIER")
+    private PartyRoleType roleType;
+
+    @Size(max = 100)
+    @Schema(description = "The company's own number for the party in this role", example = "SUP-00042")
+    private String referenceCode;
+}
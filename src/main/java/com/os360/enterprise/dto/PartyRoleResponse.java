@@ -0,0 +1,48 @@
+package com.os360.enterprise.dto;
+
+import com.os360.enterprise.enumurations.PartyRoleType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * DTO of a role a party holds at a company.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartyRoleResponse {
+
+    @Schema(description = "ID of the role")
+    private UUID id;
+
+    @Schema(description = "ID of the party holding the role")
+    private UUID partyId;
+
+    @Schema(description = "Type of the party", example = "PERSON")
+    private String partyType;
+
+    @Schema(description = "ID of the company the role is held at")
+    private UUID companyId;
+
+    @Schema(description = "Role of the party", example = "SUPPLIER")
+    private PartyRoleType roleType;
+
+    @Schema(description = "The company's own number for the party in this role", example = "SUP-00042")
+    private String referenceCode;
+
+    @Schema(description = "Whether the role is active")
+    private boolean isActive;
+
+    @Schema(description = "When the role was granted")
+    private OffsetDateTime createdAt;
+
+    @Schema(description = "Version of the role")
+    private Long version;
+}
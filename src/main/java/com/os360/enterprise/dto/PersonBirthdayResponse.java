@@ -0,0 +1,42 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO of an upcoming birthday of a person.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonBirthdayResponse {
+
+    @Schema(description = "ID of the person")
+    private UUID personId;
+
+    @Schema(description = "First name of the person", example = "Ada")
+    private String firstName;
+
+    @Schema(description = "Last name of the person", example = "Lovelace")
+    private String lastName;
+
+    @Schema(description = "Date of birth", example = "1815-12-10")
+    private LocalDate dateOfBirth;
+
+    @Schema(description = "Date the birthday is celebrated next; 28 February for leap day births in common years",
+            example = "2026-12-10")
+    private LocalDate nextBirthday;
+
+    @Schema(description = "Days from the start of the window to the next birthday", example = "3")
+    private int daysUntil;
+
+    @Schema(description = "Age the person turns on the next birthday", example = "211")
+    private int turningAge;
+}
@@ -0,0 +1,38 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO of a person that is a likely duplicate, with its match score.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonDuplicateCandidateResponse {
+
+    @Schema(description = "ID of the person")
+    private UUID id;
+
+    @Schema(description = "First name of the person", example = "Ada")
+    private String firstName;
+
+    @Schema(description = "Last name of the person", example = "Lovelace")
+    private String lastName;
+
+    @Schema(description = "Date of birth of the person", example = "1815-12-10")
+    private LocalDate dateOfBirth;
+
+    @Schema(description = "Country code of the person", example = "GB")
+    private String countryCode;
+
+    @Schema(description = "Best match score of the person, from 0 to 1", example = "0.97")
+    private double score;
+}
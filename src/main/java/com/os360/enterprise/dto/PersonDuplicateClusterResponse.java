@@ -0,0 +1,25 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO of a group of persons that are likely the same person.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonDuplicateClusterResponse {
+
+    @Schema(description = "Highest match score between two persons of the cluster", example = "0.97")
+    private double score;
+
+    @Schema(description = "Persons of the cluster, each with its best match score")
+    private List<PersonDuplicateCandidateResponse> persons;
+}
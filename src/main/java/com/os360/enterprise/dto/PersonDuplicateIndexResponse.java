@@ -0,0 +1,23 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO summarising a rebuild of the duplicate detection index.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonDuplicateIndexResponse {
+
+    @Schema(description = "Number of persons indexed", example = "250000")
+    private long persons;
+
+    @Schema(description = "Number of blocking keys written", example = "742000")
+    private long keys;
+}
@@ -0,0 +1,34 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO of a duplicate scan over all persons.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonDuplicateReportResponse {
+
+    @Schema(description = "Number of blocks (persons sharing a blocking key) compared", example = "18250")
+    private long blocks;
+
+    @Schema(description = "Number of blocks skipped because they hold too many persons", example = "3")
+    private long oversizedBlocks;
+
+    @Schema(description = "Number of person pairs scored", example = "40210")
+    private long comparisons;
+
+    @Schema(description = "Number of duplicate clusters found", example = "152")
+    private long clusterCount;
+
+    @Schema(description = "Clusters by descending score, at most 1000")
+    private List<PersonDuplicateClusterResponse> clusters;
+}
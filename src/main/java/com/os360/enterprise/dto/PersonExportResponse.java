@@ -0,0 +1,28 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * DTO describing a person export written to a server-side file.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonExportResponse {
+
+    @Schema(description = "Name of the export file in the export directory", example = "persons-2025-01.csv.gz")
+    private String fileName;
+
+    @Schema(description = "Number of persons written by this run", example = "1000000")
+    private long rows;
+
+    @Schema(description = "ID of the last person written; pass as after to resume", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")
+    private UUID checkpoint;
+}
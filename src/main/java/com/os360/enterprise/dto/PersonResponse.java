@@ -58,4 +58,7 @@ public class PersonResponse {
     private OffsetDateTime lastModifiedAt;
 
     private UUID lastModifiedBy;
+
+    // Optimistic lock version, also returned as the ETag
+    private Long version;
 }
@@ -0,0 +1,29 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO of a bulk request assigning persons to sites and removing assignments.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonSiteAssignmentBulkRequest {
+
+    @Valid
+    @Schema(description = "Pairs to assign; existing assignments are kept")
+    private List<PersonSiteAssignmentRequest> assign = new ArrayList<>();
+
+    @Valid
+    @Schema(description = "Pairs to unassign; missing assignments are ignored")
+    private List<PersonSiteAssignmentRequest> unassign = new ArrayList<>();
+}
@@ -0,0 +1,29 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO summarising the outcome of a bulk person to site assignment.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonSiteAssignmentBulkResponse {
+
+    @Schema(description = "Number of assignments created", example = "4800")
+    private long assigned;
+
+    @Schema(description = "Number of requested assignments that already existed", example = "200")
+    private long alreadyAssigned;
+
+    @Schema(description = "Number of assignments removed", example = "35")
+    private long unassigned;
+
+    @Schema(description = "Number of persons whose default site changed", example = "12")
+    private long defaultsChanged;
+}
@@ -0,0 +1,31 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * DTO of one (person, site) pair of a bulk assignment request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonSiteAssignmentRequest {
+
+    @NotNull
+    @Schema(description = "ID of the person")
+    private UUID personId;
+
+    @NotNull
+    @Schema(description = "ID of the site")
+    private UUID siteId;
+
+    @Schema(description = "Make this the person's default site (assignments only); the previous default is cleared")
+    private boolean isDefault;
+}
@@ -0,0 +1,47 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * DTO of a person to site assignment, with the names of both sides.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonSiteAssignmentResponse {
+
+    @Schema(description = "ID of the assigned person")
+    private UUID personId;
+
+    @Schema(description = "First name of the person", example = "Ada")
+    private String firstName;
+
+    @Schema(description = "Last name of the person", example = "Lovelace")
+    private String lastName;
+
+    @Schema(description = "ID of the site")
+    private UUID siteId;
+
+    @Schema(description = "ID of the company owning the site")
+    private UUID companyId;
+
+    @Schema(description = "Code of the site", example = "HQ")
+    private String siteCode;
+
+    @Schema(description = "Name of the site", example = "Head Office")
+    private String siteName;
+
+    @Schema(description = "Whether this is the person's default site")
+    private boolean isDefault;
+
+    @Schema(description = "When the person was assigned to the site")
+    private OffsetDateTime assignedAt;
+}
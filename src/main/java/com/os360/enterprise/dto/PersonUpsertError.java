@@ -0,0 +1,29 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO describing a rejected row of a bulk person upsert.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonUpsertError {
+
+    @Schema(description = "Line number of the row in the uploaded file (1-based)", example = "42")
+    private long line;
+
+    @Schema(description = "External system of the row, if present", example = "WORKDAY")
+    private String externalSystem;
+
+    @Schema(description = "External ID of the row, if present", example = "E-10042")
+    private String externalId;
+
+    @Schema(description = "Reason the row was rejected", example = "Person is deleted")
+    private String message;
+}
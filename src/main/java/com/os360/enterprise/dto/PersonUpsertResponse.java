@@ -0,0 +1,37 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO summarising the per-row outcomes of a bulk person upsert.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonUpsertResponse {
+
+    @Schema(description = "Number of data rows read from the upload", example = "200000")
+    private long received;
+
+    @Schema(description = "Number of persons created", example = "1200")
+    private long created;
+
+    @Schema(description = "Number of existing persons updated", example = "3400")
+    private long updated;
+
+    @Schema(description = "Number of rows matching an existing person without changes", example = "195398")
+    private long unchanged;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private long failed;
+
+    @Schema(description = "Per-row errors of the rejected rows")
+    private List<PersonUpsertError> errors;
+}
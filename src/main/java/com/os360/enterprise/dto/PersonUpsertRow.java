@@ -0,0 +1,19 @@
+package com.os360.enterprise.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO representing one person of a bulk upsert (one NDJSON line).
+ * <p>
+ * Carries the same fields as {@link PersonCreateRequest}; {@code externalSystem}
+ * and {@code externalId} are mandatory and identify the person to create or update.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PersonUpsertRow extends PersonCreateRequest {
+}
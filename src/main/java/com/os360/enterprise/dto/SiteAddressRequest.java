@@ -0,0 +1,66 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO for setting the address of a site. Replaces the whole address.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteAddressRequest {
+
+    @Size(min = 2, max = 2)
+    @Schema(description = "ISO 3166-1 alpha-2 country code", example = "GB")
+    private String countryCode;
+
+    @Size(max = 100)
+    @Schema(description = "State, province or region", example = "Greater London")
+    private String administrativeArea;
+
+    @Size(max = 100)
+    @Schema(description = "City, town or municipality", example = "London")
+    private String locality;
+
+    @Size(max = 100)
+    @Schema(description = "Neighborhood, village or subdistrict", example = "Westminster")
+    private String dependentLocality;
+
+    @Size(max = 20)
+    @Schema(description = "Postcode or ZIP code", example = "SW1A 2AA")
+    private String postalCode;
+
+    @Size(max = 200)
+    @Schema(description = "Street number and street name", example = "10 Downing Street")
+    private String thoroughfare;
+
+    @Size(max = 200)
+    @Schema(description = "Building name, apartment, suite or floor")
+    private String premise;
+
+    @Size(max = 300)
+    @Schema(description = "Unstructured address line 1, for non-standard addresses")
+    private String addressLine1;
+
+    @Size(max = 300)
+    @Schema(description = "Unstructured address line 2, for non-standard addresses")
+    private String addressLine2;
+
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    @Schema(description = "Latitude in WGS 84 degrees; set together with longitude", example = "51.5034")
+    private Double latitude;
+
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    @Schema(description = "Longitude in WGS 84 degrees; set together with latitude", example = "-0.1276")
+    private Double longitude;
+}
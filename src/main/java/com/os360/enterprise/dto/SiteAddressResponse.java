@@ -0,0 +1,62 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * DTO of the address of a site.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteAddressResponse {
+
+    @Schema(description = "ID of the site")
+    private UUID siteId;
+
+    @Schema(description = "ISO 3166-1 alpha-2 country code", example = "GB")
+    private String countryCode;
+
+    @Schema(description = "State, province or region", example = "Greater London")
+    private String administrativeArea;
+
+    @Schema(description = "City, town or municipality", example = "London")
+    private String locality;
+
+    @Schema(description = "Neighborhood, village or subdistrict", example = "Westminster")
+    private String dependentLocality;
+
+    @Schema(description = "Postcode or ZIP code", example = "SW1A 2AA")
+    private String postalCode;
+
+    @Schema(description = "Street number and street name", example = "10 Downing Street")
+    private String thoroughfare;
+
+    @Schema(description = "Building name, apartment, suite or floor")
+    private String premise;
+
+    @Schema(description = "Unstructured address line 1, for non-standard addresses")
+    private String addressLine1;
+
+    @Schema(description = "Unstructured address line 2, for non-standard addresses")
+    private String addressLine2;
+
+    @Schema(description = "Latitude in WGS 84 degrees", example = "51.5034")
+    private Double latitude;
+
+    @Schema(description = "Longitude in WGS 84 degrees", example = "-0.1276")
+    private Double longitude;
+
+    @Schema(description = "When the address was last changed")
+    private OffsetDateTime lastModifiedAt;
+
+    @Schema(description = "Version of the address")
+    private Long version;
+}
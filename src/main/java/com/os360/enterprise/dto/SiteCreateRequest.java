@@ -32,6 +32,10 @@ public class SiteCreateRequest {
 
     private boolean isDefault;
 
+    // IANA time zone ID; defaults to the company's default time zone
+    @Size(max = 100, message = "Time zone must not exceed 100 characters")
+    private String timeZone;
+
 
 
 
@@ -0,0 +1,32 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO of a batch conversion of instants to the local date-times of sites.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteLocalTimeRequest {
+
+    @NotEmpty(message = "At least one site ID is required")
+    @Schema(description = "Sites to resolve, up to 1000")
+    private List<@NotNull UUID> siteIds = new ArrayList<>();
+
+    @Schema(description = "Instants to convert at every site; omit for the current time",
+            example = "[\"2026-03-29T00:30:00Z\"]")
+    private List<@NotNull Instant> instants = new ArrayList<>();
+}
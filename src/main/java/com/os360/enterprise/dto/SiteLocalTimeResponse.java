@@ -0,0 +1,39 @@
+package com.os360.enterprise.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO of an instant as seen at a site.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteLocalTimeResponse {
+
+    @Schema(description = "ID of the site")
+    private UUID siteId;
+
+    @Schema(description = "IANA time zone of the site", example = "Europe/London")
+    private String timeZone;
+
+    @Schema(description = "The converted instant", example = "2026-03-29T00:30:00Z")
+    private Instant instant;
+
+    @Schema(description = "Local date-time at the site", example = "2026-03-29T00:30:00")
+    private LocalDateTime localDateTime;
+
+    @Schema(description = "UTC offset in effect at the site", example = "Z")
+    private String utcOffset;
+
+    @Schema(description = "Whether daylight saving time is in effect at the site")
+    private boolean daylightSaving;
+}
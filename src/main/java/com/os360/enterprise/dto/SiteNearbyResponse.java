@@ -0,0 +1,44 @@
+package com.os360.enterprise.dto;
+
+import com.os360.enterprise.enumurations.SiteType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * DTO of a site found near a point, with its great-circle distance.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteNearbyResponse {
+
+    @Schema(description = "ID of the site")
+    private UUID siteId;
+
+    @Schema(description = "ID of the company owning the site")
+    private UUID companyId;
+
+    @Schema(description = "Code of the site", example = "SC-LON")
+    private String code;
+
+    @Schema(description = "Name of the site", example = "London Service Center")
+    private String name;
+
+    @Schema(description = "Type of the site", example = "SERVICE_CENTER")
+    private SiteType siteType;
+
+    @Schema(description = "Latitude of the site", example = "51.5034")
+    private double latitude;
+
+    @Schema(description = "Longitude of the site", example = "-0.1276")
+    private double longitude;
+
+    @Schema(description = "Great-circle distance from the requested point in kilometres", example = "3.2")
+    private double distanceKm;
+}
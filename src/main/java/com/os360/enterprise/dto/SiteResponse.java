@@ -29,4 +29,7 @@ public class SiteResponse {
     private String createdBy;
     private OffsetDateTime lastModifiedAt;
     private String lastModifiedBy;
+
+    // Optimistic lock version, also returned as the ETag
+    private Long version;
 }
@@ -1,13 +1,16 @@
 package com.os360.enterprise.dto;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDate;
 import java.util.Set;
 import java.util.UUID;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class UserResponse extends PersonResponse {
 
     private String username;
@@ -18,4 +21,24 @@ public class UserResponse extends PersonResponse {
 
     // Active roles for this user
     private Set<String> roles;
+
+    /**
+     * Projection constructor used by JPQL constructor expressions; sets the same
+     * fields as {@link com.os360.enterprise.mapper.UserMapper#toResponse}.
+     */
+    public UserResponse(UUID id, String username, boolean enabled, String firstName, String middleName,
+                        String lastName, String preferredName, String countryCode, String gender,
+                        LocalDate dateOfBirth, String profileImageUrl) {
+        setId(id);
+        setFirstName(firstName);
+        setMiddleName(middleName);
+        setLastName(lastName);
+        setPreferredName(preferredName);
+        setCountryCode(countryCode);
+        setGender(gender);
+        setDateOfBirth(dateOfBirth);
+        setProfileImageUrl(profileImageUrl);
+        this.username = username;
+        this.enabled = enabled;
+    }
 }
@@ -5,26 +5,47 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.Set;
 
+/**
+ * Entity representing a company.
+ * <p>
+ * The parent, sites and time zones are lazy. Reads that need them select one of the
+ * named entity graphs below (see {@link com.os360.enterprise.enumurations.CompanyExpand}),
+ * which loads the part for a whole page of companies in one query; code that walks the
+ * associations outside a graph is batch fetched, {@value #BATCH_SIZE} companies at a time.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "company")
+@BatchSize(size = Company.BATCH_SIZE)
+@NamedEntityGraph(name = "Company.parent", attributeNodes = @NamedAttributeNode("parentCompany"))
+@NamedEntityGraph(name = "Company.sites", attributeNodes = @NamedAttributeNode("Sites"))
+@NamedEntityGraph(name = "Company.timeZones", attributeNodes = @NamedAttributeNode("timeZones"))
+@Table(name = "company",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "company_code_key", columnNames = "code")
+        },
+        indexes = {
+                @Index(name = "company_idx_name_id", columnList = "name, id")
+        })
 public class Company extends Party {
 
-    @Column(name = "code", nullable = false, unique = true)
+    static final int BATCH_SIZE = 100;
+
+    @Column(name = "code", nullable = false)
     private String code;
 
     @Column(name = "name", nullable = false, length = 300)
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_company_id")
     private Company parentCompany;
 
@@ -33,9 +54,11 @@ public class Company extends Party {
 
     // Relationships
     @OneToMany(mappedBy = "company", cascade = CascadeType.ALL)
+    @BatchSize(size = BATCH_SIZE)
     private Set<Site> Sites;
 
     @OneToMany(mappedBy = "company", cascade = CascadeType.ALL)
+    @BatchSize(size = BATCH_SIZE)
     private Set<CompanyTimeZone> timeZones;
 //TODO
 //    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL)
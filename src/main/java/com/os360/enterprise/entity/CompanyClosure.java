@@ -0,0 +1,62 @@
+package com.os360.enterprise.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Closure table row of the company hierarchy.
+ * <p>
+ * Stores one row for every (ancestor, descendant) pair reachable through
+ * {@link Company#getParentCompany()}, including a self row with depth 0 for
+ * every company. Subtree and ancestor-chain lookups are then single index
+ * scans instead of walking the parent association one level at a time.
+ * </p>
+ *
+ * Indexes:
+ * - primary key (ancestor_id, descendant_id): descendants of a company.
+ * - company_closure_idx_descendant: ancestors of a company, nearest first.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(CompanyClosure.CompanyClosureId.class)
+@Table(name = "company_closure",
+        indexes = {
+                @Index(name = "company_closure_idx_descendant", columnList = "descendant_id, depth")
+        })
+public class CompanyClosure {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private UUID ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private UUID descendantId;
+
+    /** Number of parent links between ancestor and descendant (0 for the self row). */
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
+    /**
+     * Composite primary key of {@link CompanyClosure}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class CompanyClosureId implements Serializable {
+        private UUID ancestorId;
+        private UUID descendantId;
+    }
+}
@@ -1,4 +1,17 @@
 package com.os360.enterprise.entity;
 
-public class Customer extends PartyRole{
+import com.os360.enterprise.enumurations.PartyRoleType;
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.Entity;
+
+/**
+ * A party buying from the company. Stored as a {@code CUSTOMER} row of {@code party_role}.
+ */
+@Entity
+@DiscriminatorValue("CUSTOMER")
+public class Customer extends PartyRole {
+
+    public Customer() {
+        setRoleType(PartyRoleType.CUSTOMER);
+    }
 }
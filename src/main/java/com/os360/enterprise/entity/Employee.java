@@ -1,4 +1,17 @@
 package com.os360.enterprise.entity;
 
-public class Employee  extends PartyRole{
+import com.os360.enterprise.enumurations.PartyRoleType;
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.Entity;
+
+/**
+ * A person employed by the company. Stored as a {@code EMPLOYEE} row of {@code party_role}.
+ */
+@Entity
+@DiscriminatorValue("EMPLOYEE")
+public class Employee extends PartyRole {
+
+    public Employee() {
+        setRoleType(PartyRoleType.EMPLOYEE);
+    }
 }
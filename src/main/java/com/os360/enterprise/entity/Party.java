@@ -14,7 +14,10 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "party")
+@Table(name = "party",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "party_uc_external_system", columnNames = {"external_system", "external_id"})
+        })
 @Inheritance(strategy = InheritanceType.JOINED)
 public abstract class Party {
     //KEYS
@@ -73,4 +76,17 @@ public abstract class Party {
     @Version
     private Long version;
 
+    /** Stamps the audit timestamps on every JPA write. */
+    @PrePersist
+    void stampCreated() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+
+    @PreUpdate
+    void stampModified() {
+        lastModifiedAt = OffsetDateTime.now();
+    }
+
 }
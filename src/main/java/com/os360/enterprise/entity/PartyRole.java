@@ -1,5 +1,79 @@
 package com.os360.enterprise.entity;
 
+import com.os360.enterprise.enumurations.PartyRoleType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Role a party plays for a company: employee, customer, supplier or vendor.
+ * <p>
+ * All subtypes share the single {@code party_role} table, discriminated by
+ * {@code role_type}, so a role is one narrow row and a lookup by role never
+ * filters on {@code party.party_type}. A party holds each role at most once
+ * per company.
+ * </p>
+ *
+ * Indexes:
+ * - party_role_uc_party_role_company (party_id, role_type, company_id): all roles of a party.
+ * - party_role_idx_company_role (company_id, role_type, party_id): all parties with a role
+ *   for a company, e.g. the suppliers of a company, in party ID order.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "party_role",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "party_role_uc_party_role_company",
+                        columnNames = {"party_id", "role_type", "company_id"})
+        },
+        indexes = {
+                @Index(name = "party_role_idx_company_role", columnList = "company_id, role_type, party_id")
+        })
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "role_type", discriminatorType = DiscriminatorType.STRING, length = 20)
 public abstract class PartyRole {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "party_id", nullable = false, foreignKey = @ForeignKey(name = "fk_party_role_party"))
     private Party party;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false, foreignKey = @ForeignKey(name = "fk_party_role_company"))
+    private Company company;
+
+    /** The discriminator, readable in queries and projections; set by the subtype. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role_type", insertable = false, updatable = false)
+    private PartyRoleType roleType;
+
+    /** The company's own number for the party in this role, e.g. employee or supplier number. */
+    @Column(name = "reference_code", length = 100)
+    private String referenceCode;
+
+    @Column(name = "is_active", nullable = false)
+    private boolean isActive;
+
+    @Column(name = "created_at", updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "version", nullable = false)
+    @Version
+    private Long version;
+
+    @PrePersist
+    void stampCreated() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.os360.enterprise.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Blocking key of a person for duplicate detection.
+ * <p>
+ * Every person gets a few keys built from the phonetic code and the normalized form
+ * of its names, its birth date and its country. Persons sharing a key form a block;
+ * only persons of the same block are compared, so finding the candidates of one
+ * person is an index lookup instead of a scan over the whole population.
+ * </p>
+ *
+ * Indexes:
+ * - primary key (blocking_key, person_id): persons of a block.
+ * - person_blocking_key_idx_person: keys of a person, replaced when it changes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(PersonBlockingKey.PersonBlockingKeyId.class)
+@Table(name = "person_blocking_key",
+        indexes = {
+                @Index(name = "person_blocking_key_idx_person", columnList = "person_id")
+        })
+public class PersonBlockingKey {
+
+    @Id
+    @Column(name = "blocking_key", nullable = false, length = 150)
+    private String blockingKey;
+
+    @Id
+    @Column(name = "person_id", nullable = false)
+    private UUID personId;
+
+    /**
+     * Composite primary key of {@link PersonBlockingKey}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class PersonBlockingKeyId implements Serializable {
+        private String blockingKey;
+        private UUID personId;
+    }
+}
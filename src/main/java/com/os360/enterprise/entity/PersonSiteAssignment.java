@@ -1,10 +1,66 @@
 package com.os360.enterprise.entity;
 
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Assignment of a person to a site the person works at.
+ * <p>
+ * A person can be assigned to many sites and at most one of them is the person's
+ * default site. Rows are written in bulk with set based statements, so the entity
+ * only holds the IDs of both sides instead of associations.
+ * </p>
+ *
+ * Indexes:
+ * - primary key (person_id, site_id): sites of a person.
+ * - person_site_assignment_idx_site: persons of a site.
+ * - person_site_assignment_uc_default (PostgreSQL only): partial unique index
+ *   on person_id where is_default, enforcing one default site per person.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(PersonSiteAssignment.PersonSiteAssignmentId.class)
+@Table(name = "person_site_assignment",
+        indexes = {
+                @Index(name = "person_site_assignment_idx_site", columnList = "site_id, person_id")
+        })
 public class PersonSiteAssignment {
-    private Long id;
-    private Person person;
-    private Site site;
+
+    @Id
+    @Column(name = "person_id", nullable = false)
+    private UUID personId;
+
+    @Id
+    @Column(name = "site_id", nullable = false)
+    private UUID siteId;
+
+    @Column(name = "is_default", nullable = false)
     private boolean isDefault;
 
+    @Column(name = "assigned_at", nullable = false)
+    private OffsetDateTime assignedAt;
 
+    /**
+     * Composite primary key of {@link PersonSiteAssignment}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class PersonSiteAssignmentId implements Serializable {
+        private UUID personId;
+        private UUID siteId;
+    }
 }
@@ -18,11 +18,13 @@ import java.util.UUID;
  * Supports optimistic locking via the `version` field.
  *
  * Indexes:
- * - site_idx_company: for fast lookup of sites by company.
+ * - site_idx_company_code (company_id, is_deleted, site_code, id): sites of a company in code
+ *   order (keyset pagination) and lookup of a site by company and code.
  * - site_idx_site_code: for quick lookup by site code.
  *
+ * Each site has a time zone (`siteTimeZone`), one of the `CompanyTimeZone`s of its company.
+ *
  * TODOs indicate planned relationships and attributes to be implemented later:
- * - Time zone per site (`siteTimeZone`), linked to `CompanyTimeZone`.
  * - Supported languages (`companyLanguages`) for each site.
  * - Communication methods (`communicationMethods`) list.
  */
@@ -35,7 +37,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "site",
         indexes = {
-                @Index(name = "site_idx_company", columnList = "company_id"),
+                @Index(name = "site_idx_company_code", columnList = "company_id, is_deleted, site_code, id"),
                 @Index(name = "site_idx_site_code", columnList = "site_code")
         })
 public class Site {
@@ -44,7 +46,7 @@ public class Site {
     @GeneratedValue
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id", nullable = false)
     private Company company;
 
@@ -58,10 +60,11 @@ public class Site {
     @Column(name = "site_type", nullable = false)
     private SiteType siteType;
 
-//TODO
-//    @ManyToOne
-//    @JoinColumn(name = "company_time_zone_id", nullable = false)
-//    private CompanyTimeZone siteTimeZone;
+    /** Time zone of the site; local times are resolved through {@code SiteTimeZoneCache}. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_time_zone_id", nullable = false)
+    private CompanyTimeZone siteTimeZone;
+
 //TODO
 //    @OneToMany(mappedBy = "company", cascade = CascadeType.ALL)
 //    private Set<CompanyLanguage> companyLanguages;
@@ -101,4 +104,17 @@ public class Site {
     @Column(name = "version", nullable = false)
     @Version
     private Long version;
+
+    /** Stamps the audit timestamps on every JPA write. */
+    @PrePersist
+    void stampCreated() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+
+    @PreUpdate
+    void stampModified() {
+        lastModifiedAt = OffsetDateTime.now();
+    }
 }
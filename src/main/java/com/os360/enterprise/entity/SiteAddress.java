@@ -0,0 +1,80 @@
+package com.os360.enterprise.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Postal address and geolocation of a site, one per site.
+ * <p>
+ * The fields follow {@link CommAddress}. The coordinates feed the in-memory
+ * spatial index behind {@code /api/v1/sites/nearby}; a site without them is
+ * not found by proximity.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "site_address")
+public class SiteAddress {
+
+    /** Same as the ID of the site. */
+    @Id
+    @Column(name = "site_id")
+    private UUID siteId;
+
+    /** ISO 3166-1 alpha-2 country code (e.g., "US", "LK") */
+    @Column(name = "country_code", length = 2)
+    private String countryCode;
+
+    /** Administrative area: state, province, or region */
+    @Column(name = "administrative_area", length = 100)
+    private String administrativeArea;
+
+    /** Locality: usually city, town, or municipality */
+    @Column(name = "locality", length = 100)
+    private String locality;
+
+    /** Dependent locality: neighborhood, village, or subdistrict */
+    @Column(name = "dependent_locality", length = 100)
+    private String dependentLocality;
+
+    /** Postcode or ZIP code */
+    @Column(name = "postal_code", length = 20)
+    private String postalCode;
+
+    /** Thoroughfare: street number and street name */
+    @Column(name = "thoroughfare", length = 200)
+    private String thoroughfare;
+
+    /** Premise: building name, apartment, suite, or floor */
+    @Column(name = "premise", length = 200)
+    private String premise;
+
+    /** Unstructured fallback lines (for non-standard addresses) */
+    @Column(name = "address_line1", length = 300)
+    private String addressLine1;
+
+    @Column(name = "address_line2", length = 300)
+    private String addressLine2;
+
+    /** Latitude/Longitude in WGS 84 degrees (optional, both or neither) */
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    @Column(name = "last_modified_at")
+    private OffsetDateTime lastModifiedAt;
+
+    @Column(name = "version", nullable = false)
+    @Version
+    private Long version;
+}
@@ -1,4 +1,17 @@
 package com.os360.enterprise.entity;
 
-public class Supplier extends PartyRole{
+import com.os360.enterprise.enumurations.PartyRoleType;
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.Entity;
+
+/**
+ * A party supplying goods or services to the company. Stored as a {@code SUPPLIER} row of {@code party_role}.
+ */
+@Entity
+@DiscriminatorValue("SUPPLIER")
+public class Supplier extends PartyRole {
+
+    public Supplier() {
+        setRoleType(PartyRoleType.SUPPLIER);
+    }
 }
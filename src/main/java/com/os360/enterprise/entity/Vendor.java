@@ -1,4 +1,17 @@
 package com.os360.enterprise.entity;
 
-public class Vendor extends PartyRole{
+import com.os360.enterprise.enumurations.PartyRoleType;
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.Entity;
+
+/**
+ * A party selling to the company through its purchasing process. Stored as a {@code VENDOR} row of {@code party_role}.
+ */
+@Entity
+@DiscriminatorValue("VENDOR")
+public class Vendor extends PartyRole {
+
+    public Vendor() {
+        setRoleType(PartyRoleType.VENDOR);
+    }
 }
@@ -0,0 +1,7 @@
+package com.os360.enterprise.enumurations;
+
+public enum ChangeEntityType {
+    COMPANY,
+    SITE,
+    PERSON
+}
@@ -0,0 +1,57 @@
+package com.os360.enterprise.enumurations;
+
+import com.os360.enterprise.exception.validation.ValidationException;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parts of the company aggregate that a read can expand ({@code ?expand=sites,timeZones,parent}).
+ * Each part is loaded through its named entity graph on {@code Company}.
+ */
+public enum CompanyExpand {
+    SITES("sites"),
+    TIME_ZONES("timeZones"),
+    PARENT("parent");
+
+    private final String key;
+
+    CompanyExpand(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Parses the values of an {@code expand} parameter.
+     *
+     * @param values the keys, e.g. {@code ["sites", "parent"]}; null for none
+     * @return the requested parts
+     * @throws ValidationException if a key is unknown
+     */
+    public static Set<CompanyExpand> parse(List<String> values) {
+        Set<CompanyExpand> parts = EnumSet.noneOf(CompanyExpand.class);
+        if (values == null) {
+            return parts;
+        }
+        for (String value : values) {
+            if (value.isBlank()) {
+                continue;
+            }
+            CompanyExpand part = null;
+            for (CompanyExpand candidate : values()) {
+                if (candidate.key.equalsIgnoreCase(value.trim())) {
+                    part = candidate;
+                }
+            }
+            if (part == null) {
+                throw new ValidationException("Unknown expand value; use sites, timeZones or parent", "expand", value);
+            }
+            parts.add(part);
+        }
+        return parts;
+    }
+}
@@ -1,5 +1,5 @@
 package com.os360.enterprise.enumurations;
 
 public enum PartyRoleType {
-    CUSTOMER, EMPLOYEE, SUPPLIER
+    CUSTOMER, EMPLOYEE, SUPPLIER, VENDOR
 }
@@ -7,7 +7,10 @@ import com.os360.enterprise.exception.http.HttpException;
 import jakarta.servlet.http.HttpServletRequest;
 //import org.apache.logging.log4j.LogManager;
 //import org.apache.logging.log4j.Logger;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -27,6 +30,8 @@ import java.util.UUID;
  * <ul>
  *     <li>DomainException – entity/business rule exceptions</li>
  *     <li>ValidationException – validation failures</li>
+ *     <li>MethodArgumentNotValidException – bean validation failures of request bodies</li>
+ *     <li>OptimisticLockingFailureException – concurrent modification of a versioned entity</li>
  *     <li>HttpException – controller-specific HTTP exceptions</li>
  *     <li>ApplicationException – generic application exceptions</li>
  *     <li>Exception – any other uncaught exceptions</li>
@@ -73,6 +78,37 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Handles bean validation failures of {@code @Valid} request bodies.
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, Object>> handleMethodArgumentNotValid(MethodArgumentNotValidException ex) {
+        Map<String, Object> metadata = new HashMap<>();
+        for (FieldError fieldError : ex.getBindingResult().getFieldErrors()) {
+            metadata.putIfAbsent(fieldError.getField(), fieldError.getDefaultMessage());
+        }
+        return buildResponse(
+                "Validation failed",
+                400,
+                "Bad Request",
+                metadata
+        );
+    }
+
+    /**
+     * Handles concurrent modifications detected by the versioned UPDATE of an entity
+     * (another transaction committed a change between read and write).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return buildResponse(
+                "The entity was modified concurrently, reload it and retry",
+                409,
+                "Conflict",
+                null
+        );
+    }
+
     /**
      * Handles HTTP/controller-specific exceptions.
      */
@@ -0,0 +1,32 @@
+package com.os360.enterprise.exception.domain;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exception thrown when a new entity closely matches existing ones and the caller
+ * asked to be stopped in that case.
+ * <p>
+ * Unlike {@link EntityAlreadyExistsException} no unique value is violated; the
+ * metadata lists the IDs of the likely duplicates so the client can review them.
+ * </p>
+ */
+public class EntityDuplicateSuspectedException extends DomainException {
+
+    /**
+     * Constructs a new EntityDuplicateSuspectedException for the given entity type and candidates.
+     *
+     * @param entityType   the class of the entity
+     * @param candidateIds the identifiers of the likely duplicates
+     */
+    public EntityDuplicateSuspectedException(Class<?> entityType, Collection<?> candidateIds) {
+        super(
+                entityType.getSimpleName() + " may already exist: " + candidateIds,
+                HttpStatus.CONFLICT,
+                Map.of("entity", entityType.getSimpleName(), "candidates", List.copyOf(candidateIds))
+        );
+    }
+}
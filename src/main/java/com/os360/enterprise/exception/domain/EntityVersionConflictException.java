@@ -0,0 +1,33 @@
+package com.os360.enterprise.exception.domain;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+
+/**
+ * Exception thrown when a conditional write ({@code If-Match}) targets a version
+ * of an entity that is no longer current.
+ * <p>
+ * Results in HTTP 412 Precondition Failed; the client should re-read the entity
+ * and retry with its current ETag.
+ * </p>
+ */
+public class EntityVersionConflictException extends DomainException {
+
+    /**
+     * Constructs a new EntityVersionConflictException for the given entity and versions.
+     *
+     * @param entityType      the class of the entity
+     * @param id              the identifier of the entity (any type)
+     * @param expectedVersion the version the client expected
+     * @param currentVersion  the version currently stored
+     */
+    public EntityVersionConflictException(Class<?> entityType, Object id, long expectedVersion, long currentVersion) {
+        super(
+                entityType.getSimpleName() + " has been modified: " + id,
+                HttpStatus.PRECONDITION_FAILED,
+                Map.of("entity", entityType.getSimpleName(), "id", id,
+                        "expectedVersion", expectedVersion, "currentVersion", currentVersion)
+        );
+    }
+}
@@ -1,19 +1,93 @@
 package com.os360.enterprise.mapper;
 
 import com.os360.enterprise.dto.CompanyResponse;
+import com.os360.enterprise.dto.CompanyTimeZoneResponse;
 import com.os360.enterprise.entity.Company;
-import org.springframework.beans.BeanUtils;
+import com.os360.enterprise.entity.CompanyTimeZone;
+import com.os360.enterprise.entity.Site;
+import com.os360.enterprise.enumurations.CompanyExpand;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Comparator;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Maps Company entities to response DTOs.
+ * <p>
+ * Fields are copied explicitly instead of through bean introspection, so the
+ * mapping costs plain getter/setter calls and never touches the lazy
+ * {@code Sites} and {@code timeZones} collections. The parent is read through
+ * its ID only, which does not initialize a lazy parent proxy. Only
+ * {@link #toResponse(Company, Set)} reads the associations, and only those the
+ * caller has fetched.
+ */
 @Component
 public class CompanyMapper {
 
+    @Autowired
+    private SiteMapper siteMapper;
+
+    /**
+     * Maps a Company entity to CompanyResponse DTO.
+     *
+     * @param entity the Company entity
+     * @return Optional containing CompanyResponse if entity is not null
+     */
     public Optional<CompanyResponse> toResponse(Company entity) {
+        if (entity == null) {
+            return Optional.empty();
+        }
+
         CompanyResponse dto = new CompanyResponse();
-        BeanUtils.copyProperties(entity, dto);
+        dto.setId(entity.getId());
+        dto.setCode(entity.getCode());
+        dto.setName(entity.getName());
+        dto.setExternalSystem(entity.getExternalSystem());
+        dto.setExternalId(entity.getExternalId());
+        dto.setParentCompanyId(entity.getParentCompany() != null ? entity.getParentCompany().getId() : null);
+        dto.setActive(entity.isActive());
+        dto.setLogoUrl(entity.getLogoUrl());
+        dto.setValidFrom(entity.getValidFrom());
+        dto.setValidTo(entity.getValidTo());
+        dto.setSystemCompany(entity.isSystemCompany());
+        dto.setVersion(entity.getVersion());
+
         return Optional.of(dto);
     }
 
+    /**
+     * Maps a Company entity to CompanyResponse DTO with the requested parts of the aggregate.
+     * The parts must have been fetched (see {@code CompanyService}); the parent is mapped
+     * without parts of its own.
+     *
+     * @param entity the Company entity
+     * @param expand the parts to include
+     * @return Optional containing CompanyResponse if entity is not null
+     */
+    public Optional<CompanyResponse> toResponse(Company entity, Set<CompanyExpand> expand) {
+        Optional<CompanyResponse> response = toResponse(entity);
+        response.ifPresent(dto -> {
+            if (expand.contains(CompanyExpand.PARENT) && entity.getParentCompany() != null) {
+                dto.setParent(toResponse(entity.getParentCompany()).orElseThrow());
+            }
+            if (expand.contains(CompanyExpand.SITES)) {
+                dto.setSites(entity.getSites().stream()
+                        .filter(site -> !site.isDeleted())
+                        .sorted(Comparator.comparing(Site::getSiteCode).thenComparing(Site::getId))
+                        .map(site -> siteMapper.toResponse(site).orElseThrow())
+                        .toList());
+            }
+            if (expand.contains(CompanyExpand.TIME_ZONES)) {
+                dto.setTimeZones(entity.getTimeZones().stream()
+                        .sorted(Comparator.comparing(CompanyTimeZone::isDefault).reversed()
+                                .thenComparing(CompanyTimeZone::getId))
+                        .map(zone -> new CompanyTimeZoneResponse(zone.getId(), zone.getTimeZone(), zone.isDefault()))
+                        .toList());
+            }
+        });
+        return response;
+    }
+
 }
@@ -50,6 +50,7 @@ public class PersonMapper {
         response.setCreatedBy(person.getCreatedBy());
         response.setLastModifiedAt(person.getLastModifiedAt());
         response.setLastModifiedBy(person.getLastModifiedBy());
+        response.setVersion(person.getVersion());
 
         return Optional.of(response);
     }
@@ -26,15 +26,17 @@ public class SiteMapper {
         response.setCompanyId(site.getCompany() != null ? site.getCompany().getId() : null);
         response.setCode(site.getSiteCode());
         response.setName(site.getSiteName());
-       // response.setSiteType(site.getSiteType() != null ? site.getSiteType().name() : null);
+        response.setSiteType(site.getSiteType());
         response.setDefault(site.isDefault());
         response.setActive(site.isActive());
+        response.setDeleted(site.isDeleted());
 
 
         response.setCreatedAt(site.getCreatedAt());
         response.setCreatedBy(site.getCreatedBy() != null ? site.getCreatedBy().toString() : null);
         response.setLastModifiedAt(site.getLastModifiedAt());
         response.setLastModifiedBy(site.getLastModifiedBy() != null ? site.getLastModifiedBy().toString() : null);
+        response.setVersion(site.getVersion());
 
         return Optional.of(response);
     }
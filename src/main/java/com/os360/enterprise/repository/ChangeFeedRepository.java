@@ -0,0 +1,81 @@
+package com.os360.enterprise.repository;
+
+import com.os360.enterprise.enumurations.ChangeEntityType;
+import com.os360.enterprise.enumurations.ChangeOperation;
+import com.os360.enterprise.repository.projection.ChangeLogEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC repository reading the change feed from {@code change_log}.
+ * <p>
+ * Row triggers on {@code party} and {@code site} append one row per written row, in the
+ * writing transaction, whatever the write path (JPA, JDBC batches, set-based updates).
+ * Each row carries a sequence number and the 64-bit ID of its transaction.
+ * <p>
+ * Neither is commit order: a transaction may take its sequence numbers or its ID before
+ * another one that commits first. The feed therefore only reads rows of transactions
+ * below the visibility horizon {@code pg_snapshot_xmin(pg_current_snapshot())}: all of
+ * them have ended, and every transaction still to commit has an ID at or above it. Rows
+ * are read in (transaction ID, sequence) order from {@code change_log_idx_tx_seq}, so a
+ * watermark below the horizon never skips a row committed later.
+ */
+@Repository
+public class ChangeFeedRepository {
+
+    private static final String HORIZON = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /** False only where the database has no snapshot functions and no concurrent writers (H2 tests). */
+    @Value("${enterprise.changes.commit-horizon:true}")
+    private boolean commitHorizon;
+
+    /**
+     * Returns the change log rows after the given position and below the visibility horizon,
+     * ordered by (transaction ID, sequence).
+     *
+     * @param types    entity types to include, not empty
+     * @param afterTx  transaction ID of the last row seen, or -1 to start from the beginning
+     * @param afterSeq sequence number of the last row seen
+     * @param limit    maximum number of rows
+     * @return the rows
+     */
+    public List<ChangeLogEntry> findChanges(Set<ChangeEntityType> types, long afterTx, long afterSeq, int limit) {
+        long horizon = commitHorizon
+                ? jdbcTemplate.getJdbcTemplate().queryForObject(HORIZON, Long.class)
+                : Long.MAX_VALUE;
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("types", types.stream().map(Enum::name).toList())
+                .addValue("afterTx", afterTx)
+                .addValue("afterSeq", afterSeq)
+                .addValue("horizon", horizon)
+                .addValue("limit", limit);
+        return jdbcTemplate.query("""
+                        SELECT tx_id, seq, entity_type, entity_id, operation, version, changed_at
+                        FROM change_log
+                        WHERE tx_id < :horizon
+                          AND (tx_id > :afterTx OR (tx_id = :afterTx AND seq > :afterSeq))
+                          AND entity_type IN (:types)
+                        ORDER BY tx_id, seq
+                        LIMIT :limit
+                        """, parameters,
+                (rs, rowNum) -> new ChangeLogEntry(
+                        rs.getLong("tx_id"),
+                        rs.getLong("seq"),
+                        ChangeEntityType.valueOf(rs.getString("entity_type")),
+                        rs.getObject("entity_id", UUID.class),
+                        ChangeOperation.valueOf(rs.getString("operation")),
+                        rs.getLong("version"),
+                        rs.getObject("changed_at", OffsetDateTime.class)));
+    }
+}
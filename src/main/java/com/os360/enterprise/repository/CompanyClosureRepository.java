@@ -0,0 +1,104 @@
+package com.os360.enterprise.repository;
+
+import com.os360.enterprise.dto.CompanyHierarchyNodeResponse;
+import com.os360.enterprise.entity.CompanyClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the company hierarchy closure table.
+ * <p>
+ * Maintenance statements are set based: attaching or moving a subtree never
+ * loads closure rows into memory.
+ */
+@Repository
+public interface CompanyClosureRepository extends JpaRepository<CompanyClosure, CompanyClosure.CompanyClosureId> {
+
+    /**
+     * Inserts the depth 0 self row of a newly created company.
+     */
+    @Modifying
+    @Query("""
+                INSERT INTO CompanyClosure (ancestorId, descendantId, depth)
+                VALUES (:companyId, :companyId, 0)
+            """)
+    int insertSelf(@Param("companyId") UUID companyId);
+
+    /**
+     * Links every node of the subtree rooted at {@code companyId} to every
+     * ancestor of {@code parentId} (including the parent itself).
+     */
+    @Modifying
+    @Query("""
+                INSERT INTO CompanyClosure (ancestorId, descendantId, depth)
+                SELECT sup.ancestorId, sub.descendantId, sup.depth + sub.depth + 1
+                FROM CompanyClosure sup, CompanyClosure sub
+                WHERE sup.descendantId = :parentId
+                  AND sub.ancestorId = :companyId
+            """)
+    int attachSubtree(@Param("companyId") UUID companyId, @Param("parentId") UUID parentId);
+
+    /**
+     * Removes the links between the subtree rooted at {@code companyId} and
+     * the current (strict) ancestors of that company. Paths inside the subtree are kept.
+     */
+    @Modifying
+    @Query("""
+                DELETE FROM CompanyClosure cc
+                WHERE cc.descendantId IN (
+                        SELECT sub.descendantId FROM CompanyClosure sub WHERE sub.ancestorId = :companyId)
+                  AND cc.ancestorId IN (
+                        SELECT sup.ancestorId FROM CompanyClosure sup
+                        WHERE sup.descendantId = :companyId AND sup.ancestorId <> :companyId)
+            """)
+    int detachSubtree(@Param("companyId") UUID companyId);
+
+    boolean existsByAncestorIdAndDescendantId(UUID ancestorId, UUID descendantId);
+
+    /**
+     * Returns every closure row of the given descendants, including their self rows.
+     * Used to extend the hierarchy in memory when inserting companies in bulk.
+     */
+    List<CompanyClosure> findByDescendantIdIn(Collection<UUID> descendantIds);
+
+    /**
+     * Returns the descendants of a company up to {@code maxDepth} levels, ordered by depth and name.
+     */
+    @Query("""
+                SELECT new com.os360.enterprise.dto.CompanyHierarchyNodeResponse(
+                        c.id, c.code, c.name, c.parentCompany.id, cc.depth, c.isDeleted)
+                FROM CompanyClosure cc
+                JOIN Company c ON c.id = cc.descendantId
+                WHERE cc.ancestorId = :companyId
+                  AND cc.depth > 0
+                  AND cc.depth <= :maxDepth
+                  AND (:includeDeleted = TRUE OR c.isDeleted = FALSE)
+                ORDER BY cc.depth, c.name
+            """)
+    List<CompanyHierarchyNodeResponse> findDescendants(@Param("companyId") UUID companyId,
+                                                       @Param("maxDepth") int maxDepth,
+                                                       @Param("includeDeleted") boolean includeDeleted);
+
+    /**
+     * Returns the ancestors of a company, nearest parent first.
+     */
+    @Query("""
+                SELECT new com.os360.enterprise.dto.CompanyHierarchyNodeResponse(
+                        c.id, c.code, c.name, c.parentCompany.id, cc.depth, c.isDeleted)
+                FROM CompanyClosure cc
+                JOIN Company c ON c.id = cc.ancestorId
+                WHERE cc.descendantId = :companyId
+                  AND cc.depth > 0
+                  AND (:includeDeleted = TRUE OR c.isDeleted = FALSE)
+                ORDER BY cc.depth
+            """)
+    List<CompanyHierarchyNodeResponse> findAncestors(@Param("companyId") UUID companyId,
+                                                     @Param("includeDeleted") boolean includeDeleted);
+}
@@ -1,10 +1,19 @@
 package com.os360.enterprise.repository;
 
 import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.repository.projection.CompanyCreateProbe;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,8 +22,41 @@ public interface CompanyRepository extends JpaRepository<Company, UUID> {
 
     Optional<Company> findByCode(String code);
 
+    /**
+     * Loads the companies with their parents (named graph {@code Company.parent}), in one
+     * query; managed companies get their parent proxies initialized.
+     */
+    @EntityGraph("Company.parent")
+    List<Company> findWithParentByIdIn(Collection<UUID> ids);
+
+    /**
+     * Loads the companies with their sites (named graph {@code Company.sites}), in one query.
+     */
+    @EntityGraph("Company.sites")
+    List<Company> findWithSitesByIdIn(Collection<UUID> ids);
+
+    /**
+     * Loads the companies with their time zones (named graph {@code Company.timeZones}), in one query.
+     */
+    @EntityGraph("Company.timeZones")
+    List<Company> findWithTimeZonesByIdIn(Collection<UUID> ids);
+
+    /**
+     * Returns only the version of a company, without hydrating the entity.
+     * Used to answer conditional requests ({@code If-None-Match}).
+     */
+    @Query("""
+                SELECT c.version
+                FROM Company c
+                WHERE c.id = :id
+            """)
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
     boolean existsByCode(String code);
 
+    @Query("SELECT COUNT(c) > 0 FROM Company c WHERE c.id = :id AND c.isDeleted = FALSE")
+    boolean existsActiveById(@Param("id") UUID id);
+
     Optional<Company> findByExternalSystemAndExternalId(String externalSystem, String externalId);
 
     boolean existsByExternalSystemAndExternalId(String externalSystem, String externalId);
@@ -42,4 +84,117 @@ public interface CompanyRepository extends JpaRepository<Company, UUID> {
 
     boolean existsByIsSystemCompanyTrue();
 
+    /**
+     * Resolves company codes to IDs in one query.
+     * Each row holds the code at index 0 and the ID at index 1.
+     */
+    @Query("""
+                SELECT c.code, c.id
+                FROM Company c
+                WHERE c.code IN :codes
+            """)
+    List<Object[]> findIdsByCodeIn(@Param("codes") Collection<String> codes);
+
+    /**
+     * Returns the (externalSystem, externalId) pairs already used by any party
+     * among the given candidates. The two IN lists over-approximate the pairs,
+     * so callers match the returned rows against their own pairs.
+     */
+    @Query("""
+                SELECT p.externalSystem, p.externalId
+                FROM Party p
+                WHERE p.externalSystem IN :externalSystems
+                  AND p.externalId IN :externalIds
+            """)
+    List<Object[]> findExternalKeysIn(@Param("externalSystems") Collection<String> externalSystems,
+                                      @Param("externalIds") Collection<String> externalIds);
+
+    /**
+     * Answers all company create checks in a single round trip.
+     * <p>
+     * Parameters must not be null (typed null binding is not portable for
+     * native queries); callers pass placeholder values for inputs that were
+     * not supplied and ignore the matching flag.
+     */
+    @Query(value = """
+                SELECT
+                    EXISTS (SELECT 1 FROM company WHERE id = :parentId) AS parentExists,
+                    EXISTS (SELECT 1 FROM company WHERE code = :code) AS codeTaken,
+                    EXISTS (SELECT 1 FROM party
+                            WHERE external_system = :externalSystem
+                              AND external_id = :externalId) AS externalIdTaken,
+                    EXISTS (SELECT 1 FROM company WHERE is_system_company = TRUE) AS systemCompanyTaken
+            """, nativeQuery = true)
+    CompanyCreateProbe probeCreate(@Param("parentId") UUID parentId,
+                                   @Param("code") String code,
+                                   @Param("externalSystem") String externalSystem,
+                                   @Param("externalId") String externalId);
+
+    /**
+     * Returns the first page of companies ordered by (name, id).
+     * <p>
+     * Optional filters are ignored when null. The ordering matches the
+     * {@code company_idx_name_id} index, so the page is served by an index scan.
+     */
+    @Query("""
+                SELECT c
+                FROM Company c
+                WHERE c.isDeleted = :deleted
+                  AND (:countryCode IS NULL OR c.countryCode = :countryCode)
+                  AND (:active IS NULL OR c.isActive = :active)
+                  AND (:validOn IS NULL OR (c.validFrom <= :validOn AND c.validTo >= :validOn))
+                ORDER BY c.name, c.id
+            """)
+    List<Company> findPage(@Param("countryCode") String countryCode,
+                           @Param("active") Boolean active,
+                           @Param("deleted") boolean deleted,
+                           @Param("validOn") LocalDate validOn,
+                           Limit limit);
+
+    /**
+     * Returns the page of companies that follows the given (name, id) keyset position.
+     * Same filters and ordering as {@link #findPage}.
+     */
+    @Query("""
+                SELECT c
+                FROM Company c
+                WHERE c.isDeleted = :deleted
+                  AND (:countryCode IS NULL OR c.countryCode = :countryCode)
+                  AND (:active IS NULL OR c.isActive = :active)
+                  AND (:validOn IS NULL OR (c.validFrom <= :validOn AND c.validTo >= :validOn))
+                  AND (c.name > :afterName OR (c.name = :afterName AND c.id > :afterId))
+                ORDER BY c.name, c.id
+            """)
+    List<Company> findPageAfter(@Param("countryCode") String countryCode,
+                                @Param("active") Boolean active,
+                                @Param("deleted") boolean deleted,
+                                @Param("validOn") LocalDate validOn,
+                                @Param("afterName") String afterName,
+                                @Param("afterId") UUID afterId,
+                                Limit limit);
+
+    /**
+     * Soft deletes a company and its descendants up to {@code maxDepth} levels
+     * (0 for the company only) in one statement, driven by the closure table.
+     * Companies already deleted keep their deletion details.
+     *
+     * @return the number of companies marked deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+                UPDATE party
+                SET is_deleted = TRUE,
+                    deleted_at = :deletedAt,
+                    deleted_by = :deletedBy,
+                    version = version + 1
+                WHERE is_deleted = FALSE
+                  AND id IN (SELECT cc.descendant_id
+                             FROM company_closure cc
+                             WHERE cc.ancestor_id = :companyId
+                               AND cc.depth <= :maxDepth)
+            """, nativeQuery = true)
+    int softDeleteSubtree(@Param("companyId") UUID companyId,
+                          @Param("maxDepth") int maxDepth,
+                          @Param("deletedAt") OffsetDateTime deletedAt,
+                          @Param("deletedBy") UUID deletedBy);
 }
@@ -0,0 +1,32 @@
+package com.os360.enterprise.repository;
+
+import com.os360.enterprise.entity.CompanyTimeZone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for the time zones of a company.
+ */
+@Repository
+public interface CompanyTimeZoneRepository extends JpaRepository<CompanyTimeZone, Long> {
+
+    /**
+     * Find the default time zone of a company.
+     *
+     * @param companyId UUID of the company
+     * @return optional CompanyTimeZone
+     */
+    Optional<CompanyTimeZone> findFirstByCompanyIdAndIsDefaultTrue(UUID companyId);
+
+    /**
+     * Find a time zone of a company by its IANA zone ID; the oldest wins should it occur twice.
+     *
+     * @param companyId UUID of the company
+     * @param timeZone  the IANA time zone ID
+     * @return optional CompanyTimeZone
+     */
+    Optional<CompanyTimeZone> findFirstByCompanyIdAndTimeZoneOrderByIdAsc(UUID companyId, String timeZone);
+}
@@ -0,0 +1,99 @@
+package com.os360.enterprise.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * JDBC repository issuing read-free, column-selective UPDATE statements.
+ * <p>
+ * Used by the conditional (If-Match) write path: instead of loading the entity,
+ * merging and dirty checking, a single {@code UPDATE ... WHERE id = ? AND version = ?}
+ * writes only the supplied columns and bumps the version.
+ * <p>
+ * Table and column names are always compile-time constants of the calling
+ * service, never request input; values are bound as parameters.
+ * <p>
+ * The statements bypass Hibernate, so the persistence context of the surrounding
+ * transaction is flushed before and cleared after each write. Both are no-ops for
+ * the request-scoped transactions of the fast path, which load nothing.
+ */
+@Repository
+public class ConditionalUpdateRepository {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Updates the given columns, stamps {@code last_modified_at} and increments
+     * {@code version}, if the row still has the expected version.
+     *
+     * @param table           the table holding the {@code version} and {@code last_modified_at} columns
+     * @param id              the row ID
+     * @param expectedVersion the version the row must have
+     * @param columns         column names to new values, in statement order (may be empty)
+     * @param condition       additional SQL condition on constant columns, or null
+     * @return true if the row was updated; false if it does not exist, does not
+     *         satisfy the condition or has another version
+     */
+    public boolean updateVersioned(String table, UUID id, long expectedVersion,
+                                   Map<String, Object> columns, String condition) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("expectedVersion", expectedVersion);
+
+        StringJoiner assignments = new StringJoiner(", ");
+        columns.forEach((column, value) -> {
+            assignments.add(column + " = :" + column);
+            parameters.addValue(column, value);
+        });
+        assignments.add("last_modified_at = :lastModifiedAt");
+        parameters.addValue("lastModifiedAt", OffsetDateTime.now());
+        assignments.add("version = version + 1");
+
+        String sql = "UPDATE " + table + " SET " + assignments
+                + " WHERE id = :id AND version = :expectedVersion"
+                + (condition != null ? " AND " + condition : "");
+        return execute(sql, parameters) == 1;
+    }
+
+    /**
+     * Updates the given columns of a row without any version check. Used for the
+     * subclass table of a JOINED entity once its {@code party} row has been
+     * updated with {@link #updateVersioned}.
+     *
+     * @param table   the table name
+     * @param id      the row ID
+     * @param columns column names to new values; nothing is executed if empty
+     */
+    public void update(String table, UUID id, Map<String, Object> columns) {
+        if (columns.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource().addValue("id", id);
+        StringJoiner assignments = new StringJoiner(", ");
+        columns.forEach((column, value) -> {
+            assignments.add(column + " = :" + column);
+            parameters.addValue(column, value);
+        });
+        execute("UPDATE " + table + " SET " + assignments + " WHERE id = :id", parameters);
+    }
+
+    private int execute(String sql, MapSqlParameterSource parameters) {
+        entityManager.flush();
+        int updated = jdbcTemplate.update(sql, parameters);
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,87 @@
+package com.os360.enterprise.repository;
+
+import com.os360.enterprise.dto.PartyRoleResponse;
+import com.os360.enterprise.entity.PartyRole;
+import com.os360.enterprise.enumurations.PartyRoleType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for the roles parties hold at companies.
+ * <p>
+ * Both listings are keyset paginated in index order, so every page is one bounded
+ * range scan: the parties with a role at a company read
+ * {@code party_role_idx_company_role}, the roles of a party read
+ * {@code party_role_uc_party_role_company}. The projections also read the reference
+ * code, timestamps and version and join {@code party}, so each row of a page is
+ * fetched from the table; the indexes are not covering. Roles of deleted parties
+ * are not listed.
+ */
+@Repository
+public interface PartyRoleRepository extends JpaRepository<PartyRole, UUID> {
+
+    @Query("""
+                SELECT new com.os360.enterprise.dto.PartyRoleResponse(
+                    r.id, p.id, p.partyType, r.company.id, r.roleType, r.referenceCode,
+                    r.isActive, r.createdAt, r.version)
+                FROM PartyRole r
+                JOIN Party p ON p.id = r.party.id
+                WHERE r.id = :id
+            """)
+    Optional<PartyRoleResponse> findResponseById(@Param("id") UUID id);
+
+    /**
+     * Returns the parties holding a role at a company ordered by party ID, starting after
+     * {@code afterPartyId} (a nil UUID for the first page).
+     */
+    @Query("""
+                SELECT new com.os360.enterprise.dto.PartyRoleResponse(
+                    r.id, p.id, p.partyType, r.company.id, r.roleType, r.referenceCode,
+                    r.isActive, r.createdAt, r.version)
+                FROM PartyRole r
+                JOIN Party p ON p.id = r.party.id
+                WHERE r.company.id = :companyId
+                  AND r.roleType = :roleType
+                  AND r.party.id > :afterPartyId
+                  AND p.isDeleted = FALSE
+                ORDER BY r.party.id
+            """)
+    List<PartyRoleResponse> findByCompanyAndRole(@Param("companyId") UUID companyId,
+                                                 @Param("roleType") PartyRoleType roleType,
+                                                 @Param("afterPartyId") UUID afterPartyId,
+                                                 Limit limit);
+
+    /**
+     * Returns the roles of a party ordered by role and company ID, starting after
+     * ({@code afterRoleType}, {@code afterCompanyId}); a null role type starts at the first page.
+     */
+    @Query("""
+                SELECT new com.os360.enterprise.dto.PartyRoleResponse(
+                    r.id, p.id, p.partyType, r.company.id, r.roleType, r.referenceCode,
+                    r.isActive, r.createdAt, r.version)
+                FROM PartyRole r
+                JOIN Party p ON p.id = r.party.id
+                WHERE r.party.id = :partyId
+                  AND (:afterRoleType IS NULL
+                       OR r.roleType > :afterRoleType
+                       OR (r.roleType = :afterRoleType AND r.company.id > :afterCompanyId))
+                ORDER BY r.roleType, r.company.id
+            """)
+    List<PartyRoleResponse> findByParty(@Param("partyId") UUID partyId,
+                                        @Param("afterRoleType") PartyRoleType afterRoleType,
+                                        @Param("afterCompanyId") UUID afterCompanyId,
+                                        Limit limit);
+
+    @Query("SELECT COUNT(p) > 0 FROM Party p WHERE p.id = :id AND p.isDeleted = FALSE")
+    boolean existsActiveParty(@Param("id") UUID id);
+
+    @Query("SELECT COUNT(c) > 0 FROM Company c WHERE c.id = :id AND c.isDeleted = FALSE")
+    boolean existsActiveCompany(@Param("id") UUID id);
+}
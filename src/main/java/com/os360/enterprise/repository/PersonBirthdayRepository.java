@@ -0,0 +1,91 @@
+package com.os360.enterprise.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC repository for birthday lookups by day of the year.
+ * <p>
+ * The birthday key is {@code month * 100 + day} of {@code person.date_of_birth}
+ * (e.g. 1231 for 31 December, 229 for leap day), computed by {@link #BIRTHDAY_KEY}.
+ * The query repeats the expression of {@code person_idx_birthday} verbatim, so a key
+ * range is one range scan of that index in (key, ID) order instead of a full scan.
+ */
+@Repository
+public class PersonBirthdayRepository {
+
+    /** Must match the expression of person_idx_birthday. */
+    static final String BIRTHDAY_KEY =
+            "CAST(EXTRACT(MONTH FROM pe.date_of_birth) * 100 + EXTRACT(DAY FROM pe.date_of_birth) AS INTEGER)";
+
+    private static final String SELECT_BY_KEY_RANGE = """
+            SELECT pe.id, pe.first_name, pe.last_name, pe.date_of_birth, %1$s AS birthday_key
+            FROM person pe
+            JOIN party p ON p.id = pe.id
+            WHERE pe.date_of_birth IS NOT NULL
+              AND %1$s BETWEEN :fromKey AND :toKey
+              AND (%1$s > :afterKey OR (%1$s = :afterKey AND pe.id > :afterId))
+              AND p.is_deleted = FALSE
+            """.formatted(BIRTHDAY_KEY);
+
+    private static final String SITE_FILTER = """
+            AND EXISTS (SELECT 1 FROM person_site_assignment a
+                        WHERE a.person_id = pe.id AND a.site_id = :siteId)
+            """;
+
+    private static final String COMPANY_FILTER = """
+            AND EXISTS (SELECT 1 FROM person_site_assignment a
+                        JOIN site s ON s.id = a.site_id
+                        WHERE a.person_id = pe.id AND s.company_id = :companyId AND s.is_deleted = FALSE)
+            """;
+
+    private static final String ORDER_AND_LIMIT = """
+            ORDER BY birthday_key, pe.id
+            LIMIT :limit
+            """;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /** A person with a birthday in the requested key range. */
+    public record BirthdayRow(UUID id, String firstName, String lastName, LocalDate dateOfBirth, int birthdayKey) {
+    }
+
+    /**
+     * Returns non-deleted persons whose birthday key lies in [{@code fromKey}, {@code toKey}],
+     * ordered by key and ID, starting after ({@code afterKey}, {@code afterId}).
+     *
+     * @param siteId    only persons assigned to this site; may be null
+     * @param companyId only persons assigned to a site of this company; may be null
+     * @param limit     maximum number of rows
+     */
+    public List<BirthdayRow> findByKeyRange(int fromKey, int toKey, int afterKey, UUID afterId,
+                                            UUID siteId, UUID companyId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_BY_KEY_RANGE);
+        if (siteId != null) {
+            sql.append(SITE_FILTER);
+        }
+        if (companyId != null) {
+            sql.append(COMPANY_FILTER);
+        }
+        sql.append(ORDER_AND_LIMIT);
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("fromKey", fromKey)
+                .addValue("toKey", toKey)
+                .addValue("afterKey", afterKey)
+                .addValue("afterId", afterId)
+                .addValue("siteId", siteId)
+                .addValue("companyId", companyId)
+                .addValue("limit", limit);
+        return namedParameterJdbcTemplate.query(sql.toString(), parameters, (rs, rowNum) -> new BirthdayRow(
+                rs.getObject("id", UUID.class), rs.getString("first_name"), rs.getString("last_name"),
+                rs.getObject("date_of_birth", LocalDate.class), rs.getInt("birthday_key")));
+    }
+}
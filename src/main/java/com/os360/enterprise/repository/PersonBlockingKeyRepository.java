@@ -0,0 +1,187 @@
+package com.os360.enterprise.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC repository for the duplicate detection blocking keys of persons.
+ * <p>
+ * Candidates are read straight from {@code person_blocking_key} joined to the
+ * non-deleted persons, as the few columns needed for scoring. Like
+ * {@link PersonJdbcRepository}, the block scan streams through a forward-only
+ * cursor and must run inside a transaction.
+ */
+@Repository
+public class PersonBlockingKeyRepository {
+
+    private static final String SELECT_BY_KEYS = """
+            SELECT DISTINCT p.id, pe.first_name, pe.last_name, pe.date_of_birth, p.country_code
+            FROM person_blocking_key k
+            JOIN party p ON p.id = k.person_id
+            JOIN person pe ON pe.id = k.person_id
+            WHERE k.blocking_key IN (:keys) AND p.is_deleted = FALSE
+            """;
+
+    private static final String SELECT_BLOCKS = """
+            SELECT k.blocking_key, p.id, pe.first_name, pe.last_name, pe.date_of_birth, p.country_code
+            FROM person_blocking_key k
+            JOIN party p ON p.id = k.person_id
+            JOIN person pe ON pe.id = k.person_id
+            WHERE p.is_deleted = FALSE
+            ORDER BY k.blocking_key
+            """;
+
+    private static final String INSERT_KEY = """
+            INSERT INTO person_blocking_key (blocking_key, person_id)
+            VALUES (:blockingKey, :personId)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /** The fields of a person that duplicate scoring looks at. */
+    public record MatchFields(UUID id, String firstName, String lastName, LocalDate dateOfBirth, String countryCode) {
+    }
+
+    /**
+     * Persons sharing a blocking key.
+     *
+     * @param key     the blocking key
+     * @param persons the persons of the block, at most the requested maximum
+     * @param size    the number of persons in the block, including those not returned
+     */
+    public record Block(String key, List<MatchFields> persons, int size) {
+    }
+
+    /**
+     * Returns the non-deleted persons holding any of the given keys, each once.
+     *
+     * @param keys  blocking keys
+     * @param limit maximum number of persons returned
+     */
+    public List<MatchFields> findByKeys(Collection<String> keys, int limit) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("keys", keys).addValue("limit", limit);
+        return namedParameterJdbcTemplate.query(SELECT_BY_KEYS + " LIMIT :limit", parameters,
+                (rs, rowNum) -> mapRow(rs));
+    }
+
+    /**
+     * Streams the blocks of two or more non-deleted persons in key order.
+     *
+     * @param maxPersons maximum number of persons kept per block; larger blocks are passed truncated
+     * @param consumer   receives one block at a time
+     */
+    public void forEachBlock(int maxPersons, Consumer<Block> consumer) {
+        BlockReader reader = new BlockReader(maxPersons, consumer);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_BLOCKS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(PersonJdbcRepository.FETCH_SIZE);
+            return statement;
+        }, reader::add);
+        reader.flush();
+    }
+
+    /**
+     * Replaces the keys of the given persons.
+     *
+     * @param keysByPerson new keys per person ID; an empty list removes the person's keys
+     */
+    public void replaceKeys(Map<UUID, List<String>> keysByPerson) {
+        if (keysByPerson.isEmpty()) {
+            return;
+        }
+        deleteByPersonIds(keysByPerson.keySet());
+        insertKeys(keysByPerson);
+    }
+
+    /**
+     * Inserts keys for persons that have none yet, in one batched statement.
+     *
+     * @param keysByPerson keys per person ID
+     */
+    public void insertKeys(Map<UUID, List<String>> keysByPerson) {
+        List<SqlParameterSource> parameters = new ArrayList<>();
+        keysByPerson.forEach((personId, keys) -> keys.forEach(key -> parameters.add(new MapSqlParameterSource()
+                .addValue("blockingKey", key)
+                .addValue("personId", personId))));
+        if (!parameters.isEmpty()) {
+            namedParameterJdbcTemplate.batchUpdate(INSERT_KEY, parameters.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    /**
+     * Removes the keys of the given persons.
+     */
+    public void deleteByPersonIds(Collection<UUID> personIds) {
+        namedParameterJdbcTemplate.update("DELETE FROM person_blocking_key WHERE person_id IN (:ids)",
+                new MapSqlParameterSource("ids", personIds));
+    }
+
+    /**
+     * Removes every key, before a rebuild.
+     */
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM person_blocking_key");
+    }
+
+    private static MatchFields mapRow(ResultSet rs) throws SQLException {
+        return new MatchFields(rs.getObject("id", UUID.class), rs.getString("first_name"), rs.getString("last_name"),
+                rs.getObject("date_of_birth", LocalDate.class), rs.getString("country_code"));
+    }
+
+    /** Groups consecutive rows of the same key into blocks. */
+    private static final class BlockReader {
+        private final int maxPersons;
+        private final Consumer<Block> consumer;
+        private String key;
+        private List<MatchFields> persons = new ArrayList<>();
+        private int size;
+
+        private BlockReader(int maxPersons, Consumer<Block> consumer) {
+            this.maxPersons = maxPersons;
+            this.consumer = consumer;
+        }
+
+        private void add(ResultSet rs) throws SQLException {
+            String rowKey = rs.getString("blocking_key");
+            if (!rowKey.equals(key)) {
+                flush();
+                key = rowKey;
+            }
+            size++;
+            if (persons.size() < maxPersons) {
+                persons.add(mapRow(rs));
+            }
+        }
+
+        private void flush() {
+            if (size > 1) {
+                consumer.accept(new Block(key, persons, size));
+            }
+            persons = new ArrayList<>();
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.os360.enterprise.repository;
+
+import com.os360.enterprise.dto.PersonResponse;
+import com.os360.enterprise.enumurations.PersonTitle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC repository for set based person reads and writes.
+ * <p>
+ * Rows are mapped straight to {@link PersonResponse} without entities or a
+ * persistence context, so memory use does not grow with the number of rows.
+ * PostgreSQL only honours the fetch size inside a transaction (auto-commit off);
+ * callers must run in one.
+ * <p>
+ * The bulk upsert statements bypass Hibernate as well; callers flush and clear the
+ * persistence context around them.
+ */
+@Repository
+public class PersonJdbcRepository {
+
+    /** Rows fetched per round trip by the cursor. */
+    public static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_ACTIVE_PERSONS = """
+            SELECT p.id, p.external_system, p.external_id, p.country_code,
+                   p.is_active, p.is_deleted, p.created_at, p.created_by,
+                   p.last_modified_at, p.last_modified_by, p.version,
+                   pe.title, pe.first_name, pe.middle_name, pe.last_name, pe.preferred_name,
+                   pe.gender, pe.date_of_birth, pe.profile_image_url
+            FROM person pe
+            JOIN party p ON p.id = pe.id
+            WHERE p.is_deleted = FALSE
+            ORDER BY pe.last_name, pe.first_name, pe.id
+            """;
+
+    /** Export order: primary key, so a checkpoint is just the last exported ID. */
+    private static final String SELECT_ACTIVE_PERSONS_BY_ID = """
+            SELECT p.id, p.external_system, p.external_id, p.country_code,
+                   p.is_active, p.is_deleted, p.created_at, p.created_by,
+                   p.last_modified_at, p.last_modified_by, p.version,
+                   pe.title, pe.first_name, pe.middle_name, pe.last_name, pe.preferred_name,
+                   pe.gender, pe.date_of_birth, pe.profile_image_url
+            FROM person pe
+            JOIN party p ON p.id = pe.id
+            WHERE p.is_deleted = FALSE
+            """;
+
+    /** Left join so that a company holding the external key is reported too. */
+    private static final String SELECT_BY_EXTERNAL_KEYS = """
+            SELECT p.id, p.party_type, p.external_system, p.external_id, p.country_code,
+                   p.is_active, p.is_deleted, p.created_at, p.created_by,
+                   p.last_modified_at, p.last_modified_by, p.version,
+                   pe.title, pe.first_name, pe.middle_name, pe.last_name, pe.preferred_name,
+                   pe.gender, pe.date_of_birth, pe.profile_image_url
+            FROM party p
+            LEFT JOIN person pe ON pe.id = p.id
+            WHERE (p.external_system, p.external_id) IN (:keys)
+            """;
+
+    private static final String INSERT_PARTY = """
+            INSERT INTO party (id, party_type, external_system, external_id, country_code,
+                               is_active, is_deleted, created_at, version)
+            VALUES (:id, 'PERSON', :externalSystem, :externalId, :countryCode,
+                    :isActive, FALSE, :createdAt, :version)
+            """;
+
+    private static final String INSERT_PERSON = """
+            INSERT INTO person (id, title, first_name, middle_name, last_name, preferred_name,
+                                gender, date_of_birth, profile_image_url)
+            VALUES (:id, :title, :firstName, :middleName, :lastName, :preferredName,
+                    :gender, :dateOfBirth, :profileImageUrl)
+            """;
+
+    private static final String UPDATE_PARTY = """
+            UPDATE party
+            SET country_code = :countryCode, is_active = :isActive,
+                last_modified_at = :lastModifiedAt, version = version + 1
+            WHERE id = :id AND version = :version AND is_deleted = FALSE
+            """;
+
+    private static final String UPDATE_PERSON = """
+            UPDATE person
+            SET title = :title, first_name = :firstName, middle_name = :middleName,
+                last_name = :lastName, preferred_name = :preferredName, gender = :gender,
+                date_of_birth = :dateOfBirth, profile_image_url = :profileImageUrl
+            WHERE id = :id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /** A party holding an external key; {@code person} columns are null for other party types. */
+    public record ExternalKeyMatch(String partyType, PersonResponse person) {
+    }
+
+    /**
+     * Passes every non-deleted person, ordered by (last name, first name, id), to the consumer.
+     *
+     * @param consumer receives one row at a time
+     */
+    public void forEachPerson(Consumer<PersonResponse> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ACTIVE_PERSONS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+    }
+
+    /**
+     * Passes the non-deleted persons with an ID greater than {@code afterId}, ordered by ID,
+     * to the consumer.
+     *
+     * @param afterId  checkpoint of a previous run, or null to start from the first person
+     * @param consumer receives one row at a time
+     */
+    public void forEachPersonAfter(UUID afterId, Consumer<PersonResponse> consumer) {
+        String sql = SELECT_ACTIVE_PERSONS_BY_ID
+                + (afterId != null ? "AND pe.id > ?\n" : "")
+                + "ORDER BY pe.id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            if (afterId != null) {
+                statement.setObject(1, afterId);
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+    }
+
+    /**
+     * Finds the parties holding any of the given external keys, in a single query.
+     *
+     * @param keys {@code {externalSystem, externalId}} pairs, at most a few thousand
+     * @return one match per existing key, in no particular order
+     */
+    public List<ExternalKeyMatch> findByExternalKeys(List<Object[]> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.query(SELECT_BY_EXTERNAL_KEYS, new MapSqlParameterSource("keys", keys),
+                (rs, rowNum) -> new ExternalKeyMatch(rs.getString("party_type"), mapRow(rs)));
+    }
+
+    /**
+     * Inserts new persons with one batched statement on {@code party} and one on {@code person}.
+     *
+     * @param persons the persons to insert, with ID, creation time and version already assigned
+     */
+    public void insertPersons(List<PersonResponse> persons) {
+        if (persons.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] parameters = persons.stream().map(this::parameters).toArray(SqlParameterSource[]::new);
+        namedParameterJdbcTemplate.batchUpdate(INSERT_PARTY, parameters);
+        namedParameterJdbcTemplate.batchUpdate(INSERT_PERSON, parameters);
+    }
+
+    /**
+     * Updates existing persons with one batched statement on {@code party} and one on
+     * {@code person}, incrementing their versions.
+     *
+     * @param persons the new states, carrying the version they were read with
+     * @throws OptimisticLockingFailureException if a person was modified or deleted since it was read
+     */
+    public void updatePersons(List<PersonResponse> persons) {
+        if (persons.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] parameters = persons.stream().map(this::parameters).toArray(SqlParameterSource[]::new);
+        int[] counts = namedParameterJdbcTemplate.batchUpdate(UPDATE_PARTY, parameters);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new OptimisticLockingFailureException("Person was modified concurrently: " + persons.get(i).getId());
+            }
+        }
+        namedParameterJdbcTemplate.batchUpdate(UPDATE_PERSON, parameters);
+    }
+
+    private SqlParameterSource parameters(PersonResponse person) {
+        return new MapSqlParameterSource()
+                .addValue("id", person.getId())
+                .addValue("externalSystem", person.getExternalSystem())
+                .addValue("externalId", person.getExternalId())
+                .addValue("countryCode", person.getCountryCode())
+                .addValue("isActive", person.isActive())
+                .addValue("createdAt", person.getCreatedAt())
+                .addValue("lastModifiedAt", person.getLastModifiedAt())
+                .addValue("version", person.getVersion())
+                .addValue("title", person.getTitle() != null ? person.getTitle().name() : null)
+                .addValue("firstName", person.getFirstName())
+                .addValue("middleName", person.getMiddleName())
+                .addValue("lastName", person.getLastName())
+                .addValue("preferredName", person.getPreferredName())
+                .addValue("gender", person.getGender())
+                .addValue("dateOfBirth", person.getDateOfBirth())
+                .addValue("profileImageUrl", person.getProfileImageUrl());
+    }
+
+    private PersonResponse mapRow(ResultSet rs) throws SQLException {
+        PersonResponse response = new PersonResponse();
+        response.setId(rs.getObject("id", UUID.class));
+        response.setExternalSystem(rs.getString("external_system"));
+        response.setExternalId(rs.getString("external_id"));
+        response.setCountryCode(rs.getString("country_code"));
+        String title = rs.getString("title");
+        response.setTitle(title != null ? PersonTitle.valueOf(title) : null);
+        response.setFirstName(rs.getString("first_name"));
+        response.setMiddleName(rs.getString("middle_name"));
+        response.setLastName(rs.getString("last_name"));
+        response.setPreferredName(rs.getString("preferred_name"));
+        response.setGender(rs.getString("gender"));
+        response.setDateOfBirth(rs.getObject("date_of_birth", LocalDate.class));
+        response.setProfileImageUrl(rs.getString("profile_image_url"));
+        response.setActive(rs.getBoolean("is_active"));
+        response.setDeleted(rs.getBoolean("is_deleted"));
+        response.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        response.setCreatedBy(rs.getObject("created_by", UUID.class));
+        response.setLastModifiedAt(rs.getObject("last_modified_at", OffsetDateTime.class));
+        response.setLastModifiedBy(rs.getObject("last_modified_by", UUID.class));
+        response.setVersion(rs.getLong("version"));
+        return response;
+    }
+}
@@ -1,13 +1,88 @@
 package com.os360.enterprise.repository;
 
+import com.os360.enterprise.dto.PersonResponse;
 import com.os360.enterprise.entity.Person;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface PersonRepository extends JpaRepository<Person, UUID> {
-    List<Person> findAllByIsDeletedFalse();
+    /**
+     * Select list projecting {@code Person p} into a {@link PersonResponse}, shared by the response queries below.
+     */
+    String SELECT_RESPONSE = """
+                SELECT new com.os360.enterprise.dto.PersonResponse(
+                    p.id, p.externalSystem, p.externalId, p.countryCode, p.title,
+                    p.firstName, p.middleName, p.lastName, p.preferredName, p.gender,
+                    p.dateOfBirth, p.profileImageUrl, p.isActive, p.isDeleted,
+                    p.createdAt, p.createdBy, p.lastModifiedAt, p.lastModifiedBy, p.version)
+            """;
+
     Optional<Person> findByIdAndIsDeletedFalse(UUID id);
+
+    /**
+     * Returns only the version of a non-deleted person, without hydrating the entity.
+     * Used to answer conditional requests ({@code If-None-Match}).
+     */
+    @Query("""
+                SELECT p.version
+                FROM Person p
+                WHERE p.id = :id
+                  AND p.isDeleted = FALSE
+            """)
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Returns a non-deleted person projected straight into its response DTO,
+     * without hydrating (or dirty checking) the entity.
+     */
+    @Query(SELECT_RESPONSE + """
+                FROM Person p
+                WHERE p.id = :id
+                  AND p.isDeleted = FALSE
+            """)
+    Optional<PersonResponse> findResponseById(@Param("id") UUID id);
+
+    /**
+     * Returns the given persons, including soft deleted ones, projected into their response DTOs.
+     */
+    @Query(SELECT_RESPONSE + """
+                FROM Person p
+                WHERE p.id IN :ids
+            """)
+    List<PersonResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Returns the first page of non-deleted persons ordered by (lastName, firstName, id),
+     * projected into response DTOs. The ordering matches the {@code person_idx_name} index.
+     */
+    @Query(SELECT_RESPONSE + """
+                FROM Person p
+                WHERE p.isDeleted = FALSE
+                ORDER BY p.lastName, p.firstName, p.id
+            """)
+    List<PersonResponse> findPage(Limit limit);
+
+    /**
+     * Returns the page of non-deleted persons that follows the given
+     * (lastName, firstName, id) keyset position. Same ordering as {@link #findPage}.
+     */
+    @Query(SELECT_RESPONSE + """
+                FROM Person p
+                WHERE p.isDeleted = FALSE
+                  AND (p.lastName > :afterLastName
+                       OR (p.lastName = :afterLastName AND p.firstName > :afterFirstName)
+                       OR (p.lastName = :afterLastName AND p.firstName = :afterFirstName AND p.id > :afterId))
+                ORDER BY p.lastName, p.firstName, p.id
+            """)
+    List<PersonResponse> findPageAfter(@Param("afterLastName") String afterLastName,
+                                       @Param("afterFirstName") String afterFirstName,
+                                       @Param("afterId") UUID afterId,
+                                       Limit limit);
 }
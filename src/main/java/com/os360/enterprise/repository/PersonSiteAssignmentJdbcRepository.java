@@ -0,0 +1,150 @@
+package com.os360.enterprise.repository;
+
+import com.os360.enterprise.dto.PersonSiteAssignmentRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC repository writing person to site assignments in bulk.
+ * <p>
+ * Every operation is one batched statement over all given pairs, each row touching
+ * only its own assignment through the primary key. Switching a default site clears
+ * the previous default through the partial {@code person_site_assignment_uc_default}
+ * index and then sets the new one: two single-row updates per person, never a scan
+ * of the person's other assignments. A concurrent switch for the same person fails
+ * on that unique index instead of leaving two defaults.
+ */
+@Repository
+public class PersonSiteAssignmentJdbcRepository {
+
+    private static final String SELECT_ACTIVE_PERSON_IDS = """
+            SELECT p.id
+            FROM party p
+            WHERE p.id IN (:ids) AND p.party_type = 'PERSON' AND p.is_deleted = FALSE
+            """;
+
+    private static final String SELECT_ACTIVE_SITE_IDS = """
+            SELECT s.id
+            FROM site s
+            WHERE s.id IN (:ids) AND s.is_deleted = FALSE
+            """;
+
+    /** Insert-if-absent that runs on PostgreSQL and H2 alike. */
+    private static final String INSERT_ASSIGNMENT = """
+            INSERT INTO person_site_assignment (person_id, site_id, is_default, assigned_at)
+            SELECT :personId, :siteId, FALSE, :assignedAt
+            WHERE NOT EXISTS (SELECT 1 FROM person_site_assignment a
+                              WHERE a.person_id = :personId AND a.site_id = :siteId)
+            """;
+
+    private static final String DELETE_ASSIGNMENT = """
+            DELETE FROM person_site_assignment
+            WHERE person_id = :personId AND site_id = :siteId
+            """;
+
+    private static final String CLEAR_OTHER_DEFAULT = """
+            UPDATE person_site_assignment
+            SET is_default = FALSE
+            WHERE person_id = :personId AND is_default = TRUE AND site_id <> :siteId
+            """;
+
+    private static final String SET_DEFAULT = """
+            UPDATE person_site_assignment
+            SET is_default = TRUE
+            WHERE person_id = :personId AND site_id = :siteId AND is_default = FALSE
+            """;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Returns which of the given IDs belong to non-deleted persons.
+     *
+     * @param ids person IDs, at most a few thousand
+     */
+    public Set<UUID> findActivePersonIds(Collection<UUID> ids) {
+        return findIds(SELECT_ACTIVE_PERSON_IDS, ids);
+    }
+
+    /**
+     * Returns which of the given IDs belong to non-deleted sites.
+     *
+     * @param ids site IDs, at most a few thousand
+     */
+    public Set<UUID> findActiveSiteIds(Collection<UUID> ids) {
+        return findIds(SELECT_ACTIVE_SITE_IDS, ids);
+    }
+
+    /**
+     * Creates the missing assignments as non-default ones.
+     *
+     * @param pairs      the (person, site) pairs to assign
+     * @param assignedAt assignment time of the new rows
+     * @return the number of assignments created
+     */
+    public long insertMissing(List<PersonSiteAssignmentRequest> pairs, OffsetDateTime assignedAt) {
+        SqlParameterSource[] parameters = pairs.stream()
+                .map(pair -> parameters(pair).addValue("assignedAt", assignedAt))
+                .toArray(SqlParameterSource[]::new);
+        return sum(namedParameterJdbcTemplate.batchUpdate(INSERT_ASSIGNMENT, parameters));
+    }
+
+    /**
+     * Removes the given assignments.
+     *
+     * @return the number of assignments removed
+     */
+    public long delete(List<PersonSiteAssignmentRequest> pairs) {
+        return sum(namedParameterJdbcTemplate.batchUpdate(DELETE_ASSIGNMENT, toParameters(pairs)));
+    }
+
+    /**
+     * Makes each site the default site of its person, clearing the previous default.
+     * Each person must appear at most once and be assigned to the site already.
+     *
+     * @return the number of persons whose default site changed
+     */
+    public long switchDefaults(List<PersonSiteAssignmentRequest> pairs) {
+        SqlParameterSource[] parameters = toParameters(pairs);
+        namedParameterJdbcTemplate.batchUpdate(CLEAR_OTHER_DEFAULT, parameters);
+        return sum(namedParameterJdbcTemplate.batchUpdate(SET_DEFAULT, parameters));
+    }
+
+    private Set<UUID> findIds(String sql, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(sql, new MapSqlParameterSource("ids", ids), UUID.class));
+    }
+
+    private SqlParameterSource[] toParameters(List<PersonSiteAssignmentRequest> pairs) {
+        return pairs.stream().map(this::parameters).toArray(SqlParameterSource[]::new);
+    }
+
+    private MapSqlParameterSource parameters(PersonSiteAssignmentRequest pair) {
+        return new MapSqlParameterSource()
+                .addValue("personId", pair.getPersonId())
+                .addValue("siteId", pair.getSiteId());
+    }
+
+    /** Sums the update counts of a batch; drivers reporting no per-row count contribute nothing. */
+    private long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,66 @@
+package com.os360.enterprise.repository;
+
+import com.os360.enterprise.dto.PersonSiteAssignmentResponse;
+import com.os360.enterprise.entity.PersonSiteAssignment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository reading person to site assignments in both directions.
+ * <p>
+ * Listings are keyset paginated on the ID of the other side, so every page is a
+ * range scan of the primary key (sites of a person) or of
+ * {@code person_site_assignment_idx_site} (persons of a site). Assignments to
+ * deleted persons or sites are not listed. Bulk writes go through
+ * {@link PersonSiteAssignmentJdbcRepository}.
+ */
+@Repository
+public interface PersonSiteAssignmentRepository
+        extends JpaRepository<PersonSiteAssignment, PersonSiteAssignment.PersonSiteAssignmentId> {
+
+    /**
+     * Returns the sites of a person ordered by site ID, starting after {@code afterSiteId}
+     * (a nil UUID for the first page).
+     */
+    @Query("""
+                SELECT new com.os360.enterprise.dto.PersonSiteAssignmentResponse(
+                    p.id, p.firstName, p.lastName, s.id, s.company.id, s.siteCode, s.siteName,
+                    a.isDefault, a.assignedAt)
+                FROM PersonSiteAssignment a
+                JOIN Person p ON p.id = a.personId
+                JOIN Site s ON s.id = a.siteId
+                WHERE a.personId = :personId
+                  AND a.siteId > :afterSiteId
+                  AND s.isDeleted = FALSE
+                ORDER BY a.siteId
+            """)
+    List<PersonSiteAssignmentResponse> findSitesOfPerson(@Param("personId") UUID personId,
+                                                         @Param("afterSiteId") UUID afterSiteId,
+                                                         Limit limit);
+
+    /**
+     * Returns the persons assigned to a site ordered by person ID, starting after
+     * {@code afterPersonId} (a nil UUID for the first page).
+     */
+    @Query("""
+                SELECT new com.os360.enterprise.dto.PersonSiteAssignmentResponse(
+                    p.id, p.firstName, p.lastName, s.id, s.company.id, s.siteCode, s.siteName,
+                    a.isDefault, a.assignedAt)
+                FROM PersonSiteAssignment a
+                JOIN Person p ON p.id = a.personId
+                JOIN Site s ON s.id = a.siteId
+                WHERE a.siteId = :siteId
+                  AND a.personId > :afterPersonId
+                  AND p.isDeleted = FALSE
+                ORDER BY a.personId
+            """)
+    List<PersonSiteAssignmentResponse> findPersonsOfSite(@Param("siteId") UUID siteId,
+                                                         @Param("afterPersonId") UUID afterPersonId,
+                                                         Limit limit);
+}
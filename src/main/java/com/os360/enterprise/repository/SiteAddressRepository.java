@@ -0,0 +1,45 @@
+package com.os360.enterprise.repository;
+
+import com.os360.enterprise.entity.SiteAddress;
+import com.os360.enterprise.repository.projection.SiteLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for site addresses and the located sites loaded into the spatial index.
+ * Only active, non-deleted sites with both coordinates are located.
+ */
+@Repository
+public interface SiteAddressRepository extends JpaRepository<SiteAddress, UUID> {
+
+    @Query("""
+                SELECT new com.os360.enterprise.repository.projection.SiteLocation(
+                    s.id, s.company.id, s.siteCode, s.siteName, s.siteType, a.latitude, a.longitude)
+                FROM SiteAddress a
+                JOIN Site s ON s.id = a.siteId
+                WHERE s.isDeleted = FALSE
+                  AND s.isActive = TRUE
+                  AND a.latitude IS NOT NULL
+                  AND a.longitude IS NOT NULL
+            """)
+    List<SiteLocation> findAllLocated();
+
+    @Query("""
+                SELECT new com.os360.enterprise.repository.projection.SiteLocation(
+                    s.id, s.company.id, s.siteCode, s.siteName, s.siteType, a.latitude, a.longitude)
+                FROM SiteAddress a
+                JOIN Site s ON s.id = a.siteId
+                WHERE s.id IN :ids
+                  AND s.isDeleted = FALSE
+                  AND s.isActive = TRUE
+                  AND a.latitude IS NOT NULL
+                  AND a.longitude IS NOT NULL
+            """)
+    List<SiteLocation> findLocatedByIds(@Param("ids") Collection<UUID> ids);
+}
@@ -1,9 +1,171 @@
 package com.os360.enterprise.repository;
 
 import com.os360.enterprise.entity.Site;
+import com.os360.enterprise.enumurations.SiteType;
+import com.os360.enterprise.repository.projection.SiteTimeZone;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface SiteRepository extends JpaRepository<Site, UUID> {
+
+    /**
+     * Returns only the version of a site, without hydrating the entity.
+     * Used to answer conditional requests ({@code If-None-Match}).
+     */
+    @Query("""
+                SELECT s.version
+                FROM Site s
+                WHERE s.id = :id
+            """)
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Returns the version of a non-deleted site. Explains why a conditional
+     * ({@code If-Match}) write matched no row.
+     */
+    @Query("""
+                SELECT s.version
+                FROM Site s
+                WHERE s.id = :id
+                  AND s.isDeleted = FALSE
+            """)
+    Optional<Long> findUndeletedVersionById(@Param("id") UUID id);
+
+    /**
+     * Returns the sites of a company ordered by site code and ID, starting after
+     * ({@code afterCode}, {@code afterId}); an empty code and a nil UUID start the first page.
+     * Each page is a range scan of {@code site_idx_company_code}; the optional type and
+     * active filters are applied on the way.
+     */
+    @Query("""
+                SELECT s
+                FROM Site s
+                WHERE s.company.id = :companyId
+                  AND s.isDeleted = :deleted
+                  AND (s.siteCode > :afterCode OR (s.siteCode = :afterCode AND s.id > :afterId))
+                  AND (:siteType IS NULL OR s.siteType = :siteType)
+                  AND (:active IS NULL OR s.isActive = :active)
+                ORDER BY s.siteCode, s.id
+            """)
+    List<Site> findByCompany(@Param("companyId") UUID companyId,
+                             @Param("deleted") boolean deleted,
+                             @Param("siteType") SiteType siteType,
+                             @Param("active") Boolean active,
+                             @Param("afterCode") String afterCode,
+                             @Param("afterId") UUID afterId,
+                             Limit limit);
+
+    /**
+     * Resolves the ID of the non-deleted site with the given code in a company. All
+     * columns read are keys of {@code site_idx_company_code}, so this is an index-only
+     * lookup; should a code occur twice, the lowest ID wins.
+     */
+    @Query("""
+                SELECT s.id
+                FROM Site s
+                WHERE s.company.id = :companyId
+                  AND s.isDeleted = FALSE
+                  AND s.siteCode = :siteCode
+                ORDER BY s.id
+            """)
+    List<UUID> findIdByCompanyAndCode(@Param("companyId") UUID companyId,
+                                      @Param("siteCode") String siteCode,
+                                      Limit limit);
+
+    /**
+     * Returns the time zone IDs of the non-deleted sites among {@code siteIds}, in one
+     * primary key probe per site joined to {@code company_time_zone}.
+     */
+    @Query("""
+                SELECT new com.os360.enterprise.repository.projection.SiteTimeZone(s.id, tz.timeZone)
+                FROM Site s
+                JOIN s.siteTimeZone tz
+                WHERE s.id IN :siteIds
+                  AND s.isDeleted = FALSE
+            """)
+    List<SiteTimeZone> findTimeZones(@Param("siteIds") Collection<UUID> siteIds);
+
+    /**
+     * Returns the IDs of the non-deleted default sites of the site's company other than the
+     * site itself; normally none or one. A probe of {@code site_uc_default}.
+     */
+    @Query("""
+                SELECT s.id
+                FROM Site s
+                WHERE s.isDefault = TRUE
+                  AND s.isDeleted = FALSE
+                  AND s.id <> :siteId
+                  AND s.company.id = (SELECT t.company.id FROM Site t WHERE t.id = :siteId)
+            """)
+    List<UUID> findOtherDefaultIds(@Param("siteId") UUID siteId);
+
+    /**
+     * Clears the default flag of the other non-deleted sites of the site's company,
+     * in one statement located through {@code site_uc_default}.
+     *
+     * @return the number of sites that lost the default flag
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+                UPDATE site
+                SET is_default = FALSE,
+                    last_modified_at = :modifiedAt,
+                    version = version + 1
+                WHERE is_default = TRUE
+                  AND is_deleted = FALSE
+                  AND id <> :siteId
+                  AND company_id = (SELECT s.company_id FROM site s WHERE s.id = :siteId)
+            """, nativeQuery = true)
+    int clearOtherDefaults(@Param("siteId") UUID siteId, @Param("modifiedAt") OffsetDateTime modifiedAt);
+
+    /**
+     * Sets the default flag of a non-deleted site that does not have it yet.
+     *
+     * @return 1 if the flag was set, 0 if the site is missing, deleted or already the default
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+                UPDATE site
+                SET is_default = TRUE,
+                    last_modified_at = :modifiedAt,
+                    version = version + 1
+                WHERE id = :siteId
+                  AND is_deleted = FALSE
+                  AND is_default = FALSE
+            """, nativeQuery = true)
+    int setDefault(@Param("siteId") UUID siteId, @Param("modifiedAt") OffsetDateTime modifiedAt);
+
+    /**
+     * Soft deletes every site of a company and of its descendants up to
+     * {@code maxDepth} levels (0 for the company only) in one statement.
+     * Uses {@code site_idx_company_code} per company of the subtree.
+     *
+     * @return the number of sites marked deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+                UPDATE site
+                SET is_deleted = TRUE,
+                    deleted_at = :deletedAt,
+                    deleted_by = :deletedBy,
+                    version = version + 1
+                WHERE is_deleted = FALSE
+                  AND company_id IN (SELECT cc.descendant_id
+                                     FROM company_closure cc
+                                     WHERE cc.ancestor_id = :companyId
+                                       AND cc.depth <= :maxDepth)
+            """, nativeQuery = true)
+    int softDeleteByCompanySubtree(@Param("companyId") UUID companyId,
+                                   @Param("maxDepth") int maxDepth,
+                                   @Param("deletedAt") OffsetDateTime deletedAt,
+                                   @Param("deletedBy") UUID deletedBy);
 }
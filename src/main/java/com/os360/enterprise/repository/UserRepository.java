@@ -1,7 +1,10 @@
 package com.os360.enterprise.repository;
 
+import com.os360.enterprise.dto.UserResponse;
 import com.os360.enterprise.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -15,4 +18,18 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     // Find user by username (useful for login/authentication)
     Optional<User> findByUsername(String username);
+
+    /**
+     * Returns a non-deleted user projected straight into its response DTO.
+     * Skips entity hydration and the EAGER role assignment collection.
+     */
+    @Query("""
+                SELECT new com.os360.enterprise.dto.UserResponse(
+                    u.id, u.username, u.enabled, u.firstName, u.middleName, u.lastName,
+                    u.preferredName, u.countryCode, u.gender, u.dateOfBirth, u.profileImageUrl)
+                FROM User u
+                WHERE u.id = :id
+                  AND u.isDeleted = FALSE
+            """)
+    Optional<UserResponse> findResponseById(@Param("id") UUID id);
 }
@@ -0,0 +1,17 @@
+package com.os360.enterprise.repository.projection;
+
+import com.os360.enterprise.enumurations.ChangeEntityType;
+import com.os360.enterprise.enumurations.ChangeOperation;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One row of {@code change_log}: a write to a party or site, positioned by the ID of the
+ * writing transaction and the sequence number of the row.
+ *
+ * @see com.os360.enterprise.repository.ChangeFeedRepository#findChanges
+ */
+public record ChangeLogEntry(long txId, long seq, ChangeEntityType type, UUID id, ChangeOperation operation,
+                             long version, OffsetDateTime changedAt) {
+}
@@ -0,0 +1,24 @@
+package com.os360.enterprise.repository.projection;
+
+/**
+ * Result of the single round trip pre-insert probe for company creation.
+ * <p>
+ * Each flag answers one of the create validation questions; flags whose
+ * input was not supplied in the request are ignored by the caller.
+ *
+ * @see com.os360.enterprise.repository.CompanyRepository#probeCreate
+ */
+public interface CompanyCreateProbe {
+
+    /** Whether the requested parent company exists. */
+    boolean getParentExists();
+
+    /** Whether a company with the requested code already exists. */
+    boolean getCodeTaken();
+
+    /** Whether a party with the requested external system and ID already exists. */
+    boolean getExternalIdTaken();
+
+    /** Whether a system company already exists. */
+    boolean getSystemCompanyTaken();
+}
@@ -0,0 +1,14 @@
+package com.os360.enterprise.repository.projection;
+
+import com.os360.enterprise.enumurations.SiteType;
+
+import java.util.UUID;
+
+/**
+ * A located site as held by the site spatial index.
+ *
+ * @see com.os360.enterprise.repository.SiteAddressRepository#findAllLocated
+ */
+public record SiteLocation(UUID siteId, UUID companyId, String siteCode, String siteName, SiteType siteType,
+                           double latitude, double longitude) {
+}
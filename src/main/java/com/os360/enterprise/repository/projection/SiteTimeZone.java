@@ -0,0 +1,9 @@
+package com.os360.enterprise.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * The IANA time zone ID of a non-deleted site.
+ */
+public record SiteTimeZone(UUID siteId, String timeZone) {
+}
@@ -0,0 +1,48 @@
+package com.os360.enterprise.search;
+
+import com.os360.enterprise.dto.CompanySearchResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Typeahead search over company names and codes.
+ * <p>
+ * Non-deleted companies match when the query is a prefix or infix of the name or
+ * code, or when the name is trigram-similar to the query. Hits are ranked by:
+ * <ol>
+ *     <li>exact code or name match,</li>
+ *     <li>prefix match,</li>
+ *     <li>infix match,</li>
+ *     <li>fuzzy (similarity only) match,</li>
+ * </ol>
+ * then by descending similarity, name and ID. Queries shorter than
+ * {@value #MIN_INFIX_LENGTH} characters only match prefixes.
+ */
+public interface CompanySearchIndex {
+
+    /** Shortest query matched as infix and by similarity; a trigram needs three characters. */
+    int MIN_INFIX_LENGTH = 3;
+
+    /** Minimum similarity of a fuzzy match, the pg_trgm default. */
+    double SIMILARITY_THRESHOLD = 0.3;
+
+    /**
+     * Searches companies.
+     *
+     * @param query the trimmed query, containing at least one letter or digit
+     * @param limit maximum number of hits
+     * @return hits in rank order
+     */
+    List<CompanySearchResponse> search(String query, int limit);
+
+    /**
+     * Notifies the index that companies were created, renamed or deleted.
+     * Indexes maintained by the database ignore this.
+     *
+     * @param companyIds the changed company IDs
+     */
+    default void changed(Collection<UUID> companyIds) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.os360.enterprise.search;
+
+import com.os360.enterprise.dto.CompanySearchResponse;
+import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.repository.CompanyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory trigram {@link CompanySearchIndex} for the H2 test profile, which has no pg_trgm.
+ * <p>
+ * Trigrams are extracted like pg_trgm: lower cased words of letters and digits, padded
+ * with two leading and one trailing space. An inverted index maps each trigram to the
+ * companies containing it; similarity is the Jaccard index of the trigram sets.
+ * <p>
+ * The index is built from the database on first use and refreshed for the companies
+ * reported through {@link #changed}. Candidates are re-read before ranking, so entries
+ * left behind by rolled back transactions never surface.
+ */
+@Component
+@Profile("test")
+public class InMemoryCompanySearchIndex implements CompanySearchIndex {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+
+    private final Map<UUID, Set<String>> documents = new HashMap<>();
+
+    private final Set<UUID> stale = new HashSet<>();
+
+    private boolean loaded;
+
+    @Override
+    public synchronized List<CompanySearchResponse> search(String query, int limit) {
+        refresh();
+
+        Set<UUID> candidates;
+        if (query.length() < MIN_INFIX_LENGTH) {
+            candidates = documents.keySet();
+        } else {
+            candidates = new HashSet<>();
+            for (String trigram : trigrams(query)) {
+                candidates.addAll(postings.getOrDefault(trigram, Set.of()));
+            }
+        }
+
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        Set<String> queryTrigrams = trigrams(query);
+        List<RankedHit> hits = new ArrayList<>();
+        for (Company company : companyRepository.findAllById(candidates)) {
+            if (company.isDeleted()) {
+                continue;
+            }
+            int tier = tier(lowerQuery, company);
+            double nameSimilarity = similarity(queryTrigrams, trigrams(company.getName()));
+            double score = Math.max(nameSimilarity, similarity(queryTrigrams, trigrams(company.getCode())));
+            boolean fuzzy = query.length() >= MIN_INFIX_LENGTH && nameSimilarity >= SIMILARITY_THRESHOLD;
+            if (tier < 3 || fuzzy) {
+                hits.add(new RankedHit(tier, new CompanySearchResponse(
+                        company.getId(), company.getCode(), company.getName(), score)));
+            }
+        }
+
+        return hits.stream()
+                .sorted(Comparator.comparingInt(RankedHit::tier)
+                        .thenComparing(hit -> -hit.response().getScore())
+                        .thenComparing(hit -> hit.response().getName())
+                        .thenComparing(hit -> hit.response().getId()))
+                .limit(limit)
+                .map(RankedHit::response)
+                .toList();
+    }
+
+    @Override
+    public synchronized void changed(Collection<UUID> companyIds) {
+        stale.addAll(companyIds);
+    }
+
+    private void refresh() {
+        if (!loaded) {
+            companyRepository.findAll().forEach(this::index);
+            loaded = true;
+            stale.clear();
+            return;
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+        stale.forEach(this::remove);
+        companyRepository.findAllById(stale).forEach(this::index);
+        stale.clear();
+    }
+
+    private void index(Company company) {
+        remove(company.getId());
+        Set<String> trigrams = new HashSet<>(trigrams(company.getName()));
+        trigrams.addAll(trigrams(company.getCode()));
+        documents.put(company.getId(), trigrams);
+        for (String trigram : trigrams) {
+            postings.computeIfAbsent(trigram, t -> new HashSet<>()).add(company.getId());
+        }
+    }
+
+    private void remove(UUID id) {
+        Set<String> trigrams = documents.remove(id);
+        if (trigrams != null) {
+            for (String trigram : trigrams) {
+                Set<UUID> ids = postings.get(trigram);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    private static int tier(String lowerQuery, Company company) {
+        String name = lower(company.getName());
+        String code = lower(company.getCode());
+        if (name.equals(lowerQuery) || code.equals(lowerQuery)) {
+            return 0;
+        }
+        if (name.startsWith(lowerQuery) || code.startsWith(lowerQuery)) {
+            return 1;
+        }
+        if (lowerQuery.length() >= MIN_INFIX_LENGTH && (name.contains(lowerQuery) || code.contains(lowerQuery))) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Extracts the pg_trgm style trigrams of a value.
+     */
+    static Set<String> trigrams(String value) {
+        Set<String> trigrams = new HashSet<>();
+        if (value == null) {
+            return trigrams;
+        }
+        for (String word : lower(value).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int common = 0;
+        for (String trigram : a) {
+            if (b.contains(trigram)) {
+                common++;
+            }
+        }
+        return (double) common / (a.size() + b.size() - common);
+    }
+
+    private record RankedHit(int tier, CompanySearchResponse response) {
+    }
+}
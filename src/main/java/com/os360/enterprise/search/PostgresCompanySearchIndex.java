@@ -0,0 +1,79 @@
+package com.os360.enterprise.search;
+
+import com.os360.enterprise.dto.CompanySearchResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * {@link CompanySearchIndex} backed by the pg_trgm GIN indexes on company name and code.
+ * <p>
+ * Infix ({@code ILIKE '%q%'}) and similarity ({@code %}) predicates are served by
+ * {@code company_idx_name_trgm} and {@code company_idx_code_trgm}; short prefix
+ * queries use the {@code lower(...) text_pattern_ops} btree indexes.
+ */
+@Component
+@Profile("!test")
+public class PostgresCompanySearchIndex implements CompanySearchIndex {
+
+    private static final String RANKED_SELECT = """
+            SELECT c.id, c.code, c.name,
+                   GREATEST(similarity(c.name, :query), similarity(c.code, :query)) AS score,
+                   CASE
+                       WHEN lower(c.code) = :lowerQuery OR lower(c.name) = :lowerQuery THEN 0
+                       WHEN lower(c.name) LIKE :prefix OR lower(c.code) LIKE :prefix THEN 1
+                       WHEN lower(c.name) LIKE :infix OR lower(c.code) LIKE :infix THEN 2
+                       ELSE 3
+                   END AS tier
+            FROM company c
+            JOIN party p ON p.id = c.id
+            WHERE p.is_deleted = FALSE
+            """;
+
+    private static final String INFIX_SEARCH = RANKED_SELECT + """
+              AND (c.name ILIKE :infix OR c.code ILIKE :infix OR c.name % :query)
+            ORDER BY tier, score DESC, c.name, c.id
+            LIMIT :limit
+            """;
+
+    private static final String PREFIX_SEARCH = RANKED_SELECT + """
+              AND (lower(c.name) LIKE :prefix OR lower(c.code) LIKE :prefix)
+            ORDER BY tier, score DESC, c.name, c.id
+            LIMIT :limit
+            """;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<CompanySearchResponse> search(String query, int limit) {
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(lowerQuery);
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("lowerQuery", lowerQuery)
+                .addValue("prefix", escaped + "%")
+                .addValue("infix", "%" + escaped + "%")
+                .addValue("limit", limit);
+
+        String sql = query.length() < MIN_INFIX_LENGTH ? PREFIX_SEARCH : INFIX_SEARCH;
+        return jdbcTemplate.query(sql, parameters, (rs, rowNum) -> new CompanySearchResponse(
+                rs.getObject("id", UUID.class),
+                rs.getString("code"),
+                rs.getString("name"),
+                rs.getDouble("score")));
+    }
+
+    /**
+     * Escapes LIKE wildcards with the default backslash escape character.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
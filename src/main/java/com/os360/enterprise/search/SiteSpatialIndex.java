@@ -0,0 +1,316 @@
+package com.os360.enterprise.search;
+
+import com.os360.enterprise.enumurations.SiteType;
+import com.os360.enterprise.repository.SiteAddressRepository;
+import com.os360.enterprise.repository.projection.SiteLocation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory k-nearest-neighbour index over the located sites, one grid per site type.
+ * <p>
+ * Sites are bucketed into {@value #CELL_DEGREES}° latitude/longitude cells. A query
+ * scans rings of cells around the query point, nearest first, and stops once the k-th
+ * best great-circle distance is below the least distance any unscanned cell can have;
+ * dense areas therefore answer from a handful of cells. When more cells than sites
+ * would be visited (sparse types), the grid is scanned linearly instead.
+ * <p>
+ * The index is built from the database on first use. Site writes report the changed
+ * IDs through {@link #changed}; they are re-read after the writing transaction commits,
+ * at the next query. The whole index is reloaded after
+ * {@code enterprise.site-index.reload-after} (default PT5M) to pick up writes of other
+ * instances.
+ */
+@Component
+public class SiteSpatialIndex {
+
+    /** Mean earth radius in kilometres. */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    static final double CELL_DEGREES = 0.5;
+
+    private static final int ROWS = (int) (180 / CELL_DEGREES);
+
+    private static final int COLUMNS = (int) (360 / CELL_DEGREES);
+
+    /** Ring from which every cell has been scanned. */
+    private static final int MAX_RING = Math.max(ROWS, COLUMNS / 2 + 1);
+
+    @Autowired
+    private SiteAddressRepository siteAddressRepository;
+
+    @Value("${enterprise.site-index.reload-after:PT5M}")
+    private Duration reloadAfter;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<SiteType, Grid> grids = new EnumMap<>(SiteType.class);
+
+    private final Map<UUID, SiteLocation> locations = new HashMap<>();
+
+    private final Set<UUID> stale = ConcurrentHashMap.newKeySet();
+
+    private volatile long loadedAt;
+
+    private volatile boolean loaded;
+
+    /** A located site and its distance from the query point. */
+    public record Hit(SiteLocation location, double distanceKm) {
+    }
+
+    /**
+     * Returns the sites nearest to a point, nearest first.
+     *
+     * @param latitude  latitude of the point in degrees (-90..90)
+     * @param longitude longitude of the point in degrees (-180..180)
+     * @param types     site types to consider; empty for all
+     * @param k         maximum number of sites returned
+     * @return up to {@code k} hits ordered by distance, then site ID
+     */
+    public List<Hit> nearest(double latitude, double longitude, Collection<SiteType> types, int k) {
+        refresh();
+        Comparator<Hit> farthestFirst = Comparator.comparingDouble(Hit::distanceKm)
+                .thenComparing(hit -> hit.location().siteId()).reversed();
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (SiteType type : types.isEmpty() ? grids.keySet() : types) {
+                Grid grid = grids.get(type);
+                if (grid != null) {
+                    PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, farthestFirst);
+                    grid.nearest(latitude, longitude, k, best);
+                    hits.addAll(best);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(farthestFirst.reversed());
+        return hits.size() > k ? hits.subList(0, k) : hits;
+    }
+
+    /**
+     * Notifies the index that sites or their addresses were created, changed or deleted.
+     * <p>
+     * Like {@link com.os360.enterprise.cache.VersionedNearCache} invalidation, the sites are
+     * marked for re-reading immediately, so the writing transaction finds its own change,
+     * and again when the transaction completes, so the committed (or rolled back) state
+     * replaces anything read in between.
+     *
+     * @param siteIds the changed site IDs
+     */
+    public void changed(Collection<UUID> siteIds) {
+        stale.addAll(siteIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<UUID> ids = List.copyOf(siteIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    stale.addAll(ids);
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks the whole index for reloading, e.g. after a set-based delete of many sites.
+     */
+    public void changedAll() {
+        loaded = false;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    loaded = false;
+                }
+            });
+        }
+    }
+
+    /** Number of located sites in the index. */
+    public int size() {
+        refresh();
+        lock.readLock().lock();
+        try {
+            return locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void refresh() {
+        boolean reload = !loaded || System.currentTimeMillis() - loadedAt > reloadAfter.toMillis();
+        if (!reload && stale.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded || System.currentTimeMillis() - loadedAt > reloadAfter.toMillis()) {
+                stale.clear();
+                grids.clear();
+                locations.clear();
+                siteAddressRepository.findAllLocated().forEach(this::add);
+                loadedAt = System.currentTimeMillis();
+                loaded = true;
+            } else if (!stale.isEmpty()) {
+                Set<UUID> ids = new HashSet<>(stale);
+                stale.removeAll(ids);
+                ids.forEach(this::remove);
+                siteAddressRepository.findLocatedByIds(ids).forEach(this::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(SiteLocation location) {
+        locations.put(location.siteId(), location);
+        grids.computeIfAbsent(location.siteType(), type -> new Grid()).add(location);
+    }
+
+    private void remove(UUID siteId) {
+        SiteLocation location = locations.remove(siteId);
+        if (location != null) {
+            grids.get(location.siteType()).remove(location);
+        }
+    }
+
+    /**
+     * Great-circle (haversine) distance between two points in kilometres.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int row(double latitude) {
+        return Math.min(ROWS - 1, Math.max(0, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+    }
+
+    /**
+     * Least distance from the query point to any site outside the first {@code ring}
+     * rings: such a site differs by more than {@code ring} cells in latitude or in
+     * longitude. A longitude difference is bounded by the distance to that meridian.
+     */
+    private static double lowerBoundKm(double latitude, int queryRow, int ring) {
+        double margin = ring * CELL_DEGREES;
+        boolean allRows = queryRow - ring <= 0 && queryRow + ring >= ROWS - 1;
+        boolean allColumns = 2 * ring + 1 >= COLUMNS;
+        double latitudeBound = allRows ? Double.MAX_VALUE : Math.toRadians(margin);
+        double longitudeBound = allColumns ? Double.MAX_VALUE : Math.asin(
+                Math.cos(Math.toRadians(latitude)) * Math.sin(Math.toRadians(Math.min(margin, 90))));
+        double bound = Math.min(latitudeBound, longitudeBound);
+        return bound == Double.MAX_VALUE ? bound : bound * EARTH_RADIUS_KM;
+    }
+
+    /** The sites of one type bucketed by cell. */
+    private static final class Grid {
+        private final Map<Integer, List<SiteLocation>> cells = new HashMap<>();
+        private int size;
+
+        private void add(SiteLocation location) {
+            cells.computeIfAbsent(key(row(location.latitude()), column(location.longitude())),
+                    cell -> new ArrayList<>()).add(location);
+            size++;
+        }
+
+        private void remove(SiteLocation location) {
+            int key = key(row(location.latitude()), column(location.longitude()));
+            List<SiteLocation> cell = cells.get(key);
+            if (cell != null && cell.remove(location)) {
+                size--;
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+
+        /**
+         * Collects the {@code k} sites of this grid nearest to the point in {@code best},
+         * an empty farthest-first heap.
+         */
+        private void nearest(double latitude, double longitude, int k, PriorityQueue<Hit> best) {
+            int queryRow = row(latitude);
+            int queryColumn = column(longitude);
+            int visited = 0;
+            for (int ring = 0; ring <= MAX_RING; ring++) {
+                if (visited > size) {
+                    // Sparse grid: a linear scan is cheaper than more empty rings
+                    best.clear();
+                    cells.values().forEach(cell -> offerAll(cell, latitude, longitude, k, best));
+                    return;
+                }
+                boolean previousCoveredColumns = 2 * ring - 1 >= COLUMNS;
+                for (int r = Math.max(0, queryRow - ring); r <= Math.min(ROWS - 1, queryRow + ring); r++) {
+                    if (Math.abs(r - queryRow) == ring) {
+                        int span = Math.min(2 * ring + 1, COLUMNS);
+                        for (int d = 0; d < span; d++) {
+                            visited += scan(r, queryColumn - ring + d, latitude, longitude, k, best);
+                        }
+                    } else if (!previousCoveredColumns) {
+                        visited += scan(r, queryColumn - ring, latitude, longitude, k, best);
+                        if (Math.floorMod(queryColumn + ring, COLUMNS) != Math.floorMod(queryColumn - ring, COLUMNS)) {
+                            visited += scan(r, queryColumn + ring, latitude, longitude, k, best);
+                        }
+                    }
+                }
+                if (best.size() == k && best.peek().distanceKm() <= lowerBoundKm(latitude, queryRow, ring)) {
+                    return;
+                }
+            }
+        }
+
+        /** Scans one cell; returns 1 for the cell visit so that cost can be compared to the size. */
+        private int scan(int row, int column, double latitude, double longitude, int k, PriorityQueue<Hit> best) {
+            List<SiteLocation> cell = cells.get(key(row, Math.floorMod(column, COLUMNS)));
+            if (cell != null) {
+                offerAll(cell, latitude, longitude, k, best);
+            }
+            return 1;
+        }
+
+        private static void offerAll(List<SiteLocation> cell, double latitude, double longitude, int k,
+                                     PriorityQueue<Hit> best) {
+            for (SiteLocation location : cell) {
+                Hit hit = new Hit(location,
+                        distanceKm(latitude, longitude, location.latitude(), location.longitude()));
+                if (best.size() < k) {
+                    best.add(hit);
+                } else if (best.comparator().compare(hit, best.peek()) > 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        }
+
+        private static int key(int row, int column) {
+            return row * COLUMNS + column;
+        }
+    }
+}
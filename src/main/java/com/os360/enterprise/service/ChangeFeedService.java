@@ -0,0 +1,169 @@
+package com.os360.enterprise.service;
+
+import com.os360.enterprise.common.KeysetCursorUtils;
+import com.os360.enterprise.dto.ChangeFeedResponse;
+import com.os360.enterprise.dto.ChangeResponse;
+import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.entity.Site;
+import com.os360.enterprise.enumurations.ChangeEntityType;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.mapper.CompanyMapper;
+import com.os360.enterprise.mapper.SiteMapper;
+import com.os360.enterprise.repository.ChangeFeedRepository;
+import com.os360.enterprise.repository.CompanyRepository;
+import com.os360.enterprise.repository.PersonRepository;
+import com.os360.enterprise.repository.SiteRepository;
+import com.os360.enterprise.repository.projection.ChangeLogEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Service answering "what changed since" for companies, sites and persons.
+ * <p>
+ * Responsibilities:
+ * - Decode the opaque continuation token (transaction ID and sequence number of the last
+ *   {@code change_log} row seen).
+ * - Read the next change log rows with one indexed query, then load the current state of
+ *   the changed entities with one query per entity type.
+ * <p>
+ * Rows are only read below the commit horizon (see {@link ChangeFeedRepository}), so no
+ * transaction, however long, commits behind a token already handed out.
+ * <p>
+ * The feed is state based: an entity changed several times within one response appears
+ * once, at its latest change, with its latest operation and state.
+ */
+@Service
+public class ChangeFeedService {
+
+    /** Maximum number of changes returned per request. */
+    public static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private ChangeFeedRepository changeFeedRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private CompanyMapper companyMapper;
+
+    @Autowired
+    private SiteMapper siteMapper;
+
+    /**
+     * Returns the changes after the given token.
+     * <p>
+     * Runs as one repeatable-read snapshot so the change list and the loaded states agree.
+     *
+     * @param since token from a previous response, or null to start from the beginning
+     * @param types comma separated entity types (company, site, person), or null for all
+     * @param limit maximum number of changes (1..{@value #MAX_LIMIT})
+     * @return the changes in change order and the token for the next request
+     * @throws ValidationException if the token, the types or the limit are invalid
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ChangeFeedResponse getChanges(String since, String types, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_LIMIT, "limit", limit);
+        }
+        Set<ChangeEntityType> entityTypes = parseTypes(types);
+
+        long afterTx = -1;
+        long afterSeq = -1;
+        if (since != null && !since.isBlank()) {
+            String[] key = KeysetCursorUtils.decode(since, 2);
+            try {
+                afterTx = Long.parseLong(key[0]);
+                afterSeq = Long.parseLong(key[1]);
+            } catch (NumberFormatException ex) {
+                throw new ValidationException("Invalid cursor", "since", since);
+            }
+        }
+
+        List<ChangeLogEntry> rows = changeFeedRepository.findChanges(entityTypes, afterTx, afterSeq, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<ChangeLogEntry> page = hasMore ? rows.subList(0, limit) : rows;
+
+        // Latest row per entity, in the order of those rows
+        Map<UUID, ChangeLogEntry> latest = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : page) {
+            latest.remove(entry.id());
+            latest.put(entry.id(), entry);
+        }
+        List<ChangeResponse> changes = latest.values().stream()
+                .map(entry -> new ChangeResponse(entry.type(), entry.id(), entry.operation(), entry.version(),
+                        entry.changedAt(), null))
+                .toList();
+        attachEntities(changes);
+
+        String nextToken = since;
+        if (!page.isEmpty()) {
+            ChangeLogEntry last = page.get(page.size() - 1);
+            nextToken = KeysetCursorUtils.encode(last.txId(), last.seq());
+        }
+        return new ChangeFeedResponse(changes, nextToken, hasMore);
+    }
+
+    private Set<ChangeEntityType> parseTypes(String types) {
+        if (types == null || types.isBlank()) {
+            return EnumSet.allOf(ChangeEntityType.class);
+        }
+        Set<ChangeEntityType> parsed = EnumSet.noneOf(ChangeEntityType.class);
+        for (String type : types.split(",")) {
+            try {
+                parsed.add(ChangeEntityType.valueOf(type.strip().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new ValidationException("Unknown change type", "types", type);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Loads the current state of the changed entities with one query per entity type.
+     */
+    private void attachEntities(List<ChangeResponse> changes) {
+        Map<ChangeEntityType, Set<UUID>> idsByType = changes.stream()
+                .collect(Collectors.groupingBy(ChangeResponse::getType,
+                        () -> new EnumMap<>(ChangeEntityType.class),
+                        Collectors.mapping(ChangeResponse::getId, Collectors.toSet())));
+
+        Map<UUID, Object> entities = new HashMap<>();
+        idsByType.forEach((type, ids) -> {
+            switch (type) {
+                case COMPANY -> {
+                    for (Company company : companyRepository.findAllById(ids)) {
+                        entities.put(company.getId(), companyMapper.toResponse(company).orElseThrow());
+                    }
+                }
+                case SITE -> {
+                    for (Site site : siteRepository.findAllById(ids)) {
+                        entities.put(site.getId(), siteMapper.toResponse(site).orElseThrow());
+                    }
+                }
+                case PERSON -> personRepository.findResponsesByIdIn(ids)
+                        .forEach(person -> entities.put(person.getId(), person));
+            }
+        });
+        changes.forEach(change -> change.setEntity(entities.get(change.getId())));
+    }
+}
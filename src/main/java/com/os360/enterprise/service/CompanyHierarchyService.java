@@ -0,0 +1,136 @@
+package com.os360.enterprise.service;
+
+import com.os360.enterprise.dto.CompanyHierarchyNodeResponse;
+import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.repository.CompanyClosureRepository;
+import com.os360.enterprise.repository.CompanyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service maintaining and querying the company hierarchy closure table.
+ * <p>
+ * Responsibilities:
+ * - Index newly created companies under their parent.
+ * - Move subtrees when the parent company changes, rejecting cycles.
+ * - Answer descendant and ancestor queries in a single indexed query.
+ * <p>
+ * Soft deleted companies keep their closure rows so the structure survives a
+ * restore; hierarchy queries exclude them unless explicitly requested.
+ */
+@Service
+@Transactional
+public class CompanyHierarchyService {
+
+    /** Default and maximum depth for descendant queries. */
+    public static final int MAX_DEPTH = 32;
+
+    @Autowired
+    private CompanyClosureRepository companyClosureRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    /**
+     * Adds the closure rows of a newly created company.
+     *
+     * @param companyId the new company ID
+     * @param parentId  the parent company ID, or null for a root company
+     */
+    public void indexCreated(UUID companyId, UUID parentId) {
+        companyClosureRepository.insertSelf(companyId);
+        if (parentId != null) {
+            companyClosureRepository.attachSubtree(companyId, parentId);
+        }
+    }
+
+    /**
+     * Re-parents a company, moving its whole subtree under the new parent.
+     * <p>
+     * Does nothing if the requested parent is null or already the current parent.
+     *
+     * @param company     the managed company entity to re-parent
+     * @param newParentId the requested parent company ID
+     * @throws ValidationException if the parent does not exist or would create a cycle
+     */
+    public void changeParent(Company company, UUID newParentId) {
+        UUID currentParentId = company.getParentCompany() != null ? company.getParentCompany().getId() : null;
+        if (newParentId == null || newParentId.equals(currentParentId)) {
+            return;
+        }
+
+        if (newParentId.equals(company.getId())
+                || companyClosureRepository.existsByAncestorIdAndDescendantId(company.getId(), newParentId)) {
+            throw new ValidationException(
+                    "Parent company cannot be the company itself or one of its descendants",
+                    "parentCompany",
+                    newParentId
+            );
+        }
+
+        Company parent = companyRepository.findById(newParentId)
+                .orElseThrow(() -> new ValidationException(
+                        "Parent company not found",
+                        "parentCompany",
+                        newParentId
+                ));
+
+        company.setParentCompany(parent);
+        companyClosureRepository.detachSubtree(company.getId());
+        companyClosureRepository.attachSubtree(company.getId(), newParentId);
+    }
+
+    /**
+     * Retrieves the descendants of a company.
+     *
+     * @param companyId      the company ID
+     * @param maxDepth       maximum number of levels to return (1..{@value #MAX_DEPTH})
+     * @param includeDeleted whether soft deleted companies are included
+     * @return descendants ordered by depth and name
+     * @throws EntityNotFoundException if the company does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<CompanyHierarchyNodeResponse> getDescendants(UUID companyId, int maxDepth, boolean includeDeleted) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new ValidationException("maxDepth must be between 1 and " + MAX_DEPTH, "maxDepth", maxDepth);
+        }
+        List<CompanyHierarchyNodeResponse> descendants =
+                companyClosureRepository.findDescendants(companyId, maxDepth, includeDeleted);
+        if (descendants.isEmpty()) {
+            requireExists(companyId);
+        }
+        return descendants;
+    }
+
+    /**
+     * Retrieves the ancestors of a company, nearest parent first.
+     *
+     * @param companyId      the company ID
+     * @param includeDeleted whether soft deleted companies are included
+     * @return ancestors ordered by depth
+     * @throws EntityNotFoundException if the company does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<CompanyHierarchyNodeResponse> getAncestors(UUID companyId, boolean includeDeleted) {
+        List<CompanyHierarchyNodeResponse> ancestors = companyClosureRepository.findAncestors(companyId, includeDeleted);
+        if (ancestors.isEmpty()) {
+            requireExists(companyId);
+        }
+        return ancestors;
+    }
+
+    /**
+     * Only called for empty results, so the common case stays a single query.
+     */
+    private void requireExists(UUID companyId) {
+        if (!companyRepository.existsById(companyId)) {
+            throw new EntityNotFoundException(Company.class, companyId);
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.os360.enterprise.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.os360.enterprise.common.CommonUtils;
+import com.os360.enterprise.common.CountryUtils;
+import com.os360.enterprise.common.CsvUtils;
+import com.os360.enterprise.dto.CompanyImportError;
+import com.os360.enterprise.dto.CompanyImportResponse;
+import com.os360.enterprise.dto.CompanyImportRow;
+import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.entity.CompanyClosure;
+import com.os360.enterprise.exception.ApplicationException;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.repository.CompanyClosureRepository;
+import com.os360.enterprise.repository.CompanyRepository;
+import com.os360.enterprise.search.CompanySearchIndex;
+import com.os360.enterprise.validator.CompanyValidator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service importing companies in bulk from NDJSON or CSV streams.
+ * <p>
+ * The upload is read line by line and processed in chunks of {@value #CHUNK_SIZE}
+ * rows, each in its own transaction:
+ * - Rows are validated with three set based queries per chunk (codes and parent
+ *   codes, external IDs, ancestors of existing parents) instead of one probe per row.
+ * - Parents are resolved by ID, by code in the database, or by code among rows of
+ *   the same load; rows are ordered so parents are inserted before their children.
+ * - Companies and their closure rows are written through Hibernate JDBC batching
+ *   (see {@code hibernate.jdbc.batch_size} and {@code order_inserts}), so each chunk
+ *   costs a handful of batched statements on {@code party}, {@code company} and
+ *   {@code company_closure}.
+ * <p>
+ * Invalid rows are reported with their line number and skipped. If a chunk fails
+ * at the database (e.g. a concurrent insert of the same code), it is rolled back and
+ * replayed row by row so only the offending rows are rejected.
+ * <p>
+ * A parent referenced by code must appear before its children in the file, or in
+ * the same chunk.
+ */
+@Service
+public class CompanyImportService {
+
+    /** Number of rows validated and written per transaction. */
+    public static final int CHUNK_SIZE = 500;
+
+    /** Maximum number of row errors returned in the response; all are counted. */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /** Supported CSV header columns, matching the {@link CompanyImportRow} properties. */
+    private static final Set<String> CSV_COLUMNS = Set.of(
+            "code", "name", "countryCode", "parentCompany", "parentCompanyCode",
+            "externalSystem", "externalId", "logoUrl", "validFrom", "validTo"
+    );
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CompanyClosureRepository companyClosureRepository;
+
+    @Autowired
+    private CompanyValidator companyValidator;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CompanySearchIndex companySearchIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Supported upload formats. */
+    public enum Format { NDJSON, CSV }
+
+    /**
+     * Imports companies from the given stream.
+     *
+     * @param inputStream the upload, UTF-8 encoded
+     * @param format      NDJSON (one JSON object per line) or CSV (with a header line)
+     * @return counts of imported and rejected rows, with per-row errors
+     * @throws ValidationException if the CSV header is missing or has unknown columns
+     */
+    public CompanyImportResponse importCompanies(InputStream inputStream, Format format) {
+        ImportState state = new ImportState();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            List<String> header = format == Format.CSV ? readCsvHeader(reader) : null;
+            long lineNumber = header != null ? 1 : 0;
+            List<ImportLine> chunk = new ArrayList<>(CHUNK_SIZE);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                state.received++;
+                try {
+                    CompanyImportRow row = format == Format.CSV ? parseCsv(header, line) : parseJson(line);
+                    chunk.add(new ImportLine(lineNumber, row));
+                } catch (ValidationException | IllegalArgumentException | IOException ex) {
+                    state.reject(lineNumber, null, "Malformed row: " + ex.getMessage());
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    processChunk(chunk, state);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, state);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return new CompanyImportResponse(state.received, state.imported, state.failed, state.errors);
+    }
+
+    private List<String> readCsvHeader(BufferedReader reader) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null || headerLine.isBlank()) {
+            throw new ValidationException("CSV header line is missing");
+        }
+        List<String> header = CsvUtils.parseLine(headerLine.strip()).stream().map(String::strip).toList();
+        for (String column : header) {
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new ValidationException("Unknown CSV column", "column", column);
+            }
+        }
+        return header;
+    }
+
+    private CompanyImportRow parseJson(String line) throws IOException {
+        return objectMapper.readValue(line, CompanyImportRow.class);
+    }
+
+    private CompanyImportRow parseCsv(List<String> header, String line) {
+        List<String> fields = CsvUtils.parseLine(line);
+        if (fields.size() != header.size()) {
+            throw new ValidationException("Expected " + header.size() + " fields but found " + fields.size());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = fields.get(i).strip();
+            if (!value.isEmpty()) {
+                values.put(header.get(i), value);
+            }
+        }
+        return objectMapper.convertValue(values, CompanyImportRow.class);
+    }
+
+    /**
+     * Validates and writes one chunk; on a database failure, replays it row by row,
+     * parents before their children.
+     */
+    private void processChunk(List<ImportLine> chunk, ImportState state) {
+        List<ImportLine> valid = validateFields(chunk, state);
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            writeChunk(valid, state);
+        } catch (DataAccessException ex) {
+            if (valid.size() == 1) {
+                ImportLine line = valid.get(0);
+                state.reject(line.number(), line.row().getCode(), describe(ex, line.row()));
+                return;
+            }
+            for (ImportLine line : replayOrder(valid)) {
+                processChunk(List.of(line), state);
+            }
+        }
+    }
+
+    /**
+     * Orders the rows of a failed chunk so that a parent imported in the same chunk is
+     * replayed before its children. Rows left in a cycle keep their file order; their
+     * replay rejects them.
+     */
+    private List<ImportLine> replayOrder(List<ImportLine> lines) {
+        List<ImportLine> ordered = new ArrayList<>(lines.size());
+        List<ImportLine> pending = lines;
+
+        while (!pending.isEmpty()) {
+            Set<String> pendingCodes = new HashSet<>();
+            pending.forEach(line -> pendingCodes.add(line.row().getCode()));
+            List<ImportLine> deferred = new ArrayList<>();
+            for (ImportLine line : pending) {
+                if (pendingCodes.contains(line.row().getParentCompanyCode())) {
+                    deferred.add(line);
+                } else {
+                    ordered.add(line);
+                }
+            }
+            if (deferred.size() == pending.size()) {
+                ordered.addAll(deferred);
+                break;
+            }
+            pending = deferred;
+        }
+        return ordered;
+    }
+
+    /**
+     * Checks everything that needs no database access: bean validation, country code,
+     * the system company flag and duplicate codes within the load.
+     */
+    private List<ImportLine> validateFields(List<ImportLine> chunk, ImportState state) {
+        List<ImportLine> valid = new ArrayList<>(chunk.size());
+        Set<String> chunkCodes = new HashSet<>();
+
+        for (ImportLine line : chunk) {
+            CompanyImportRow row = line.row();
+            Set<ConstraintViolation<CompanyImportRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                state.reject(line.number(), row.getCode(), violations.iterator().next().getMessage());
+            } else if (!CountryUtils.isValidAlpha2CountryCode(row.getCountryCode())) {
+                state.reject(line.number(), row.getCode(), "Invalid country code: " + row.getCountryCode());
+            } else if (row.isSystemCompany()) {
+                state.reject(line.number(), row.getCode(), "The system company cannot be imported");
+            } else if (row.getParentCompany() != null && row.getParentCompanyCode() != null) {
+                state.reject(line.number(), row.getCode(), "Only one of parentCompany and parentCompanyCode may be set");
+            } else if (row.getCode().equals(row.getParentCompanyCode())) {
+                state.reject(line.number(), row.getCode(), "A company cannot be its own parent");
+            } else if (state.importedIds.containsKey(row.getCode()) || !chunkCodes.add(row.getCode())) {
+                state.reject(line.number(), row.getCode(), "Duplicate code in import: " + row.getCode());
+            } else {
+                valid.add(line);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Validates the chunk against the database and inserts the valid rows in one transaction.
+     * The import state only learns about the inserted companies once the transaction commits.
+     */
+    private void writeChunk(List<ImportLine> lines, ImportState state) {
+        List<CompanyImportError> chunkErrors = new ArrayList<>();
+        Map<String, UUID> chunkIds = new HashMap<>();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // 1. Resolve the chunk's codes and parent codes that are not known from earlier chunks
+            Set<String> lookupCodes = new HashSet<>();
+            for (ImportLine line : lines) {
+                lookupCodes.add(line.row().getCode());
+                String parentCode = line.row().getParentCompanyCode();
+                if (parentCode != null && !state.importedIds.containsKey(parentCode)) {
+                    lookupCodes.add(parentCode);
+                }
+            }
+            Map<String, UUID> existingIds = new HashMap<>();
+            for (Object[] codeAndId : companyRepository.findIdsByCodeIn(lookupCodes)) {
+                existingIds.put((String) codeAndId[0], (UUID) codeAndId[1]);
+            }
+
+            // 2. External IDs already used by any party
+            Set<String> takenExternalKeys = findTakenExternalKeys(lines);
+
+            // 3. Reject conflicts, then order the rest so parents precede their children
+            List<ImportLine> candidates = new ArrayList<>(lines.size());
+            Map<String, ImportLine> candidatesByCode = new HashMap<>();
+            Set<String> chunkExternalKeys = new HashSet<>();
+            for (ImportLine line : lines) {
+                CompanyImportRow row = line.row();
+                String externalKey = externalKey(row);
+                if (existingIds.containsKey(row.getCode())) {
+                    chunkErrors.add(error(line, "Company already exists: " + row.getCode()));
+                } else if (externalKey != null
+                        && (takenExternalKeys.contains(externalKey) || !chunkExternalKeys.add(externalKey))) {
+                    chunkErrors.add(error(line, "Company already exists: " + externalKey));
+                } else {
+                    candidates.add(line);
+                    candidatesByCode.put(row.getCode(), line);
+                }
+            }
+            List<ImportLine> ordered = orderParentsFirst(candidates, candidatesByCode, existingIds, state, chunkErrors);
+
+            // 4. Parent IDs of every ordered row, and ancestors of the parents that already exist,
+            //    including those committed by earlier chunks; nothing but codes is kept across chunks
+            Map<ImportLine, UUID> existingParentIds = new HashMap<>();
+            for (ImportLine line : ordered) {
+                UUID parentId = existingParentId(line.row(), existingIds, state);
+                if (parentId != null) {
+                    existingParentIds.put(line, parentId);
+                }
+            }
+            Set<UUID> parentsToLoad = new HashSet<>(existingParentIds.values());
+            Map<UUID, List<CompanyClosure>> ancestors = new HashMap<>();
+            if (!parentsToLoad.isEmpty()) {
+                for (CompanyClosure closure : companyClosureRepository.findByDescendantIdIn(parentsToLoad)) {
+                    ancestors.computeIfAbsent(closure.getDescendantId(), id -> new ArrayList<>()).add(closure);
+                }
+            }
+
+            // 5. Insert companies (batched party + company rows), then their closure rows
+            List<CompanyClosure> closures = new ArrayList<>();
+            for (ImportLine line : ordered) {
+                CompanyImportRow row = line.row();
+                UUID parentId = existingParentIds.containsKey(line)
+                        ? existingParentIds.get(line)
+                        : chunkIds.get(row.getParentCompanyCode());
+                boolean parentMissing = parentId == null
+                        ? row.getParentCompanyCode() != null
+                        : !ancestors.containsKey(parentId);
+                if (parentMissing) {
+                    chunkErrors.add(error(line, "Parent company not found"));
+                    continue;
+                }
+
+                Company company = companyValidator.buildNewCompany(row);
+                company.setSystemCompany(false);
+                if (CommonUtils.allNotBlank(row.getExternalSystem(), row.getExternalId())) {
+                    company.setExternalSystem(row.getExternalSystem());
+                    company.setExternalId(row.getExternalId());
+                }
+                if (parentId != null) {
+                    company.setParentCompany(entityManager.getReference(Company.class, parentId));
+                }
+                entityManager.persist(company);
+
+                UUID id = company.getId();
+                List<CompanyClosure> companyAncestors = new ArrayList<>();
+                companyAncestors.add(new CompanyClosure(id, id, 0));
+                if (parentId != null) {
+                    for (CompanyClosure parentAncestor : ancestors.get(parentId)) {
+                        companyAncestors.add(new CompanyClosure(parentAncestor.getAncestorId(), id, parentAncestor.getDepth() + 1));
+                    }
+                }
+                closures.addAll(companyAncestors);
+                ancestors.put(id, companyAncestors);
+                chunkIds.put(row.getCode(), id);
+            }
+
+            // Flushing through the repository translates constraint violations
+            companyRepository.flush();
+            closures.forEach(entityManager::persist);
+            companyRepository.flush();
+            entityManager.clear();
+        });
+
+        state.importedIds.putAll(chunkIds);
+        companySearchIndex.changed(chunkIds.values());
+        state.imported += chunkIds.size();
+        chunkErrors.forEach(state::reject);
+    }
+
+    private Set<String> findTakenExternalKeys(List<ImportLine> lines) {
+        Set<String> systems = new HashSet<>();
+        Set<String> ids = new HashSet<>();
+        for (ImportLine line : lines) {
+            if (externalKey(line.row()) != null) {
+                systems.add(line.row().getExternalSystem());
+                ids.add(line.row().getExternalId());
+            }
+        }
+        Set<String> taken = new HashSet<>();
+        if (!systems.isEmpty()) {
+            for (Object[] key : companyRepository.findExternalKeysIn(systems, ids)) {
+                taken.add(key[0] + "/" + key[1]);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Orders rows so that a parent imported in the same chunk is inserted before its children.
+     * Rows whose parent code cannot be resolved, or that form a cycle, are rejected.
+     */
+    private List<ImportLine> orderParentsFirst(List<ImportLine> candidates, Map<String, ImportLine> candidatesByCode,
+                                               Map<String, UUID> existingIds, ImportState state,
+                                               List<CompanyImportError> chunkErrors) {
+        List<ImportLine> ordered = new ArrayList<>(candidates.size());
+        Set<String> placed = new HashSet<>();
+        List<ImportLine> pending = candidates;
+
+        while (!pending.isEmpty()) {
+            List<ImportLine> deferred = new ArrayList<>();
+            for (ImportLine line : pending) {
+                String parentCode = line.row().getParentCompanyCode();
+                if (parentCode == null || placed.contains(parentCode)
+                        || existingIds.containsKey(parentCode) || state.importedIds.containsKey(parentCode)) {
+                    ordered.add(line);
+                    placed.add(line.row().getCode());
+                } else if (candidatesByCode.containsKey(parentCode)) {
+                    deferred.add(line);
+                } else {
+                    chunkErrors.add(error(line, "Parent company not found: " + parentCode));
+                }
+            }
+            if (deferred.size() == pending.size()) {
+                deferred.forEach(line -> chunkErrors.add(error(line, "Circular parent company reference")));
+                break;
+            }
+            pending = deferred;
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns the ID of a parent that exists outside this chunk, or null if the row has
+     * no parent or its parent is imported in this chunk.
+     */
+    private UUID existingParentId(CompanyImportRow row, Map<String, UUID> existingIds, ImportState state) {
+        if (row.getParentCompany() != null) {
+            return row.getParentCompany();
+        }
+        String parentCode = row.getParentCompanyCode();
+        if (parentCode == null) {
+            return null;
+        }
+        UUID imported = state.importedIds.get(parentCode);
+        return imported != null ? imported : existingIds.get(parentCode);
+    }
+
+    private String externalKey(CompanyImportRow row) {
+        return CommonUtils.allNotBlank(row.getExternalSystem(), row.getExternalId())
+                ? row.getExternalSystem() + "/" + row.getExternalId()
+                : null;
+    }
+
+    private String describe(DataAccessException ex, CompanyImportRow row) {
+        if (ex instanceof DataIntegrityViolationException integrityViolation) {
+            RuntimeException translated = companyValidator.translateConstraintViolation(integrityViolation, row);
+            if (translated instanceof ApplicationException) {
+                return translated.getMessage();
+            }
+        }
+        return "Company could not be saved";
+    }
+
+    private CompanyImportError error(ImportLine line, String message) {
+        return new CompanyImportError(line.number(), line.row().getCode(), message);
+    }
+
+    /** A parsed row together with its line number in the upload. */
+    private record ImportLine(long number, CompanyImportRow row) {
+    }
+
+    /** Counters and lookups accumulated over the chunks of one import. */
+    private static final class ImportState {
+        private long received;
+        private long imported;
+        private long failed;
+        private final List<CompanyImportError> errors = new ArrayList<>();
+        /** Codes to IDs of companies imported by this load; their ancestors are read back per chunk. */
+        private final Map<String, UUID> importedIds = new HashMap<>();
+
+        private void reject(long line, String code, String message) {
+            reject(new CompanyImportError(line, code, message));
+        }
+
+        private void reject(CompanyImportError error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -1,26 +1,60 @@
 package com.os360.enterprise.service;
 
+import com.os360.enterprise.cache.EntityCache;
+import com.os360.enterprise.cache.SiteTimeZoneCache;
+import com.os360.enterprise.cache.SystemCompanyCache;
+import com.os360.enterprise.common.ConstraintViolationUtils;
+import com.os360.enterprise.common.ETagUtils;
+import com.os360.enterprise.common.KeysetCursorUtils;
 import com.os360.enterprise.dto.CompanyCreateRequest;
+import com.os360.enterprise.dto.CompanyDeleteResponse;
 import com.os360.enterprise.dto.CompanyPatchRequest;
 import com.os360.enterprise.dto.CompanyResponse;
+import com.os360.enterprise.dto.CompanySearchResponse;
 import com.os360.enterprise.dto.CompanyUpdateRequest;
+import com.os360.enterprise.dto.KeysetPageResponse;
+import com.os360.enterprise.dto.SiteResponse;
 import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.enumurations.CompanyExpand;
+import com.os360.enterprise.enumurations.PartyType;
 import com.os360.enterprise.entityUtils.EntityPatcher;
 import com.os360.enterprise.exception.domain.EntityAlreadyDeletedException;
+import com.os360.enterprise.exception.domain.EntityAlreadyExistsException;
 import com.os360.enterprise.mapper.CompanyMapper;
 import com.os360.enterprise.repository.CompanyRepository;
+import com.os360.enterprise.repository.ConditionalUpdateRepository;
+import com.os360.enterprise.repository.SiteRepository;
+import com.os360.enterprise.search.CompanySearchIndex;
+import com.os360.enterprise.search.SiteSpatialIndex;
 import com.os360.enterprise.validator.CompanyValidator;
 import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.domain.EntityVersionConflictException;
+import com.os360.enterprise.exception.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class CompanyService {
 
+    /** Upper bound for the page size of company listings. */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /** Upper bound for the number of company search hits. */
+    public static final int MAX_SEARCH_RESULTS = 25;
+
     @Autowired
     private CompanyRepository companyRepository;
 
@@ -33,16 +67,210 @@ public class CompanyService {
     @Autowired
     EntityPatcher entityPatcher;
 
+    @Autowired
+    private CompanyHierarchyService companyHierarchyService;
+
+    @Autowired
+    private SystemCompanyCache systemCompanyCache;
+
+    @Autowired
+    private ConditionalUpdateRepository conditionalUpdateRepository;
+
+    @Autowired
+    private CompanySearchIndex companySearchIndex;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Autowired
+    private EntityCache<CompanyResponse> companyCache;
+
+    @Autowired
+    private EntityCache<SiteResponse> siteCache;
+
+    @Autowired
+    private SiteSpatialIndex siteSpatialIndex;
+
+    @Autowired
+    private SiteTimeZoneCache siteTimeZoneCache;
+
+    /**
+     * Creates a new company.
+     * <p>
+     * Validation costs one probe query; the insert is flushed immediately so a
+     * concurrent create losing the race on a unique constraint is reported as
+     * the same domain exception as the probe would have raised.
+     *
+     * @param companyCreateRequest the company details
+     * @return the created company as a response DTO
+     */
+    @Transactional
     public Optional<CompanyResponse> create(CompanyCreateRequest companyCreateRequest) {
 
-        Company company = companyRepository.save(companyValidator.validateCreate(companyCreateRequest));
+        Company company = companyValidator.validateCreate(companyCreateRequest);
+        try {
+            company = companyRepository.saveAndFlush(company);
+        } catch (DataIntegrityViolationException ex) {
+            throw companyValidator.translateConstraintViolation(ex, companyCreateRequest);
+        }
+        companyHierarchyService.indexCreated(company.getId(), companyCreateRequest.getParentCompany());
+        companySearchIndex.changed(List.of(company.getId()));
+        if (company.isSystemCompany()) {
+            systemCompanyCache.invalidate();
+        }
         return companyMapper.toResponse(company);
     }
 
+    /**
+     * Retrieves only the current version of a company, for conditional requests.
+     *
+     * @param id the company ID
+     * @return the version, or empty if the company does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(UUID id) {
+        return companyRepository.findVersionById(id);
+    }
+
     public Optional<CompanyResponse> get(UUID id) {
+        return Optional.of(companyCache.get(id, companyId -> {
+            Company company = companyRepository.findById(companyId)
+                    .orElseThrow(() -> new EntityNotFoundException(Company.class, companyId));
+            return companyMapper.toResponse(company).orElseThrow();
+        }));
+    }
+
+    /**
+     * Retrieves a company with the requested parts of its aggregate. Without parts the
+     * company comes from the company cache; otherwise it is read with one query per part.
+     *
+     * @param id     UUID of the company
+     * @param expand parts of the aggregate to include
+     * @return Optional containing the CompanyResponse
+     * @throws EntityNotFoundException if the company does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<CompanyResponse> get(UUID id, Set<CompanyExpand> expand) {
+        if (expand.isEmpty()) {
+            return get(id);
+        }
         Company company = companyRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(Company.class, id));
-        return companyMapper.toResponse(company);
+        fetchParts(List.of(id), expand);
+        return companyMapper.toResponse(company, expand);
+    }
+
+    /**
+     * Lists companies using keyset pagination on (name, id).
+     * <p>
+     * Each page is fetched with one extra row to detect whether more rows exist,
+     * so neither OFFSET nor COUNT(*) is ever issued.
+     *
+     * @param countryCode optional ISO country code filter
+     * @param active      optional active flag filter
+     * @param deleted     whether to list deleted (true) or non-deleted (false) companies
+     * @param validOn     optional date that must fall inside the validity window
+     * @param cursor      opaque cursor returned with the previous page, or null for the first page
+     * @param limit       page size (1..{@value #MAX_PAGE_SIZE})
+     * @param expand      parts of the aggregate to include; one extra query per part
+     * @return the requested page of companies
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<CompanyResponse> list(String countryCode, Boolean active, boolean deleted,
+                                                    LocalDate validOn, String cursor, int limit,
+                                                    Set<CompanyExpand> expand) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE, "limit", limit);
+        }
+
+        List<Company> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = companyRepository.findPage(countryCode, active, deleted, validOn, Limit.of(limit + 1));
+        } else {
+            String[] key = KeysetCursorUtils.decode(cursor, 2);
+            rows = companyRepository.findPageAfter(countryCode, active, deleted, validOn,
+                    key[0], parseCursorId(key[1], cursor), Limit.of(limit + 1));
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<Company> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Company last = page.get(page.size() - 1);
+            nextCursor = KeysetCursorUtils.encode(last.getName(), last.getId());
+        }
+
+        if (!expand.isEmpty() && !page.isEmpty()) {
+            fetchParts(page.stream().map(Company::getId).toList(), expand);
+        }
+        List<CompanyResponse> items = page.stream()
+                .map(company -> companyMapper.toResponse(company, expand))
+                .flatMap(Optional::stream)
+                .toList();
+        return new KeysetPageResponse<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Searches non-deleted companies by name and code for typeahead pickers.
+     * <p>
+     * Matches prefixes, infixes and (from three characters) similar names; see
+     * {@link CompanySearchIndex} for the ranking. A query without letters or digits
+     * has no trigrams and is rejected, so every index implementation answers it alike.
+     *
+     * @param query the search text
+     * @param limit maximum number of hits (1..{@value #MAX_SEARCH_RESULTS})
+     * @return ranked hits
+     * @throws ValidationException if the query has no letter or digit, or the limit is out of range
+     */
+    @Transactional(readOnly = true)
+    public List<CompanySearchResponse> search(String query, int limit) {
+        if (query == null || query.codePoints().noneMatch(Character::isLetterOrDigit)) {
+            throw new ValidationException("Search query must contain a letter or digit", "q",
+                    query == null ? "" : query);
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_SEARCH_RESULTS, "limit", limit);
+        }
+        return companySearchIndex.search(query.strip(), limit);
+    }
+
+    /**
+     * Sets the system company flag, checking the singleton rule against the cached
+     * system company and invalidating the cache when the system company is touched.
+     */
+    private void applySystemCompanyFlag(Company company, boolean isSystemCompany) {
+        if (isSystemCompany && systemCompanyCache.existsOtherThan(company.getId())) {
+            throw new EntityAlreadyExistsException(Company.class, "system company");
+        }
+        if (isSystemCompany || company.isSystemCompany()) {
+            systemCompanyCache.invalidate();
+        }
+        company.setSystemCompany(isSystemCompany);
+    }
+
+    /**
+     * Loads the requested parts of the aggregate of already managed companies through
+     * their named entity graphs: one query per part, whatever the number of companies.
+     */
+    private void fetchParts(List<UUID> ids, Set<CompanyExpand> expand) {
+        if (expand.contains(CompanyExpand.PARENT)) {
+            companyRepository.findWithParentByIdIn(ids);
+        }
+        if (expand.contains(CompanyExpand.SITES)) {
+            companyRepository.findWithSitesByIdIn(ids);
+        }
+        if (expand.contains(CompanyExpand.TIME_ZONES)) {
+            companyRepository.findWithTimeZonesByIdIn(ids);
+        }
+    }
+
+    private UUID parseCursorId(String value, String cursor) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid cursor", "cursor", cursor);
+        }
     }
 
     /**
@@ -52,8 +280,12 @@ public class CompanyService {
      * marks it as deleted (e.g., by setting a flag or status). This ensures that
      * the data remains available for auditing or recovery purposes.
      *
+     * The company keeps its place in the hierarchy closure table; hierarchy
+     * queries skip soft deleted companies unless asked to include them.
+     *
      * @param id the unique identifier of the entity to be soft deleted
      */
+    @Transactional
     public void softDelete(UUID id) {
         Company company = companyRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(Company.class, id));
@@ -62,6 +294,10 @@ public class CompanyService {
             throw new EntityAlreadyDeletedException(Company.class, id);
         }
 
+        if (company.isSystemCompany()) {
+            systemCompanyCache.invalidate();
+        }
+
         //Add deletion details
         company.setDeleted(true);
         company.setDeletedAt(OffsetDateTime.now());
@@ -73,7 +309,49 @@ public class CompanyService {
 //        companyPatchRequest.setDeleted(true);
 //        entityPatcher.patchEntity(company, companyPatchRequest);
         companyRepository.save(company);
+        companySearchIndex.changed(List.of(id));
+        companyCache.invalidate(id);
+    }
+
+    /**
+     * Soft deletes a company, optionally its descendant companies, and all their sites.
+     * <p>
+     * Runs as two set-based UPDATE statements (party, then site) driven by the
+     * closure table, independent of the number of rows. Descendant companies that
+     * are already deleted are skipped, but their remaining sites are deleted.
+     *
+     * @param id                 the company ID
+     * @param includeDescendants whether descendant companies are deleted as well
+     * @return the number of companies and sites marked deleted
+     * @throws EntityNotFoundException       if the company does not exist
+     * @throws EntityAlreadyDeletedException if the company is already deleted
+     */
+    @Transactional
+    public CompanyDeleteResponse softDeleteCascade(UUID id, boolean includeDescendants) {
+        Company company = companyRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(Company.class, id));
+        if (company.isDeleted()) {
+            throw new EntityAlreadyDeletedException(Company.class, id);
+        }
+
+        int maxDepth = includeDescendants ? Integer.MAX_VALUE : 0;
+        OffsetDateTime now = OffsetDateTime.now();
+        //TODO Change to a proper user
+        UUID deletedBy = UUID.fromString("00000000-0000-0000-0000-000000000000");
+
+        int sitesDeleted = siteRepository.softDeleteByCompanySubtree(id, maxDepth, now, deletedBy);
+        int companiesDeleted = companyRepository.softDeleteSubtree(id, maxDepth, now, deletedBy);
 
+        // The subtree may contain the system company; a reload is cheap
+        systemCompanyCache.invalidate();
+        // The affected IDs are not known; cascades are rare
+        companyCache.invalidateAll();
+        siteCache.invalidateAll();
+        if (sitesDeleted > 0) {
+            siteSpatialIndex.changedAll();
+            siteTimeZoneCache.changedAll();
+        }
+        return new CompanyDeleteResponse(companiesDeleted, sitesDeleted);
     }
 
     /**
@@ -85,22 +363,29 @@ public class CompanyService {
      *
      * @param id            the unique identifier of the company to update
      * @param updateRequest the DTO containing updated company details
+     * @param expectedVersion the version from {@code If-Match}, or null for an unconditional update
      * @return the updated company as a response DTO
      */
-    public Optional<CompanyResponse>  update(UUID id, CompanyUpdateRequest updateRequest) {
+    @Transactional
+    public Optional<CompanyResponse>  update(UUID id, CompanyUpdateRequest updateRequest, Long expectedVersion) {
         Company existingCompany = companyRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(Company.class, id));
+        ETagUtils.requireVersion(Company.class, id, expectedVersion, existingCompany.getVersion());
+
+        companyHierarchyService.changeParent(existingCompany, updateRequest.getParentCompany());
 
         if (updateRequest.getName() != null) existingCompany.setName(updateRequest.getName());
         if (updateRequest.getCountryCode() != null) existingCompany.setCountryCode(updateRequest.getCountryCode());
         if (updateRequest.getExternalSystem() != null) existingCompany.setExternalSystem(updateRequest.getExternalSystem());
         if (updateRequest.getExternalId() != null) existingCompany.setExternalId(updateRequest.getExternalId());
         if (updateRequest.getLogoUrl() != null) existingCompany.setLogoUrl(updateRequest.getLogoUrl());
-        existingCompany.setSystemCompany(updateRequest.isSystemCompany());
+        applySystemCompanyFlag(existingCompany, updateRequest.isSystemCompany());
         if (updateRequest.getValidFrom() != null) existingCompany.setValidFrom(updateRequest.getValidFrom());
         if (updateRequest.getValidTo() != null) existingCompany.setValidTo(updateRequest.getValidTo());
 
-        Company updatedCompany = companyRepository.save(existingCompany);
+        Company updatedCompany = companyRepository.saveAndFlush(existingCompany);
+        companySearchIndex.changed(List.of(id));
+        companyCache.invalidate(id);
         return companyMapper.toResponse( updatedCompany);
     }
 
@@ -113,24 +398,116 @@ public class CompanyService {
      *
      * @param id                    the unique identifier of the company to update
      * @param companyPatchRequest   the DTO containing updated company details
+     * @param expectedVersion       the version from {@code If-Match}, or null for an unconditional update
      * @return the updated company as a response DTO
      */
-    public Optional<CompanyResponse>  patch(UUID id, CompanyPatchRequest companyPatchRequest) {
+    @Transactional
+    public Optional<CompanyResponse>  patch(UUID id, CompanyPatchRequest companyPatchRequest, Long expectedVersion) {
         Company existingCompany = companyRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(Company.class, id));
+        ETagUtils.requireVersion(Company.class, id, expectedVersion, existingCompany.getVersion());
+
+        companyHierarchyService.changeParent(existingCompany, companyPatchRequest.getParentCompany());
 
         if (companyPatchRequest.getName() != null) existingCompany.setName(companyPatchRequest.getName());
         if (companyPatchRequest.getCountryCode() != null) existingCompany.setCountryCode(companyPatchRequest.getCountryCode());
         if (companyPatchRequest.getExternalSystem() != null) existingCompany.setExternalSystem(companyPatchRequest.getExternalSystem());
         if (companyPatchRequest.getExternalId() != null) existingCompany.setExternalId(companyPatchRequest.getExternalId());
         if (companyPatchRequest.getLogoUrl() != null) existingCompany.setLogoUrl(companyPatchRequest.getLogoUrl());
-        existingCompany.setSystemCompany(companyPatchRequest.isSystemCompany());
+        applySystemCompanyFlag(existingCompany, companyPatchRequest.isSystemCompany());
         if (companyPatchRequest.getValidFrom() != null) existingCompany.setValidFrom(companyPatchRequest.getValidFrom());
         if (companyPatchRequest.getValidTo() != null) existingCompany.setValidTo(companyPatchRequest.getValidTo());
 
-        Company updatedCompany = companyRepository.save(existingCompany);
+        Company updatedCompany = companyRepository.saveAndFlush(existingCompany);
+        companySearchIndex.changed(List.of(id));
+        companyCache.invalidate(id);
         return companyMapper.toResponse( updatedCompany);
 
     }
 
+    /**
+     * Applies a conditional (If-Match) full update without loading the company.
+     * <p>
+     * See {@link #tryConditionalPatch} for when the read-free path is not taken.
+     *
+     * @param id              the company ID
+     * @param updateRequest   the DTO containing updated company details
+     * @param expectedVersion the version from {@code If-Match}
+     * @return the new version, or empty if the caller must use {@link #update}
+     */
+    @Transactional
+    public OptionalLong tryConditionalUpdate(UUID id, CompanyUpdateRequest updateRequest, long expectedVersion) {
+        if (requiresExistingState(id, updateRequest.getParentCompany(), updateRequest.isSystemCompany())) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(conditionalWrite(id, expectedVersion,
+                updateRequest.getExternalSystem(), updateRequest.getExternalId(), updateRequest.getCountryCode(),
+                updateRequest.getName(), updateRequest.getLogoUrl(),
+                updateRequest.getValidFrom(), updateRequest.getValidTo()));
+    }
+
+    /**
+     * Applies a conditional (If-Match) partial update without loading the company.
+     * <p>
+     * Only the supplied columns are written, in one versioned UPDATE of {@code party}
+     * and at most one UPDATE of {@code company}. The read-free path is not taken when
+     * the change depends on existing state: a parent change (cycle check and closure
+     * maintenance) or anything touching the system company flag.
+     *
+     * @param id                  the company ID
+     * @param companyPatchRequest the DTO containing updated company details
+     * @param expectedVersion     the version from {@code If-Match}
+     * @return the new version, or empty if the caller must use {@link #patch}
+     * @throws EntityNotFoundException        if the company does not exist
+     * @throws EntityVersionConflictException if the company has another version
+     */
+    @Transactional
+    public OptionalLong tryConditionalPatch(UUID id, CompanyPatchRequest companyPatchRequest, long expectedVersion) {
+        if (requiresExistingState(id, companyPatchRequest.getParentCompany(), companyPatchRequest.isSystemCompany())) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(conditionalWrite(id, expectedVersion,
+                companyPatchRequest.getExternalSystem(), companyPatchRequest.getExternalId(),
+                companyPatchRequest.getCountryCode(), companyPatchRequest.getName(), companyPatchRequest.getLogoUrl(),
+                companyPatchRequest.getValidFrom(), companyPatchRequest.getValidTo()));
+    }
+
+    private boolean requiresExistingState(UUID id, UUID parentCompany, boolean isSystemCompany) {
+        return parentCompany != null
+                || isSystemCompany
+                || systemCompanyCache.getId().filter(id::equals).isPresent();
+    }
+
+    private long conditionalWrite(UUID id, long expectedVersion, String externalSystem, String externalId,
+                                  String countryCode, String name, String logoUrl,
+                                  LocalDate validFrom, LocalDate validTo) {
+        Map<String, Object> partyColumns = new LinkedHashMap<>();
+        if (externalSystem != null) partyColumns.put("external_system", externalSystem);
+        if (externalId != null) partyColumns.put("external_id", externalId);
+        if (countryCode != null) partyColumns.put("country_code", countryCode);
+
+        Map<String, Object> companyColumns = new LinkedHashMap<>();
+        if (name != null) companyColumns.put("name", name);
+        if (logoUrl != null) companyColumns.put("logo_url", logoUrl);
+        if (validFrom != null) companyColumns.put("valid_from", validFrom);
+        if (validTo != null) companyColumns.put("valid_to", validTo);
+
+        try {
+            if (!conditionalUpdateRepository.updateVersioned("party", id, expectedVersion, partyColumns,
+                    "party_type = '" + PartyType.COMPANY.name() + "'")) {
+                throw ETagUtils.updateMissed(Company.class, id, expectedVersion, companyRepository.findVersionById(id));
+            }
+            conditionalUpdateRepository.update("company", id, companyColumns);
+            companyCache.invalidate(id);
+            if (name != null) {
+                companySearchIndex.changed(List.of(id));
+            }
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolationUtils.isViolationOf(ex, CompanyValidator.EXTERNAL_ID_CONSTRAINT)) {
+                throw new EntityAlreadyExistsException(Company.class, externalSystem + "/" + externalId);
+            }
+            throw ex;
+        }
+        return expectedVersion + 1;
+    }
 }
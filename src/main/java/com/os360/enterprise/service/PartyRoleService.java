@@ -0,0 +1,229 @@
+package com.os360.enterprise.service;
+
+import com.os360.enterprise.common.ConstraintViolationUtils;
+import com.os360.enterprise.common.KeysetCursorUtils;
+import com.os360.enterprise.dto.KeysetPageResponse;
+import com.os360.enterprise.dto.PartyRoleCreateRequest;
+import com.os360.enterprise.dto.PartyRoleResponse;
+import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.entity.Customer;
+import com.os360.enterprise.entity.Employee;
+import com.os360.enterprise.entity.Party;
+import com.os360.enterprise.entity.PartyRole;
+import com.os360.enterprise.entity.Supplier;
+import com.os360.enterprise.entity.Vendor;
+import com.os360.enterprise.enumurations.PartyRoleType;
+import com.os360.enterprise.exception.domain.EntityAlreadyExistsException;
+import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.repository.PartyRoleRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service managing the roles parties hold at companies.
+ * <p>
+ * Responsibilities:
+ * - Grant a party a role at a company, at most once per (party, role, company).
+ * - Revoke a role.
+ * - List the parties with a role at a company and the roles of a party, keyset paginated.
+ */
+@Service
+public class PartyRoleService {
+
+    /** Maximum page size of the role listings. */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /** Unique constraint on party_role (party_id, role_type, company_id). */
+    public static final String PARTY_ROLE_CONSTRAINT = "party_role_uc_party_role_company";
+
+    /** Foreign key from party_role.party_id to party.id. */
+    public static final String PARTY_CONSTRAINT = "fk_party_role_party";
+
+    /** Foreign key from party_role.company_id to company.id. */
+    public static final String COMPANY_CONSTRAINT = "fk_party_role_company";
+
+    /** Lowest UUID; the keyset start of a first page. */
+    private static final UUID FIRST = new UUID(0L, 0L);
+
+    @Autowired
+    private PartyRoleRepository partyRoleRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Grants a party a role at a company.
+     *
+     * @param request the party, company and role.
+     * @return Optional containing the created role.
+     * @throws ValidationException          if the party or company is unknown or deleted.
+     * @throws EntityAlreadyExistsException if the party already holds the role at the company.
+     */
+    @Transactional
+    public Optional<PartyRoleResponse> create(PartyRoleCreateRequest request) {
+        if (!partyRoleRepository.existsActiveParty(request.getPartyId())) {
+            throw new ValidationException("Unknown or deleted party", "partyId", request.getPartyId());
+        }
+        if (!partyRoleRepository.existsActiveCompany(request.getCompanyId())) {
+            throw new ValidationException("Unknown or deleted company", "companyId", request.getCompanyId());
+        }
+
+        PartyRole role = newRole(request.getRoleType());
+        role.setParty(entityManager.getReference(Party.class, request.getPartyId()));
+        role.setCompany(entityManager.getReference(Company.class, request.getCompanyId()));
+        role.setReferenceCode(request.getReferenceCode());
+        role.setActive(true);
+        try {
+            role = partyRoleRepository.saveAndFlush(role);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateConstraintViolation(ex, request);
+        }
+        return partyRoleRepository.findResponseById(role.getId());
+    }
+
+    /**
+     * Retrieves a role by its ID.
+     *
+     * @param id ID of the role.
+     * @return Optional containing the role.
+     * @throws EntityNotFoundException if the role does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PartyRoleResponse> get(UUID id) {
+        return Optional.of(partyRoleRepository.findResponseById(id)
+                .orElseThrow(() -> new EntityNotFoundException(PartyRole.class, id)));
+    }
+
+    /**
+     * Revokes a role.
+     *
+     * @param id ID of the role.
+     * @throws EntityNotFoundException if the role does not exist.
+     */
+    @Transactional
+    public void delete(UUID id) {
+        if (!partyRoleRepository.existsById(id)) {
+            throw new EntityNotFoundException(PartyRole.class, id);
+        }
+        partyRoleRepository.deleteById(id);
+    }
+
+    /**
+     * Lists the non-deleted parties holding a role at a company, ordered by party ID.
+     *
+     * @param companyId ID of the company.
+     * @param roleType  the role, e.g. {@link PartyRoleType#SUPPLIER} for the suppliers of the company.
+     * @param cursor    opaque cursor returned with the previous page, or null for the first page.
+     * @param limit     page size (1..{@value #MAX_PAGE_SIZE}).
+     * @return the requested page of roles.
+     * @throws EntityNotFoundException if the company does not exist or is deleted.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<PartyRoleResponse> listByCompany(UUID companyId, PartyRoleType roleType,
+                                                               String cursor, int limit) {
+        validateLimit(limit);
+        if (!partyRoleRepository.existsActiveCompany(companyId)) {
+            throw new EntityNotFoundException(Company.class, companyId);
+        }
+        UUID afterPartyId = FIRST;
+        if (cursor != null && !cursor.isBlank()) {
+            afterPartyId = parseUuid(KeysetCursorUtils.decode(cursor, 1)[0], cursor);
+        }
+        List<PartyRoleResponse> rows = partyRoleRepository.findByCompanyAndRole(
+                companyId, roleType, afterPartyId, Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<PartyRoleResponse> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? KeysetCursorUtils.encode(page.get(page.size() - 1).getPartyId()) : null;
+        return new KeysetPageResponse<>(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Lists the roles of a non-deleted party, ordered by role and company ID.
+     *
+     * @param partyId ID of the party.
+     * @param cursor  opaque cursor returned with the previous page, or null for the first page.
+     * @param limit   page size (1..{@value #MAX_PAGE_SIZE}).
+     * @return the requested page of roles.
+     * @throws EntityNotFoundException if the party does not exist or is deleted.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<PartyRoleResponse> listByParty(UUID partyId, String cursor, int limit) {
+        validateLimit(limit);
+        if (!partyRoleRepository.existsActiveParty(partyId)) {
+            throw new EntityNotFoundException(Party.class, partyId);
+        }
+        PartyRoleType afterRoleType = null;
+        UUID afterCompanyId = FIRST;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursorUtils.decode(cursor, 2);
+            try {
+                afterRoleType = PartyRoleType.valueOf(key[0]);
+            } catch (IllegalArgumentException ex) {
+                throw new ValidationException("Invalid cursor", "cursor", cursor);
+            }
+            afterCompanyId = parseUuid(key[1], cursor);
+        }
+        List<PartyRoleResponse> rows = partyRoleRepository.findByParty(
+                partyId, afterRoleType, afterCompanyId, Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<PartyRoleResponse> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            PartyRoleResponse last = page.get(page.size() - 1);
+            nextCursor = KeysetCursorUtils.encode(last.getRoleType().name(), last.getCompanyId());
+        }
+        return new KeysetPageResponse<>(page, nextCursor, hasMore);
+    }
+
+    private static PartyRole newRole(PartyRoleType roleType) {
+        return switch (roleType) {
+            case EMPLOYEE -> new Employee();
+            case CUSTOMER -> new Customer();
+            case SUPPLIER -> new Supplier();
+            case VENDOR -> new Vendor();
+        };
+    }
+
+    /**
+     * Translates a constraint violation raised while inserting a role, e.g. by a
+     * concurrent grant of the same role or a party deleted in between.
+     */
+    private RuntimeException translateConstraintViolation(DataIntegrityViolationException ex,
+                                                          PartyRoleCreateRequest request) {
+        if (ConstraintViolationUtils.isViolationOf(ex, PARTY_ROLE_CONSTRAINT)) {
+            return new EntityAlreadyExistsException(PartyRole.class,
+                    request.getPartyId() + "/" + request.getRoleType() + "/" + request.getCompanyId());
+        }
+        if (ConstraintViolationUtils.isViolationOf(ex, PARTY_CONSTRAINT)) {
+            return new ValidationException("Unknown or deleted party", "partyId", request.getPartyId());
+        }
+        if (ConstraintViolationUtils.isViolationOf(ex, COMPANY_CONSTRAINT)) {
+            return new ValidationException("Unknown or deleted company", "companyId", request.getCompanyId());
+        }
+        return ex;
+    }
+
+    private void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE, "limit", limit);
+        }
+    }
+
+    private UUID parseUuid(String value, String cursor) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid cursor", "cursor", cursor);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.os360.enterprise.service;
+
+import com.os360.enterprise.common.KeysetCursorUtils;
+import com.os360.enterprise.dto.KeysetPageResponse;
+import com.os360.enterprise.dto.PersonBirthdayResponse;
+import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.entity.Site;
+import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.repository.CompanyRepository;
+import com.os360.enterprise.repository.PersonBirthdayRepository;
+import com.os360.enterprise.repository.PersonBirthdayRepository.BirthdayRow;
+import com.os360.enterprise.repository.PersonSiteAssignmentJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service listing upcoming birthdays.
+ * <p>
+ * A window of days is translated into one or two ranges of birthday keys
+ * ({@code month * 100 + day}): one range normally, two when the window wraps
+ * into the next year (e.g. 20 December to 2 January is 1220..1231 then 101..102).
+ * Each range is a range scan of {@code person_idx_birthday}; pages are keyset
+ * paginated on (range, key, person ID) in the order the birthdays come up.
+ * <p>
+ * Persons born on 29 February celebrate on 28 February in common years, so a
+ * common-year window ending on 28 February also includes key 229.
+ */
+@Service
+public class PersonBirthdayService {
+
+    /** Maximum page size of the birthday listing. */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /** Longest window; a year and a day covers every birthday once. */
+    public static final int MAX_DAYS = 366;
+
+    private static final int LEAP_DAY_KEY = 229;
+
+    private static final int LAST_KEY = 1231;
+
+    /** Lowest UUID; the keyset start of a range. */
+    private static final UUID FIRST = new UUID(0L, 0L);
+
+    @Autowired
+    private PersonBirthdayRepository personBirthdayRepository;
+
+    @Autowired
+    private PersonSiteAssignmentJdbcRepository personSiteAssignmentJdbcRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    /** A contiguous range of birthday keys and the year its birthdays fall in. */
+    private record KeyRange(int fromKey, int toKey, int year) {
+    }
+
+    /**
+     * Lists the non-deleted persons whose birthday falls within {@code days} days from
+     * {@code from} (inclusive), in the order the birthdays come up.
+     *
+     * @param from      first day of the window.
+     * @param days      length of the window in days (1..{@value #MAX_DAYS}).
+     * @param siteId    only persons assigned to this site; may be null.
+     * @param companyId only persons assigned to a site of this company; may be null.
+     * @param cursor    opaque cursor returned with the previous page, or null for the first page.
+     * @param limit     page size (1..{@value #MAX_PAGE_SIZE}).
+     * @return the requested page of birthdays.
+     * @throws ValidationException     if a parameter or the cursor is invalid.
+     * @throws EntityNotFoundException if the site or company does not exist or is deleted.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<PersonBirthdayResponse> listUpcoming(LocalDate from, int days, UUID siteId,
+                                                                   UUID companyId, String cursor, int limit) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new ValidationException("Days must be between 1 and " + MAX_DAYS, "days", days);
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE, "limit", limit);
+        }
+        if (siteId != null && companyId != null) {
+            throw new ValidationException("Filter by site or by company, not both", "companyId", companyId);
+        }
+        if (siteId != null && personSiteAssignmentJdbcRepository.findActiveSiteIds(List.of(siteId)).isEmpty()) {
+            throw new EntityNotFoundException(Site.class, siteId);
+        }
+        if (companyId != null && !companyRepository.existsActiveById(companyId)) {
+            throw new EntityNotFoundException(Company.class, companyId);
+        }
+
+        List<KeyRange> ranges = keyRanges(from, from.plusDays(days - 1L));
+        int range = 0;
+        int afterKey = 0;
+        UUID afterId = FIRST;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursorUtils.decode(cursor, 3);
+            try {
+                range = Integer.parseInt(key[0]);
+                afterKey = Integer.parseInt(key[1]);
+                afterId = UUID.fromString(key[2]);
+            } catch (IllegalArgumentException ex) {
+                throw new ValidationException("Invalid cursor", "cursor", cursor);
+            }
+            if (range < 0 || range >= ranges.size()) {
+                throw new ValidationException("Invalid cursor", "cursor", cursor);
+            }
+        }
+
+        List<PersonBirthdayResponse> items = new ArrayList<>();
+        List<Integer> itemRanges = new ArrayList<>();
+        for (; range < ranges.size() && items.size() <= limit; range++, afterKey = 0, afterId = FIRST) {
+            KeyRange keys = ranges.get(range);
+            for (BirthdayRow row : personBirthdayRepository.findByKeyRange(keys.fromKey(), keys.toKey(),
+                    afterKey, afterId, siteId, companyId, limit + 1 - items.size())) {
+                items.add(toResponse(row, keys.year(), from));
+                itemRanges.add(range);
+            }
+        }
+
+        boolean hasMore = items.size() > limit;
+        List<PersonBirthdayResponse> page = hasMore ? items.subList(0, limit) : items;
+        String nextCursor = null;
+        if (hasMore) {
+            PersonBirthdayResponse last = page.get(limit - 1);
+            nextCursor = KeysetCursorUtils.encode(itemRanges.get(limit - 1), key(last.getDateOfBirth()),
+                    last.getPersonId());
+        }
+        return new KeysetPageResponse<>(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Splits the window [from, to] into ranges of birthday keys, in the order they come up.
+     */
+    private static List<KeyRange> keyRanges(LocalDate from, LocalDate to) {
+        int fromKey = key(from);
+        int toKey = key(to);
+        if (to.getMonth() == Month.FEBRUARY && to.getDayOfMonth() == 28 && !to.isLeapYear()) {
+            toKey = LEAP_DAY_KEY;
+        }
+        if (to.getYear() == from.getYear()) {
+            return List.of(new KeyRange(fromKey, toKey, from.getYear()));
+        }
+        // A window of a full year ends just before the day it started
+        int wrappedToKey = toKey >= fromKey ? fromKey - 1 : toKey;
+        return List.of(new KeyRange(fromKey, LAST_KEY, from.getYear()),
+                new KeyRange(1, wrappedToKey, to.getYear()));
+    }
+
+    private static PersonBirthdayResponse toResponse(BirthdayRow row, int year, LocalDate from) {
+        LocalDate nextBirthday = MonthDay.from(row.dateOfBirth()).atYear(year);
+        return new PersonBirthdayResponse(row.id(), row.firstName(), row.lastName(), row.dateOfBirth(),
+                nextBirthday, (int) ChronoUnit.DAYS.between(from, nextBirthday),
+                year - row.dateOfBirth().getYear());
+    }
+
+    private static int key(LocalDate date) {
+        return date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+}
@@ -0,0 +1,350 @@
+package com.os360.enterprise.service;
+
+import com.os360.enterprise.common.NameMatchUtils;
+import com.os360.enterprise.dto.PersonDuplicateCandidateResponse;
+import com.os360.enterprise.dto.PersonDuplicateClusterResponse;
+import com.os360.enterprise.dto.PersonDuplicateIndexResponse;
+import com.os360.enterprise.dto.PersonDuplicateReportResponse;
+import com.os360.enterprise.dto.PersonResponse;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.repository.PersonBlockingKeyRepository;
+import com.os360.enterprise.repository.PersonBlockingKeyRepository.Block;
+import com.os360.enterprise.repository.PersonBlockingKeyRepository.MatchFields;
+import com.os360.enterprise.repository.PersonJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service detecting persons that were entered more than once with slightly
+ * different spellings.
+ * <p>
+ * Every person is indexed under a few blocking keys in {@code person_blocking_key}:
+ * - with a birth date: the sorted Soundex codes of first and last name, the normalized
+ *   last name, and the normalized first name, each combined with the birth date;
+ * - without a birth date: the sorted Soundex codes combined with the country.
+ * Persons only become candidates of each other when they share a key. Persons with
+ * a birth date are therefore never compared with persons without one.
+ * <p>
+ * Candidates are scored by the Jaro-Winkler similarity of their names (swapped first
+ * and last names count too), reduced when the birth dates or countries differ or the
+ * birth date is unknown:
+ * - {@link #findCandidates} checks one person with a single indexed lookup;
+ * - {@link #findClusters} streams all blocks in key order, scores them on all cores
+ *   and joins the matching pairs into clusters.
+ * The index is maintained by the person write paths; {@link #rebuildIndex} fills it
+ * for existing data.
+ */
+@Service
+public class PersonDuplicateService {
+
+    /** Default minimum score for two persons to count as duplicates. */
+    public static final double DEFAULT_MIN_SCORE = 0.9;
+
+    /** Blocks with more persons are skipped by the scan; such keys are too common to discriminate. */
+    public static final int MAX_BLOCK_SIZE = 500;
+
+    /** Maximum number of persons scored by a candidate check. */
+    private static final int MAX_CANDIDATE_ROWS = 1000;
+
+    /** Maximum number of clusters in a scan report. */
+    private static final int MAX_REPORTED_CLUSTERS = 1000;
+
+    /** Normalized names are cut to this length inside keys. */
+    private static final int KEY_NAME_LENGTH = 60;
+
+    /** Persons indexed per batch during a rebuild. */
+    private static final int INDEX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private PersonBlockingKeyRepository personBlockingKeyRepository;
+
+    @Autowired
+    private PersonJdbcRepository personJdbcRepository;
+
+    /**
+     * Returns the blocking keys of a person.
+     *
+     * @return the keys; empty if first or last name has no letters
+     */
+    static List<String> blockingKeys(String firstName, String lastName, LocalDate dateOfBirth, String countryCode) {
+        String firstCode = NameMatchUtils.soundex(firstName);
+        String lastCode = NameMatchUtils.soundex(lastName);
+        if (firstCode.isEmpty() || lastCode.isEmpty()) {
+            return List.of();
+        }
+        // Sorted, so that swapped first and last names share the key
+        String codes = firstCode.compareTo(lastCode) <= 0 ? firstCode + lastCode : lastCode + firstCode;
+        if (dateOfBirth == null) {
+            return List.of("C|" + codes + "|" + (countryCode != null ? countryCode.toUpperCase(Locale.ROOT) : ""));
+        }
+        return List.of(
+                "P|" + codes + "|" + dateOfBirth,
+                "L|" + keyName(lastName) + "|" + dateOfBirth,
+                "F|" + keyName(firstName) + "|" + dateOfBirth);
+    }
+
+    /**
+     * Finds the existing persons that likely are the given person.
+     *
+     * @param excludeId ID of the person itself when checking an existing person, or null
+     * @param minScore  minimum score (0..1]
+     * @return the candidates by descending score
+     */
+    @Transactional(readOnly = true)
+    public List<PersonDuplicateCandidateResponse> findCandidates(String firstName, String lastName,
+                                                                 LocalDate dateOfBirth, String countryCode,
+                                                                 UUID excludeId, double minScore) {
+        validateMinScore(minScore);
+        MatchFields person = new MatchFields(excludeId, firstName, lastName, dateOfBirth, countryCode);
+        List<PersonDuplicateCandidateResponse> candidates = new ArrayList<>();
+        for (MatchFields other : personBlockingKeyRepository.findByKeys(
+                blockingKeys(firstName, lastName, dateOfBirth, countryCode), MAX_CANDIDATE_ROWS)) {
+            double score = score(person, other);
+            if (!other.id().equals(excludeId) && score >= minScore) {
+                candidates.add(candidate(other, score));
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(PersonDuplicateCandidateResponse::getScore).reversed());
+        return candidates;
+    }
+
+    /**
+     * Replaces the blocking keys of the given persons with keys of their current state.
+     * The persons must already be written to the database.
+     */
+    @Transactional
+    public void index(Collection<PersonResponse> persons) {
+        Map<UUID, List<String>> keys = new LinkedHashMap<>();
+        for (PersonResponse person : persons) {
+            keys.put(person.getId(), blockingKeys(person.getFirstName(), person.getLastName(),
+                    person.getDateOfBirth(), person.getCountryCode()));
+        }
+        personBlockingKeyRepository.replaceKeys(keys);
+    }
+
+    /**
+     * Removes a person from the index, e.g. when it is deleted.
+     */
+    @Transactional
+    public void remove(UUID personId) {
+        personBlockingKeyRepository.deleteByPersonIds(List.of(personId));
+    }
+
+    /**
+     * Rebuilds the whole index from the non-deleted persons, streamed in ID order.
+     *
+     * @return the number of persons and keys indexed
+     */
+    @Transactional
+    public PersonDuplicateIndexResponse rebuildIndex() {
+        personBlockingKeyRepository.deleteAll();
+        Map<UUID, List<String>> batch = new LinkedHashMap<>();
+        long[] counts = new long[2];
+        personJdbcRepository.forEachPersonAfter(null, person -> {
+            List<String> keys = blockingKeys(person.getFirstName(), person.getLastName(),
+                    person.getDateOfBirth(), person.getCountryCode());
+            batch.put(person.getId(), keys);
+            counts[0]++;
+            counts[1] += keys.size();
+            if (batch.size() == INDEX_BATCH_SIZE) {
+                personBlockingKeyRepository.insertKeys(batch);
+                batch.clear();
+            }
+        });
+        personBlockingKeyRepository.insertKeys(batch);
+        return new PersonDuplicateIndexResponse(counts[0], counts[1]);
+    }
+
+    /**
+     * Scans all persons for duplicates and groups them into clusters: persons linked
+     * directly or through other persons by a score of at least {@code minScore}.
+     * <p>
+     * Blocks are read by this thread and scored by one worker per core; at most two
+     * blocks per worker are buffered, so memory is bounded by the block size.
+     *
+     * @param minScore minimum score (0..1]
+     * @return the scan statistics and the clusters by descending score
+     */
+    @Transactional(readOnly = true)
+    public PersonDuplicateReportResponse findClusters(double minScore) {
+        validateMinScore(minScore);
+        ScanState state = new ScanState();
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        Semaphore buffered = new Semaphore(workers * 2);
+        try {
+            personBlockingKeyRepository.forEachBlock(MAX_BLOCK_SIZE, block -> {
+                if (block.size() > MAX_BLOCK_SIZE) {
+                    state.oversizedBlocks.increment();
+                    return;
+                }
+                state.blocks.increment();
+                buffered.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        scoreBlock(block, minScore, state);
+                    } catch (RuntimeException ex) {
+                        state.failure.compareAndSet(null, ex);
+                    } finally {
+                        buffered.release();
+                    }
+                });
+            });
+            executor.shutdown();
+            if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+                throw new IllegalStateException("Duplicate scan did not finish");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Duplicate scan interrupted", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        if (state.failure.get() != null) {
+            throw state.failure.get();
+        }
+
+        List<PersonDuplicateClusterResponse> clusters = cluster(state);
+        List<PersonDuplicateClusterResponse> reported = clusters.size() > MAX_REPORTED_CLUSTERS
+                ? clusters.subList(0, MAX_REPORTED_CLUSTERS) : clusters;
+        return new PersonDuplicateReportResponse(state.blocks.sum(), state.oversizedBlocks.sum(),
+                state.comparisons.sum(), clusters.size(), new ArrayList<>(reported));
+    }
+
+    /**
+     * Scores two persons from 0 to 1.
+     */
+    static double score(MatchFields a, MatchFields b) {
+        double names = (NameMatchUtils.similarity(a.firstName(), b.firstName())
+                + NameMatchUtils.similarity(a.lastName(), b.lastName())) / 2;
+        double swapped = (NameMatchUtils.similarity(a.firstName(), b.lastName())
+                + NameMatchUtils.similarity(a.lastName(), b.firstName())) / 2 * 0.95;
+        double score = Math.max(names, swapped);
+
+        if (a.dateOfBirth() == null || b.dateOfBirth() == null) {
+            score *= 0.9;
+        } else if (!a.dateOfBirth().equals(b.dateOfBirth())) {
+            score *= 0.6;
+        }
+        if (a.countryCode() != null && b.countryCode() != null && !a.countryCode().equalsIgnoreCase(b.countryCode())) {
+            score *= 0.9;
+        }
+        return score;
+    }
+
+    private void scoreBlock(Block block, double minScore, ScanState state) {
+        List<MatchFields> persons = block.persons();
+        for (int i = 0; i < persons.size(); i++) {
+            for (int j = i + 1; j < persons.size(); j++) {
+                MatchFields a = persons.get(i);
+                MatchFields b = persons.get(j);
+                state.comparisons.increment();
+                double score = score(a, b);
+                if (score >= minScore) {
+                    state.pairs.merge(Pair.of(a.id(), b.id()), score, Math::max);
+                    state.persons.putIfAbsent(a.id(), a);
+                    state.persons.putIfAbsent(b.id(), b);
+                }
+            }
+        }
+    }
+
+    /**
+     * Joins the matching pairs into connected groups (union-find over the matched persons only).
+     */
+    private List<PersonDuplicateClusterResponse> cluster(ScanState state) {
+        Map<UUID, UUID> parent = new HashMap<>();
+        Map<UUID, Double> bestScore = new HashMap<>();
+        state.pairs.forEach((pair, score) -> {
+            UUID low = root(parent, pair.low());
+            UUID high = root(parent, pair.high());
+            if (!low.equals(high)) {
+                parent.put(low, high);
+            }
+            bestScore.merge(pair.low(), score, Math::max);
+            bestScore.merge(pair.high(), score, Math::max);
+        });
+
+        Map<UUID, List<PersonDuplicateCandidateResponse>> members = new HashMap<>();
+        bestScore.forEach((id, score) -> members.computeIfAbsent(root(parent, id), root -> new ArrayList<>())
+                .add(candidate(state.persons.get(id), score)));
+
+        List<PersonDuplicateClusterResponse> clusters = new ArrayList<>(members.size());
+        for (List<PersonDuplicateCandidateResponse> persons : members.values()) {
+            persons.sort(Comparator.comparing(PersonDuplicateCandidateResponse::getLastName)
+                    .thenComparing(PersonDuplicateCandidateResponse::getFirstName)
+                    .thenComparing(PersonDuplicateCandidateResponse::getId));
+            double score = persons.stream().mapToDouble(PersonDuplicateCandidateResponse::getScore).max().orElse(0);
+            clusters.add(new PersonDuplicateClusterResponse(score, persons));
+        }
+        clusters.sort(Comparator.comparingDouble(PersonDuplicateClusterResponse::getScore).reversed());
+        return clusters;
+    }
+
+    private static UUID root(Map<UUID, UUID> parent, UUID id) {
+        UUID root = id;
+        while (parent.containsKey(root)) {
+            root = parent.get(root);
+        }
+        // Path compression
+        UUID current = id;
+        while (!current.equals(root)) {
+            UUID next = parent.get(current);
+            parent.put(current, root);
+            current = next;
+        }
+        return root;
+    }
+
+    private static String keyName(String name) {
+        String normalized = NameMatchUtils.normalize(name);
+        return normalized.length() > KEY_NAME_LENGTH ? normalized.substring(0, KEY_NAME_LENGTH) : normalized;
+    }
+
+    private static PersonDuplicateCandidateResponse candidate(MatchFields person, double score) {
+        return new PersonDuplicateCandidateResponse(person.id(), person.firstName(), person.lastName(),
+                person.dateOfBirth(), person.countryCode(), Math.round(score * 1000) / 1000.0);
+    }
+
+    private static void validateMinScore(double minScore) {
+        if (!(minScore > 0 && minScore <= 1)) {
+            throw new ValidationException("Minimum score must be greater than 0 and at most 1", "minScore", minScore);
+        }
+    }
+
+    /** Unordered pair of person IDs, stored with the smaller ID first. */
+    private record Pair(UUID low, UUID high) {
+        static Pair of(UUID a, UUID b) {
+            return a.compareTo(b) < 0 ? new Pair(a, b) : new Pair(b, a);
+        }
+    }
+
+    /** Results shared by the scan workers. */
+    private static final class ScanState {
+        private final LongAdder blocks = new LongAdder();
+        private final LongAdder oversizedBlocks = new LongAdder();
+        private final LongAdder comparisons = new LongAdder();
+        private final Map<Pair, Double> pairs = new ConcurrentHashMap<>();
+        private final Map<UUID, MatchFields> persons = new ConcurrentHashMap<>();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    }
+}
@@ -0,0 +1,332 @@
+package com.os360.enterprise.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.os360.enterprise.common.CsvUtils;
+import com.os360.enterprise.dto.PersonExportResponse;
+import com.os360.enterprise.dto.PersonResponse;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.repository.PersonJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service exporting all non-deleted persons as CSV or NDJSON, optionally gzip compressed.
+ * <p>
+ * Rows are read in ID order through a forward-only JDBC cursor and written as they
+ * arrive, so heap use stays constant whether there are thousands or millions of persons.
+ * An export can target:
+ * - a response stream; a client resumes an interrupted download with the last exported
+ *   {@code id} as {@code after}.
+ * - a file in the export directory, written through a {@link FileChannel}. Every
+ *   {@value #CHECKPOINT_INTERVAL} rows the output is flushed (closing the current gzip
+ *   member) and the last ID and file size are saved next to the file; a resumed run
+ *   truncates the file to the last checkpoint and appends from there. Concatenated gzip
+ *   members form a valid gzip file.
+ */
+@Service
+public class PersonExportService {
+
+    /** Number of rows between two checkpoints of a file export. */
+    public static final int CHECKPOINT_INTERVAL = 10_000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    /** Plain file names only; the export directory is never left. */
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,99}");
+
+    /** Exportable columns, in default order, with their value extractors. */
+    private static final Map<String, Function<PersonResponse, Object>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", PersonResponse::getId);
+        COLUMNS.put("externalSystem", PersonResponse::getExternalSystem);
+        COLUMNS.put("externalId", PersonResponse::getExternalId);
+        COLUMNS.put("countryCode", PersonResponse::getCountryCode);
+        COLUMNS.put("title", PersonResponse::getTitle);
+        COLUMNS.put("firstName", PersonResponse::getFirstName);
+        COLUMNS.put("middleName", PersonResponse::getMiddleName);
+        COLUMNS.put("lastName", PersonResponse::getLastName);
+        COLUMNS.put("preferredName", PersonResponse::getPreferredName);
+        COLUMNS.put("gender", PersonResponse::getGender);
+        COLUMNS.put("dateOfBirth", PersonResponse::getDateOfBirth);
+        COLUMNS.put("profileImageUrl", PersonResponse::getProfileImageUrl);
+        COLUMNS.put("active", PersonResponse::isActive);
+        COLUMNS.put("createdAt", PersonResponse::getCreatedAt);
+        COLUMNS.put("lastModifiedAt", PersonResponse::getLastModifiedAt);
+        COLUMNS.put("version", PersonResponse::getVersion);
+    }
+
+    @Autowired
+    private PersonJdbcRepository personJdbcRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${enterprise.export.directory:${java.io.tmpdir}/os360-exports}")
+    private Path exportDirectory;
+
+    /** Supported export formats. */
+    public enum Format { CSV, NDJSON }
+
+    /**
+     * Validated export settings.
+     *
+     * @param format  output format
+     * @param columns selected columns, in output order
+     * @param gzip    whether the output is gzip compressed
+     */
+    public record ExportOptions(Format format, List<String> columns, boolean gzip) {
+    }
+
+    /**
+     * Parses and validates export settings, before any output is written.
+     *
+     * @param format  {@code csv} or {@code ndjson} (case insensitive)
+     * @param columns comma separated column names, or null for all columns
+     * @param gzip    whether to gzip compress the output
+     * @return the validated options
+     * @throws ValidationException if the format or a column is unknown
+     */
+    public ExportOptions options(String format, String columns, boolean gzip) {
+        Format parsedFormat;
+        try {
+            parsedFormat = Format.valueOf(format.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Unknown export format", "format", format);
+        }
+
+        if (columns == null || columns.isBlank()) {
+            return new ExportOptions(parsedFormat, List.copyOf(COLUMNS.keySet()), gzip);
+        }
+        List<String> selected = new ArrayList<>();
+        for (String column : columns.split(",")) {
+            String name = column.strip();
+            if (!COLUMNS.containsKey(name)) {
+                throw new ValidationException("Unknown export column", "columns", name);
+            }
+            selected.add(name);
+        }
+        return new ExportOptions(parsedFormat, selected, gzip);
+    }
+
+    /**
+     * Writes the persons with an ID greater than {@code after} to the given stream.
+     * A CSV header is only written when starting from the first person.
+     *
+     * @param options      validated export options
+     * @param after        ID of the last person already received, or null for a full export
+     * @param outputStream the response stream; flushed but not closed
+     */
+    @Transactional(readOnly = true)
+    public void export(ExportOptions options, UUID after, OutputStream outputStream) {
+        try {
+            Segment segment = new Segment(outputStream, options);
+            if (after == null) {
+                segment.writeHeader();
+            }
+            personJdbcRepository.forEachPersonAfter(after, segment::writeRow);
+            segment.finish();
+            outputStream.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes all persons to a file in the export directory, or resumes an interrupted
+     * export of that file from its last checkpoint.
+     *
+     * @param fileName plain file name (letters, digits, '.', '_' and '-')
+     * @param options  validated export options; must match those of the interrupted run when resuming
+     * @param resume   whether to continue from the file's checkpoint instead of starting over
+     * @return the number of persons written by this run and the final checkpoint
+     * @throws ValidationException if the file name is invalid or there is no checkpoint to resume from
+     */
+    @Transactional(readOnly = true)
+    public PersonExportResponse exportToFile(String fileName, ExportOptions options, boolean resume) {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches() || fileName.endsWith(CHECKPOINT_SUFFIX)) {
+            throw new ValidationException("Invalid export file name", "fileName", String.valueOf(fileName));
+        }
+        Path file = exportDirectory.resolve(fileName);
+        Path checkpointFile = exportDirectory.resolve(fileName + CHECKPOINT_SUFFIX);
+
+        try {
+            Files.createDirectories(exportDirectory);
+            Checkpoint start = resume ? readCheckpoint(checkpointFile, fileName) : null;
+            if (!resume) {
+                // A checkpoint of an earlier run must not be resumed into this file
+                Files.deleteIfExists(checkpointFile);
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.truncate(start != null ? start.offset() : 0);
+                channel.position(channel.size());
+                OutputStream base = Channels.newOutputStream(channel);
+
+                FileExport export = new FileExport(new Segment(base, options), start != null ? start.lastId() : null);
+                if (start == null) {
+                    export.segment.writeHeader();
+                }
+                personJdbcRepository.forEachPersonAfter(export.lastId, person -> {
+                    export.segment.writeRow(person);
+                    export.rows++;
+                    export.lastId = person.getId();
+                    if (export.rows % CHECKPOINT_INTERVAL == 0) {
+                        try {
+                            export.segment.finish();
+                            writeCheckpoint(channel, checkpointFile, new Checkpoint(export.lastId, channel.position()));
+                            export.segment = new Segment(base, options);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }
+                });
+                export.segment.finish();
+                if (export.lastId != null) {
+                    writeCheckpoint(channel, checkpointFile, new Checkpoint(export.lastId, channel.position()));
+                }
+                return new PersonExportResponse(fileName, export.rows, export.lastId);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Checkpoint readCheckpoint(Path checkpointFile, String fileName) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            throw new ValidationException("No checkpoint to resume from", "fileName", fileName);
+        }
+        String[] parts = Files.readString(checkpointFile, StandardCharsets.UTF_8).strip().split(" ");
+        return new Checkpoint(UUID.fromString(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    /**
+     * Replaces the checkpoint atomically, so a crash never leaves a partial one. The export
+     * data is forced to disk first, so the checkpoint never points past data lost in an OS crash.
+     */
+    private void writeCheckpoint(FileChannel channel, Path checkpointFile, Checkpoint checkpoint) throws IOException {
+        channel.force(false);
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(temp, checkpoint.lastId() + " " + checkpoint.offset(), StandardCharsets.UTF_8);
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Last person written and the file size after it. */
+    private record Checkpoint(UUID lastId, long offset) {
+    }
+
+    /** Progress of a file export, updated from the row callback. */
+    private static final class FileExport {
+        private Segment segment;
+        private UUID lastId;
+        private long rows;
+
+        private FileExport(Segment segment, UUID lastId) {
+            this.segment = segment;
+            this.lastId = lastId;
+        }
+    }
+
+    /**
+     * A run of rows written to the target, as one gzip member when compressed.
+     * Finishing a segment flushes every buffer down to the target.
+     */
+    private final class Segment {
+        private final ExportOptions options;
+        private final GZIPOutputStream gzip;
+        private final Writer writer;
+        private JsonGenerator generator;
+
+        private Segment(OutputStream target, ExportOptions options) throws IOException {
+            this.options = options;
+            this.gzip = options.gzip() ? new GZIPOutputStream(target, BUFFER_SIZE) : null;
+            this.writer = new BufferedWriter(
+                    new OutputStreamWriter(gzip != null ? gzip : target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        private void writeHeader() throws IOException {
+            if (options.format() == Format.CSV) {
+                writer.write(String.join(",", options.columns()));
+                writer.write('\n');
+            }
+        }
+
+        private void writeRow(PersonResponse person) {
+            try {
+                if (options.format() == Format.CSV) {
+                    writeCsvRow(person);
+                } else {
+                    writeJsonRow(person);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void writeCsvRow(PersonResponse person) throws IOException {
+            List<String> columns = options.columns();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = COLUMNS.get(columns.get(i)).apply(person);
+                writer.write(CsvUtils.escape(value != null ? value.toString() : null));
+            }
+            writer.write('\n');
+        }
+
+        private void writeJsonRow(PersonResponse person) throws IOException {
+            if (generator == null) {
+                generator = objectMapper.createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Rows are separated by the explicit newline only
+                generator.setRootValueSeparator(null);
+            }
+            generator.writeStartObject();
+            for (String column : options.columns()) {
+                generator.writeFieldName(column);
+                generator.writeObject(COLUMNS.get(column).apply(person));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void finish() throws IOException {
+            if (generator != null) {
+                generator.flush();
+            }
+            writer.flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+        }
+    }
+}
@@ -1,23 +1,46 @@
 package com.os360.enterprise.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.os360.enterprise.cache.EntityCache;
+import com.os360.enterprise.common.ConstraintViolationUtils;
+import com.os360.enterprise.common.ETagUtils;
+import com.os360.enterprise.common.KeysetCursorUtils;
+import com.os360.enterprise.dto.KeysetPageResponse;
 import com.os360.enterprise.dto.PersonCreateRequest;
+import com.os360.enterprise.dto.PersonDuplicateCandidateResponse;
 import com.os360.enterprise.dto.PersonPatchRequest;
 import com.os360.enterprise.dto.PersonResponse;
 import com.os360.enterprise.dto.PersonUpdateRequest;
 import   com.os360.enterprise.enumurations.PartyType ;
 import com.os360.enterprise.entity.Person;
+import com.os360.enterprise.enumurations.PersonTitle;
 import com.os360.enterprise.enumurations.PartyType;
 import com.os360.enterprise.exception.validation.*;
+import com.os360.enterprise.exception.domain.EntityAlreadyExistsException;
+import com.os360.enterprise.exception.domain.EntityDuplicateSuspectedException;
 import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.domain.EntityVersionConflictException;
 import com.os360.enterprise.mapper.PersonMapper;
+import com.os360.enterprise.repository.ConditionalUpdateRepository;
+import com.os360.enterprise.repository.PersonJdbcRepository;
 import com.os360.enterprise.repository.PersonRepository;
+import com.os360.enterprise.validator.CompanyValidator;
 import com.os360.enterprise.validator.PersonValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,6 +57,9 @@ import java.util.UUID;
 @Transactional
 public class PersonService {
 
+    /** Upper bound for the page size of person listings. */
+    public static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private PersonRepository personRepository;
 
@@ -43,29 +69,106 @@ public class PersonService {
     @Autowired
     private PersonValidator personValidator;
 
+    @Autowired
+    private ConditionalUpdateRepository conditionalUpdateRepository;
+
+    @Autowired
+    private PersonJdbcRepository personJdbcRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityCache<PersonResponse> personCache;
+
+    @Autowired
+    private PersonDuplicateService personDuplicateService;
+
+    /**
+     * Lists non-deleted persons using keyset pagination on (lastName, firstName, id).
+     * <p>
+     * Each page is fetched with one extra row to detect whether more rows exist,
+     * so neither OFFSET nor COUNT(*) is ever issued. Rows are projected straight
+     * into {@link PersonResponse}; no entities are loaded.
+     *
+     * @param cursor opaque cursor returned with the previous page, or null for the first page.
+     * @param limit  page size (1..{@value #MAX_PAGE_SIZE}).
+     * @return the requested page of {@link PersonResponse}.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<PersonResponse> list(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE, "limit", limit);
+        }
+
+        List<PersonResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = personRepository.findPage(Limit.of(limit + 1));
+        } else {
+            String[] key = KeysetCursorUtils.decode(cursor, 3);
+            rows = personRepository.findPageAfter(key[0], key[1], parseCursorId(key[2], cursor), Limit.of(limit + 1));
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<PersonResponse> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            PersonResponse last = page.get(page.size() - 1);
+            nextCursor = KeysetCursorUtils.encode(last.getLastName(), last.getFirstName(), last.getId());
+        }
+        return new KeysetPageResponse<>(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Writes all non-deleted persons as NDJSON (one JSON object per line), ordered
+     * like {@link #list}.
+     * <p>
+     * Rows are read through a forward-only JDBC cursor and written as they arrive,
+     * so heap use stays constant regardless of the number of persons.
+     *
+     * @param outputStream the response stream; flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public void streamNdjson(OutputStream outputStream) {
+        BufferedOutputStream out = new BufferedOutputStream(outputStream);
+        personJdbcRepository.forEachPerson(person -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(person));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
     /**
-     * Retrieves all persons (excluding soft-deleted ones).
+     * Retrieves only the current version of a non-deleted person, for conditional requests.
      *
-     * @return list of {@link PersonResponse}.
+     * @param id UUID of the person.
+     * @return the version, or empty if the person does not exist or is deleted.
      */
-    public List<Optional<PersonResponse>> getAll() {
-        return personRepository.findAllByIsDeletedFalse()
-                .stream()
-                .map(personMapper::toResponse)
-                .toList();
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(UUID id) {
+        return personRepository.findVersionById(id);
     }
 
     /**
-     * Retrieves a person by ID.
+     * Retrieves a person by ID, projected straight into the response DTO.
      *
      * @param id UUID of the person.
      * @return Optional of {@link PersonResponse}.
      * @throws EntityNotFoundException if person is not found.
      */
+    @Transactional(readOnly = true)
     public Optional<PersonResponse> get(UUID id) {
-        return personRepository.findByIdAndIsDeletedFalse(id)
-                .map(personMapper::toResponse)
-                .orElseThrow(() -> new EntityNotFoundException(Person.class, id));
+        return Optional.of(personCache.get(id, personId -> personRepository.findResponseById(personId)
+                .orElseThrow(() -> new EntityNotFoundException(Person.class, personId))));
     }
 
 
@@ -77,8 +180,32 @@ public class PersonService {
      * @return created {@link PersonResponse}.
      */
     public Optional<PersonResponse> create(PersonCreateRequest request) {
+        return create(request, false);
+    }
+
+    /**
+     * Creates a new person entity, optionally refusing likely duplicates.
+     * <p>
+     * The duplicate check is a single lookup in the blocking key index.
+     *
+     * @param request         creation request.
+     * @param checkDuplicates whether to fail if existing persons likely are the same person.
+     * @return created {@link PersonResponse}.
+     * @throws EntityDuplicateSuspectedException if {@code checkDuplicates} is set and candidates exist.
+     */
+    public Optional<PersonResponse> create(PersonCreateRequest request, boolean checkDuplicates) {
         personValidator.validateForCreate(request);
 
+        if (checkDuplicates) {
+            List<PersonDuplicateCandidateResponse> candidates = personDuplicateService.findCandidates(
+                    request.getFirstName(), request.getLastName(), request.getDateOfBirth(), request.getCountryCode(),
+                    null, PersonDuplicateService.DEFAULT_MIN_SCORE);
+            if (!candidates.isEmpty()) {
+                throw new EntityDuplicateSuspectedException(Person.class,
+                        candidates.stream().map(PersonDuplicateCandidateResponse::getId).toList());
+            }
+        }
+
         Person person = personMapper.toEntity(request);
         person.setPartyType(PartyType.PERSON.name());
         person.setActive(true);
@@ -86,8 +213,11 @@ public class PersonService {
         person.setCreatedAt(OffsetDateTime.now());
         person.setVersion(0L);
 
-        Person saved = personRepository.save(person);
-        return personMapper.toResponse(saved);
+        // Flushed so that the blocking keys can reference the row
+        Person saved = personRepository.saveAndFlush(person);
+        Optional<PersonResponse> response = personMapper.toResponse(saved);
+        response.ifPresent(created -> personDuplicateService.index(List.of(created)));
+        return response;
     }
 
     /**
@@ -95,19 +225,24 @@ public class PersonService {
      *
      * @param id      person ID.
      * @param request update request.
+     * @param expectedVersion version from {@code If-Match}, or null for an unconditional update.
      * @return updated {@link PersonResponse}.
      */
-    public Optional<PersonResponse> update(UUID id, PersonUpdateRequest request) {
+    public Optional<PersonResponse> update(UUID id, PersonUpdateRequest request, Long expectedVersion) {
         Person existing = personRepository.findByIdAndIsDeletedFalse(id)
                 .orElseThrow(() -> new EntityNotFoundException(Person.class, id));
+        ETagUtils.requireVersion(Person.class, id, expectedVersion, existing.getVersion());
 
         personValidator.validateForUpdate(request, existing);
 
         personMapper.updateEntityFromRequest(request, existing);
         existing.setLastModifiedAt(OffsetDateTime.now());
 
-        Person saved = personRepository.save(existing);
-        return personMapper.toResponse(saved);
+        Person saved = personRepository.saveAndFlush(existing);
+        personCache.invalidate(id);
+        Optional<PersonResponse> response = personMapper.toResponse(saved);
+        response.ifPresent(updated -> personDuplicateService.index(List.of(updated)));
+        return response;
     }
 
     /**
@@ -115,19 +250,112 @@ public class PersonService {
      *
      * @param id      person ID.
      * @param request patch request.
+     * @param expectedVersion version from {@code If-Match}, or null for an unconditional update.
      * @return updated {@link PersonResponse}.
      */
-    public Optional<PersonResponse> patch(UUID id, PersonPatchRequest request) {
+    public Optional<PersonResponse> patch(UUID id, PersonPatchRequest request, Long expectedVersion) {
         Person existing = personRepository.findByIdAndIsDeletedFalse(id)
                 .orElseThrow(() -> new EntityNotFoundException(Person.class, id));
+        ETagUtils.requireVersion(Person.class, id, expectedVersion, existing.getVersion());
 
         personValidator.validateForPatch(request, existing);
 
         personMapper.patchEntityFromRequest(request, existing);
         existing.setLastModifiedAt(OffsetDateTime.now());
 
-        Person saved = personRepository.save(existing);
-        return  personMapper.toResponse(saved);
+        Person saved = personRepository.saveAndFlush(existing);
+        personCache.invalidate(id);
+        Optional<PersonResponse> response = personMapper.toResponse(saved);
+        response.ifPresent(patched -> personDuplicateService.index(List.of(patched)));
+        return response;
+    }
+
+    /**
+     * Applies a conditional (If-Match) full update without loading the person.
+     * <p>
+     * @param id              person ID.
+     * @param request         update request.
+     * @param expectedVersion version from {@code If-Match}.
+     * @return the new version.
+     * @throws EntityNotFoundException        if the person does not exist or is deleted.
+     * @throws EntityVersionConflictException if the person has another version.
+     */
+    public long conditionalUpdate(UUID id, PersonUpdateRequest request, long expectedVersion) {
+        personValidator.validateForUpdate(request, null);
+        return conditionalWrite(id, expectedVersion,
+                request.getExternalSystem(), request.getExternalId(), request.getCountryCode(),
+                request.getTitle(), request.getFirstName(), request.getMiddleName(), request.getLastName(),
+                request.getPreferredName(), request.getGender(), request.getDateOfBirth(),
+                request.getProfileImageUrl());
+    }
+
+    /**
+     * Applies a conditional (If-Match) partial update without loading the person.
+     * <p>
+     * Only the supplied columns are written, in one versioned UPDATE of {@code party}
+     * and at most one UPDATE of {@code person}.
+     *
+     * @param id              person ID.
+     * @param request         patch request.
+     * @param expectedVersion version from {@code If-Match}.
+     * @return the new version.
+     * @throws EntityNotFoundException        if the person does not exist or is deleted.
+     * @throws EntityVersionConflictException if the person has another version.
+     */
+    public long conditionalPatch(UUID id, PersonPatchRequest request, long expectedVersion) {
+        personValidator.validateForPatch(request, null);
+        return conditionalWrite(id, expectedVersion,
+                request.getExternalSystem(), request.getExternalId(), request.getCountryCode(),
+                request.getTitle(), request.getFirstName(), request.getMiddleName(), request.getLastName(),
+                request.getPreferredName(), request.getGender(), request.getDateOfBirth(),
+                request.getProfileImageUrl());
+    }
+
+    private long conditionalWrite(UUID id, long expectedVersion, String externalSystem, String externalId,
+                                  String countryCode, PersonTitle title, String firstName, String middleName,
+                                  String lastName, String preferredName, String gender, LocalDate dateOfBirth,
+                                  String profileImageUrl) {
+        Map<String, Object> partyColumns = new LinkedHashMap<>();
+        if (externalSystem != null) partyColumns.put("external_system", externalSystem);
+        if (externalId != null) partyColumns.put("external_id", externalId);
+        if (countryCode != null) partyColumns.put("country_code", countryCode);
+
+        Map<String, Object> personColumns = new LinkedHashMap<>();
+        if (title != null) personColumns.put("title", title.name());
+        if (firstName != null) personColumns.put("first_name", firstName);
+        if (middleName != null) personColumns.put("middle_name", middleName);
+        if (lastName != null) personColumns.put("last_name", lastName);
+        if (preferredName != null) personColumns.put("preferred_name", preferredName);
+        if (gender != null) personColumns.put("gender", gender);
+        if (dateOfBirth != null) personColumns.put("date_of_birth", dateOfBirth);
+        if (profileImageUrl != null) personColumns.put("profile_image_url", profileImageUrl);
+
+        try {
+            if (!conditionalUpdateRepository.updateVersioned("party", id, expectedVersion, partyColumns,
+                    "party_type = '" + PartyType.PERSON.name() + "' AND is_deleted = FALSE")) {
+                throw ETagUtils.updateMissed(Person.class, id, expectedVersion, personRepository.findVersionById(id));
+            }
+            conditionalUpdateRepository.update("person", id, personColumns);
+            personCache.invalidate(id);
+            if (firstName != null || lastName != null || dateOfBirth != null || countryCode != null) {
+                personRepository.findResponseById(id)
+                        .ifPresent(updated -> personDuplicateService.index(List.of(updated)));
+            }
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolationUtils.isViolationOf(ex, CompanyValidator.EXTERNAL_ID_CONSTRAINT)) {
+                throw new EntityAlreadyExistsException(Person.class, externalSystem + "/" + externalId);
+            }
+            throw ex;
+        }
+        return expectedVersion + 1;
+    }
+
+    private UUID parseCursorId(String value, String cursor) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid cursor", "cursor", cursor);
+        }
     }
 
     /**
@@ -144,5 +372,7 @@ public class PersonService {
         existing.setDeletedAt(OffsetDateTime.now());
 
         personRepository.save(existing);
+        personCache.invalidate(id);
+        personDuplicateService.remove(id);
     }
 }
@@ -0,0 +1,206 @@
+package com.os360.enterprise.service;
+
+import com.os360.enterprise.common.KeysetCursorUtils;
+import com.os360.enterprise.dto.KeysetPageResponse;
+import com.os360.enterprise.dto.PersonSiteAssignmentBulkRequest;
+import com.os360.enterprise.dto.PersonSiteAssignmentBulkResponse;
+import com.os360.enterprise.dto.PersonSiteAssignmentRequest;
+import com.os360.enterprise.dto.PersonSiteAssignmentResponse;
+import com.os360.enterprise.entity.Person;
+import com.os360.enterprise.entity.Site;
+import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.repository.PersonSiteAssignmentJdbcRepository;
+import com.os360.enterprise.repository.PersonSiteAssignmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Service managing which persons work at which sites.
+ * <p>
+ * Responsibilities:
+ * - List the sites of a person and the persons of a site, keyset paginated.
+ * - Assign and unassign thousands of (person, site) pairs per request with batched
+ *   statements, in a single transaction.
+ * - Keep at most one default site per person; switching it updates only the previous
+ *   and the new default row.
+ */
+@Service
+public class PersonSiteAssignmentService {
+
+    /** Maximum page size of the assignment listings. */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /** Maximum number of pairs (assign and unassign together) per bulk request. */
+    public static final int MAX_BULK_SIZE = 10_000;
+
+    /** IDs checked per existence query. */
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    /** Lowest UUID; the keyset start of a first page. */
+    private static final UUID FIRST = new UUID(0L, 0L);
+
+    @Autowired
+    private PersonSiteAssignmentRepository personSiteAssignmentRepository;
+
+    @Autowired
+    private PersonSiteAssignmentJdbcRepository personSiteAssignmentJdbcRepository;
+
+    /**
+     * Lists the non-deleted sites a person is assigned to, ordered by site ID.
+     *
+     * @param personId ID of the person.
+     * @param cursor   opaque cursor returned with the previous page, or null for the first page.
+     * @param limit    page size (1..{@value #MAX_PAGE_SIZE}).
+     * @return the requested page of assignments.
+     * @throws EntityNotFoundException if the person does not exist or is deleted.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<PersonSiteAssignmentResponse> listSitesOfPerson(UUID personId, String cursor, int limit) {
+        validateLimit(limit);
+        if (personSiteAssignmentJdbcRepository.findActivePersonIds(List.of(personId)).isEmpty()) {
+            throw new EntityNotFoundException(Person.class, personId);
+        }
+        List<PersonSiteAssignmentResponse> rows = personSiteAssignmentRepository.findSitesOfPerson(
+                personId, parseCursor(cursor), Limit.of(limit + 1));
+        return page(rows, limit, PersonSiteAssignmentResponse::getSiteId);
+    }
+
+    /**
+     * Lists the non-deleted persons assigned to a site, ordered by person ID.
+     *
+     * @param siteId ID of the site.
+     * @param cursor opaque cursor returned with the previous page, or null for the first page.
+     * @param limit  page size (1..{@value #MAX_PAGE_SIZE}).
+     * @return the requested page of assignments.
+     * @throws EntityNotFoundException if the site does not exist or is deleted.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<PersonSiteAssignmentResponse> listPersonsOfSite(UUID siteId, String cursor, int limit) {
+        validateLimit(limit);
+        if (personSiteAssignmentJdbcRepository.findActiveSiteIds(List.of(siteId)).isEmpty()) {
+            throw new EntityNotFoundException(Site.class, siteId);
+        }
+        List<PersonSiteAssignmentResponse> rows = personSiteAssignmentRepository.findPersonsOfSite(
+                siteId, parseCursor(cursor), Limit.of(limit + 1));
+        return page(rows, limit, PersonSiteAssignmentResponse::getPersonId);
+    }
+
+    /**
+     * Applies a bulk assignment request: removes the {@code unassign} pairs, creates the
+     * missing {@code assign} pairs and switches the requested default sites.
+     * <p>
+     * The request is applied as a whole or not at all. Existing assignments and missing
+     * unassignments are not errors, so a request can be retried safely.
+     *
+     * @param request pairs to assign and unassign.
+     * @return counts of the changes made.
+     * @throws ValidationException if the request is too large, references unknown or deleted
+     *                             persons or sites, or requests several defaults for one person.
+     */
+    @Transactional
+    public PersonSiteAssignmentBulkResponse bulkAssign(PersonSiteAssignmentBulkRequest request) {
+        List<PersonSiteAssignmentRequest> assign = request.getAssign() != null ? request.getAssign() : List.of();
+        List<PersonSiteAssignmentRequest> unassign = request.getUnassign() != null ? request.getUnassign() : List.of();
+        if (assign.size() + unassign.size() > MAX_BULK_SIZE) {
+            throw new ValidationException("At most " + MAX_BULK_SIZE + " pairs per request",
+                    "size", assign.size() + unassign.size());
+        }
+
+        Set<String> assignedPairs = new HashSet<>();
+        Map<UUID, PersonSiteAssignmentRequest> defaults = new HashMap<>();
+        for (PersonSiteAssignmentRequest pair : assign) {
+            assignedPairs.add(pair.getPersonId() + "/" + pair.getSiteId());
+            if (pair.isDefault() && defaults.put(pair.getPersonId(), pair) != null) {
+                throw new ValidationException("Only one default site per person", "personId", pair.getPersonId());
+            }
+        }
+        for (PersonSiteAssignmentRequest pair : unassign) {
+            if (assignedPairs.contains(pair.getPersonId() + "/" + pair.getSiteId())) {
+                throw new ValidationException("Pair is both assigned and unassigned", "personId", pair.getPersonId());
+            }
+        }
+        validateExistence(assign);
+
+        long unassigned = unassign.isEmpty() ? 0 : personSiteAssignmentJdbcRepository.delete(unassign);
+        long assigned = assign.isEmpty() ? 0 : personSiteAssignmentJdbcRepository.insertMissing(assign, OffsetDateTime.now());
+        long defaultsChanged = defaults.isEmpty()
+                ? 0 : personSiteAssignmentJdbcRepository.switchDefaults(new ArrayList<>(defaults.values()));
+
+        return new PersonSiteAssignmentBulkResponse(assigned, assign.size() - assigned, unassigned, defaultsChanged);
+    }
+
+    /**
+     * Checks that every person and site to assign exists and is not deleted,
+     * with one query per {@value #ID_CHUNK_SIZE} distinct IDs.
+     */
+    private void validateExistence(List<PersonSiteAssignmentRequest> assign) {
+        Set<UUID> personIds = new LinkedHashSet<>();
+        Set<UUID> siteIds = new LinkedHashSet<>();
+        assign.forEach(pair -> {
+            personIds.add(pair.getPersonId());
+            siteIds.add(pair.getSiteId());
+        });
+        UUID unknownPerson = firstMissing(personIds, personSiteAssignmentJdbcRepository::findActivePersonIds);
+        if (unknownPerson != null) {
+            throw new ValidationException("Unknown or deleted person", "personId", unknownPerson);
+        }
+        UUID unknownSite = firstMissing(siteIds, personSiteAssignmentJdbcRepository::findActiveSiteIds);
+        if (unknownSite != null) {
+            throw new ValidationException("Unknown or deleted site", "siteId", unknownSite);
+        }
+    }
+
+    private UUID firstMissing(Set<UUID> ids, Function<List<UUID>, Set<UUID>> lookup) {
+        List<UUID> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += ID_CHUNK_SIZE) {
+            List<UUID> chunk = all.subList(from, Math.min(from + ID_CHUNK_SIZE, all.size()));
+            Set<UUID> found = lookup.apply(chunk);
+            for (UUID id : chunk) {
+                if (!found.contains(id)) {
+                    return id;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE, "limit", limit);
+        }
+    }
+
+    private UUID parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        String[] key = KeysetCursorUtils.decode(cursor, 1);
+        try {
+            return UUID.fromString(key[0]);
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid cursor", "cursor", cursor);
+        }
+    }
+
+    private KeysetPageResponse<PersonSiteAssignmentResponse> page(List<PersonSiteAssignmentResponse> rows, int limit,
+                                                                   Function<PersonSiteAssignmentResponse, UUID> keyOf) {
+        boolean hasMore = rows.size() > limit;
+        List<PersonSiteAssignmentResponse> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? KeysetCursorUtils.encode(keyOf.apply(page.get(page.size() - 1))) : null;
+        return new KeysetPageResponse<>(page, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,338 @@
+package com.os360.enterprise.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.os360.enterprise.cache.EntityCache;
+import com.os360.enterprise.common.CountryUtils;
+import com.os360.enterprise.dto.PersonResponse;
+import com.os360.enterprise.dto.PersonUpsertError;
+import com.os360.enterprise.dto.PersonUpsertResponse;
+import com.os360.enterprise.dto.PersonUpsertRow;
+import com.os360.enterprise.enumurations.PartyType;
+import com.os360.enterprise.repository.PersonJdbcRepository;
+import com.os360.enterprise.repository.PersonJdbcRepository.ExternalKeyMatch;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service synchronising persons in bulk from an NDJSON stream, keyed by
+ * {@code (externalSystem, externalId)} (e.g. an HR system feed).
+ * <p>
+ * The upload is read line by line and processed in chunks of {@value #CHUNK_SIZE}
+ * rows, each in its own transaction:
+ * - The chunk's keys are resolved with a single {@code (external_system, external_id) IN (...)}
+ *   query instead of one probe per row.
+ * - Unknown keys are inserted with one batched statement on {@code party} and one on
+ *   {@code person}.
+ * - Known keys are merged like a PUT (non-null fields overwrite); persons whose state
+ *   does not change are skipped without any write, the others are updated with two
+ *   batched, version checked statements.
+ * <p>
+ * Invalid rows are reported with their line number and skipped. If a chunk fails at
+ * the database (e.g. a concurrent insert of the same key or a concurrent update), it
+ * is rolled back and replayed row by row so only the offending rows are rejected.
+ */
+@Service
+public class PersonUpsertService {
+
+    /** Number of rows resolved and written per transaction. */
+    public static final int CHUNK_SIZE = 500;
+
+    /** Maximum number of row errors returned in the response; all are counted. */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private PersonJdbcRepository personJdbcRepository;
+
+    @Autowired
+    private EntityCache<PersonResponse> personCache;
+
+    @Autowired
+    private PersonDuplicateService personDuplicateService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Creates or updates persons from the given NDJSON stream.
+     *
+     * @param inputStream the upload, UTF-8 encoded, one {@link PersonUpsertRow} per line
+     * @return counts of created, updated, unchanged and rejected rows, with per-row errors
+     */
+    public PersonUpsertResponse upsertPersons(InputStream inputStream) {
+        UpsertState state = new UpsertState();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            List<UpsertLine> chunk = new ArrayList<>(CHUNK_SIZE);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                state.received++;
+                try {
+                    chunk.add(new UpsertLine(lineNumber, objectMapper.readValue(line, PersonUpsertRow.class)));
+                } catch (IOException ex) {
+                    state.reject(new PersonUpsertError(lineNumber, null, null, "Malformed row: " + ex.getMessage()));
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    processChunk(chunk, state);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, state);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        // Field errors of a chunk are found before its write errors; report both in line order
+        state.errors.sort(Comparator.comparingLong(PersonUpsertError::getLine));
+        return new PersonUpsertResponse(state.received, state.created, state.updated, state.unchanged,
+                state.failed, state.errors);
+    }
+
+    /**
+     * Validates and writes one chunk; on a database failure, replays it row by row.
+     */
+    private void processChunk(List<UpsertLine> chunk, UpsertState state) {
+        List<UpsertLine> valid = validateFields(chunk, state);
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            writeChunk(valid, state);
+        } catch (DataAccessException ex) {
+            if (valid.size() == 1) {
+                state.reject(error(valid.get(0), describe(ex)));
+                return;
+            }
+            for (UpsertLine line : valid) {
+                processChunk(List.of(line), state);
+            }
+        }
+    }
+
+    /**
+     * Checks everything that needs no database access: bean validation, the external
+     * key, the country code and duplicate keys within the chunk.
+     */
+    private List<UpsertLine> validateFields(List<UpsertLine> chunk, UpsertState state) {
+        List<UpsertLine> valid = new ArrayList<>(chunk.size());
+        Set<ExternalKey> chunkKeys = new HashSet<>();
+
+        for (UpsertLine line : chunk) {
+            PersonUpsertRow row = line.row();
+            Set<ConstraintViolation<PersonUpsertRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                state.reject(error(line, violations.iterator().next().getMessage()));
+            } else if (!StringUtils.hasText(row.getExternalSystem()) || !StringUtils.hasText(row.getExternalId())) {
+                state.reject(error(line, "externalSystem and externalId are required"));
+            } else if (row.getCountryCode() != null && !CountryUtils.isValidAlpha2CountryCode(row.getCountryCode())) {
+                state.reject(error(line, "Invalid country code: " + row.getCountryCode()));
+            } else if (!chunkKeys.add(line.key())) {
+                state.reject(error(line, "Duplicate external ID in upload"));
+            } else {
+                valid.add(line);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Resolves the chunk's keys and writes the inserts and changed updates in one transaction.
+     * The upsert state only learns about the outcomes once the transaction commits.
+     */
+    private void writeChunk(List<UpsertLine> lines, UpsertState state) {
+        List<PersonUpsertError> chunkErrors = new ArrayList<>();
+        List<PersonResponse> inserts = new ArrayList<>();
+        List<PersonResponse> updates = new ArrayList<>();
+        int[] unchanged = {0};
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // JDBC statements bypass Hibernate: write pending changes first, drop stale copies after
+            entityManager.flush();
+
+            List<Object[]> keys = lines.stream()
+                    .map(line -> new Object[]{line.key().system(), line.key().id()})
+                    .toList();
+            Map<ExternalKey, ExternalKeyMatch> existing = new HashMap<>();
+            for (ExternalKeyMatch match : personJdbcRepository.findByExternalKeys(keys)) {
+                PersonResponse party = match.person();
+                existing.put(new ExternalKey(party.getExternalSystem(), party.getExternalId()), match);
+            }
+
+            OffsetDateTime now = OffsetDateTime.now();
+            for (UpsertLine line : lines) {
+                ExternalKeyMatch match = existing.get(line.key());
+                if (match == null) {
+                    inserts.add(newPerson(line.row(), now));
+                } else if (!PartyType.PERSON.name().equals(match.partyType())) {
+                    chunkErrors.add(error(line, "External ID is used by a " + match.partyType().toLowerCase()));
+                } else if (match.person().isDeleted()) {
+                    chunkErrors.add(error(line, "Person is deleted"));
+                } else {
+                    PersonResponse merged = merge(line.row(), match.person());
+                    if (sameState(merged, match.person())) {
+                        unchanged[0]++;
+                    } else {
+                        merged.setLastModifiedAt(now);
+                        updates.add(merged);
+                    }
+                }
+            }
+
+            personJdbcRepository.insertPersons(inserts);
+            personJdbcRepository.updatePersons(updates);
+            updates.forEach(person -> personCache.invalidate(person.getId()));
+            personDuplicateService.index(inserts);
+            personDuplicateService.index(updates);
+            entityManager.clear();
+        });
+
+        state.created += inserts.size();
+        state.updated += updates.size();
+        state.unchanged += unchanged[0];
+        chunkErrors.forEach(state::reject);
+    }
+
+    private PersonResponse newPerson(PersonUpsertRow row, OffsetDateTime now) {
+        PersonResponse person = new PersonResponse();
+        person.setId(UUID.randomUUID());
+        person.setExternalSystem(row.getExternalSystem());
+        person.setExternalId(row.getExternalId());
+        person.setCountryCode(row.getCountryCode());
+        person.setTitle(row.getTitle());
+        person.setFirstName(row.getFirstName());
+        person.setMiddleName(row.getMiddleName());
+        person.setLastName(row.getLastName());
+        person.setPreferredName(row.getPreferredName());
+        person.setGender(row.getGender());
+        person.setDateOfBirth(row.getDateOfBirth());
+        person.setProfileImageUrl(row.getProfileImageUrl());
+        person.setActive(row.isActive());
+        person.setCreatedAt(now);
+        person.setVersion(0L);
+        return person;
+    }
+
+    /**
+     * Returns the current state overwritten by the non-null fields of the row, as
+     * {@link com.os360.enterprise.mapper.PersonMapper#updateEntityFromRequest} does.
+     * The active flag is always taken from the row, so a feed can deactivate leavers.
+     */
+    private PersonResponse merge(PersonUpsertRow row, PersonResponse current) {
+        PersonResponse merged = new PersonResponse();
+        merged.setId(current.getId());
+        merged.setExternalSystem(current.getExternalSystem());
+        merged.setExternalId(current.getExternalId());
+        merged.setCountryCode(row.getCountryCode() != null ? row.getCountryCode() : current.getCountryCode());
+        merged.setTitle(row.getTitle() != null ? row.getTitle() : current.getTitle());
+        merged.setFirstName(row.getFirstName() != null ? row.getFirstName() : current.getFirstName());
+        merged.setMiddleName(row.getMiddleName() != null ? row.getMiddleName() : current.getMiddleName());
+        merged.setLastName(row.getLastName() != null ? row.getLastName() : current.getLastName());
+        merged.setPreferredName(row.getPreferredName() != null ? row.getPreferredName() : current.getPreferredName());
+        merged.setGender(row.getGender() != null ? row.getGender() : current.getGender());
+        merged.setDateOfBirth(row.getDateOfBirth() != null ? row.getDateOfBirth() : current.getDateOfBirth());
+        merged.setProfileImageUrl(row.getProfileImageUrl() != null ? row.getProfileImageUrl() : current.getProfileImageUrl());
+        merged.setActive(row.isActive());
+        merged.setVersion(current.getVersion());
+        return merged;
+    }
+
+    private boolean sameState(PersonResponse a, PersonResponse b) {
+        return Objects.equals(a.getCountryCode(), b.getCountryCode())
+                && a.getTitle() == b.getTitle()
+                && Objects.equals(a.getFirstName(), b.getFirstName())
+                && Objects.equals(a.getMiddleName(), b.getMiddleName())
+                && Objects.equals(a.getLastName(), b.getLastName())
+                && Objects.equals(a.getPreferredName(), b.getPreferredName())
+                && Objects.equals(a.getGender(), b.getGender())
+                && Objects.equals(a.getDateOfBirth(), b.getDateOfBirth())
+                && Objects.equals(a.getProfileImageUrl(), b.getProfileImageUrl())
+                && a.isActive() == b.isActive();
+    }
+
+    private String describe(DataAccessException ex) {
+        if (ex instanceof DataIntegrityViolationException) {
+            return "Person already exists";
+        }
+        if (ex instanceof OptimisticLockingFailureException) {
+            return "Person was modified concurrently";
+        }
+        return "Person could not be saved";
+    }
+
+    private PersonUpsertError error(UpsertLine line, String message) {
+        return new PersonUpsertError(line.number(), line.row().getExternalSystem(), line.row().getExternalId(), message);
+    }
+
+    /** The natural key of a person in the source system. */
+    private record ExternalKey(String system, String id) {
+    }
+
+    /** A parsed row together with its line number in the upload. */
+    private record UpsertLine(long number, PersonUpsertRow row) {
+
+        private ExternalKey key() {
+            return new ExternalKey(row.getExternalSystem(), row.getExternalId());
+        }
+    }
+
+    /** Counters accumulated over the chunks of one upsert. */
+    private static final class UpsertState {
+        private long received;
+        private long created;
+        private long updated;
+        private long unchanged;
+        private long failed;
+        private final List<PersonUpsertError> errors = new ArrayList<>();
+
+        private void reject(PersonUpsertError error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.os360.enterprise.service;
+
+import com.os360.enterprise.dto.SiteAddressRequest;
+import com.os360.enterprise.dto.SiteAddressResponse;
+import com.os360.enterprise.dto.SiteNearbyResponse;
+import com.os360.enterprise.entity.Site;
+import com.os360.enterprise.entity.SiteAddress;
+import com.os360.enterprise.enumurations.SiteType;
+import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.repository.SiteAddressRepository;
+import com.os360.enterprise.repository.SiteRepository;
+import com.os360.enterprise.repository.projection.SiteLocation;
+import com.os360.enterprise.search.SiteSpatialIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service managing site addresses and proximity lookups.
+ * <p>
+ * Responsibilities:
+ * - Read and replace the address (and coordinates) of a site.
+ * - Find the sites nearest to a point, e.g. the closest service centers or warehouses
+ *   for a field technician, from {@link SiteSpatialIndex} without a database round trip.
+ */
+@Service
+public class SiteAddressService {
+
+    /** Maximum number of sites returned by a proximity lookup. */
+    public static final int MAX_NEARBY = 100;
+
+    @Autowired
+    private SiteAddressRepository siteAddressRepository;
+
+    @Autowired
+    private SiteRepository siteRepository;
+
+    @Autowired
+    private SiteSpatialIndex siteSpatialIndex;
+
+    /**
+     * Retrieves the address of a site.
+     *
+     * @param siteId UUID of the site
+     * @return Optional containing the SiteAddressResponse
+     * @throws EntityNotFoundException if the site has no address
+     */
+    @Transactional(readOnly = true)
+    public Optional<SiteAddressResponse> get(UUID siteId) {
+        SiteAddress address = siteAddressRepository.findById(siteId)
+                .orElseThrow(() -> new EntityNotFoundException(SiteAddress.class, siteId));
+        return Optional.of(toResponse(address));
+    }
+
+    /**
+     * Creates or replaces the address of a site.
+     *
+     * @param siteId  UUID of the site
+     * @param request the new address
+     * @return Optional containing the stored SiteAddressResponse
+     * @throws EntityNotFoundException if the site does not exist or is deleted
+     * @throws ValidationException     if only one of latitude and longitude is given
+     */
+    @Transactional
+    public Optional<SiteAddressResponse> put(UUID siteId, SiteAddressRequest request) {
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            throw new ValidationException("Latitude and longitude must be given together", "latitude",
+                    request.getLatitude());
+        }
+        Site site = siteRepository.findById(siteId)
+                .filter(existing -> !existing.isDeleted())
+                .orElseThrow(() -> new EntityNotFoundException(Site.class, siteId));
+
+        SiteAddress address = siteAddressRepository.findById(site.getId()).orElseGet(() -> {
+            SiteAddress created = new SiteAddress();
+            created.setSiteId(site.getId());
+            return created;
+        });
+        address.setCountryCode(request.getCountryCode());
+        address.setAdministrativeArea(request.getAdministrativeArea());
+        address.setLocality(request.getLocality());
+        address.setDependentLocality(request.getDependentLocality());
+        address.setPostalCode(request.getPostalCode());
+        address.setThoroughfare(request.getThoroughfare());
+        address.setPremise(request.getPremise());
+        address.setAddressLine1(request.getAddressLine1());
+        address.setAddressLine2(request.getAddressLine2());
+        address.setLatitude(request.getLatitude());
+        address.setLongitude(request.getLongitude());
+        address.setLastModifiedAt(OffsetDateTime.now());
+
+        SiteAddress saved = siteAddressRepository.saveAndFlush(address);
+        siteSpatialIndex.changed(List.of(siteId));
+        return Optional.of(toResponse(saved));
+    }
+
+    /**
+     * Finds the active sites nearest to a point.
+     *
+     * @param latitude  latitude of the point (-90..90)
+     * @param longitude longitude of the point (-180..180)
+     * @param types     site types to consider; empty for all
+     * @param k         number of sites (1..{@value #MAX_NEARBY})
+     * @return up to {@code k} sites, nearest first
+     * @throws ValidationException if a parameter is out of range
+     */
+    @Transactional(readOnly = true)
+    public List<SiteNearbyResponse> findNearest(double latitude, double longitude, List<SiteType> types, int k) {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new ValidationException("Latitude must be between -90 and 90", "lat", latitude);
+        }
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new ValidationException("Longitude must be between -180 and 180", "lon", longitude);
+        }
+        if (k < 1 || k > MAX_NEARBY) {
+            throw new ValidationException("k must be between 1 and " + MAX_NEARBY, "k", k);
+        }
+        return siteSpatialIndex.nearest(latitude, longitude, types != null ? types : List.of(), k).stream()
+                .map(hit -> {
+                    SiteLocation location = hit.location();
+                    return new SiteNearbyResponse(location.siteId(), location.companyId(), location.siteCode(),
+                            location.siteName(), location.siteType(), location.latitude(), location.longitude(),
+                            hit.distanceKm());
+                })
+                .toList();
+    }
+
+    private static SiteAddressResponse toResponse(SiteAddress address) {
+        return new SiteAddressResponse(address.getSiteId(), address.getCountryCode(), address.getAdministrativeArea(),
+                address.getLocality(), address.getDependentLocality(), address.getPostalCode(),
+                address.getThoroughfare(), address.getPremise(), address.getAddressLine1(), address.getAddressLine2(),
+                address.getLatitude(), address.getLongitude(), address.getLastModifiedAt(), address.getVersion());
+    }
+}
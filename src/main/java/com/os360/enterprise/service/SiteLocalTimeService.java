@@ -0,0 +1,78 @@
+package com.os360.enterprise.service;
+
+import com.os360.enterprise.cache.SiteTimeZoneCache;
+import com.os360.enterprise.cache.SiteTimeZoneCache.SiteZone;
+import com.os360.enterprise.dto.SiteLocalTimeRequest;
+import com.os360.enterprise.dto.SiteLocalTimeResponse;
+import com.os360.enterprise.entity.Site;
+import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.validation.ValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves the local date-time of sites, for scheduling across many sites at once.
+ * <p>
+ * Zones come from {@link SiteTimeZoneCache}: no zone ID is parsed and, once the sites
+ * are cached, no query is made per request.
+ */
+@Service
+public class SiteLocalTimeService {
+
+    /** Maximum number of sites in one request. */
+    public static final int MAX_SITES = 1000;
+
+    /** Maximum number of conversions (sites times instants) in one request. */
+    public static final int MAX_CONVERSIONS = 10_000;
+
+    @Autowired
+    private SiteTimeZoneCache siteTimeZoneCache;
+
+    /**
+     * Converts every requested instant, or the current instant if none is given, to the
+     * local date-time of every requested site.
+     *
+     * @param request the sites and instants
+     * @return one entry per site and instant, in request order, instants varying fastest
+     * @throws ValidationException     if the request exceeds {@value #MAX_SITES} sites or
+     *                                 {@value #MAX_CONVERSIONS} conversions
+     * @throws EntityNotFoundException if a site does not exist or is deleted
+     */
+    public List<SiteLocalTimeResponse> localTimes(SiteLocalTimeRequest request) {
+        List<UUID> siteIds = request.getSiteIds();
+        if (siteIds.size() > MAX_SITES) {
+            throw new ValidationException("At most " + MAX_SITES + " sites are allowed", "siteIds", siteIds.size());
+        }
+        List<Instant> instants = request.getInstants() == null || request.getInstants().isEmpty()
+                ? List.of(Instant.now())
+                : request.getInstants();
+        if ((long) siteIds.size() * instants.size() > MAX_CONVERSIONS) {
+            throw new ValidationException("At most " + MAX_CONVERSIONS + " conversions are allowed",
+                    "instants", instants.size());
+        }
+
+        Map<UUID, SiteZone> zones = siteTimeZoneCache.resolve(siteIds);
+        List<SiteLocalTimeResponse> responses = new ArrayList<>(siteIds.size() * instants.size());
+        for (UUID siteId : siteIds) {
+            SiteZone zone = zones.get(siteId);
+            if (zone == null) {
+                throw new EntityNotFoundException(Site.class, siteId);
+            }
+            for (Instant instant : instants) {
+                ZoneOffset offset = zone.rules().getOffset(instant);
+                responses.add(new SiteLocalTimeResponse(siteId, zone.zoneId(), instant,
+                        LocalDateTime.ofEpochSecond(instant.getEpochSecond(), instant.getNano(), offset),
+                        offset.getId(), zone.rules().isDaylightSavings(instant)));
+            }
+        }
+        return responses;
+    }
+}
@@ -1,47 +1,145 @@
 package com.os360.enterprise.service;
 
+import com.os360.enterprise.cache.EntityCache;
+import com.os360.enterprise.cache.SiteTimeZoneCache;
+import com.os360.enterprise.common.ConstraintViolationUtils;
+import com.os360.enterprise.common.ETagUtils;
+import com.os360.enterprise.common.KeysetCursorUtils;
+import com.os360.enterprise.dto.KeysetPageResponse;
 import com.os360.enterprise.dto.SiteCreateRequest;
 import com.os360.enterprise.dto.SitePatchRequest;
 import com.os360.enterprise.dto.SiteResponse;
 import com.os360.enterprise.dto.SiteUpdateRequest;
+import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.entity.CompanyTimeZone;
 import com.os360.enterprise.entity.Site;
 import com.os360.enterprise.entityUtils.EntityPatcher;
 import com.os360.enterprise.exception.domain.EntityAlreadyDeletedException;
+import com.os360.enterprise.exception.domain.EntityAlreadyExistsException;
 import com.os360.enterprise.exception.domain.EntityNotFoundException;
+import com.os360.enterprise.exception.domain.EntityVersionConflictException;
 import com.os360.enterprise.mapper.SiteMapper;
+import com.os360.enterprise.enumurations.SiteType;
+import com.os360.enterprise.exception.validation.ValidationException;
+import com.os360.enterprise.repository.CompanyRepository;
+import com.os360.enterprise.repository.CompanyTimeZoneRepository;
+import com.os360.enterprise.repository.ConditionalUpdateRepository;
 import com.os360.enterprise.repository.SiteRepository;
+import com.os360.enterprise.search.SiteSpatialIndex;
 import com.os360.enterprise.validator.SiteValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class SiteService {
 
+    /** Maximum page size of the sites of a company. */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /** Partial unique index allowing a single non-deleted default site per company. */
+    public static final String DEFAULT_SITE_CONSTRAINT = "site_uc_default";
+
+    /** Time zone of the sites of a company that has none yet. */
+    public static final String DEFAULT_TIME_ZONE = "UTC";
+
+    /** Lowest UUID; the keyset start of a first page. */
+    private static final UUID FIRST = new UUID(0L, 0L);
+
     @Autowired
     private SiteRepository siteRepository;
 
+    @Autowired
+    private CompanyRepository companyRepository;
+
     @Autowired
     private SiteValidator siteValidator;
 
     @Autowired
     private SiteMapper siteMapper;
 
+    @Autowired
+    private EntityCache<SiteResponse> siteCache;
+
+    @Autowired
+    private SiteSpatialIndex siteSpatialIndex;
+
+    @Autowired
+    private SiteTimeZoneCache siteTimeZoneCache;
+
+    @Autowired
+    private CompanyTimeZoneRepository companyTimeZoneRepository;
+
     @Autowired
     private EntityPatcher entityPatcher;
 
+    @Autowired
+    private ConditionalUpdateRepository conditionalUpdateRepository;
+
     /**
      * Creates a new site.
      *
      * @param siteCreateRequest the site creation request DTO
      * @return Optional containing the created SiteResponse
      */
+    @Transactional
     public Optional<SiteResponse> create(SiteCreateRequest siteCreateRequest) {
-        Site site = siteRepository.save(siteValidator.validateCreate(siteCreateRequest));
-        return siteMapper.toResponse(site);
+        Site site = siteValidator.validateCreate(siteCreateRequest);
+        site.setSiteTimeZone(resolveTimeZone(site.getCompany(), siteCreateRequest.getTimeZone()));
+        if (!site.isDefault()) {
+            return siteMapper.toResponse(siteRepository.save(site));
+        }
+        // Inserted as non-default, then switched like any other site
+        site.setDefault(false);
+        UUID id = siteRepository.saveAndFlush(site).getId();
+        switchDefault(id);
+        return siteMapper.toResponse(siteRepository.findById(id).orElseThrow());
+    }
+
+    /**
+     * Makes a site the default site of its company, clearing the previous default.
+     * <p>
+     * Runs as two set-based statements in one transaction: clear the other default,
+     * then set this one. {@value #DEFAULT_SITE_CONSTRAINT} guarantees a single default
+     * per company; of two concurrent switches in one company, the second to commit fails
+     * with a conflict instead of both succeeding.
+     *
+     * @param id UUID of the site
+     * @return Optional containing the updated SiteResponse
+     * @throws EntityNotFoundException       if the site does not exist
+     * @throws EntityAlreadyDeletedException if the site is deleted
+     * @throws EntityAlreadyExistsException  if a concurrent switch made another site the default
+     */
+    @Transactional
+    public Optional<SiteResponse> makeDefault(UUID id) {
+        if (!switchDefault(id)) {
+            Site site = siteRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException(Site.class, id));
+            if (site.isDeleted()) {
+                throw new EntityAlreadyDeletedException(Site.class, id);
+            }
+        }
+        return get(id);
+    }
+
+    /**
+     * Retrieves only the current version of a site, for conditional requests.
+     *
+     * @param id UUID of the site
+     * @return the version, or empty if the site does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(UUID id) {
+        return siteRepository.findVersionById(id);
     }
 
     /**
@@ -52,9 +150,75 @@ public class SiteService {
      * @throws EntityNotFoundException if the site does not exist
      */
     public Optional<SiteResponse> get(UUID id) {
-        Site site = siteRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(Site.class, id));
-        return siteMapper.toResponse(site);
+        return Optional.of(siteCache.get(id, siteId -> {
+            Site site = siteRepository.findById(siteId)
+                    .orElseThrow(() -> new EntityNotFoundException(Site.class, siteId));
+            return siteMapper.toResponse(site).orElseThrow();
+        }));
+    }
+
+    /**
+     * Lists the sites of a company using keyset pagination ordered by site code and ID.
+     *
+     * @param companyId UUID of the company
+     * @param siteType  optional site type filter
+     * @param active    optional active flag filter
+     * @param deleted   whether to list deleted instead of non-deleted sites
+     * @param cursor    opaque cursor returned with the previous page, or null for the first page
+     * @param limit     page size (1..{@value #MAX_PAGE_SIZE})
+     * @return the requested page of sites
+     * @throws ValidationException     if the cursor or limit is invalid
+     * @throws EntityNotFoundException if the company does not exist or is deleted
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<SiteResponse> listByCompany(UUID companyId, SiteType siteType, Boolean active,
+                                                          boolean deleted, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE, "limit", limit);
+        }
+        if (!companyRepository.existsActiveById(companyId)) {
+            throw new EntityNotFoundException(Company.class, companyId);
+        }
+        String afterCode = "";
+        UUID afterId = FIRST;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursorUtils.decode(cursor, 2);
+            afterCode = key[0];
+            try {
+                afterId = UUID.fromString(key[1]);
+            } catch (IllegalArgumentException ex) {
+                throw new ValidationException("Invalid cursor", "cursor", cursor);
+            }
+        }
+
+        List<SiteResponse> rows = siteRepository.findByCompany(companyId, deleted, siteType, active,
+                        afterCode, afterId, Limit.of(limit + 1)).stream()
+                .map(site -> siteMapper.toResponse(site).orElseThrow())
+                .toList();
+        boolean hasMore = rows.size() > limit;
+        List<SiteResponse> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            SiteResponse last = page.get(page.size() - 1);
+            nextCursor = KeysetCursorUtils.encode(last.getCode(), last.getId());
+        }
+        return new KeysetPageResponse<>(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Retrieves the non-deleted site of a company by its code. The ID is resolved from
+     * {@code site_idx_company_code} alone; the site itself then comes from the site cache.
+     *
+     * @param companyId UUID of the company
+     * @param siteCode  code of the site
+     * @return Optional containing the SiteResponse
+     * @throws EntityNotFoundException if the company has no non-deleted site with that code
+     */
+    public Optional<SiteResponse> getByCode(UUID companyId, String siteCode) {
+        UUID id = siteRepository.findIdByCompanyAndCode(companyId, siteCode, Limit.of(1)).stream()
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException(Site.class, companyId + "/" + siteCode));
+        return get(id);
     }
 
     /**
@@ -76,6 +240,9 @@ public class SiteService {
         site.setDeletedAt(OffsetDateTime.now());
         site.setDeletedBy(UUID.fromString("00000000-0000-0000-0000-000000000000")); // TODO: replace with actual user
         siteRepository.save(site);
+        siteCache.invalidate(id);
+        siteSpatialIndex.changed(List.of(id));
+        siteTimeZoneCache.changed(List.of(id));
     }
 
     /**
@@ -83,11 +250,17 @@ public class SiteService {
      *
      * @param id UUID of the site
      * @param updateRequest DTO containing updated values
+     * @param expectedVersion version from {@code If-Match}, or null for an unconditional update
      * @return Optional containing the updated SiteResponse
      */
-    public Optional<SiteResponse> update(UUID id, SiteUpdateRequest updateRequest) {
+    @Transactional
+    public Optional<SiteResponse> update(UUID id, SiteUpdateRequest updateRequest, Long expectedVersion) {
+        if (updateRequest.isDefault()) {
+            clearOtherDefaults(id);
+        }
         Site existingSite = siteRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(Site.class, id));
+        ETagUtils.requireVersion(Site.class, id, expectedVersion, existingSite.getVersion());
 
         if (updateRequest.getSiteCode() != null) existingSite.setSiteCode(updateRequest.getSiteCode());
         if (updateRequest.getSiteName() != null) existingSite.setSiteName(updateRequest.getSiteName());
@@ -95,7 +268,9 @@ public class SiteService {
         existingSite.setDefault(updateRequest.isDefault());
         existingSite.setActive(updateRequest.isActive());
 
-        Site updatedSite = siteRepository.save(existingSite);
+        Site updatedSite = saveAndFlush(existingSite);
+        siteCache.invalidate(id);
+        siteSpatialIndex.changed(List.of(id));
         return siteMapper.toResponse(updatedSite);
     }
 
@@ -104,11 +279,17 @@ public class SiteService {
      *
      * @param id UUID of the site
      * @param sitePatchRequest DTO containing patch values
+     * @param expectedVersion version from {@code If-Match}, or null for an unconditional update
      * @return Optional containing the updated SiteResponse
      */
-    public Optional<SiteResponse> patch(UUID id, SitePatchRequest sitePatchRequest) {
+    @Transactional
+    public Optional<SiteResponse> patch(UUID id, SitePatchRequest sitePatchRequest, Long expectedVersion) {
+        if (sitePatchRequest.isDefault()) {
+            clearOtherDefaults(id);
+        }
         Site existingSite = siteRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(Site.class, id));
+        ETagUtils.requireVersion(Site.class, id, expectedVersion, existingSite.getVersion());
 
         if (sitePatchRequest.getSiteCode() != null) existingSite.setSiteCode(sitePatchRequest.getSiteCode());
         if (sitePatchRequest.getSiteName() != null) existingSite.setSiteName(sitePatchRequest.getSiteName());
@@ -116,7 +297,139 @@ public class SiteService {
         existingSite.setDefault(sitePatchRequest.isDefault());
         existingSite.setActive(sitePatchRequest.isActive());
 
-        Site updatedSite = siteRepository.save(existingSite);
+        Site updatedSite = saveAndFlush(existingSite);
+        siteCache.invalidate(id);
+        siteSpatialIndex.changed(List.of(id));
         return siteMapper.toResponse(updatedSite);
     }
+
+    /**
+     * Applies a conditional (If-Match) full update without loading the site.
+     *
+     * @param id UUID of the site
+     * @param updateRequest DTO containing updated site details
+     * @param expectedVersion version from {@code If-Match}
+     * @return the new version
+     * @throws EntityNotFoundException if the site does not exist or is deleted
+     * @throws EntityVersionConflictException if the site has another version
+     */
+    @Transactional
+    public long conditionalUpdate(UUID id, SiteUpdateRequest updateRequest, long expectedVersion) {
+        return conditionalWrite(id, expectedVersion, updateRequest.getSiteCode(),
+                updateRequest.getSiteName(), updateRequest.getSiteType(),
+                updateRequest.isDefault(), updateRequest.isActive());
+    }
+
+    /**
+     * Applies a conditional (If-Match) partial update without loading the site,
+     * as a single versioned UPDATE of the supplied columns.
+     *
+     * @param id UUID of the site
+     * @param sitePatchRequest DTO containing patch values
+     * @param expectedVersion version from {@code If-Match}
+     * @return the new version
+     * @throws EntityNotFoundException if the site does not exist or is deleted
+     * @throws EntityVersionConflictException if the site has another version
+     */
+    @Transactional
+    public long conditionalPatch(UUID id, SitePatchRequest sitePatchRequest, long expectedVersion) {
+        return conditionalWrite(id, expectedVersion, sitePatchRequest.getSiteCode(),
+                sitePatchRequest.getSiteName(), sitePatchRequest.getSiteType(),
+                sitePatchRequest.isDefault(), sitePatchRequest.isActive());
+    }
+
+    private long conditionalWrite(UUID id, long expectedVersion, String siteCode, String siteName,
+                                  SiteType siteType, boolean isDefault, boolean isActive) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (siteCode != null) columns.put("site_code", siteCode);
+        if (siteName != null) columns.put("site_name", siteName);
+        if (siteType != null) columns.put("site_type", siteType.name());
+        // Primitive flags are always written, as in update and patch
+        columns.put("is_default", isDefault);
+        columns.put("is_active", isActive);
+
+        if (isDefault) {
+            clearOtherDefaults(id);
+        }
+        try {
+            if (!conditionalUpdateRepository.updateVersioned("site", id, expectedVersion, columns, "is_deleted = FALSE")) {
+                throw ETagUtils.updateMissed(Site.class, id, expectedVersion, siteRepository.findUndeletedVersionById(id));
+            }
+        } catch (DataIntegrityViolationException ex) {
+            throw translateConstraintViolation(ex, id);
+        }
+        siteCache.invalidate(id);
+        siteSpatialIndex.changed(List.of(id));
+        return expectedVersion + 1;
+    }
+
+    /**
+     * Clears the other default of the site's company and sets this site's flag.
+     *
+     * @return false if the site is missing, deleted or was the default already
+     */
+    private boolean switchDefault(UUID id) {
+        clearOtherDefaults(id);
+        try {
+            boolean switched = siteRepository.setDefault(id, OffsetDateTime.now()) > 0;
+            siteCache.invalidate(id);
+            return switched;
+        } catch (DataIntegrityViolationException ex) {
+            throw translateConstraintViolation(ex, id);
+        }
+    }
+
+    /**
+     * Clears the default flag of the other sites of the site's company, before the
+     * site itself is made the default.
+     */
+    private void clearOtherDefaults(UUID id) {
+        List<UUID> previous = siteRepository.findOtherDefaultIds(id);
+        if (!previous.isEmpty()) {
+            siteRepository.clearOtherDefaults(id, OffsetDateTime.now());
+            previous.forEach(siteCache::invalidate);
+        }
+    }
+
+    /**
+     * Resolves the company time zone of a new site: the company's entry for the requested
+     * zone, or its default time zone if none is requested. Missing entries are added; the
+     * first time zone of a company becomes its default, {@value #DEFAULT_TIME_ZONE} unless
+     * another zone is requested.
+     */
+    private CompanyTimeZone resolveTimeZone(Company company, String timeZone) {
+        Optional<CompanyTimeZone> companyDefault =
+                companyTimeZoneRepository.findFirstByCompanyIdAndIsDefaultTrue(company.getId());
+        if (timeZone == null) {
+            if (companyDefault.isPresent()) {
+                return companyDefault.get();
+            }
+            timeZone = DEFAULT_TIME_ZONE;
+        } else if (companyDefault.isPresent() && companyDefault.get().getTimeZone().equals(timeZone)) {
+            return companyDefault.get();
+        }
+        String zone = timeZone;
+        return companyTimeZoneRepository.findFirstByCompanyIdAndTimeZoneOrderByIdAsc(company.getId(), zone)
+                .orElseGet(() -> companyTimeZoneRepository.save(
+                        new CompanyTimeZone(null, company, zone, companyDefault.isEmpty())));
+    }
+
+    private Site saveAndFlush(Site site) {
+        try {
+            return siteRepository.saveAndFlush(site);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateConstraintViolation(ex, site.getId());
+        }
+    }
+
+    /**
+     * Translates the violation of {@value #DEFAULT_SITE_CONSTRAINT} by a concurrent
+     * default switch into a conflict; other violations are returned unchanged.
+     */
+    private RuntimeException translateConstraintViolation(DataIntegrityViolationException ex, UUID id) {
+        if (ConstraintViolationUtils.isViolationOf(ex, DEFAULT_SITE_CONSTRAINT)) {
+            return new EntityAlreadyExistsException(Site.class, "default site of the company of " + id);
+        }
+        return ex;
+    }
 }
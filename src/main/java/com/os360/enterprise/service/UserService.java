@@ -5,6 +5,7 @@ import com.os360.enterprise.dto.UserResponse;
 import com.os360.enterprise.entity.User;
 import com.os360.enterprise.entity.UserRole;
 import com.os360.enterprise.entity.UserRoleAssignment;
+import com.os360.enterprise.enumurations.PartyType;
 import com.os360.enterprise.exception.domain.EntityNotFoundException;
 import com.os360.enterprise.mapper.UserMapper;
 import com.os360.enterprise.repository.UserRepository;
@@ -37,15 +38,17 @@ public class UserService {
     @Transactional
     public UserResponse createUser(UserCreateRequest request) {
         User user = userMapper.toEntity(request);
+        user.setPartyType(PartyType.PERSON.name());
+        user.setActive(true);
+        user.setDeleted(false);
         userRepository.save(user);
         return userMapper.toResponse(user);
     }
 
     @Transactional(readOnly = true)
     public UserResponse getUser(UUID userId) {
-        User user = userRepository.findByIdAndIsDeletedFalse(userId)
+        return userRepository.findResponseById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(User.class, userId));
-        return userMapper.toResponse(user);
     }
 
     @Transactional
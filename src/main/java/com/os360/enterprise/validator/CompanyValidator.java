@@ -1,76 +1,132 @@
 package com.os360.enterprise.validator;
 
 import com.os360.enterprise.common.CommonUtils;
+import com.os360.enterprise.common.ConstraintViolationUtils;
 import com.os360.enterprise.common.CountryUtils;
 import com.os360.enterprise.dto.CompanyCreateRequest;
 import com.os360.enterprise.entity.Company;
 import com.os360.enterprise.enumurations.PartyType;
+import com.os360.enterprise.exception.domain.EntityAlreadyExistsException;
+import com.os360.enterprise.exception.validation.ValidationException;
 import com.os360.enterprise.repository.CompanyRepository;
+import com.os360.enterprise.repository.projection.CompanyCreateProbe;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Validator for Company entities.
+ * <p>
+ * Create validation runs all existence and uniqueness checks in a single probe
+ * query. The probe is only a fast path for friendly errors: concurrent creates
+ * are caught by the {@value #CODE_CONSTRAINT}, {@value #EXTERNAL_ID_CONSTRAINT}
+ * and {@value #SYSTEM_COMPANY_CONSTRAINT} constraints and translated by
+ * {@link #translateConstraintViolation}.
+ */
 @Component
 public class CompanyValidator {
 
+    /** Unique constraint on company.code. */
+    public static final String CODE_CONSTRAINT = "company_code_key";
+
+    /** Unique constraint on party (external_system, external_id). */
+    public static final String EXTERNAL_ID_CONSTRAINT = "party_uc_external_system";
+
+    /** Partial unique index allowing a single system company. */
+    public static final String SYSTEM_COMPANY_CONSTRAINT = "company_uc_system_company";
+
+    /** Foreign key from company.parent_company_id to company.id. */
+    public static final String PARENT_COMPANY_CONSTRAINT = "fk_company_parent";
+
+    /** Placeholder bound for probe inputs that were not supplied. */
+    private static final UUID NO_PARENT = new UUID(0L, 0L);
+
     @Autowired
     private CompanyRepository companyRepository;
 
+    /**
+     * Validates a CompanyCreateRequest and builds the Company entity to persist.
+     *
+     * @param companyCreateRequest the company creation request DTO
+     * @return a new Company entity ready for persistence
+     * @throws ValidationException          if the parent company or country code is invalid
+     * @throws EntityAlreadyExistsException if the code, external ID or system company is already taken
+     */
     public Company validateCreate(CompanyCreateRequest companyCreateRequest) {
-        Company company = new Company();
+        Company company = buildNewCompany(companyCreateRequest);
 
-        //Validate Parent Company
         UUID parentId = companyCreateRequest.getParentCompany();
-        if (parentId != null) {
-            Company parentCompany = companyRepository.findById(parentId)
-                    .orElseThrow(() -> new IllegalArgumentException("Parent company not found: " + parentId));
-            company.setParentCompany(parentCompany);
-        }
+        String code = companyCreateRequest.getCode();
+        String externalId = companyCreateRequest.getExternalId();
+        String externalSystem = companyCreateRequest.getExternalSystem();
+        boolean hasExternalId = CommonUtils.allNotBlank(externalId, externalSystem);
 
-        //Validate companyCode
-        if (!companyRepository.existsByCode(companyCreateRequest.getCode())) {
-            company.setCode(companyCreateRequest.getCode());
-        } else {
-            throw new RuntimeException();
+        //Validate countryCode (no database access needed)
+        if (!CountryUtils.isValidAlpha2CountryCode(companyCreateRequest.getCountryCode())) {
+            throw new ValidationException("Invalid country code", "countryCode",
+                    String.valueOf(companyCreateRequest.getCountryCode()));
         }
 
-        //Validate countryCode
-        if (CountryUtils.isValidAlpha2CountryCode(companyCreateRequest.getCountryCode())) {
-            company.setCountryCode(companyCreateRequest.getCountryCode());
-        } else {
-            throw new RuntimeException();
+        CompanyCreateProbe probe = companyRepository.probeCreate(
+                parentId != null ? parentId : NO_PARENT,
+                code,
+                hasExternalId ? externalSystem : "",
+                hasExternalId ? externalId : ""
+        );
+
+        //Validate Parent Company
+        if (parentId != null) {
+            if (!probe.getParentExists()) {
+                throw new ValidationException("Parent company not found", "parentCompany", parentId);
+            }
+            // Existence is already known, a reference avoids loading the parent row
+            company.setParentCompany(companyRepository.getReferenceById(parentId));
         }
 
-        String externalId = companyCreateRequest.getExternalId();
-        String externalSystem = companyCreateRequest.getExternalSystem();
+        //Validate companyCode
+        if (probe.getCodeTaken()) {
+            throw new EntityAlreadyExistsException(Company.class, code);
+        }
 
         //Validate externalId and externalSystem
-        if (CommonUtils.allNotBlank(externalId, externalSystem)) {
-            if (!companyRepository.existsByExternalSystemAndExternalId(
-                    externalSystem,
-                    externalId)) {
-                company.setExternalSystem(externalSystem);
-                company.setExternalId(externalId);
-            } else {
-                //Throw Exception
-                throw new RuntimeException();
+        if (hasExternalId) {
+            if (probe.getExternalIdTaken()) {
+                throw new EntityAlreadyExistsException(Company.class, externalSystem + "/" + externalId);
             }
-
+            company.setExternalSystem(externalSystem);
+            company.setExternalId(externalId);
         }
 
         //Validate isSystemCompany
-        if (companyCreateRequest.isSystemCompany())
-            if (!companyRepository.existsByIsSystemCompanyTrue()) {
-                company.setSystemCompany(true);
-            } else {
-                throw new RuntimeException();
-            }
-        else {
-            company.setSystemCompany(false);
+        if (companyCreateRequest.isSystemCompany() && probe.getSystemCompanyTaken()) {
+            throw new EntityAlreadyExistsException(Company.class, "system company");
         }
+        company.setSystemCompany(companyCreateRequest.isSystemCompany());
+
+        return company;
+    }
+
+    /**
+     * Builds a new Company entity from the request fields that need no database
+     * validation: code, name, country, logo and validity window, with the
+     * defaults of a newly created company.
+     * <p>
+     * Parent company, external ID and the system company flag are left unset;
+     * callers validate and apply them.
+     *
+     * @param companyCreateRequest the company creation request DTO
+     * @return a new, not yet persisted Company entity
+     */
+    public Company buildNewCompany(CompanyCreateRequest companyCreateRequest) {
+        Company company = new Company();
+        company.setCode(companyCreateRequest.getCode());
+        company.setName(companyCreateRequest.getName());
+        company.setCountryCode(companyCreateRequest.getCountryCode());
+        company.setLogoUrl(companyCreateRequest.getLogoUrl());
 
         company.setValidFrom(
                 Optional.ofNullable(companyCreateRequest.getValidFrom())
@@ -91,4 +147,31 @@ public class CompanyValidator {
 
         return company;
     }
+
+    /**
+     * Translates a constraint violation raised while inserting a company into
+     * the domain exception the probe would have raised.
+     *
+     * @param ex                   the exception raised by the flush
+     * @param companyCreateRequest the request that was being persisted
+     * @return the exception to throw; the original exception if the constraint is unknown
+     */
+    public RuntimeException translateConstraintViolation(DataIntegrityViolationException ex,
+                                                         CompanyCreateRequest companyCreateRequest) {
+        if (ConstraintViolationUtils.isViolationOf(ex, CODE_CONSTRAINT)) {
+            return new EntityAlreadyExistsException(Company.class, companyCreateRequest.getCode());
+        }
+        if (ConstraintViolationUtils.isViolationOf(ex, EXTERNAL_ID_CONSTRAINT)) {
+            return new EntityAlreadyExistsException(Company.class,
+                    companyCreateRequest.getExternalSystem() + "/" + companyCreateRequest.getExternalId());
+        }
+        if (ConstraintViolationUtils.isViolationOf(ex, SYSTEM_COMPANY_CONSTRAINT)) {
+            return new EntityAlreadyExistsException(Company.class, "system company");
+        }
+        if (ConstraintViolationUtils.isViolationOf(ex, PARENT_COMPANY_CONSTRAINT)) {
+            return new ValidationException("Parent company not found", "parentCompany",
+                    companyCreateRequest.getParentCompany());
+        }
+        return ex;
+    }
 }
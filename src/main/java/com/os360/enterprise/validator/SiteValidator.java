@@ -10,6 +10,8 @@ import com.os360.enterprise.repository.CompanyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -44,8 +46,8 @@ public class SiteValidator {
 
         Site site = new Site();
         site.setCompany(company);
-//        site.setSiteCode(request.getSiteCode());
-//        site.setSiteName(request.getSiteName());
+        site.setSiteCode(request.getCode());
+        site.setSiteName(request.getName());
         site.setSiteType(request.getSiteType());
         site.setDefault(request.isDefault());
         site.setActive(true);
@@ -106,6 +108,13 @@ public class SiteValidator {
             if (createRequest.getSiteType() == null) {
                 throw new ValidationException("Site type is mandatory", "siteType", null);
             }
+            if (createRequest.getTimeZone() != null) {
+                try {
+                    ZoneId.of(createRequest.getTimeZone());
+                } catch (DateTimeException ex) {
+                    throw new ValidationException("Unknown time zone", "timeZone", createRequest.getTimeZone());
+                }
+            }
         }
 
         if (request instanceof SiteUpdateRequest updateRequest) {
@@ -1,5 +1,7 @@
 -- Enable pgcrypto for UUID generation (if not already enabled)
 CREATE EXTENSION IF NOT EXISTS pgcrypto;
+-- Enable pg_trgm for trigram company search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
 
 -- ================================
 -- Table: party
@@ -54,6 +56,48 @@ CHECK (valid_to IS NULL OR valid_to >= valid_from);
 CREATE INDEX company_idx_code ON company (code);
 CREATE INDEX company_idx_name ON company (name);
 
+-- Keyset pagination of company listings on (name, id)
+CREATE INDEX company_idx_name_id ON company (name, id);
+
+-- Typeahead search: trigram indexes serve ILIKE '%q%' and similarity (%) matches,
+-- text_pattern_ops indexes serve prefix matches of queries too short for trigrams
+CREATE INDEX company_idx_name_trgm ON company USING gin (name gin_trgm_ops);
+CREATE INDEX company_idx_code_trgm ON company USING gin (code gin_trgm_ops);
+CREATE INDEX company_idx_name_lower_prefix ON company (lower(name) text_pattern_ops);
+CREATE INDEX company_idx_code_lower_prefix ON company (lower(code) text_pattern_ops);
+
+-- At most one system company; also serves the create probe's system company check
+CREATE UNIQUE INDEX company_uc_system_company
+    ON company (is_system_company)
+    WHERE is_system_company = TRUE;
+
+-- ================================
+-- Table: company_closure
+-- Closure table of the company hierarchy: one row per (ancestor, descendant)
+-- pair, including a depth 0 self row for every company.
+-- ================================
+CREATE TABLE company_closure (
+    ancestor_id UUID NOT NULL REFERENCES company (id) ON DELETE CASCADE,
+    descendant_id UUID NOT NULL REFERENCES company (id) ON DELETE CASCADE,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX company_closure_idx_descendant ON company_closure (descendant_id, depth);
+
+-- Backfill the closure table from existing parent_company_id links
+INSERT INTO company_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree AS (
+    SELECT id AS ancestor_id, id AS descendant_id, 0 AS depth
+    FROM company
+    UNION ALL
+    SELECT c.parent_company_id, t.descendant_id, t.depth + 1
+    FROM tree t
+    JOIN company c ON c.id = t.ancestor_id
+    WHERE c.parent_company_id IS NOT NULL
+)
+SELECT ancestor_id, descendant_id, depth FROM tree;
+
 -- ================================
 -- Table: company_time_zone
 -- ================================
@@ -106,7 +150,14 @@ CREATE TABLE site (
 );
 
 -- Indexes
-CREATE INDEX site_idx_company ON site(company_id);
+-- Sites of a company in code order (/api/v1/companies/{id}/sites) and lookup by (company, code);
+-- its leading company_id also serves every other lookup of sites by company
+CREATE INDEX site_idx_company_code ON site(company_id, is_deleted, site_code, id);
+-- Ensure only one default per company among non-deleted sites; also locates the current default
+-- in one probe when POST /api/v1/sites/{id}/default switches it
+CREATE UNIQUE INDEX site_uc_default
+ON site (company_id)
+WHERE is_default = TRUE AND is_deleted = FALSE;
 CREATE INDEX site_idx_site_code ON site(site_code);
 
 -- ==========================================================
@@ -128,5 +179,143 @@ CREATE TABLE person (
 );
 
 -- Indexes for commonly queried columns
-CREATE INDEX person_idx_name ON person (last_name, first_name);
-CREATE INDEX person_idx_gender ON person (gender);
\ No newline at end of file
+-- Also serves keyset pagination and streaming of person listings on (last_name, first_name, id)
+CREATE INDEX person_idx_name ON person (last_name, first_name, id);
+CREATE INDEX person_idx_gender ON person (gender);
+-- Upcoming birthdays (/api/v1/persons/birthdays): range scan on the day of the year (month * 100 + day)
+CREATE INDEX person_idx_birthday
+ON person ((CAST(EXTRACT(MONTH FROM date_of_birth) * 100 + EXTRACT(DAY FROM date_of_birth) AS INTEGER)), id)
+WHERE date_of_birth IS NOT NULL;
+
+-- ================================
+-- Table: person_site_assignment
+-- Sites a person works at; at most one of them is the person's default site.
+-- ================================
+CREATE TABLE person_site_assignment (
+    person_id UUID NOT NULL REFERENCES person (id) ON DELETE CASCADE,
+    site_id UUID NOT NULL REFERENCES site (id) ON DELETE CASCADE,
+    is_default BOOLEAN NOT NULL DEFAULT FALSE,
+    assigned_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (person_id, site_id)
+);
+
+-- Persons of a site (/api/v1/sites/{id}/persons); the primary key serves the sites of a person
+CREATE INDEX person_site_assignment_idx_site ON person_site_assignment (site_id, person_id);
+
+-- Ensure only one default site per person; also locates the current default in one probe
+CREATE UNIQUE INDEX person_site_assignment_uc_default
+ON person_site_assignment (person_id)
+WHERE is_default = TRUE;
+
+-- ================================
+-- Table: person_blocking_key
+-- Duplicate detection blocking keys (phonetic / normalized names, birth date, country).
+-- Filled by the application; rebuild with POST /api/v1/persons/duplicates/index.
+-- ================================
+CREATE TABLE person_blocking_key (
+    blocking_key VARCHAR(150) NOT NULL,
+    person_id UUID NOT NULL REFERENCES person (id) ON DELETE CASCADE,
+    PRIMARY KEY (blocking_key, person_id)
+);
+
+CREATE INDEX person_blocking_key_idx_person ON person_blocking_key (person_id);
+
+-- ================================
+-- Table: party_role
+-- Roles a party holds at a company (EMPLOYEE, CUSTOMER, SUPPLIER, VENDOR).
+-- One narrow row per role, discriminated by role_type, so role lookups never touch party.party_type.
+-- ================================
+CREATE TABLE party_role (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    party_id UUID NOT NULL,
+    company_id UUID NOT NULL,
+    role_type VARCHAR(20) NOT NULL,
+    reference_code VARCHAR(100),
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT DEFAULT 1,
+    CONSTRAINT fk_party_role_party FOREIGN KEY (party_id) REFERENCES party (id) ON DELETE CASCADE,
+    CONSTRAINT fk_party_role_company FOREIGN KEY (company_id) REFERENCES company (id) ON DELETE CASCADE,
+    CONSTRAINT party_role_ck_role_type CHECK (role_type IN ('EMPLOYEE', 'CUSTOMER', 'SUPPLIER', 'VENDOR'))
+);
+
+-- A party holds each role once per company; also orders the roles of a party (?partyId=).
+-- Listings read reference_code, created_at, version and the joined party row, so each
+-- hit is fetched from the heap; the index bounds the scan to one page, not an index-only scan.
+CREATE UNIQUE INDEX party_role_uc_party_role_company
+ON party_role (party_id, role_type, company_id);
+
+-- Parties with a role at a company, e.g. all suppliers of a company (?companyId=&roleType=),
+-- in party ID order; hits are fetched from the heap as above
+CREATE INDEX party_role_idx_company_role
+ON party_role (company_id, role_type, party_id);
+
+-- ================================
+-- Table: site_address
+-- Postal address and coordinates of a site (fields as in CommAddress).
+-- Proximity queries are served by the in-memory spatial index (/api/v1/sites/nearby), not by SQL.
+-- ================================
+CREATE TABLE site_address (
+    site_id UUID PRIMARY KEY REFERENCES site (id) ON DELETE CASCADE,
+    country_code VARCHAR(2),
+    administrative_area VARCHAR(100),
+    locality VARCHAR(100),
+    dependent_locality VARCHAR(100),
+    postal_code VARCHAR(20),
+    thoroughfare VARCHAR(200),
+    premise VARCHAR(200),
+    address_line1 VARCHAR(300),
+    address_line2 VARCHAR(300),
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    last_modified_at TIMESTAMPTZ,
+    version BIGINT DEFAULT 1,
+    CONSTRAINT site_address_ck_coordinates CHECK (
+        (latitude IS NULL AND longitude IS NULL)
+        OR (latitude BETWEEN -90 AND 90 AND longitude BETWEEN -180 AND 180))
+);
+
+-- ================================
+-- Table: change_log
+-- One row per write to party or site, appended by row triggers in the writing transaction.
+-- The change feed (/api/v1/changes) reads it in (tx_id, seq) order below the visibility
+-- horizon pg_snapshot_xmin(pg_current_snapshot()), so no commit lands behind a handed-out token.
+-- ================================
+CREATE TABLE change_log (
+    seq BIGSERIAL PRIMARY KEY,
+    tx_id BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id UUID NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    version BIGINT,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX change_log_idx_tx_seq ON change_log (tx_id, seq);
+
+CREATE FUNCTION change_log_append() RETURNS TRIGGER AS $$
+DECLARE
+    changed_type VARCHAR(50);
+BEGIN
+    -- NEW.party_type only exists on party rows
+    IF TG_TABLE_NAME = 'site' THEN
+        changed_type := 'SITE';
+    ELSE
+        changed_type := NEW.party_type;
+    END IF;
+    INSERT INTO change_log (entity_type, entity_id, operation, version)
+    VALUES (changed_type,
+            NEW.id,
+            CASE WHEN TG_OP = 'INSERT' THEN 'CREATED'
+                 WHEN NEW.is_deleted THEN 'DELETED'
+                 ELSE 'UPDATED' END,
+            NEW.version);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER party_change_log AFTER INSERT OR UPDATE ON party
+FOR EACH ROW EXECUTE FUNCTION change_log_append();
+
+CREATE TRIGGER site_change_log AFTER INSERT OR UPDATE ON site
+FOR EACH ROW EXECUTE FUNCTION change_log_append();
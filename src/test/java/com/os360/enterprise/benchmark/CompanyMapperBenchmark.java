@@ -0,0 +1,85 @@
+package com.os360.enterprise.benchmark;
+
+import com.os360.enterprise.dto.CompanyResponse;
+import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.mapper.CompanyMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the explicit {@link CompanyMapper} with the former reflective
+ * {@link BeanUtils#copyProperties(Object, Object)} mapping.
+ * <p>
+ * Run after {@code mvn test-compile} with:
+ * <pre>
+ *     java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *         com.os360.enterprise.benchmark.CompanyMapperBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompanyMapperBenchmark {
+
+    private final CompanyMapper companyMapper = new CompanyMapper();
+
+    private Company company;
+
+    @Setup
+    public void setUp() {
+        Company parent = new Company();
+        parent.setId(UUID.randomUUID());
+
+        company = new Company();
+        company.setId(UUID.randomUUID());
+        company.setCode("OS360");
+        company.setName("Open Suite 360");
+        company.setCountryCode("US");
+        company.setExternalSystem("SAP");
+        company.setExternalId("12345");
+        company.setLogoUrl("https://example.com/logo.png");
+        company.setValidFrom(LocalDate.of(2025, 1, 1));
+        company.setValidTo(LocalDate.of(9999, 1, 1));
+        company.setActive(true);
+        company.setParentCompany(parent);
+    }
+
+    @Benchmark
+    public CompanyResponse explicitMapper() {
+        return companyMapper.toResponse(company).orElseThrow();
+    }
+
+    @Benchmark
+    public CompanyResponse reflectiveCopy() {
+        CompanyResponse dto = new CompanyResponse();
+        BeanUtils.copyProperties(company, dto);
+        return dto;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CompanyMapperBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
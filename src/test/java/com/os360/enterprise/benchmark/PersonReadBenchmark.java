@@ -0,0 +1,131 @@
+package com.os360.enterprise.benchmark;
+
+import com.os360.enterprise.EnterpriseServiceApplication;
+import com.os360.enterprise.dto.PersonResponse;
+import com.os360.enterprise.entity.Person;
+import com.os360.enterprise.enumurations.PartyType;
+import com.os360.enterprise.mapper.PersonMapper;
+import com.os360.enterprise.repository.PersonRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a person through the hydrated {@link Person} entity and
+ * {@link PersonMapper} in a read-write transaction (the former path) with the
+ * JPQL constructor projection in a read-only transaction.
+ * <p>
+ * Runs against the H2 "test" profile with 1,000 persons. The GC profiler reports
+ * the allocation per read ({@code gc.alloc.rate.norm}). Run after {@code mvn test-compile} with:
+ * <pre>
+ *     java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *         com.os360.enterprise.benchmark.PersonReadBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonReadBenchmark {
+
+    private static final int PERSONS = 1000;
+
+    private ConfigurableApplicationContext context;
+
+    private PersonRepository personRepository;
+
+    private PersonMapper personMapper;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    private final List<UUID> ids = new ArrayList<>();
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(EnterpriseServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        personRepository = context.getBean(PersonRepository.class);
+        personMapper = context.getBean(PersonMapper.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readWrite.executeWithoutResult(status -> {
+            for (int i = 0; i < PERSONS; i++) {
+                Person person = new Person();
+                person.setPartyType(PartyType.PERSON.name());
+                person.setFirstName("First" + i);
+                person.setLastName("Last" + i);
+                person.setCountryCode("US");
+                person.setActive(true);
+                person.setCreatedAt(OffsetDateTime.now());
+                ids.add(personRepository.save(person).getId());
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PersonResponse entityRead() {
+        UUID id = nextId();
+        return readWrite.execute(status -> personRepository.findByIdAndIsDeletedFalse(id)
+                .flatMap(personMapper::toResponse)
+                .orElseThrow());
+    }
+
+    @Benchmark
+    public PersonResponse projectionRead() {
+        UUID id = nextId();
+        return readOnly.execute(status -> personRepository.findResponseById(id).orElseThrow());
+    }
+
+    private UUID nextId() {
+        next = (next + 1) % PERSONS;
+        return ids.get(next);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PersonReadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
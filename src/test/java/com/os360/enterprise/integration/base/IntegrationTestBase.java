@@ -1,15 +1,20 @@
 package com.os360.enterprise.integration.base;
 
+import com.jayway.jsonpath.JsonPath;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.web.servlet.error.ErrorMvcAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import jakarta.transaction.Transactional;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
 /**
  * Base class for all integration tests.
  * Provides MockMvc, transactional rollback, and test profile setup.
@@ -40,4 +45,17 @@ public abstract class  IntegrationTestBase {
     protected <T> void clearRepository(org.springframework.data.repository.CrudRepository<T, ?> repository) {
         repository.deleteAll();
     }
+
+    /**
+     * Posts the JSON body to the given collection path, expects 201 Created
+     * and returns the ID of the created resource.
+     */
+    protected String create(String path, String json) throws Exception {
+        String response = mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.id");
+    }
 }
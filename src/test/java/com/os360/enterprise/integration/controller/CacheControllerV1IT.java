@@ -0,0 +1,60 @@
+package com.os360.enterprise.integration.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.os360.enterprise.integration.base.IntegrationTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class CacheControllerV1IT extends IntegrationTestBase {
+
+    @Test
+    void testCompanyCache() throws Exception {
+        String response = mockMvc.perform(post("/api/v1/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"code": "CACHE1", "name": "Cached Ltd", "countryCode": "US"}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String companyId = JsonPath.read(response, "$.id");
+
+        long hits = stat("hits");
+        long misses = stat("misses");
+
+        mockMvc.perform(get("/api/v1/companies/{id}", companyId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Cached Ltd"));
+        mockMvc.perform(get("/api/v1/companies/{id}", companyId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Cached Ltd"));
+
+        assertEquals(misses + 1, stat("misses"));
+        assertEquals(hits + 1, stat("hits"));
+
+        mockMvc.perform(patch("/api/v1/companies/{id}", companyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Cached Group\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/companies/{id}", companyId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Cached Group"));
+    }
+
+    private long stat(String counter) throws Exception {
+        String stats = mockMvc.perform(get("/api/v1/caches"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'company')].enabled").value(true))
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.<List<Object>>read(stats, "$[?(@.name == 'company')]." + counter).get(0))
+                .longValue();
+    }
+}
@@ -0,0 +1,76 @@
+package com.os360.enterprise.integration.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.os360.enterprise.integration.base.IntegrationTestBase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ChangeControllerV1IT extends IntegrationTestBase {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void testChangeFeed() throws Exception {
+        String companyId = create("/api/v1/companies", """
+                {"code": "CHG1", "name": "Change Feed Ltd", "countryCode": "US"}
+                """);
+        // The feed reads via JDBC, so pending inserts of the test transaction are flushed first
+        entityManager.flush();
+
+        String firstPoll = mockMvc.perform(get("/api/v1/changes").param("types", "company"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[?(@.id == '" + companyId + "')].operation").value("CREATED"))
+                .andExpect(jsonPath("$.changes[?(@.id == '" + companyId + "')].entity.code").value("CHG1"))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(firstPoll, "$.nextToken");
+
+        String personId = create("/api/v1/persons", """
+                {"firstName": "Ada", "lastName": "Lovelace"}
+                """);
+        mockMvc.perform(patch("/api/v1/companies/{id}", companyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Change Feed Group\"}"))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        String secondPoll = mockMvc.perform(get("/api/v1/changes").param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].type").value("PERSON"))
+                .andExpect(jsonPath("$.changes[0].id").value(personId))
+                .andExpect(jsonPath("$.changes[0].entity.lastName").value("Lovelace"))
+                .andExpect(jsonPath("$.changes[1].type").value("COMPANY"))
+                .andExpect(jsonPath("$.changes[1].operation").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[1].entity.name").value("Change Feed Group"))
+                .andReturn().getResponse().getContentAsString();
+        token = JsonPath.read(secondPoll, "$.nextToken");
+
+        mockMvc.perform(delete("/api/v1/persons/{id}", personId))
+                .andExpect(status().isNoContent());
+        entityManager.flush();
+
+        mockMvc.perform(get("/api/v1/changes").param("since", token).param("types", "site"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(0))
+                .andExpect(jsonPath("$.nextToken").value(token));
+
+        mockMvc.perform(get("/api/v1/changes").param("since", token).param("types", "person,site"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].operation").value("DELETED"));
+
+        mockMvc.perform(get("/api/v1/changes").param("types", "invoice"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/changes").param("since", "not-a-token"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,6 +1,7 @@
 package com.os360.enterprise.integration.controller;
 
 import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.enumurations.SiteType;
 import com.os360.enterprise.integration.base.IntegrationTestBase;
 import com.os360.enterprise.repository.CompanyRepository;
 import com.os360.enterprise.testutils.builder.CompanyTestBuilder;
@@ -10,15 +11,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import com.jayway.jsonpath.JsonPath;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 
+import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ActiveProfiles("test")
@@ -28,9 +43,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 class CompanyControllerV1IT extends IntegrationTestBase {
 
-    @Autowired
+    @MockitoSpyBean
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         clearRepository(companyRepository);
@@ -101,6 +122,534 @@ class CompanyControllerV1IT extends IntegrationTestBase {
                 // .andExpect(jsonPath("$.isSystemCompany").value(false));
     }
 
+    @Test
+    void testListCompaniesWithKeysetPagination() throws Exception {
+        CompanyTestBuilder.builder("OS371", "Alpha Holdings", "US").withRepository(companyRepository).buildAndPersist();
+        CompanyTestBuilder.builder("OS372", "Beta Holdings", "US").withRepository(companyRepository).buildAndPersist();
+        CompanyTestBuilder.builder("OS373", "Gamma Holdings", "LK").withRepository(companyRepository).buildAndPersist();
+
+        String firstPage = mockMvc.perform(get("/api/v1/companies")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Alpha Holdings"))
+                .andExpect(jsonPath("$.items[1].name").value("Beta Holdings"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        mockMvc.perform(get("/api/v1/companies")
+                        .param("limit", "2")
+                        .param("cursor", cursor)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Gamma Holdings"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(get("/api/v1/companies")
+                        .param("countryCode", "LK")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].code").value("OS373"));
+    }
+
+    @Test
+    void testCompanyHierarchyDescendantsAndAncestors() throws Exception {
+        String rootId = createCompany("GRP1", "Group Root", null);
+        String childId = createCompany("GRP2", "Group Child", rootId);
+        String grandChildId = createCompany("GRP3", "Group Grand Child", childId);
+
+        mockMvc.perform(get("/api/v1/companies/{id}/descendants", rootId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(childId))
+                .andExpect(jsonPath("$[0].depth").value(1))
+                .andExpect(jsonPath("$[1].id").value(grandChildId))
+                .andExpect(jsonPath("$[1].depth").value(2));
+
+        mockMvc.perform(get("/api/v1/companies/{id}/ancestors", grandChildId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(childId))
+                .andExpect(jsonPath("$[1].id").value(rootId));
+
+        // Move the grand child directly under the root
+        mockMvc.perform(patch("/api/v1/companies/{id}", grandChildId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"parentCompany\": \"%s\"}".formatted(rootId)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/companies/{id}/descendants", rootId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].depth").value(1))
+                .andExpect(jsonPath("$[1].depth").value(1));
+
+        // A company cannot be moved under its own descendant
+        mockMvc.perform(patch("/api/v1/companies/{id}", rootId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"parentCompany\": \"%s\"}".formatted(childId)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCreateCompanyConflicts() throws Exception {
+        String json = """
+                {
+                    "code": "%s",
+                    "name": "Open Suite 381",
+                    "countryCode": "US",
+                    "externalSystem": "SAP",
+                    "externalId": "%s",
+                    "parentCompany": %s
+                }
+                """;
+
+        mockMvc.perform(post("/api/v1/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.formatted("OS381", "100", "null")))
+                .andExpect(status().isCreated());
+
+        // Duplicate code
+        mockMvc.perform(post("/api/v1/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.formatted("OS381", "200", "null")))
+                .andExpect(status().isConflict());
+
+        // Duplicate external system and ID
+        mockMvc.perform(post("/api/v1/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.formatted("OS382", "100", "null")))
+                .andExpect(status().isConflict());
+
+        // Unknown parent company
+        mockMvc.perform(post("/api/v1/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.formatted("OS383", "300", "\"" + UUID.randomUUID() + "\"")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.metadata.parentCompany").exists());
+    }
+
+    @Test
+    void testCompanyETagConditionalRequests() throws Exception {
+        String id = createCompany("ETG1", "ETag Company", null);
+
+        String etag = mockMvc.perform(get("/api/v1/companies/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/companies/{id}", id)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        String newEtag = mockMvc.perform(patch("/api/v1/companies/{id}", id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"ETag Company Renamed\"}"))
+                .andExpect(status().isNoContent())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, newEtag);
+
+        // Stale ETag
+        mockMvc.perform(patch("/api/v1/companies/{id}", id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Lost Update\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/v1/companies/{id}", id)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("ETag Company Renamed"));
+    }
+
+    @Test
+    void testCompanyConditionalWriteFastPath() throws Exception {
+        String id = createCompany("CWF1", "Conditional Company", null);
+        String etag = mockMvc.perform(get("/api/v1/companies/{id}", id))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String newEtag = mockMvc.perform(patch("/api/v1/companies/{id}", id)
+                        .header("If-Match", etag)
+                        .header("Prefer", "return=representation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"logoUrl\": \"https://example.com/logo.png\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Preference-Applied", "return=representation"))
+                .andExpect(jsonPath("$.name").value("Conditional Company"))
+                .andExpect(jsonPath("$.logoUrl").value("https://example.com/logo.png"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, newEtag);
+
+        // Parent changes need the existing state and take the regular path
+        String parentId = createCompany("CWF0", "Conditional Parent", null);
+        mockMvc.perform(patch("/api/v1/companies/{id}", id)
+                        .header("If-Match", newEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"parentCompany\": \"" + parentId + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parentCompanyId").value(parentId));
+
+        mockMvc.perform(patch("/api/v1/companies/{id}", UUID.randomUUID())
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Missing\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSearchCompanies() throws Exception {
+        String acmeId = createCompany("ACM", "Acme Corporation", null);
+        createCompany("ZEN", "Zenith Acme Holdings", null);
+        createCompany("GLB", "Globex", null);
+
+        // Prefix match ranks before infix match
+        mockMvc.perform(get("/api/v1/companies/search").param("q", "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(acmeId))
+                .andExpect(jsonPath("$[1].code").value("ZEN"));
+
+        // Code prefix, short query
+        mockMvc.perform(get("/api/v1/companies/search").param("q", "gl"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Globex"));
+
+        // Fuzzy match on a typo
+        mockMvc.perform(get("/api/v1/companies/search").param("q", "Acme Corporaton"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(acmeId));
+
+        mockMvc.perform(get("/api/v1/companies/search").param("q", "acme").param("limit", "1"))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        mockMvc.perform(get("/api/v1/companies/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        // No trigrams to match on: rejected rather than answered differently per index
+        mockMvc.perform(get("/api/v1/companies/search").param("q", "&- ."))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCascadingSoftDelete() throws Exception {
+        String rootId = createCompany("CSD0", "Cascade Root", null);
+        String childId = createCompany("CSD1", "Cascade Child", rootId);
+        String otherId = createCompany("CSD2", "Cascade Other", null);
+        createSite(rootId, "S-ROOT");
+        createSite(childId, "S-CHILD-1");
+        createSite(childId, "S-CHILD-2");
+        createSite(otherId, "S-OTHER");
+
+        mockMvc.perform(delete("/api/v1/companies/{id}/cascade", childId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.companiesDeleted").value(1))
+                .andExpect(jsonPath("$.sitesDeleted").value(2));
+
+        // Descendants already deleted are skipped; their sites are already gone too
+        mockMvc.perform(delete("/api/v1/companies/{id}/cascade", rootId)
+                        .param("includeDescendants", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.companiesDeleted").value(1))
+                .andExpect(jsonPath("$.sitesDeleted").value(1));
+
+        mockMvc.perform(delete("/api/v1/companies/{id}/cascade", rootId))
+                .andExpect(status().isGone());
+
+        // Unrelated companies keep their sites
+        mockMvc.perform(delete("/api/v1/companies/{id}/cascade", otherId))
+                .andExpect(jsonPath("$.sitesDeleted").value(1));
+    }
+
+    @Test
+    void testSingleSystemCompany() throws Exception {
+        String json = """
+                {
+                    "code": "%s",
+                    "name": "System Company",
+                    "countryCode": "US",
+                    "systemCompany": true
+                }
+                """;
+
+        mockMvc.perform(post("/api/v1/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.formatted("SYS1")))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/v1/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.formatted("SYS2")))
+                .andExpect(status().isConflict());
+
+        String otherId = createCompany("SYS3", "Other Company", null);
+        mockMvc.perform(patch("/api/v1/companies/{id}", otherId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"systemCompany\": true}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testImportCompaniesNdjson() throws Exception {
+        String existingId = createCompany("IMP0", "Existing Parent", null);
+
+        // Children listed before their parent are ordered within the chunk
+        String ndjson = """
+                {"code": "IMP2", "name": "Import Child", "countryCode": "US", "parentCompanyCode": "IMP1"}
+                {"code": "IMP1", "name": "Import Parent", "countryCode": "US", "parentCompanyCode": "IMP0"}
+                {"code": "IMP1", "name": "Duplicate", "countryCode": "US"}
+                {"code": "IMP3", "name": "Bad Country", "countryCode": "XX"}
+                {"code": "IMP4", "name": "Orphan", "countryCode": "US", "parentCompanyCode": "NOPE"}
+                not json
+                """;
+
+        mockMvc.perform(post("/api/v1/companies/import")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(6))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(4))
+                .andExpect(jsonPath("$.errors[*].line").value(containsInAnyOrder(3, 4, 5, 6)));
+
+        mockMvc.perform(get("/api/v1/companies/{id}/descendants", existingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].code").value("IMP1"))
+                .andExpect(jsonPath("$[1].code").value("IMP2"))
+                .andExpect(jsonPath("$[1].depth").value(2));
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void testImportReplaysFailedChunkParentsFirst() throws Exception {
+        // Runs without the test transaction so that the failed chunk really rolls back
+        try {
+            createCompany("IMPDUP", "Existing Company", null);
+            // Hide the existing code from the probe, as a concurrent insert would, so the chunk fails at the database
+            doReturn(List.of()).when(companyRepository).findIdsByCodeIn(anyCollection());
+
+            String ndjson = """
+                    {"code": "IMPC", "name": "Replay Child", "countryCode": "NZ", "parentCompanyCode": "IMPP"}
+                    {"code": "IMPP", "name": "Replay Parent", "countryCode": "NZ"}
+                    {"code": "IMPDUP", "name": "Duplicate", "countryCode": "NZ"}
+                    """;
+
+            mockMvc.perform(post("/api/v1/companies/import")
+                            .contentType("application/x-ndjson")
+                            .content(ndjson))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imported").value(2))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.errors[0].line").value(3))
+                    .andExpect(jsonPath("$.errors[0].code").value("IMPDUP"));
+
+            String imported = mockMvc.perform(get("/api/v1/companies")
+                            .param("countryCode", "NZ"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(2))
+                    .andExpect(jsonPath("$.items[0].code").value("IMPC"))
+                    .andExpect(jsonPath("$.items[1].code").value("IMPP"))
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals(JsonPath.<String>read(imported, "$.items[1].id"),
+                    JsonPath.read(imported, "$.items[0].parentCompanyId"));
+        } finally {
+            List<UUID> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM company WHERE code IN ('IMPDUP', 'IMPP', 'IMPC')", UUID.class);
+            for (UUID id : ids) {
+                jdbcTemplate.update("DELETE FROM company_closure WHERE descendant_id = ?", id);
+                jdbcTemplate.update("DELETE FROM change_log WHERE entity_id = ?", id);
+                jdbcTemplate.update("DELETE FROM company WHERE id = ?", id);
+                jdbcTemplate.update("DELETE FROM party WHERE id = ?", id);
+            }
+        }
+    }
+
+    @Test
+    void testImportCompaniesCsv() throws Exception {
+        String csv = """
+                code,name,countryCode,parentCompanyCode,validFrom
+                CSV1,"Csv Holdings, Inc.",LK,,2025-01-01
+                CSV2,Csv Subsidiary,LK,CSV1,
+                CSV3,Too Few Fields
+                """;
+
+        mockMvc.perform(post("/api/v1/companies/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(4));
+
+        mockMvc.perform(get("/api/v1/companies")
+                        .param("countryCode", "LK"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Csv Holdings, Inc."))
+                .andExpect(jsonPath("$.items[0].validFrom").value("2025-01-01"));
+
+        mockMvc.perform(post("/api/v1/companies/import")
+                        .contentType("text/csv")
+                        .content("code,unknownColumn\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCompanySites() throws Exception {
+        String companyId = createCompany("SITES1", "Retail Ltd", null);
+        createSite(companyId, "B");
+        createSite(companyId, "A");
+        createSite(companyId, "C");
+        mockMvc.perform(post("/api/v1/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"companyId": "%s", "code": "D", "name": "Site D", "siteType": "WAREHOUSE"}
+                                """.formatted(companyId)))
+                .andExpect(status().isCreated());
+
+        String firstPage = mockMvc.perform(get("/api/v1/companies/{id}/sites", companyId)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].code").value("A"))
+                .andExpect(jsonPath("$.items[1].code").value("B"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/companies/{id}/sites", companyId)
+                        .param("limit", "2")
+                        .param("cursor", JsonPath.<String>read(firstPage, "$.nextCursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].code").value("C"))
+                .andExpect(jsonPath("$.items[1].code").value("D"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(get("/api/v1/companies/{id}/sites", companyId)
+                        .param("siteType", "WAREHOUSE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].code").value("D"))
+                .andExpect(jsonPath("$.items[0].siteType").value("WAREHOUSE"));
+        mockMvc.perform(get("/api/v1/companies/{id}/sites", companyId)
+                        .param("deleted", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+
+        mockMvc.perform(get("/api/v1/companies/{id}/sites/by-code/{code}", companyId, "C"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.code").value("C"))
+                .andExpect(jsonPath("$.companyId").value(companyId));
+        mockMvc.perform(get("/api/v1/companies/{id}/sites/by-code/{code}", companyId, "Z"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/companies/{id}/sites", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCompanyExpand() throws Exception {
+        String parentId = createCompany("EXP0", "Expand Holding", null);
+        String childId = createCompany("EXP1", "Expand Child A", parentId);
+        String otherChildId = createCompany("EXP2", "Expand Child B", parentId);
+        createZonedSite(childId, "B", "Europe/London");
+        createZonedSite(childId, "A", null);
+        createZonedSite(otherChildId, "A", "Asia/Colombo");
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(get("/api/v1/companies/{id}", childId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.sites").doesNotExist())
+                .andExpect(jsonPath("$.parent").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/companies/{id}", childId)
+                        .param("expand", "sites,timeZones,parent"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.parent.id").value(parentId))
+                .andExpect(jsonPath("$.parent.code").value("EXP0"))
+                .andExpect(jsonPath("$.sites.length()").value(2))
+                .andExpect(jsonPath("$.sites[0].code").value("A"))
+                .andExpect(jsonPath("$.sites[1].code").value("B"))
+                .andExpect(jsonPath("$.timeZones.length()").value(1))
+                .andExpect(jsonPath("$.timeZones[0].timeZone").value("Europe/London"))
+                .andExpect(jsonPath("$.timeZones[0].default").value(true));
+
+        // A page costs one query plus one per expanded part, whatever its size
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            mockMvc.perform(get("/api/v1/companies")
+                            .param("expand", "sites", "timeZones", "parent"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(3))
+                    .andExpect(jsonPath("$.items[?(@.id == '%s')].parent.id".formatted(otherChildId)).value(parentId))
+                    .andExpect(jsonPath("$.items[?(@.id == '%s')].sites[0].code".formatted(otherChildId)).value("A"))
+                    .andExpect(jsonPath("$.items[?(@.id == '%s')].timeZones[0].timeZone".formatted(otherChildId))
+                            .value("Asia/Colombo"))
+                    .andExpect(jsonPath("$.items[?(@.id == '%s')].sites.length()".formatted(parentId)).value(0));
+            assertEquals(4, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        mockMvc.perform(get("/api/v1/companies/{id}", childId)
+                        .param("expand", "persons"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String createZonedSite(String companyId, String code, String timeZone) throws Exception {
+        return JsonPath.read(mockMvc.perform(post("/api/v1/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"companyId": "%s", "code": "%s", "name": "Site %s", "siteType": "BRANCH", "timeZone": %s}
+                                """.formatted(companyId, code, code, timeZone == null ? "null" : "\"" + timeZone + "\"")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+    }
+
+    private void createSite(String companyId, String code) throws Exception {
+        String json = """
+                {
+                    "companyId": "%s",
+                    "code": "%s",
+                    "name": "Site %s",
+                    "siteType": "%s"
+                }
+                """.formatted(companyId, code, code, SiteType.values()[0].name());
+        mockMvc.perform(post("/api/v1/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated());
+    }
+
+    private String createCompany(String code, String name, String parentId) throws Exception {
+        String json = """
+                {
+                    "code": "%s",
+                    "name": "%s",
+                    "countryCode": "US",
+                    "parentCompany": %s
+                }
+                """.formatted(code, name, parentId == null ? "null" : "\"" + parentId + "\"");
+
+        String response = mockMvc.perform(post("/api/v1/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.id");
+    }
+
 //    @Test
 //    void testGetCompany_NotFound() throws Exception {
 //        // given: random UUID that doesn’t exist
@@ -0,0 +1,104 @@
+package com.os360.enterprise.integration.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.os360.enterprise.integration.base.IntegrationTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PartyRoleControllerV1IT extends IntegrationTestBase {
+
+    @Test
+    void testPartyRoles() throws Exception {
+        String buyer = create("/api/v1/companies", """
+                {"code": "ROLE1", "name": "Buyer Ltd", "countryCode": "GB"}
+                """);
+        String acme = create("/api/v1/companies", """
+                {"code": "ROLE2", "name": "Acme Ltd", "countryCode": "GB"}
+                """);
+        String ada = create("/api/v1/persons", """
+                {"firstName": "Ada", "lastName": "Lovelace", "countryCode": "GB"}
+                """);
+
+        String supplierRole = create("/api/v1/party-roles", """
+                {"partyId": "%s", "companyId": "%s", "roleType": "SUPPLIER", "referenceCode": "SUP-1"}
+                """.formatted(acme, buyer));
+        create("/api/v1/party-roles", """
+                {"partyId": "%s", "companyId": "%s", "roleType": "SUPPLIER"}
+                """.formatted(ada, buyer));
+        create("/api/v1/party-roles", """
+                {"partyId": "%s", "companyId": "%s", "roleType": "EMPLOYEE"}
+                """.formatted(ada, buyer));
+        create("/api/v1/party-roles", """
+                {"partyId": "%s", "companyId": "%s", "roleType": "CUSTOMER"}
+                """.formatted(ada, acme));
+
+        mockMvc.perform(get("/api/v1/party-roles/{id}", supplierRole))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.partyId").value(acme))
+                .andExpect(jsonPath("$.roleType").value("SUPPLIER"))
+                .andExpect(jsonPath("$.referenceCode").value("SUP-1"))
+                .andExpect(jsonPath("$.active").value(true));
+
+        // A party holds each role once per company
+        mockMvc.perform(post("/api/v1/party-roles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"partyId": "%s", "companyId": "%s", "roleType": "SUPPLIER"}
+                                """.formatted(acme, buyer)))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/v1/party-roles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"partyId": "%s", "companyId": "%s", "roleType": "VENDOR"}
+                                """.formatted(acme, ada)))
+                .andExpect(status().isBadRequest());
+
+        // Suppliers of the buyer, one per page
+        String firstPage = mockMvc.perform(get("/api/v1/party-roles")
+                        .param("companyId", buyer)
+                        .param("roleType", "SUPPLIER")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String firstPartyId = JsonPath.read(firstPage, "$.items[0].partyId");
+        mockMvc.perform(get("/api/v1/party-roles")
+                        .param("companyId", buyer)
+                        .param("roleType", "SUPPLIER")
+                        .param("limit", "1")
+                        .param("cursor", JsonPath.<String>read(firstPage, "$.nextCursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].partyId").value(firstPartyId.equals(ada) ? acme : ada))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // Roles of Ada, ordered by role: CUSTOMER, EMPLOYEE, SUPPLIER
+        String rolesPage = mockMvc.perform(get("/api/v1/party-roles")
+                        .param("partyId", ada)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].roleType").value("CUSTOMER"))
+                .andExpect(jsonPath("$.items[0].partyType").value("PERSON"))
+                .andExpect(jsonPath("$.items[1].roleType").value("EMPLOYEE"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/party-roles")
+                        .param("partyId", ada)
+                        .param("limit", "2")
+                        .param("cursor", JsonPath.<String>read(rolesPage, "$.nextCursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].roleType").value("SUPPLIER"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(delete("/api/v1/party-roles/{id}", supplierRole))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/party-roles/{id}", supplierRole))
+                .andExpect(status().isNotFound());
+    }
+}
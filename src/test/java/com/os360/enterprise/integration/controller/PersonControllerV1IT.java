@@ -0,0 +1,466 @@
+package com.os360.enterprise.integration.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.os360.enterprise.dto.PersonExportResponse;
+import com.os360.enterprise.enumurations.SiteType;
+import com.os360.enterprise.integration.base.IntegrationTestBase;
+import com.os360.enterprise.service.PersonExportService;
+import com.os360.enterprise.service.PersonService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PersonControllerV1IT extends IntegrationTestBase {
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonExportService personExportService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void testPersonConditionalWrites() throws Exception {
+        String id = createPerson("Ada", "Lovelace");
+        String etag = mockMvc.perform(get("/api/v1/persons/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        String newEtag = mockMvc.perform(patch("/api/v1/persons/{id}", id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"preferredName\": \"Countess\", \"active\": true}"))
+                .andExpect(status().isNoContent())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, newEtag);
+
+        // Stale ETag
+        mockMvc.perform(patch("/api/v1/persons/{id}", id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"preferredName\": \"Lost Update\", \"active\": true}"))
+                .andExpect(status().isPreconditionFailed());
+
+        String putEtag = mockMvc.perform(put("/api/v1/persons/{id}", id)
+                        .header("If-Match", newEtag)
+                        .header("Prefer", "return=representation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName": "Augusta Ada", "lastName": "King", "countryCode": "GB"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Preference-Applied", "return=representation"))
+                .andExpect(jsonPath("$.firstName").value("Augusta Ada"))
+                .andExpect(jsonPath("$.preferredName").value("Countess"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(newEtag, putEtag);
+        mockMvc.perform(put("/api/v1/persons/{id}", id)
+                        .header("If-Match", newEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName": "Ada", "lastName": "Lovelace"}
+                                """))
+                .andExpect(status().isPreconditionFailed());
+
+        // A deleted person is not found, whatever its version
+        mockMvc.perform(delete("/api/v1/persons/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(patch("/api/v1/persons/{id}", id)
+                        .header("If-Match", putEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"preferredName\": \"Deleted\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testListPersonsKeyset() throws Exception {
+        createPerson("Ada", "Lovelace");
+        createPerson("Alan", "Turing");
+        createPerson("Grace", "Hopper");
+
+        String firstPage = mockMvc.perform(get("/api/v1/persons").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].lastName").value("Hopper"))
+                .andExpect(jsonPath("$.items[1].lastName").value("Lovelace"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+        String hopperId = JsonPath.read(firstPage, "$.items[0].id");
+
+        mockMvc.perform(get("/api/v1/persons/{id}", hopperId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Grace"))
+                .andExpect(jsonPath("$.countryCode").value("US"));
+
+        mockMvc.perform(get("/api/v1/persons").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].lastName").value("Turing"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(get("/api/v1/persons").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamPersonsNdjson() throws Exception {
+        createPerson("Ada", "Lovelace");
+        createPerson("Alan", "Turing");
+
+        // The streaming body runs on another thread outside the test transaction,
+        // so the service is called directly (after a flush, as it reads via JDBC)
+        entityManager.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        personService.streamNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Lovelace", JsonPath.read(lines[0], "$.lastName"));
+        assertEquals("Turing", JsonPath.read(lines[1], "$.lastName"));
+
+        String contentType = mockMvc.perform(get("/api/v1/persons").accept("application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentType();
+        assertTrue(contentType.startsWith("application/x-ndjson"));
+    }
+
+    @Test
+    void testUpsertPersons() throws Exception {
+        String firstLoad = """
+                {"externalSystem": "HR", "externalId": "E1", "firstName": "Ada", "lastName": "Lovelace", "countryCode": "GB"}
+                {"externalSystem": "HR", "externalId": "E2", "firstName": "Alan", "lastName": "Turing"}
+                {"externalSystem": "HR", "firstName": "No", "lastName": "Key"}
+                {"externalSystem": "HR", "externalId": "E2", "firstName": "Alan", "lastName": "Turing"}
+                """;
+        mockMvc.perform(post("/api/v1/persons/upsert")
+                        .contentType("application/x-ndjson")
+                        .content(firstLoad))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(4))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[1].line").value(4))
+                .andExpect(jsonPath("$.errors[1].externalId").value("E2"));
+
+        String secondLoad = """
+                {"externalSystem": "HR", "externalId": "E1", "firstName": "Ada", "lastName": "Lovelace", "countryCode": "GB"}
+                {"externalSystem": "HR", "externalId": "E2", "firstName": "Alan", "lastName": "Turing", "middleName": "Mathison"}
+                {"externalSystem": "HR", "externalId": "E3", "firstName": "Grace", "lastName": "Hopper"}
+                """;
+        mockMvc.perform(post("/api/v1/persons/upsert")
+                        .contentType("application/x-ndjson")
+                        .content(secondLoad))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.unchanged").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        mockMvc.perform(get("/api/v1/persons"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.items[0].lastName").value("Hopper"))
+                .andExpect(jsonPath("$.items[1].version").value(0))
+                .andExpect(jsonPath("$.items[2].middleName").value("Mathison"))
+                .andExpect(jsonPath("$.items[2].version").value(1));
+
+        // Errors found while writing and while validating fields are reported in line order
+        create("/api/v1/companies", """
+                {"code": "UPS1", "name": "Upsert Ltd", "countryCode": "GB", "externalSystem": "HR", "externalId": "C1"}
+                """);
+        String thirdLoad = """
+                {"externalSystem": "HR", "externalId": "C1", "firstName": "Not", "lastName": "Company"}
+                {"externalSystem": "HR", "externalId": "E4", "firstName": "Bad", "lastName": "Country", "countryCode": "XX"}
+                """;
+        mockMvc.perform(post("/api/v1/persons/upsert")
+                        .contentType("application/x-ndjson")
+                        .content(thirdLoad))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value("External ID is used by a company"))
+                .andExpect(jsonPath("$.errors[1].line").value(2));
+    }
+
+    @Test
+    void testExportPersons() throws Exception {
+        createPerson("Ada", "Lovelace");
+        createPerson("Alan", "Turing, Jr.");
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        personExportService.export(personExportService.options("csv", "id,lastName", false), null, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,lastName", lines[0]);
+        assertTrue(lines[1].endsWith(",Lovelace") || lines[1].endsWith(",\"Turing, Jr.\""));
+
+        // Resuming after the first row returns only the second, without a header
+        UUID firstId = UUID.fromString(lines[1].substring(0, lines[1].indexOf(',')));
+        out = new ByteArrayOutputStream();
+        personExportService.export(personExportService.options("NDJSON", "id,firstName", true), firstId, out);
+        String[] json = gunzip(new ByteArrayInputStream(out.toByteArray())).split("\n");
+        assertEquals(1, json.length);
+        assertEquals(lines[2].substring(0, lines[2].indexOf(',')), JsonPath.read(json[0], "$.id"));
+
+        String fileName = "persons-it-" + UUID.randomUUID() + ".ndjson.gz";
+        PersonExportResponse export = personExportService.exportToFile(fileName,
+                personExportService.options("ndjson", null, true), false);
+        assertEquals(2, export.getRows());
+        Path file = Path.of(System.getProperty("java.io.tmpdir"), "os360-exports", fileName);
+        try (InputStream in = Files.newInputStream(file)) {
+            String[] fileLines = gunzip(in).split("\n");
+            assertEquals(2, fileLines.length);
+            assertEquals(export.getCheckpoint().toString(), JsonPath.read(fileLines[1], "$.id"));
+        }
+
+        // Nothing is left after the final checkpoint, so a resumed run keeps the file as is
+        PersonExportResponse resumed = personExportService.exportToFile(fileName,
+                personExportService.options("ndjson", null, true), true);
+        assertEquals(0, resumed.getRows());
+        try (InputStream in = Files.newInputStream(file)) {
+            assertEquals(2, gunzip(in).split("\n").length);
+        }
+        Files.delete(file);
+        Files.delete(file.resolveSibling(fileName + ".checkpoint"));
+
+        mockMvc.perform(get("/api/v1/persons/export").param("columns", "salary"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testPersonSiteAssignments() throws Exception {
+        String ada = createPerson("Ada", "Lovelace");
+        String alan = createPerson("Alan", "Turing");
+        String companyId = create("/api/v1/companies", """
+                {"code": "PSA1", "name": "Assignment Ltd", "countryCode": "GB"}
+                """);
+        String hq = create("/api/v1/sites", """
+                {"companyId": "%s", "code": "HQ", "name": "Head Office", "siteType": "%s"}
+                """.formatted(companyId, SiteType.values()[0].name()));
+        String lab = create("/api/v1/sites", """
+                {"companyId": "%s", "code": "LAB", "name": "Lab", "siteType": "%s"}
+                """.formatted(companyId, SiteType.values()[0].name()));
+        // Assignments are written via JDBC, so pending inserts of the test transaction are flushed first
+        entityManager.flush();
+
+        mockMvc.perform(post("/api/v1/person-site-assignments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"assign": [
+                                    {"personId": "%1$s", "siteId": "%3$s", "default": true},
+                                    {"personId": "%1$s", "siteId": "%4$s"},
+                                    {"personId": "%2$s", "siteId": "%3$s"}
+                                ]}
+                                """.formatted(ada, alan, hq, lab)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assigned").value(3))
+                .andExpect(jsonPath("$.alreadyAssigned").value(0))
+                .andExpect(jsonPath("$.defaultsChanged").value(1));
+
+        String firstPage = mockMvc.perform(get("/api/v1/sites/{id}/persons", hq).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String firstPersonId = JsonPath.read(firstPage, "$.items[0].personId");
+        mockMvc.perform(get("/api/v1/sites/{id}/persons", hq)
+                        .param("limit", "1")
+                        .param("cursor", JsonPath.<String>read(firstPage, "$.nextCursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].personId").value(firstPersonId.equals(ada) ? alan : ada))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // Switching the default clears the previous one; re-assigning is a no-op
+        mockMvc.perform(post("/api/v1/person-site-assignments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"assign": [{"personId": "%1$s", "siteId": "%3$s", "default": true}],
+                                 "unassign": [{"personId": "%2$s", "siteId": "%4$s"}]}
+                                """.formatted(ada, alan, lab, hq)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assigned").value(0))
+                .andExpect(jsonPath("$.alreadyAssigned").value(1))
+                .andExpect(jsonPath("$.unassigned").value(1))
+                .andExpect(jsonPath("$.defaultsChanged").value(1));
+
+        mockMvc.perform(get("/api/v1/persons/{id}/sites", ada))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[?(@.siteId == '" + lab + "')].default").value(true))
+                .andExpect(jsonPath("$.items[?(@.siteId == '" + hq + "')].default").value(false));
+        mockMvc.perform(get("/api/v1/sites/{id}/persons", hq))
+                .andExpect(jsonPath("$.items.length()").value(1));
+
+        mockMvc.perform(post("/api/v1/person-site-assignments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"assign": [{"personId": "%s", "siteId": "%s"}]}
+                                """.formatted(UUID.randomUUID(), hq)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/persons/{id}/sites", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testDuplicateDetection() throws Exception {
+        String ada = create("/api/v1/persons", """
+                {"firstName": "Ada", "lastName": "Lovelace", "dateOfBirth": "1815-12-10", "countryCode": "GB"}
+                """);
+        create("/api/v1/persons", """
+                {"firstName": "Alan", "lastName": "Turing", "dateOfBirth": "1912-06-23", "countryCode": "GB"}
+                """);
+        String lookalike = """
+                {"firstName": "Adah", "lastName": "Lovelase", "dateOfBirth": "1815-12-10", "countryCode": "GB"}
+                """;
+
+        mockMvc.perform(post("/api/v1/persons/duplicates/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lookalike))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(ada));
+        mockMvc.perform(post("/api/v1/persons")
+                        .param("checkDuplicates", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lookalike))
+                .andExpect(status().isConflict());
+
+        // Without the check the duplicate is created, and the scan finds it
+        String adah = create("/api/v1/persons", lookalike);
+        mockMvc.perform(get("/api/v1/persons/duplicates"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clusterCount").value(1))
+                .andExpect(jsonPath("$.clusters[0].persons.length()").value(2))
+                .andExpect(jsonPath("$.clusters[0].persons[?(@.id == '" + adah + "')]").exists());
+
+        mockMvc.perform(post("/api/v1/persons/duplicates/index"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.persons").value(3))
+                .andExpect(jsonPath("$.keys").value(9));
+        mockMvc.perform(get("/api/v1/persons/duplicates").param("minScore", "1.5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String gunzip(InputStream in) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(in)) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testUpcomingBirthdays() throws Exception {
+        String december = createPersonBornOn("Ada", "1990-12-30");
+        String january = createPersonBornOn("Alan", "1985-01-02");
+        String leapDay = createPersonBornOn("Grace", "2000-02-29");
+        createPersonBornOn("Edsger", "1970-06-15");
+
+        // Window wrapping into the next year, one birthday per page
+        String firstPage = mockMvc.perform(get("/api/v1/persons/birthdays")
+                        .param("from", "2026-12-28")
+                        .param("days", "7")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].personId").value(december))
+                .andExpect(jsonPath("$.items[0].nextBirthday").value("2026-12-30"))
+                .andExpect(jsonPath("$.items[0].daysUntil").value(2))
+                .andExpect(jsonPath("$.items[0].turningAge").value(36))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/persons/birthdays")
+                        .param("from", "2026-12-28")
+                        .param("days", "7")
+                        .param("limit", "1")
+                        .param("cursor", JsonPath.<String>read(firstPage, "$.nextCursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].personId").value(january))
+                .andExpect(jsonPath("$.items[0].nextBirthday").value("2027-01-02"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // Leap day births are celebrated on 28 February in common years
+        mockMvc.perform(get("/api/v1/persons/birthdays")
+                        .param("from", "2027-02-20")
+                        .param("days", "9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].personId").value(leapDay))
+                .andExpect(jsonPath("$.items[0].nextBirthday").value("2027-02-28"));
+
+        // A full year lists every birthday once
+        mockMvc.perform(get("/api/v1/persons/birthdays")
+                        .param("from", "2026-06-16")
+                        .param("days", "366"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(4))
+                .andExpect(jsonPath("$.items[3].nextBirthday").value("2027-06-15"));
+
+        String companyId = create("/api/v1/companies", """
+                {"code": "BDAY1", "name": "Birthday Ltd", "countryCode": "GB"}
+                """);
+        String siteId = create("/api/v1/sites", """
+                {"companyId": "%s", "code": "HQ", "name": "Head Office", "siteType": "%s"}
+                """.formatted(companyId, SiteType.values()[0].name()));
+        entityManager.flush();
+        mockMvc.perform(post("/api/v1/person-site-assignments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"assign": [{"personId": "%s", "siteId": "%s"}]}
+                                """.formatted(january, siteId)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/persons/birthdays")
+                        .param("from", "2026-12-28")
+                        .param("days", "7")
+                        .param("companyId", companyId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].personId").value(january));
+    }
+
+    private String createPersonBornOn(String firstName, String dateOfBirth) throws Exception {
+        return create("/api/v1/persons", """
+                {"firstName": "%s", "lastName": "Birthday", "dateOfBirth": "%s", "countryCode": "GB"}
+                """.formatted(firstName, dateOfBirth));
+    }
+
+    private String createPerson(String firstName, String lastName) throws Exception {
+        String json = """
+                {
+                    "firstName": "%s",
+                    "lastName": "%s",
+                    "countryCode": "US"
+                }
+                """.formatted(firstName, lastName);
+        String response = mockMvc.perform(post("/api/v1/persons")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.id");
+    }
+}
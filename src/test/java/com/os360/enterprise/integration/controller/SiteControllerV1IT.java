@@ -0,0 +1,291 @@
+package com.os360.enterprise.integration.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.os360.enterprise.integration.base.IntegrationTestBase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class SiteControllerV1IT extends IntegrationTestBase {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void testDefaultSiteSwitch() throws Exception {
+        String companyId = createCompany("DEF1", "Default Ltd");
+        String first = JsonPath.read(mockMvc.perform(post("/api/v1/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"companyId": "%s", "code": "HQ", "name": "Head Office", "siteType": "HEAD_OFFICE", "default": true}
+                                """.formatted(companyId)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.default").value(true))
+                .andReturn().getResponse().getContentAsString(), "$.id");
+        String second = JsonPath.read(mockMvc.perform(post("/api/v1/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"companyId": "%s", "code": "BR", "name": "Branch", "siteType": "BRANCH", "default": true}
+                                """.formatted(companyId)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.default").value(true))
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        // Creating the second default cleared the first
+        mockMvc.perform(get("/api/v1/sites/{id}", first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.default").value(false));
+
+        mockMvc.perform(post("/api/v1/sites/{id}/default", first))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.default").value(true));
+        mockMvc.perform(get("/api/v1/sites/{id}", second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.default").value(false));
+
+        // Switching to the current default is a no-op
+        mockMvc.perform(post("/api/v1/sites/{id}/default", first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.default").value(true));
+
+        mockMvc.perform(post("/api/v1/sites/{id}/default", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/v1/sites/{id}", second))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/v1/sites/{id}/default", second))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void testNearbySites() throws Exception {
+        String companyId = createCompany("GEO1", "Geo Ltd");
+        String westminster = createLocatedSite(companyId, "WM", "SERVICE_CENTER", 51.5034, -0.1276);
+        String heathrow = createLocatedSite(companyId, "LHR", "SERVICE_CENTER", 51.4700, -0.4543);
+        String croydon = createLocatedSite(companyId, "CRY", "WAREHOUSE", 51.3762, -0.0982);
+        String paris = createLocatedSite(companyId, "PAR", "SERVICE_CENTER", 48.8566, 2.3522);
+
+        mockMvc.perform(get("/api/v1/sites/{id}/address", paris))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.latitude").value(48.8566))
+                .andExpect(jsonPath("$.locality").value("City PAR"));
+
+        // From the City of London: nearest first, across all types
+        mockMvc.perform(get("/api/v1/sites/nearby")
+                        .param("lat", "51.5155")
+                        .param("lon", "-0.0922")
+                        .param("k", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].siteId").value(westminster))
+                .andExpect(jsonPath("$[1].siteId").value(croydon))
+                .andExpect(jsonPath("$[2].siteId").value(heathrow))
+                .andExpect(jsonPath("$[0].distanceKm").value(closeTo(2.80, 0.05)));
+
+        // Type filter reaches across cells to the far site
+        mockMvc.perform(get("/api/v1/sites/nearby")
+                        .param("lat", "51.3762")
+                        .param("lon", "-0.0982")
+                        .param("type", "SERVICE_CENTER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].siteId").value(westminster))
+                .andExpect(jsonPath("$[2].siteId").value(paris))
+                .andExpect(jsonPath("$[2].distanceKm").value(closeTo(330.1, 0.5)));
+
+        // Deleted sites drop out of the index
+        mockMvc.perform(delete("/api/v1/sites/{id}", westminster))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/sites/nearby")
+                        .param("lat", "51.5155")
+                        .param("lon", "-0.0922")
+                        .param("type", "SERVICE_CENTER")
+                        .param("k", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].siteId").value(heathrow));
+
+        mockMvc.perform(get("/api/v1/sites/nearby")
+                        .param("lat", "91")
+                        .param("lon", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/v1/sites/{id}/address", croydon)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"latitude": 51.0}
+                                """))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSiteLocalTimes() throws Exception {
+        String companyId = createCompany("TZ1", "Zones Ltd");
+        String colombo = createZonedSite(companyId, "CMB", "Asia/Colombo");
+        String newYork = createZonedSite(companyId, "NYC", "America/New_York");
+        String defaulted = createZonedSite(companyId, "DEF", null);
+
+        mockMvc.perform(post("/api/v1/sites/local-times")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"siteIds": ["%s", "%s", "%s"],
+                                 "instants": ["2026-01-15T12:00:00Z", "2026-07-15T12:00:00Z"]}
+                                """.formatted(colombo, newYork, defaulted)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(6))
+                .andExpect(jsonPath("$[0].siteId").value(colombo))
+                .andExpect(jsonPath("$[0].timeZone").value("Asia/Colombo"))
+                .andExpect(jsonPath("$[0].localDateTime").value("2026-01-15T17:30:00"))
+                .andExpect(jsonPath("$[0].utcOffset").value("+05:30"))
+                .andExpect(jsonPath("$[2].siteId").value(newYork))
+                .andExpect(jsonPath("$[2].localDateTime").value("2026-01-15T07:00:00"))
+                .andExpect(jsonPath("$[2].utcOffset").value("-05:00"))
+                .andExpect(jsonPath("$[2].daylightSaving").value(false))
+                .andExpect(jsonPath("$[3].localDateTime").value("2026-07-15T08:00:00"))
+                .andExpect(jsonPath("$[3].utcOffset").value("-04:00"))
+                .andExpect(jsonPath("$[3].daylightSaving").value(true))
+                // The company's first zone became its default
+                .andExpect(jsonPath("$[4].timeZone").value("Asia/Colombo"));
+
+        // A company without time zones gets a UTC default
+        String otherCompanyId = createCompany("TZ2", "Other Zones Ltd");
+        String utc = createZonedSite(otherCompanyId, "UTC", null);
+        mockMvc.perform(post("/api/v1/sites/local-times")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"siteIds": ["%s"], "instants": ["2026-07-15T12:00:00Z"]}
+                                """.formatted(utc)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].timeZone").value("UTC"))
+                .andExpect(jsonPath("$[0].localDateTime").value("2026-07-15T12:00:00"))
+                .andExpect(jsonPath("$[0].utcOffset").value("Z"));
+
+        // Without instants: the current local time of each site
+        mockMvc.perform(post("/api/v1/sites/local-times")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"siteIds": ["%s"]}
+                                """.formatted(colombo)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].utcOffset").value("+05:30"));
+
+        mockMvc.perform(post("/api/v1/sites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"companyId": "%s", "code": "BAD", "name": "Bad Zone", "siteType": "BRANCH", "timeZone": "Mars/Olympus"}
+                                """.formatted(companyId)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/api/v1/sites/{id}", newYork))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/v1/sites/local-times")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"siteIds": ["%s", "%s"]}
+                                """.formatted(colombo, newYork)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSiteConditionalWrites() throws Exception {
+        String companyId = createCompany("CWS1", "Conditional Sites Ltd");
+        String id = createZonedSite(companyId, "CW", null);
+        String etag = mockMvc.perform(get("/api/v1/sites/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        String newEtag = mockMvc.perform(patch("/api/v1/sites/{id}", id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"siteName\": \"Renamed Site\", \"active\": true}"))
+                .andExpect(status().isNoContent())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, newEtag);
+
+        // Stale ETag
+        mockMvc.perform(patch("/api/v1/sites/{id}", id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"siteName\": \"Lost Update\", \"active\": true}"))
+                .andExpect(status().isPreconditionFailed());
+
+        String putEtag = mockMvc.perform(put("/api/v1/sites/{id}", id)
+                        .header("If-Match", newEtag)
+                        .header("Prefer", "return=representation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"companyId": "%s", "siteCode": "CW", "siteName": "Warehouse Site",
+                                 "siteType": "WAREHOUSE", "active": true}
+                                """.formatted(companyId)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Preference-Applied", "return=representation"))
+                .andExpect(jsonPath("$.name").value("Warehouse Site"))
+                .andExpect(jsonPath("$.siteType").value("WAREHOUSE"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(newEtag, putEtag);
+        mockMvc.perform(put("/api/v1/sites/{id}", id)
+                        .header("If-Match", newEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"companyId": "%s", "siteCode": "CW", "siteName": "Lost Update", "siteType": "BRANCH"}
+                                """.formatted(companyId)))
+                .andExpect(status().isPreconditionFailed());
+
+        // A deleted site is not updated, even with its current ETag
+        mockMvc.perform(delete("/api/v1/sites/{id}", id))
+                .andExpect(status().isNoContent());
+        // The soft delete is written through JPA; flushed so that its version is visible to the read
+        entityManager.flush();
+        String deletedEtag = mockMvc.perform(get("/api/v1/sites/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(patch("/api/v1/sites/{id}", id)
+                        .header("If-Match", deletedEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"siteName\": \"Deleted\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/sites/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", deletedEtag))
+                .andExpect(jsonPath("$.name").value("Warehouse Site"));
+    }
+
+    private String createZonedSite(String companyId, String code, String timeZone) throws Exception {
+        return create("/api/v1/sites", """
+                {"companyId": "%s", "code": "%s", "name": "Site %s", "siteType": "BRANCH", "timeZone": %s}
+                """.formatted(companyId, code, code, timeZone == null ? "null" : "\"" + timeZone + "\""));
+    }
+
+    private String createLocatedSite(String companyId, String code, String siteType,
+                                     double latitude, double longitude) throws Exception {
+        String siteId = create("/api/v1/sites", """
+                {"companyId": "%s", "code": "%s", "name": "Site %s", "siteType": "%s"}
+                """.formatted(companyId, code, code, siteType));
+        mockMvc.perform(put("/api/v1/sites/{id}/address", siteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"locality": "City %s", "latitude": %s, "longitude": %s}
+                                """.formatted(code, latitude, longitude)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.siteId").value(siteId));
+        return siteId;
+    }
+
+    private String createCompany(String code, String name) throws Exception {
+        return create("/api/v1/companies", """
+                {"code": "%s", "name": "%s", "countryCode": "US"}
+                """.formatted(code, name));
+    }
+}
@@ -0,0 +1,34 @@
+package com.os360.enterprise.integration.controller;
+
+import com.os360.enterprise.integration.base.IntegrationTestBase;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class UserControllerV1IT extends IntegrationTestBase {
+
+    @Test
+    void testGetUser() throws Exception {
+        String userId = create("/api/users", """
+                {"username": "ada", "password": "secret", "firstName": "Ada", "middleName": "King",
+                 "lastName": "Lovelace", "countryCode": "GB", "dateOfBirth": "1815-12-10"}
+                """);
+
+        mockMvc.perform(get("/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(userId))
+                .andExpect(jsonPath("$.username").value("ada"))
+                .andExpect(jsonPath("$.firstName").value("Ada"))
+                .andExpect(jsonPath("$.middleName").value("King"))
+                .andExpect(jsonPath("$.lastName").value("Lovelace"))
+                .andExpect(jsonPath("$.countryCode").value("GB"))
+                .andExpect(jsonPath("$.dateOfBirth").value("1815-12-10"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+
+        mockMvc.perform(get("/api/users/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,54 @@
+package com.os360.enterprise.testutils;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * H2 counterpart of the PostgreSQL {@code change_log_append()} trigger function, installed
+ * on {@code party} and {@code site} by {@code import.sql} for the test profile.
+ */
+public class H2ChangeLogTrigger implements Trigger {
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private boolean site;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        site = tableName.equalsIgnoreCase("site");
+        try (PreparedStatement statement = conn.prepareStatement("""
+                SELECT COLUMN_NAME, ORDINAL_POSITION
+                FROM INFORMATION_SCHEMA.COLUMNS
+                WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?
+                """)) {
+            statement.setString(1, schemaName);
+            statement.setString(2, tableName);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    columns.put(rs.getString(1).toLowerCase(), rs.getInt(2) - 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        String operation = oldRow == null ? "CREATED"
+                : Boolean.TRUE.equals(newRow[columns.get("is_deleted")]) ? "DELETED" : "UPDATED";
+        try (PreparedStatement statement = conn.prepareStatement(
+                "INSERT INTO change_log (entity_type, entity_id, operation, version) VALUES (?, ?, ?, ?)")) {
+            statement.setObject(1, site ? "SITE" : newRow[columns.get("party_type")]);
+            statement.setObject(2, newRow[columns.get("id")]);
+            statement.setString(3, operation);
+            statement.setObject(4, newRow[columns.get("version")]);
+            statement.executeUpdate();
+        }
+    }
+}
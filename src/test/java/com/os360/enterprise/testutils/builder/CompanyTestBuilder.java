@@ -1,6 +1,7 @@
 package com.os360.enterprise.testutils.builder;
 
 import com.os360.enterprise.entity.Company;
+import com.os360.enterprise.enumurations.PartyType;
 import com.os360.enterprise.repository.CompanyRepository;
 
 import java.time.LocalDate;
@@ -68,6 +69,8 @@ public class CompanyTestBuilder {
         company.setValidFrom(validFrom);
         company.setValidTo(validTo);
         company.setSystemCompany(isSystemCompany);
+        company.setPartyType(PartyType.COMPANY.name());
+        company.setActive(true);
         return company;
     }
 
@@ -0,0 +1,5 @@
+-- Loaded by Hibernate after create-drop in the test profile; one statement per line.
+-- H2 version of the change_log table and triggers of database/entity/entities_1.0.sql; tx_id stays 0 (no horizon in tests).
+CREATE TABLE IF NOT EXISTS change_log (seq BIGINT AUTO_INCREMENT PRIMARY KEY, tx_id BIGINT NOT NULL DEFAULT 0, entity_type VARCHAR(50) NOT NULL, entity_id UUID NOT NULL, operation VARCHAR(20) NOT NULL, version BIGINT, changed_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL);
+CREATE TRIGGER IF NOT EXISTS party_change_log AFTER INSERT, UPDATE ON party FOR EACH ROW CALL 'com.os360.enterprise.testutils.H2ChangeLogTrigger';
+CREATE TRIGGER IF NOT EXISTS site_change_log AFTER INSERT, UPDATE ON site FOR EACH ROW CALL 'com.os360.enterprise.testutils.H2ChangeLogTrigger';